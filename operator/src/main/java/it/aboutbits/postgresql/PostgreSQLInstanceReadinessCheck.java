@@ -2,6 +2,7 @@ package it.aboutbits.postgresql;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.ShardCoordinator;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.microprofile.health.HealthCheck;
@@ -14,12 +15,14 @@ import org.jspecify.annotations.NullMarked;
  * MicroProfile readiness health check that verifies connectivity to all
  * configured PostgreSQL instances. Each instance is probed with a lightweight
  * operation, and the aggregated status is exposed.
+ * With sharding enabled, only the instances owned by this replica are probed.
  */
 @NullMarked
 @Readiness
 @RequiredArgsConstructor
 public class PostgreSQLInstanceReadinessCheck implements HealthCheck {
     private final PostgreSQLContextFactory postgreSQLContextFactory;
+    private final ShardCoordinator shardCoordinator;
 
     private final KubernetesClient kubernetesClient;
 
@@ -30,6 +33,10 @@ public class PostgreSQLInstanceReadinessCheck implements HealthCheck {
         var connections = kubernetesClient.resources(ClusterConnection.class).list().getItems();
 
         boolean allUp = connections.stream()
+                .filter(connection -> shardCoordinator.owns(
+                        connection.getMetadata().getNamespace(),
+                        connection.getMetadata().getName()
+                ))
                 .allMatch(connection -> checkInstance(
                         connection,
                         builder
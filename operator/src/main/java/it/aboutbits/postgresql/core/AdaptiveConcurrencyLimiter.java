@@ -0,0 +1,359 @@
+package it.aboutbits.postgresql.core;
+
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/// Limits the concurrent reconciliations per ClusterConnection, adapting the limit to the observed latency (AIMD).
+///
+/// The catalog reads (SQL statements of the `READ` type) and the JDBC connects each feed their own short-term and long-term
+/// exponentially weighted moving average of the latency. A read is sampled up to the end of its execution (the time to the first row),
+/// as a lazily fetched cursor stays open while the caller runs further statements for its rows.
+/// DDL and other writes are not sampled, as their latency depends on the work they do (and the locks they wait for)
+/// much more than on the load of the cluster. When a reconciliation finishes, the limit grows additively (by about one per `limit` reconciliations)
+/// as long as the short-term latencies stay within `latency-tolerance` times the long-term latencies,
+/// otherwise it is multiplied with `backoff-ratio`. Overload errors (`too many connections`, lock or statement timeouts)
+/// back off immediately.
+///
+/// The subscribers are notified when the limit of a ClusterConnection changed,
+/// at most once per `status-refresh-interval` and ClusterConnection, to report it in the status of the ClusterConnection.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimiter {
+    static final String START_NANOS_KEY = AdaptiveConcurrencyLimiter.class.getName() + ".startNanos";
+
+    /// too_many_connections, lock_not_available, query_canceled (statement_timeout), cannot_connect_now
+    private static final Set<String> OVERLOAD_SQL_STATES = Set.of("53300", "55P03", "57014", "57P03");
+
+    private static final double SHORT_TERM_ALPHA = 0.3;
+    private static final double LONG_TERM_ALPHA = 0.02;
+
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ClusterLimit> limits = new ConcurrentHashMap<>();
+    private final List<Consumer<ResourceID>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /// Admits a reconciliation against the ClusterConnection,
+    /// or returns an empty Optional if the cluster is at its limit and the reconciliation should be deferred.
+    public Optional<Permit> tryAcquire(ClusterConnection clusterConnection) {
+        if (!operatorConfig.clusterConcurrency().enabled()) {
+            return Optional.of(new Permit(null));
+        }
+
+        var limit = limitFor(clusterKey(clusterConnection));
+
+        synchronized (limit) {
+            if (limit.inFlight >= (int) limit.limit) {
+                return Optional.empty();
+            }
+
+            limit.inFlight++;
+        }
+
+        return Optional.of(new Permit(limit));
+    }
+
+    /// Registers a subscriber, called with the ClusterConnection whose limit changed.
+    public void subscribe(Consumer<ResourceID> onLimitChange) {
+        subscriptions.add(onLimitChange);
+    }
+
+    /// The current limit of the ClusterConnection to report in its status, or `null` if adaptive concurrency is disabled.
+    public @Nullable Integer currentLimit(ClusterConnection clusterConnection) {
+        if (!operatorConfig.clusterConcurrency().enabled()) {
+            return null;
+        }
+
+        var limit = limitFor(clusterKey(clusterConnection));
+
+        synchronized (limit) {
+            limit.reportedLimit = (int) limit.limit;
+            limit.reportedAtNanos = System.nanoTime();
+
+            return limit.reportedLimit;
+        }
+    }
+
+    /// Create a listener feeding the latency of the catalog reads on a single JDBC connection into the limit of the ClusterConnection.
+    public ExecuteListener listener(ClusterConnection clusterConnection) {
+        return new Listener(clusterKey(clusterConnection));
+    }
+
+    /// Records the latency of a catalog read.
+    void onLatency(
+            String cluster,
+            long durationNanos
+    ) {
+        var limit = limitFor(cluster);
+
+        synchronized (limit) {
+            limit.reads.add(durationNanos);
+        }
+    }
+
+    /// Records the latency of a JDBC connect.
+    void onConnectLatency(
+            String cluster,
+            long durationNanos
+    ) {
+        var limit = limitFor(cluster);
+
+        synchronized (limit) {
+            limit.connects.add(durationNanos);
+        }
+    }
+
+    /// Records a failed SQL statement or JDBC connect, backing off right away if it signals an overloaded cluster.
+    void onFailure(
+            String cluster,
+            @Nullable Throwable throwable
+    ) {
+        if (!isOverload(throwable)) {
+            return;
+        }
+
+        var limit = limitFor(cluster);
+
+        synchronized (limit) {
+            backOff(cluster, limit, "overload error");
+        }
+
+        notifyIfChanged(limit);
+    }
+
+    static boolean isOverload(@Nullable Throwable throwable) {
+        for (var cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && OVERLOAD_SQL_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static String clusterKey(ClusterConnection clusterConnection) {
+        return "%s/%s".formatted(
+                clusterConnection.getMetadata().getNamespace(),
+                clusterConnection.getMetadata().getName()
+        );
+    }
+
+    private static ResourceID toResourceId(String cluster) {
+        var separator = cluster.indexOf('/');
+
+        return new ResourceID(
+                cluster.substring(separator + 1),
+                cluster.substring(0, separator)
+        );
+    }
+
+    private void release(ClusterLimit limit) {
+        var config = operatorConfig.clusterConcurrency();
+
+        synchronized (limit) {
+            limit.inFlight--;
+
+            if (limit.reads.isIncreased(config.latencyTolerance())) {
+                backOff(limit.cluster, limit, "read latency increase");
+            } else if (limit.connects.isIncreased(config.latencyTolerance())) {
+                backOff(limit.cluster, limit, "connect latency increase");
+            } else {
+                limit.limit = Math.min(
+                        config.maxLimit(),
+                        limit.limit + 1.0 / limit.limit
+                );
+            }
+        }
+
+        notifyIfChanged(limit);
+    }
+
+    /// Notifies the subscribers if the limit differs from the one last reported,
+    /// unless it was reported (or the subscribers were notified) less than `status-refresh-interval` ago.
+    /// A change within the interval is reported on a later release.
+    private void notifyIfChanged(ClusterLimit limit) {
+        var refreshIntervalNanos = operatorConfig.clusterConcurrency().statusRefreshInterval().toNanos();
+
+        synchronized (limit) {
+            var now = System.nanoTime();
+
+            if ((int) limit.limit == limit.reportedLimit
+                    || now - limit.reportedAtNanos < refreshIntervalNanos) {
+                return;
+            }
+
+            // Reported by the reconciliation of the ClusterConnection, do not notify again until then
+            limit.reportedAtNanos = now;
+        }
+
+        var resourceId = toResourceId(limit.cluster);
+
+        for (var subscription : subscriptions) {
+            try {
+                subscription.accept(resourceId);
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Failed to notify a subscriber of the concurrency limit change [cluster={}]",
+                        limit.cluster,
+                        e
+                );
+            }
+        }
+    }
+
+    private void backOff(
+            String cluster,
+            ClusterLimit limit,
+            String reason
+    ) {
+        var config = operatorConfig.clusterConcurrency();
+        var previousLimit = (int) limit.limit;
+
+        limit.limit = Math.max(
+                config.minLimit(),
+                limit.limit * config.backoffRatio()
+        );
+        // Start over from the current latency, else a single slow phase keeps backing off on every release
+        limit.reads.restart();
+        limit.connects.restart();
+
+        if ((int) limit.limit != previousLimit) {
+            log.info(
+                    "Reducing the concurrency limit of the ClusterConnection [cluster={}, reason={}, limit={}]",
+                    cluster,
+                    reason,
+                    (int) limit.limit
+            );
+        }
+    }
+
+    private ClusterLimit limitFor(String cluster) {
+        return limits.computeIfAbsent(cluster, key -> {
+            var limit = new ClusterLimit(key, operatorConfig.clusterConcurrency().initialLimit());
+
+            Gauge.builder("postgresql.operator.cluster.concurrency.limit", limit, l -> (int) l.limit)
+                    .description("The adaptive limit of concurrent reconciliations against the ClusterConnection")
+                    .tag("cluster", key)
+                    .register(meterRegistry);
+
+            Gauge.builder("postgresql.operator.cluster.concurrency.in.flight", limit, l -> l.inFlight)
+                    .description("The reconciliations currently running against the ClusterConnection")
+                    .tag("cluster", key)
+                    .register(meterRegistry);
+
+            return limit;
+        });
+    }
+
+    /// Admission of a reconciliation against a ClusterConnection, which must be closed when the reconciliation is done.
+    public final class Permit implements AutoCloseable {
+        @Nullable
+        private ClusterLimit limit;
+
+        private Permit(@Nullable ClusterLimit limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void close() {
+            var currentLimit = limit;
+
+            if (currentLimit != null) {
+                limit = null;
+                release(currentLimit);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private final class Listener implements ExecuteListener {
+        private final String cluster;
+
+        @Override
+        public void executeStart(ExecuteContext ctx) {
+            ctx.data(START_NANOS_KEY, System.nanoTime());
+        }
+
+        /// Samples up to the time to the first row, not the whole lifetime of a lazily fetched cursor
+        @Override
+        public void executeEnd(ExecuteContext ctx) {
+            if (ctx.type() == ExecuteType.READ && ctx.data(START_NANOS_KEY) instanceof Long startNanos) {
+                onLatency(cluster, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void end(ExecuteContext ctx) {
+            if (ctx.exception() != null) {
+                onFailure(cluster, ctx.exception());
+            }
+        }
+    }
+
+    private static final class ClusterLimit {
+        private final String cluster;
+        private final LatencyAverages reads = new LatencyAverages();
+        private final LatencyAverages connects = new LatencyAverages();
+
+        private double limit;
+        private int inFlight;
+        private int reportedLimit;
+        private long reportedAtNanos = System.nanoTime();
+
+        private ClusterLimit(
+                String cluster,
+                int initialLimit
+        ) {
+            this.cluster = cluster;
+            this.limit = initialLimit;
+        }
+    }
+
+    /// A short-term and a long-term exponentially weighted moving average of a latency.
+    private static final class LatencyAverages {
+        private double shortTermNanos;
+        private double longTermNanos;
+
+        private void add(long durationNanos) {
+            if (shortTermNanos == 0) {
+                shortTermNanos = durationNanos;
+                longTermNanos = durationNanos;
+
+                return;
+            }
+
+            shortTermNanos += SHORT_TERM_ALPHA * (durationNanos - shortTermNanos);
+            longTermNanos += LONG_TERM_ALPHA * (durationNanos - longTermNanos);
+        }
+
+        private boolean isIncreased(double tolerance) {
+            return shortTermNanos > tolerance * longTermNanos;
+        }
+
+        private void restart() {
+            longTermNanos = Math.max(longTermNanos, shortTermNanos);
+        }
+    }
+}
@@ -1,24 +1,93 @@
 package it.aboutbits.postgresql.core;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.api.config.informer.InformerEventSourceConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.SecondaryToPrimaryMapper;
+import io.javaoperatorsdk.operator.processing.event.source.inbound.SimpleInboundEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.opentelemetry.api.trace.SpanKind;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @NullMarked
 @Slf4j
 public abstract class BaseReconciler<CR extends CustomResource<?, S> & Named, S extends CRStatus> {
+    private static final long BUSY_INITIAL_BACKOFF_SECONDS = 5;
+    private static final long BUSY_MAX_BACKOFF_SECONDS = 300;
+
+    @Inject
+    Tracing tracing;
+
+    @Inject
+    ShardCoordinator shardCoordinator;
+
+    @Inject
+    FairReconcileScheduler reconcileScheduler;
+
+    @Inject
+    AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Inject
+    ResyncScheduler resyncScheduler;
+
+    @Inject
+    OperatorConfig operatorConfig;
+
+    @Nullable
+    private volatile SimpleInboundEventSource<Void, CR> admissionEventSource;
+
     protected abstract S newStatus();
 
+    protected final Tracing tracing() {
+        return tracing;
+    }
+
+    protected final ShardCoordinator shardCoordinator() {
+        return shardCoordinator;
+    }
+
+    protected final FairReconcileScheduler reconcileScheduler() {
+        return reconcileScheduler;
+    }
+
+    protected final AdaptiveConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    protected final ResyncScheduler resyncScheduler() {
+        return resyncScheduler;
+    }
+
+    protected final OperatorConfig operatorConfig() {
+        return operatorConfig;
+    }
+
     public S initializeStatus(CR resource) {
         S status = resource.getStatus();
 
@@ -46,6 +115,19 @@ public abstract class BaseReconciler<CR extends CustomResource<?, S> & Named, S
         return resource.getMetadata().getNamespace();
     }
 
+    /// The ClusterConnection and database the cleanup of the resource works in, `database` is `null` for cluster-wide resources.
+    public CleanupCascade.Target cleanupTarget(
+            CR resource,
+            ClusterReference clusterRef,
+            @Nullable String database
+    ) {
+        return new CleanupCascade.Target(
+                getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                clusterRef.getName(),
+                database
+        );
+    }
+
     public Optional<ClusterConnection> getReferencedClusterConnection(
             KubernetesClient kubernetesClient,
             CR resource,
@@ -54,10 +136,14 @@ public abstract class BaseReconciler<CR extends CustomResource<?, S> & Named, S
         var connectionName = clusterRef.getName();
         var connectionNamespace = getResourceNamespaceOrOwn(resource, clusterRef.getNamespace());
 
-        var clusterConnection = kubernetesClient.resources(ClusterConnection.class)
-                .inNamespace(connectionNamespace)
-                .withName(connectionName)
-                .get();
+        var clusterConnection = tracing().inSpan(
+                "GET ClusterConnection",
+                SpanKind.CLIENT,
+                () -> kubernetesClient.resources(ClusterConnection.class)
+                        .inNamespace(connectionNamespace)
+                        .withName(connectionName)
+                        .get()
+        );
 
         //noinspection ConstantConditions
         if (clusterConnection == null) {
@@ -83,14 +169,455 @@ public abstract class BaseReconciler<CR extends CustomResource<?, S> & Named, S
             return Optional.empty();
         }
 
+        tracing().tagCluster(clusterConnection);
+
         return Optional.of(clusterConnection);
     }
 
+    /// Whether this replica is responsible for the resources of the referenced ClusterConnection.
+    public boolean isOwnedByThisReplica(
+            CR resource,
+            ClusterReference clusterRef
+    ) {
+        return shardCoordinator().owns(
+                getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                clusterRef.getName()
+        );
+    }
+
+    /// Skips a resource another replica is responsible for.
+    /// It is only checked again once this replica's handover of the ClusterConnection is over,
+    /// else the event source of [#commonEventSources] reconciles it when this replica takes the ClusterConnection over.
+    public UpdateControl<CR> skipNotOwned(
+            CR resource,
+            ClusterReference clusterRef
+    ) {
+        return skipNotOwned(
+                resource,
+                getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                clusterRef.getName()
+        );
+    }
+
+    public UpdateControl<CR> skipNotOwned(
+            CR resource,
+            String clusterConnectionNamespace,
+            String clusterConnectionName
+    ) {
+        log.debug(
+                "Skipping resource owned by another replica [resource={}/{}]",
+                resource.getMetadata().getNamespace(),
+                resource.getMetadata().getName()
+        );
+
+        var handoverRemainingMillis = shardCoordinator().handoverRemainingMillis(
+                clusterConnectionNamespace,
+                clusterConnectionName
+        );
+
+        if (handoverRemainingMillis > 0) {
+            return UpdateControl.<CR>noUpdate()
+                    .rescheduleAfter(handoverRemainingMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return UpdateControl.noUpdate();
+    }
+
+    /// Skips the cleanup of a resource another replica is responsible for, the finalizer is removed by that replica.
+    public DeleteControl skipCleanupNotOwned(
+            CR resource,
+            ClusterReference clusterRef
+    ) {
+        log.debug(
+                "Skipping cleanup of resource owned by another replica [resource={}/{}]",
+                resource.getMetadata().getNamespace(),
+                resource.getMetadata().getName()
+        );
+
+        var handoverRemainingMillis = shardCoordinator().handoverRemainingMillis(
+                getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                clusterRef.getName()
+        );
+
+        if (handoverRemainingMillis > 0) {
+            return DeleteControl.noFinalizerRemoval()
+                    .rescheduleAfter(handoverRemainingMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return DeleteControl.noFinalizerRemoval();
+    }
+
+    /// The event sources every reconciler registers:
+    /// - reconciling the resources of the ClusterConnections this replica takes over,
+    ///   as the resources skipped while another replica owned them are not rescheduled, if sharding is enabled
+    /// - reconciling the resources the fair scheduler admitted after queuing them, if fair queuing is enabled
+    public List<EventSource<?, CR>> commonEventSources(
+            EventSourceContext<CR> context,
+            Function<CR, ClusterReference> clusterRef
+    ) {
+        return commonEventSources(
+                context,
+                (handover, resource) -> {
+                    var reference = clusterRef.apply(resource);
+
+                    return handover.isTakenOver(
+                            getResourceNamespaceOrOwn(resource, reference.getNamespace()),
+                            reference.getName()
+                    );
+                }
+        );
+    }
+
+    public List<EventSource<?, CR>> commonEventSources(
+            EventSourceContext<CR> context,
+            BiPredicate<ShardCoordinator.Handover, CR> isTakenOver
+    ) {
+        var eventSources = new ArrayList<EventSource<?, CR>>();
+
+        if (shardCoordinator().isEnabled()) {
+            var handoverEventSource = new SimpleInboundEventSource<Void, CR>();
+
+            shardCoordinator().subscribe(
+                    handover -> context.getPrimaryCache()
+                            .list()
+                            .filter(resource -> isTakenOver.test(handover, resource))
+                            .map(ResourceID::fromResource)
+                            .forEach(handoverEventSource::propagateEvent)
+            );
+
+            eventSources.add(handoverEventSource);
+        }
+
+        if (reconcileScheduler().isEnabled()) {
+            var admissionEventSource = new SimpleInboundEventSource<Void, CR>();
+
+            this.admissionEventSource = admissionEventSource;
+
+            eventSources.add(admissionEventSource);
+        }
+
+        return eventSources;
+    }
+
+    /// Watches the Secrets the resources reference, to reconcile the referencing resources when a Secret changes.
+    /// The Secrets are read from the namespaces and with the label selector of `postgresql-operator.secrets`,
+    /// their cache only keeps the basic-auth data.
+    public InformerEventSource<Secret, CR> secretEventSource(
+            EventSourceContext<CR> context,
+            BiPredicate<CR, Secret> isReferencedBy
+    ) {
+        SecondaryToPrimaryMapper<Secret> secretToPrimaryMapper = secret -> context.getPrimaryCache()
+                .list()
+                .filter(resource -> isReferencedBy.test(resource, secret))
+                .map(ResourceID::fromResource)
+                .collect(Collectors.toSet());
+
+        var secretsConfig = operatorConfig().secrets();
+        var eventSourceConfigBuilder = InformerEventSourceConfiguration.from(Secret.class, context.getPrimaryResourceClass())
+                .withSecondaryToPrimaryMapper(secretToPrimaryMapper)
+                .withItemStore(new SecretPruningItemStore());
+
+        // Defaults to the namespaces of the controller,
+        // configure the namespaces explicitly if the Secrets live in other namespaces than the resources
+        secretsConfig.namespaces().ifPresentOrElse(
+                eventSourceConfigBuilder::withNamespaces,
+                eventSourceConfigBuilder::withNamespacesInheritedFromController
+        );
+        secretsConfig.labelSelector().ifPresent(
+                eventSourceConfigBuilder::withLabelSelector
+        );
+
+        return new InformerEventSource<>(
+                eventSourceConfigBuilder.build(),
+                context
+        );
+    }
+
+    /// Runs the reconciliation if the fair scheduler admits it right away,
+    /// else the reconciliation is queued and the resource is reconciled again once it is admitted.
+    /// Unless the reconciliation scheduled its next run itself, the next resync is scheduled on the resource's slot.
+    public UpdateControl<CR> reconcileFairly(
+            CR resource,
+            Supplier<UpdateControl<CR>> reconcile
+    ) {
+        var status = resource.getStatus();
+        //noinspection ConstantConditions
+        var priority = status != null
+                && (status.getPhase() == CRPhase.ERROR || status.getPhase() == CRPhase.PENDING);
+
+        var eventSource = admissionEventSource;
+        var resourceId = ResourceID.fromResource(resource);
+
+        var permit = reconcileScheduler().tryAcquire(
+                resource.getMetadata().getNamespace(),
+                resource.getKind() + "/" + resourceId,
+                priority,
+                () -> {
+                    if (eventSource != null) {
+                        eventSource.propagateEvent(resourceId);
+                    }
+                }
+        );
+
+        if (permit.isEmpty()) {
+            log.debug(
+                    "Queued reconciliation, too many reconciliations running [resource={}/{}]",
+                    resource.getMetadata().getNamespace(),
+                    resource.getMetadata().getName()
+            );
+
+            // Without the admission event source, the resource must be checked again by itself
+            if (eventSource == null) {
+                return UpdateControl.<CR>noUpdate()
+                        .rescheduleAfter(reconcileScheduler().deferDelayMillis(), TimeUnit.MILLISECONDS);
+            }
+
+            return UpdateControl.noUpdate();
+        }
+
+        try (var _ = permit.get()) {
+            var updateControl = reconcile.get();
+
+            // A converged resource starts the busy backoff from scratch the next time its objects are locked
+            var reconciledStatus = resource.getStatus();
+            //noinspection ConstantConditions
+            if (reconciledStatus != null && reconciledStatus.getPhase() == CRPhase.READY) {
+                reconciledStatus.setBusyRetries(0);
+            }
+
+            return resyncScheduler().schedule(
+                    updateControl,
+                    resource
+            );
+        }
+    }
+
+    /// The delay before retrying a resource whose objects are locked by other transactions,
+    /// doubling with every consecutive busy reconciliation up to 5 minutes.
+    protected static long busyBackoffSeconds(int retries) {
+        return Math.min(
+                BUSY_MAX_BACKOFF_SECONDS,
+                BUSY_INITIAL_BACKOFF_SECONDS << Math.min(Math.max(retries, 1) - 1, 10)
+        );
+    }
+
+    /// Defers a reconciliation while its ClusterConnection is at its adaptive concurrency limit.
+    public UpdateControl<CR> deferClusterAtLimit(
+            CR resource,
+            ClusterConnection clusterConnection
+    ) {
+        log.debug(
+                "Deferring reconciliation, the ClusterConnection is at its concurrency limit [resource={}/{}, clusterConnection={}]",
+                resource.getMetadata().getNamespace(),
+                resource.getMetadata().getName(),
+                AdaptiveConcurrencyLimiter.clusterKey(clusterConnection)
+        );
+
+        return UpdateControl.<CR>noUpdate()
+                .rescheduleAfter(reconcileScheduler().deferDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /// Manages the finalizer of a resource that only needs one for some of its specs (e.g. `reclaimPolicy: delete`),
+    /// for controllers that receive all events instead of implementing `Cleaner`.
+    ///
+    /// The finalizer is added or removed when the spec changes, so deleting a resource without finalizer is instant
+    /// and costs no reconciliation. A resource marked for deletion that still carries the finalizer is cleaned up,
+    /// and the finalizer is removed once the cleanup allows it.
+    /// The finalizer name is the one JOSDK used while the controller implemented `Cleaner`.
+    public UpdateControl<CR> reconcileWithConditionalFinalizer(
+            Context<CR> context,
+            CR resource,
+            boolean needsFinalizer,
+            Supplier<UpdateControl<CR>> reconcile,
+            Supplier<DeleteControl> cleanup
+    ) {
+        if (context.isPrimaryResourceDeleted()) {
+            // Deleted without finalizer, there is nothing left to do
+            return UpdateControl.noUpdate();
+        }
+
+        var finalizer = finalizerName(resource);
+
+        if (resource.isMarkedForDeletion()) {
+            if (!resource.hasFinalizer(finalizer)) {
+                return UpdateControl.noUpdate();
+            }
+
+            var deleteControl = cleanup.get();
+
+            if (deleteControl.isRemoveFinalizer()) {
+                editFinalizers(context, resource, metadata -> metadata.removeFinalizer(finalizer));
+
+                return UpdateControl.noUpdate();
+            }
+
+            return deleteControl.getScheduleDelay()
+                    .map(delay -> UpdateControl.<CR>noUpdate().rescheduleAfter(delay, TimeUnit.MILLISECONDS))
+                    .orElseGet(UpdateControl::noUpdate);
+        }
+
+        if (needsFinalizer && !resource.hasFinalizer(finalizer)) {
+            editFinalizers(context, resource, metadata -> metadata.addFinalizer(finalizer));
+        } else if (!needsFinalizer && resource.hasFinalizer(finalizer)) {
+            editFinalizers(context, resource, metadata -> metadata.removeFinalizer(finalizer));
+        }
+
+        return reconcile.get();
+    }
+
+    private static String finalizerName(HasMetadata resource) {
+        return HasMetadata.getFullResourceName(resource.getClass()) + "/finalizer";
+    }
+
+    private void editFinalizers(
+            Context<CR> context,
+            CR resource,
+            Consumer<HasMetadata> edit
+    ) {
+        var updated = tracing().inSpan(
+                "PATCH %s".formatted(resource.getKind()),
+                SpanKind.CLIENT,
+                () -> context.getClient()
+                        .resource(resource)
+                        .edit(current -> {
+                            edit.accept(current);
+
+                            return current;
+                        })
+        );
+
+        // Continue with the current finalizers and resourceVersion, e.g. for the status patch of this reconciliation
+        resource.getMetadata().setFinalizers(updated.getMetadata().getFinalizers());
+        resource.getMetadata().setResourceVersion(updated.getMetadata().getResourceVersion());
+    }
+
+    /// Ends the first pass of a two-pass cleanup, which only patches the DELETING phase set by the caller
+    /// and does the actual work on the next invocation.
+    /// Empty in single-pass mode, where the cleanup continues right away.
+    public Optional<DeleteControl> deletingRoundTrip(
+            Context<CR> context,
+            CR resource
+    ) {
+        if (operatorConfig().cleanup().singlePass()) {
+            return Optional.empty();
+        }
+
+        patchStatus(context, resource);
+
+        return Optional.of(
+                DeleteControl.noFinalizerRemoval()
+                        .rescheduleAfter(100, TimeUnit.MILLISECONDS)
+        );
+    }
+
+    /// Patches the DELETING phase set by the caller if the drop or revoke in the try block of the returned report
+    /// runs longer than `cleanup.progress-delay`, so long-running cleanups remain visible in single-pass mode.
+    ///
+    /// The report patches a snapshot of the resource taken right away, as the cleanup keeps changing its status.
+    /// Closing the report waits for a patch in flight, so it never overtakes the cleanup's own status update.
+    public CleanupProgress reportSlowCleanup(
+            Context<CR> context,
+            CR resource
+    ) {
+        var cleanup = operatorConfig().cleanup();
+
+        if (!cleanup.singlePass()) {
+            // The DELETING phase was already patched in the first pass
+            return CleanupProgress.NONE;
+        }
+
+        var snapshot = context.getClient().getKubernetesSerialization().clone(resource);
+        var progress = new CleanupProgress(
+                resource,
+                () -> tracing().inSpan(
+                        "PATCH %s/status".formatted(snapshot.getKind()),
+                        SpanKind.CLIENT,
+                        () -> context.getClient().resource(snapshot).patchStatus()
+                )
+        );
+
+        progress.scheduled = CompletableFuture.runAsync(
+                progress::report,
+                CompletableFuture.delayedExecutor(cleanup.progressDelay().toMillis(), TimeUnit.MILLISECONDS)
+        );
+
+        return progress;
+    }
+
+    /// Runs the reconciliation or cleanup of the resource in its own trace span.
+    public <T> T traced(
+            String operation,
+            CR resource,
+            Supplier<T> body
+    ) {
+        return tracing().inResourceSpan(
+                operation,
+                resource,
+                body
+        );
+    }
+
+    /// Patches the status of the resource right away, e.g. before returning a DeleteControl.
+    public void patchStatus(
+            Context<CR> context,
+            CR resource
+    ) {
+        tracing().inSpan(
+                "PATCH %s/status".formatted(resource.getKind()),
+                SpanKind.CLIENT,
+                () -> context.getClient().resource(resource).patchStatus()
+        );
+    }
+
     public <E extends Exception> UpdateControl<CR> handleError(
             CR resource,
             S status,
             E exception
     ) {
+        // An object locked by another transaction (lock_timeout) is busy, not broken, so it is retried without an
+        // ERROR phase, backing off while the lock is held so a long-running transaction is not polled every few seconds
+        if (SQLUtil.isLockTimeout(exception)) {
+            var retries = status.getBusyRetries() + 1;
+            var delaySeconds = busyBackoffSeconds(retries);
+
+            log.info(
+                    "Resource is busy, its objects are locked by another transaction [resource={}/{}, retries={}, delaySeconds={}]",
+                    resource.getMetadata().getNamespace(),
+                    resource.getMetadata().getName(),
+                    retries,
+                    delaySeconds
+            );
+
+            status.setBusyRetries(retries)
+                    .setPhase(CRPhase.PENDING)
+                    .setMessage("Busy, the objects are locked by another transaction, retrying in %ds: %s".formatted(
+                            delaySeconds,
+                            exception.getMessage()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(delaySeconds, TimeUnit.SECONDS);
+        }
+
+        status.setBusyRetries(0);
+
+        // A statement canceled by statement_timeout ran too long by itself, it fails the same way on every retry
+        if (SQLUtil.isStatementTimeout(exception)) {
+            log.warn(
+                    "Resource exceeded the statement timeout of its ClusterConnection [resource={}/{}]",
+                    resource.getMetadata().getNamespace(),
+                    resource.getMetadata().getName()
+            );
+
+            status.setPhase(CRPhase.ERROR)
+                    .setMessage("A statement exceeded the statementTimeout of the ClusterConnection, retrying does not help without raising it: %s".formatted(
+                            exception.getMessage()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
         log.error(
                 "Failed to reconcile resource [resource={}]",
                 resource.getMetadata().getName(),
@@ -103,4 +630,60 @@ public abstract class BaseReconciler<CR extends CustomResource<?, S> & Named, S
         return UpdateControl.patchStatus(resource)
                 .rescheduleAfter(60, TimeUnit.SECONDS);
     }
+
+    /// Cancels the pending progress report of a cleanup when closed.
+    public static final class CleanupProgress implements AutoCloseable {
+        static final CleanupProgress NONE = new CleanupProgress(null, null);
+
+        @Nullable
+        private final HasMetadata resource;
+        @Nullable
+        private final Supplier<? extends HasMetadata> report;
+
+        @Nullable
+        private volatile CompletableFuture<Void> scheduled;
+
+        private boolean isClosed;
+        @Nullable
+        private String reportedResourceVersion;
+
+        CleanupProgress(
+                @Nullable HasMetadata resource,
+                @Nullable Supplier<? extends HasMetadata> report
+        ) {
+            this.resource = resource;
+            this.report = report;
+        }
+
+        synchronized void report() {
+            if (isClosed || report == null) {
+                return;
+            }
+
+            try {
+                reportedResourceVersion = report.get().getMetadata().getResourceVersion();
+            } catch (RuntimeException e) {
+                log.warn("Failed to report the slow cleanup, it continues regardless", e);
+            }
+        }
+
+        /// Cancels the report, or waits for it to finish if it is already patching.
+        /// The resource takes over the resourceVersion of a finished report, so the cleanup's own update applies on top.
+        @Override
+        public void close() {
+            var future = scheduled;
+
+            if (future != null) {
+                future.cancel(false);
+            }
+
+            synchronized (this) {
+                isClosed = true;
+
+                if (resource != null && reportedResourceVersion != null) {
+                    resource.getMetadata().setResourceVersion(reportedResourceVersion);
+                }
+            }
+        }
+    }
 }
@@ -56,6 +56,23 @@ public class CRStatus {
      */
     private long observedGeneration = 0;
 
+    /**
+     * SHA-256 hash of the effective spec (including the ClusterConnection and resolved Secrets) at the last full verification.
+     */
+    @Nullable
+    private String specHash = null;
+
+    /**
+     * Last time the resource was fully verified against the database.
+     */
+    @Nullable
+    private OffsetDateTime lastVerifiedTime = null;
+
+    /**
+     * Consecutive reconciliations that found objects locked by other transactions, determines the retry backoff.
+     */
+    private int busyRetries = 0;
+
     /**
      * Update the current phase. When the phase changes, the {@link #lastPhaseTransitionTime}
      * is updated to the current UTC time and the message is set to {@code null}.
@@ -0,0 +1,195 @@
+package it.aboutbits.postgresql.core;
+
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTHID;
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_NAMESPACE;
+
+/// Caches the role and namespace OIDs of the managed PostgreSQL clusters,
+/// so catalog queries can filter on plain `bigint` bind values instead of resolving
+/// `'<name>'::regrole` / `'<name>'::regnamespace` casts in every predicate.
+///
+/// Roles are cluster-wide (`pg_authid` is a shared catalog) and are cached per cluster,
+/// namespaces are cached per (cluster, database).
+/// A snapshot is loaded in bulk on first use, reloaded when a name is missing,
+/// and invalidated by the reconcilers whenever they create or drop roles, schemas or databases,
+/// or when a reconciliation fails, as a failure might be caused by an outdated OID.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+public class CatalogOidCache {
+    /// Safety net for roles or schemas that are dropped and re-created outside the Operator.
+    private static final Duration MAX_SNAPSHOT_AGE = Duration.ofMinutes(5);
+
+    private final Map<String, CompletableFuture<Snapshot>> roleOids = new ConcurrentHashMap<>();
+    private final Map<DatabaseKey, CompletableFuture<Snapshot>> namespaceOids = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+    private final Duration maxSnapshotAge;
+
+    public CatalogOidCache() {
+        this(Clock.systemUTC(), MAX_SNAPSHOT_AGE);
+    }
+
+    CatalogOidCache(
+            Clock clock,
+            Duration maxSnapshotAge
+    ) {
+        this.clock = clock;
+        this.maxSnapshotAge = maxSnapshotAge;
+    }
+
+    /// Returns the OID lookup for the database the given transaction is connected to.
+    public CatalogOids forDatabase(
+            DSLContext tx,
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        return new CatalogOids(
+                this,
+                tx,
+                clusterKey(clusterConnection),
+                database
+        );
+    }
+
+    public void invalidateRoles(ClusterConnection clusterConnection) {
+        roleOids.remove(clusterKey(clusterConnection));
+    }
+
+    public void invalidateNamespaces(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        namespaceOids.remove(new DatabaseKey(
+                clusterKey(clusterConnection),
+                database
+        ));
+    }
+
+    public void invalidate(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        invalidateRoles(clusterConnection);
+        invalidateNamespaces(clusterConnection, database);
+    }
+
+    Map<String, Long> roleOids(
+            DSLContext tx,
+            String cluster,
+            boolean reload
+    ) {
+        return load(roleOids, cluster, reload, () -> {
+            log.debug("Loading role OIDs [cluster={}]", cluster);
+
+            return tx.select(PG_AUTHID.ROLNAME, PG_AUTHID.OID)
+                    .from(PG_AUTHID)
+                    .fetchMap(PG_AUTHID.ROLNAME, PG_AUTHID.OID);
+        });
+    }
+
+    Map<String, Long> namespaceOids(
+            DSLContext tx,
+            String cluster,
+            String database,
+            boolean reload
+    ) {
+        return load(namespaceOids, new DatabaseKey(cluster, database), reload, () -> {
+            log.debug("Loading namespace OIDs [cluster={}, database={}]", cluster, database);
+
+            return tx.select(PG_NAMESPACE.NSPNAME, PG_NAMESPACE.OID)
+                    .from(PG_NAMESPACE)
+                    .fetchMap(PG_NAMESPACE.NSPNAME, PG_NAMESPACE.OID);
+        });
+    }
+
+    /// Returns the snapshot of the key, loading it with the given query if it is missing, expired or a reload is requested.
+    ///
+    /// The query runs outside of any map operation, so a slow database never blocks the lookups of other clusters.
+    /// Lookups of the same key wait for a load that is already in progress instead of loading it again,
+    /// except for a reload, which has to see the objects created in the caller's own transaction.
+    private <K> Map<String, Long> load(
+            Map<K, CompletableFuture<Snapshot>> snapshots,
+            K key,
+            boolean reload,
+            Supplier<Map<String, Long>> query
+    ) {
+        if (!reload) {
+            var current = snapshots.get(key);
+
+            if (current != null) {
+                try {
+                    var snapshot = current.join();
+
+                    if (!snapshot.isExpired(clock, maxSnapshotAge)) {
+                        return snapshot.oids();
+                    }
+                } catch (CompletionException | CancellationException _) {
+                    // The load of another reconciliation failed, so we load it ourselves
+                }
+            }
+        }
+
+        var loading = new CompletableFuture<Snapshot>();
+        snapshots.put(key, loading);
+
+        try {
+            var snapshot = new Snapshot(query.get(), clock.instant());
+            loading.complete(snapshot);
+
+            return snapshot.oids();
+        } catch (RuntimeException e) {
+            snapshots.remove(key, loading);
+            loading.completeExceptionally(e);
+
+            throw e;
+        }
+    }
+
+    /// Two ClusterConnections pointing to the same server share the same catalog, and thus the same cache entries.
+    private static String clusterKey(ClusterConnection clusterConnection) {
+        var spec = clusterConnection.getSpec();
+
+        return "%s:%d".formatted(
+                spec.getHost(),
+                spec.getPort()
+        );
+    }
+
+    private record DatabaseKey(
+            String cluster,
+            String database
+    ) {
+    }
+
+    private record Snapshot(
+            Map<String, Long> oids,
+            Instant loadedAt
+    ) {
+        Snapshot {
+            oids = Map.copyOf(oids);
+        }
+
+        boolean isExpired(
+                Clock clock,
+                Duration maxAge
+        ) {
+            return loadedAt.plus(maxAge).isBefore(clock.instant());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package it.aboutbits.postgresql.core;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/// Resolves role and namespace names to their OIDs for one database, backed by the [CatalogOidCache].
+@NullMarked
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class CatalogOids {
+    private final CatalogOidCache cache;
+    private final DSLContext tx;
+    private final String cluster;
+    private final String database;
+
+    public long role(String name) {
+        var oid = findRole(name);
+
+        if (oid == null) {
+            throw new IllegalStateException("The role does not exist [role=%s]".formatted(name));
+        }
+
+        return oid;
+    }
+
+    public long namespace(String name) {
+        var oid = findNamespace(name);
+
+        if (oid == null) {
+            throw new IllegalStateException("The schema does not exist [schema=%s]".formatted(name));
+        }
+
+        return oid;
+    }
+
+    /// The OID of the role, `null` if it does not exist.
+    public @Nullable Long findRole(String name) {
+        var oid = cache.roleOids(tx, cluster, false).get(name);
+
+        // The role might have been created since the snapshot was loaded
+        if (oid == null) {
+            oid = cache.roleOids(tx, cluster, true).get(name);
+        }
+
+        return oid;
+    }
+
+    /// The OID of the schema, `null` if it does not exist.
+    public @Nullable Long findNamespace(String name) {
+        var oid = cache.namespaceOids(tx, cluster, database, false).get(name);
+
+        // The schema might have been created since the snapshot was loaded
+        if (oid == null) {
+            oid = cache.namespaceOids(tx, cluster, database, true).get(name);
+        }
+
+        return oid;
+    }
+}
@@ -0,0 +1,218 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/// Gates the full drift check of a resource behind a cheap probe of the catalogs it depends on.
+///
+/// The watermark of a (cluster, database) is the row count and the newest `xmin` of `pg_class`, `pg_namespace`,
+/// `pg_default_acl`, `pg_database`, `pg_authid`, `pg_auth_members` and `pg_db_role_setting`, read with a single query.
+/// Every `grant`, `revoke`, `create`, `alter` or `drop` writes a new row version and thus moves it,
+/// while in-place updates (e.g. the statistics written by `analyze`) do not.
+///
+/// The 32-bit `xmin` wraps around, so the newest one is not the highest. Instead, the youngest age of the row versions
+/// relative to the 64-bit xmax of the current snapshot is read, and the newest `xmin` is recovered as a 64-bit
+/// transaction id, which keeps growing across wraparounds.
+///
+/// A resource whose spec, ClusterConnection and further inputs (e.g. the password Secret of a Role) did not change
+/// since its last successful apply, and whose database's watermark did not move since, can skip the full diff.
+/// The watermark is probed before the diff, so changes that happen during it are caught by the next reconciliation.
+/// The recorded watermarks are kept in memory only, the first reconciliation after a restart does a full diff.
+///
+/// The probe counts and scans the catalogs, so its result is shared by the reconciliations against the same
+/// (cluster, database) for `drift-check.watermark-ttl`, e.g. the resources of a resync wave.
+/// A change within the TTL is caught once the cached watermark expired.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class CatalogWatermark {
+    /// insufficient_privilege, `pg_authid` is only readable by superusers
+    private static final String INSUFFICIENT_PRIVILEGE = "42501";
+
+    static final List<String> CATALOGS = List.of(
+            "pg_class",
+            "pg_namespace",
+            "pg_default_acl",
+            "pg_database",
+            "pg_authid",
+            "pg_auth_members",
+            "pg_db_role_setting"
+    );
+
+    /// Selects the 64-bit xmax of the snapshot, then the row count and the youngest `xmin` age of every catalog.
+    /// The special transaction ids below 3 (bootstrap and frozen) are skipped, they are older than every normal one.
+    private static final String PROBE_SQL = CATALOGS.stream()
+            .map("""
+                    (select count(*) from pg_catalog.%1$s),
+                    (select min((snapshot.xmax %% 4294967296 - xmin::text::bigint + 4294967296) %% 4294967296)
+                     from pg_catalog.%1$s where xmin::text::bigint >= 3)"""::formatted
+            )
+            .collect(Collectors.joining(
+                    ",\n",
+                    "select snapshot.xmax,\n",
+                    "\nfrom (select txid_snapshot_xmax(txid_current_snapshot()) as xmax) snapshot"
+            ));
+
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Applied> applied = new ConcurrentHashMap<>();
+    private final Map<String, Probed> probed = new ConcurrentHashMap<>();
+    private final Set<String> unsupportedClusters = ConcurrentHashMap.newKeySet();
+
+    /// Reads the current watermark of the database the DSLContext is connected to, unless it was probed within the TTL,
+    /// or `null` if the drift check gate is disabled or the ClusterConnection may not read `pg_authid`.
+    public @Nullable String probe(
+            DSLContext dsl,
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        var cluster = AdaptiveConcurrencyLimiter.clusterKey(clusterConnection);
+
+        if (!operatorConfig.driftCheck().watermark() || unsupportedClusters.contains(cluster)) {
+            return null;
+        }
+
+        var key = cluster + "/" + database;
+        var now = System.nanoTime();
+        var cached = probed.get(key);
+
+        if (cached != null && now - cached.probedAtNanos() < operatorConfig.driftCheck().watermarkTtl().toNanos()) {
+            return cached.watermark();
+        }
+
+        var watermark = probe(dsl, cluster);
+
+        if (watermark != null) {
+            // Taken before the probe, so the TTL does not extend past changes made while it ran
+            probed.put(key, new Probed(watermark, now));
+        }
+
+        return watermark;
+    }
+
+    private @Nullable String probe(
+            DSLContext dsl,
+            String cluster
+    ) {
+        try {
+            var probed = dsl.fetchSingle(PROBE_SQL);
+            var xmax = probed.get(0, Long.class);
+            var watermark = new StringJoiner(":");
+
+            for (var i = 0; i < CATALOGS.size(); i++) {
+                var count = probed.get(1 + 2 * i, Long.class);
+                var youngestAge = probed.get(2 + 2 * i, Long.class);
+
+                watermark.add(count + "." + (youngestAge != null ? xmax - youngestAge : 0));
+            }
+
+            return watermark.toString();
+        } catch (DataAccessException e) {
+            if (!INSUFFICIENT_PRIVILEGE.equals(e.sqlState())) {
+                throw e;
+            }
+
+            log.warn(
+                    "The ClusterConnection may not read pg_authid, always doing full drift checks [cluster={}]",
+                    cluster
+            );
+
+            unsupportedClusters.add(cluster);
+
+            return null;
+        }
+    }
+
+    /// Whether the resource was applied successfully with the same inputs at the same watermark,
+    /// so its full drift check can be skipped.
+    ///
+    /// @param input further inputs of the resource that are not part of its spec (e.g. the version of a password Secret),
+    ///              `null` if none, only kept as SHA-256 hash
+    public boolean isUnchanged(
+            HasMetadata resource,
+            ClusterConnection clusterConnection,
+            @Nullable String input,
+            @Nullable String watermark
+    ) {
+        if (watermark == null) {
+            return false;
+        }
+
+        var last = applied.get(resource.getMetadata().getUid());
+        var isUnchanged = last != null
+                && last.watermark().equals(watermark)
+                && last.fingerprint().equals(fingerprint(resource, clusterConnection, input));
+
+        meterRegistry.counter(
+                "postgresql.operator.drift.checks",
+                "kind", resource.getKind(),
+                "outcome", isUnchanged ? "skipped" : "full"
+        ).increment();
+
+        return isUnchanged;
+    }
+
+    /// Records the watermark probed before a successful apply.
+    public void record(
+            HasMetadata resource,
+            ClusterConnection clusterConnection,
+            @Nullable String input,
+            @Nullable String watermark
+    ) {
+        if (watermark == null) {
+            return;
+        }
+
+        applied.put(
+                resource.getMetadata().getUid(),
+                new Applied(fingerprint(resource, clusterConnection, input), watermark)
+        );
+    }
+
+    /// Forgets the resource, so its next reconciliation does a full drift check.
+    public void forget(HasMetadata resource) {
+        applied.remove(resource.getMetadata().getUid());
+    }
+
+    private static String fingerprint(
+            HasMetadata resource,
+            ClusterConnection clusterConnection,
+            @Nullable String input
+    ) {
+        return "%d/%s/%d/%s".formatted(
+                resource.getMetadata().getGeneration(),
+                AdaptiveConcurrencyLimiter.clusterKey(clusterConnection),
+                clusterConnection.getMetadata().getGeneration(),
+                input != null ? SpecHashGate.sha256(input) : ""
+        );
+    }
+
+    private record Applied(
+            String fingerprint,
+            String watermark
+    ) {
+    }
+
+    private record Probed(
+            String watermark,
+            long probedAtNanos
+    ) {
+    }
+}
@@ -0,0 +1,199 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanKind;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Coordinates the cleanups of the dependents (Schemas, Grants, DefaultPrivileges, Roles) of a Database or
+/// ClusterConnection that is deleted together with them, e.g. by the teardown of a namespace.
+///
+/// A dependent whose database was dropped is resolved without connecting, instead of failing and retrying until its
+/// finalizer is removed by hand. A dependent whose ClusterConnection was deleted is only resolved, with a warning,
+/// if `cleanup.abandon-without-cluster-connection` is enabled, as its objects may well still exist.
+/// Dependents whose target still exists are revoked in bulk: the first cleanup of a (cluster, database) finds the other
+/// dependents marked for deletion through the `TARGET_INDEX` of its informer cache, revokes them all in one transaction
+/// and marks them resolved, so their own cleanups return right away.
+/// The dropped databases and resolved dependents are kept in memory only, after a restart a dependent of a dropped
+/// database is resolved by the `invalid_catalog_name` error of its connection attempt.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class CleanupCascade {
+    /// The informer cache index of the dependents by `Target.indexKey()`.
+    public static final String TARGET_INDEX = "cleanup-cascade-target";
+
+    /// invalid_catalog_name, the database of the connection does not exist
+    private static final String INVALID_CATALOG_NAME = "3D000";
+
+    private final KubernetesClient kubernetesClient;
+    private final Tracing tracing;
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Target> droppedDatabases = ConcurrentHashMap.newKeySet();
+    private final Set<String> resolvedUids = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return operatorConfig.cleanup().cascade();
+    }
+
+    /// Records a database dropped by the cleanup of its Database, so the cleanups of its dependents resolve right away.
+    public void databaseDropped(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        if (isEnabled()) {
+            droppedDatabases.add(Target.of(clusterConnection, database));
+        }
+    }
+
+    /// Forgets a dropped database once a Database with the same name is created again.
+    public void databaseCreated(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        droppedDatabases.remove(Target.of(clusterConnection, database));
+    }
+
+    /// Marks dependents as resolved after their privileges were revoked in bulk by the cleanup of another dependent.
+    public void resolved(Collection<? extends HasMetadata> dependents) {
+        for (var dependent : dependents) {
+            resolvedUids.add(dependent.getMetadata().getUid());
+        }
+    }
+
+    /// Whether the cleanup of the dependent has nothing left to do,
+    /// because it was revoked in bulk or the database of its target was dropped.
+    public boolean isResolved(
+            HasMetadata dependent,
+            Target target
+    ) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        if (resolvedUids.remove(dependent.getMetadata().getUid())) {
+            return count(dependent, target, "bulk");
+        }
+
+        if (target.database() != null && droppedDatabases.contains(target)) {
+            return count(dependent, target, "database-dropped");
+        }
+
+        return false;
+    }
+
+    /// Whether the ClusterConnection of the target was deleted and the dependent may be abandoned without cleanup.
+    /// Only called if the ClusterConnection could not be resolved, as it may also exist but not be ready yet.
+    public boolean isClusterConnectionGone(
+            HasMetadata dependent,
+            Target target
+    ) {
+        if (!isEnabled() || !operatorConfig.cleanup().abandonWithoutClusterConnection()) {
+            return false;
+        }
+
+        var clusterConnection = tracing.inSpan(
+                "GET ClusterConnection",
+                SpanKind.CLIENT,
+                () -> kubernetesClient.resources(ClusterConnection.class)
+                        .inNamespace(target.clusterNamespace())
+                        .withName(target.clusterName())
+                        .get()
+        );
+
+        //noinspection ConstantConditions
+        if (clusterConnection != null) {
+            return false;
+        }
+
+        log.warn(
+                "Abandoning the cleanup of {}, its ClusterConnection was deleted and its objects remain in PostgreSQL [resource={}/{}, target={}]",
+                dependent.getKind(),
+                dependent.getMetadata().getNamespace(),
+                dependent.getMetadata().getName(),
+                target.indexKey()
+        );
+
+        return count(dependent, target, "cluster-connection-deleted");
+    }
+
+    /// Whether the cleanup of the dependent failed because the database of its target no longer exists.
+    public boolean isDatabaseGone(
+            HasMetadata dependent,
+            Target target,
+            Exception failure
+    ) {
+        if (!isEnabled() || target.database() == null) {
+            return false;
+        }
+
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && INVALID_CATALOG_NAME.equals(sqlException.getSQLState())) {
+                droppedDatabases.add(target);
+
+                return count(dependent, target, "database-dropped");
+            }
+        }
+
+        return false;
+    }
+
+    private boolean count(
+            HasMetadata dependent,
+            Target target,
+            String reason
+    ) {
+        log.info(
+                "Resolved the cleanup of {} without connecting [resource={}/{}, target={}, reason={}]",
+                dependent.getKind(),
+                dependent.getMetadata().getNamespace(),
+                dependent.getMetadata().getName(),
+                target.indexKey(),
+                reason
+        );
+
+        meterRegistry.counter(
+                "postgresql.operator.cleanup.cascaded",
+                "kind", dependent.getKind(),
+                "reason", reason
+        ).increment();
+
+        return true;
+    }
+
+    /// The ClusterConnection and database a dependent is cleaned up in, `database` is `null` for cluster-wide Roles.
+    public record Target(
+            String clusterNamespace,
+            String clusterName,
+            @Nullable String database
+    ) {
+        public static Target of(
+                ClusterConnection clusterConnection,
+                @Nullable String database
+        ) {
+            return new Target(
+                    clusterConnection.getMetadata().getNamespace(),
+                    clusterConnection.getMetadata().getName(),
+                    database
+            );
+        }
+
+        public String indexKey() {
+            return "%s/%s/%s".formatted(clusterNamespace, clusterName, database != null ? database : "");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package it.aboutbits.postgresql.core;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/// Assigns keys to members by consistent hashing, so adding or removing a member
+/// only moves the keys of that member instead of reshuffling all of them.
+/// Every member is placed on the ring with a number of virtual nodes to even out the distribution.
+@NullMarked
+final class ConsistentHashRing {
+    static final ConsistentHashRing EMPTY = new ConsistentHashRing(new TreeMap<>(), Set.of());
+
+    private final NavigableMap<Long, String> ring;
+    private final Set<String> members;
+
+    private ConsistentHashRing(
+            NavigableMap<Long, String> ring,
+            Set<String> members
+    ) {
+        this.ring = ring;
+        this.members = members;
+    }
+
+    static ConsistentHashRing of(
+            Collection<String> members,
+            int virtualNodes
+    ) {
+        var ring = new TreeMap<Long, String>();
+
+        for (var member : members) {
+            for (var i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+
+        return new ConsistentHashRing(
+                ring,
+                Set.copyOf(members)
+        );
+    }
+
+    Set<String> members() {
+        return members;
+    }
+
+    /// Returns the member owning the key, or `null` if the ring has no members.
+    @Nullable
+    String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+
+        var entry = ring.ceilingEntry(hash(key));
+        if (entry == null) {
+            entry = ring.firstEntry();
+        }
+
+        return entry.getValue();
+    }
+
+    static long hash(String value) {
+        try {
+            var digest = MessageDigest.getInstance("MD5")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -3,9 +3,13 @@ package it.aboutbits.postgresql.core;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+/// The credentials of a `kubernetes.io/basic-auth` Secret.
+///
+/// @param version the uid and resourceVersion of the Secret, which identify the password without revealing it
 @NullMarked
 public record Credentials(
         @Nullable String username,
-        String password
+        String password,
+        String version
 ) {
 }
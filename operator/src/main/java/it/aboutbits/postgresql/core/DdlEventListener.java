@@ -0,0 +1,407 @@
+package it.aboutbits.postgresql.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jspecify.annotations.NullMarked;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.name;
+import static org.jooq.impl.DSL.query;
+
+/// Listens for newly created tables and sequences, so the affected resources are reconciled right away
+/// instead of on their next resync.
+///
+/// A `ddl_command_end` event trigger is installed in every database that is listened to,
+/// which sends a `NOTIFY` with the schema, object type and name of every created relation.
+/// Its function lives in an operator-owned schema, both are dropped again with the last `table` or `sequence` Grant
+/// of the database, or on the first reconciliation of such a Grant after DDL events were disabled.
+/// One long-lived connection per (ClusterConnection, database) `LISTEN`s on the channel and dispatches the notifications
+/// to the subscribers. A listener stops as soon as no subscriber wants its database anymore
+/// (e.g. the last Grant was deleted or moved to another shard) and reconnects after `reconnect-delay` on failure.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class DdlEventListener {
+    static final String FUNCTION_NAME = "postgresql_operator_notify_ddl";
+    static final String TRIGGER_NAME = "postgresql_operator_ddl";
+
+    private final PostgreSQLContextFactory contextFactory;
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Key, Listener> listeners = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Set<Key> leftoversChecked = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean stopped;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Gauge.builder("postgresql.operator.ddl.listeners", listeners, Map::size)
+                .description("The number of databases listened to for created tables and sequences")
+                .register(meterRegistry);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        // The listeners notice within one poll-interval and close their connections
+        stopped = true;
+    }
+
+    public boolean isEnabled() {
+        return operatorConfig.ddlEvents().enabled();
+    }
+
+    /// Registers a subscriber.
+    ///
+    /// @param isWanted whether the subscriber still needs the database of a listener, checked every `poll-interval`
+    /// @param onEvent  called for every created table or sequence, on the listener's thread
+    public void subscribe(
+            Predicate<Key> isWanted,
+            Consumer<DdlEvent> onEvent
+    ) {
+        subscriptions.add(new Subscription(isWanted, onEvent));
+    }
+
+    /// Starts listening to the database, a no-op if it is already listened to or DDL events are disabled.
+    /// The ClusterConnection is remembered for reconnects, so the latest one (e.g. with rotated credentials) is used.
+    public void listen(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        if (!isEnabled() || stopped) {
+            return;
+        }
+
+        var key = Key.of(
+                clusterConnection.getMetadata().getNamespace(),
+                clusterConnection.getMetadata().getName(),
+                database
+        );
+
+        listeners.compute(key, (_, listener) -> {
+            if (listener != null && !listener.done) {
+                listener.clusterConnection = clusterConnection;
+
+                return listener;
+            }
+
+            var newListener = new Listener(key, clusterConnection);
+
+            Thread.ofVirtual()
+                    .name("ddl-listener-" + key.cluster() + "/" + key.database())
+                    .start(() -> run(newListener));
+
+            return newListener;
+        });
+    }
+
+    private void run(Listener listener) {
+        var key = listener.key;
+        var ddlEvents = operatorConfig.ddlEvents();
+
+        try {
+            while (isActive(key)) {
+                try (var dsl = contextFactory.getDSLContext(listener.clusterConnection, key.database())) {
+                    installTrigger(dsl);
+
+                    dsl.execute(query("listen {0}", name(ddlEvents.channel())));
+
+                    log.info(
+                            "Listening for DDL events [cluster={}, database={}, channel={}]",
+                            key.cluster(),
+                            key.database(),
+                            ddlEvents.channel()
+                    );
+
+                    while (isActive(key)) {
+                        var notifications = dsl.connectionResult(connection -> connection.unwrap(PGConnection.class)
+                                .getNotifications((int) ddlEvents.pollInterval().toMillis())
+                        );
+
+                        if (notifications != null) {
+                            for (var notification : notifications) {
+                                dispatch(key, notification);
+                            }
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    if (!isActive(key)) {
+                        break;
+                    }
+
+                    log.warn(
+                            "DDL event listener failed, reconnecting in {} [cluster={}, database={}]",
+                            ddlEvents.reconnectDelay(),
+                            key.cluster(),
+                            key.database(),
+                            e
+                    );
+
+                    Thread.sleep(ddlEvents.reconnectDelay());
+                }
+            }
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        } finally {
+            listener.done = true;
+            listeners.remove(key, listener);
+
+            log.info(
+                    "Stopped listening for DDL events [cluster={}, database={}]",
+                    key.cluster(),
+                    key.database()
+            );
+        }
+    }
+
+    private boolean isActive(Key key) {
+        return !stopped && subscriptions.stream().anyMatch(subscription -> subscription.isWanted().test(key));
+    }
+
+    /// Drops the event trigger and the operator schema from the database of a `table` or `sequence` Grant,
+    /// once per database and run, as long as DDL events are disabled.
+    public void dropLeftoverTrigger(
+            DSLContext dsl,
+            Key key
+    ) {
+        if (!isEnabled() && leftoversChecked.add(key)) {
+            uninstall(dsl, key);
+        }
+    }
+
+    /// Drops the event trigger and the operator schema with its function, if they are installed.
+    /// A failure (e.g. the ClusterConnection is no superuser) is only logged, as it must not block the caller.
+    public void uninstall(
+            DSLContext dsl,
+            Key key
+    ) {
+        var schema = operatorConfig.ddlEvents().schema();
+
+        try {
+            var isInstalled = dsl.fetchValue(field(
+                    """
+                    exists (select from pg_catalog.pg_event_trigger where evtname = {0})
+                    or exists (select from pg_catalog.pg_namespace where nspname = {1})""",
+                    Boolean.class,
+                    inline(TRIGGER_NAME),
+                    inline(schema)
+            ));
+
+            if (!Boolean.TRUE.equals(isInstalled)) {
+                return;
+            }
+
+            dsl.execute(query("drop event trigger if exists {0}", name(TRIGGER_NAME)));
+            dsl.execute(query("drop schema if exists {0} cascade", name(schema)));
+
+            log.info(
+                    "Dropped the DDL event trigger [cluster={}, database={}, schema={}]",
+                    key.cluster(),
+                    key.database(),
+                    schema
+            );
+        } catch (DataAccessException e) {
+            log.warn(
+                    "Failed to drop the DDL event trigger [cluster={}, database={}, schema={}]",
+                    key.cluster(),
+                    key.database(),
+                    schema,
+                    e
+            );
+        }
+    }
+
+    /// Installs the event trigger idempotently, creating event triggers requires a superuser.
+    ///
+    /// The statements are rendered up front, as jOOQ's plain SQL templating does not look into dollar-quoted bodies.
+    private void installTrigger(DSLContext dsl) {
+        var schema = dsl.render(name(operatorConfig.ddlEvents().schema()));
+        var function = dsl.render(name(operatorConfig.ddlEvents().schema(), FUNCTION_NAME));
+        var trigger = dsl.render(name(TRIGGER_NAME));
+        var channel = dsl.render(inline(operatorConfig.ddlEvents().channel()));
+
+        // A new schema grants nothing to PUBLIC, so only superusers can replace the function
+        dsl.execute("create schema if not exists %s".formatted(schema));
+
+        // Indexes, TOAST tables and composite types are pg_class entries as well, but cannot be granted on
+        dsl.execute("""
+                create or replace function %s() returns event_trigger
+                language plpgsql
+                set search_path = pg_catalog
+                as $function$
+                declare
+                    command record;
+                begin
+                    for command in
+                        select n.nspname, c.relname, c.relkind
+                        from pg_event_trigger_ddl_commands() d
+                        join pg_class c on c.oid = d.objid
+                        join pg_namespace n on n.oid = c.relnamespace
+                        where d.classid = 'pg_class'::regclass
+                          and d.command_tag like 'CREATE %%'
+                          and c.relkind in ('r', 'p', 'v', 'm', 'f', 'S')
+                    loop
+                        perform pg_notify(%s, json_build_object(
+                            'schema', command.nspname,
+                            'objectType', case command.relkind when 'S' then 'sequence' else 'table' end,
+                            'object', command.relname
+                        )::text);
+                    end loop;
+                end
+                $function$
+                """.formatted(function, channel)
+        );
+
+        // A trigger calling another function (e.g. the one formerly installed in "public") is replaced
+        dsl.execute("""
+                do $do$
+                begin
+                    if not exists (
+                        select from pg_catalog.pg_event_trigger
+                        where evtname = %s and evtfoid = %s::pg_catalog.regprocedure
+                    ) then
+                        drop event trigger if exists %s;
+                        create event trigger %s on ddl_command_end execute function %s();
+                    end if;
+                end
+                $do$
+                """.formatted(
+                        dsl.render(inline(TRIGGER_NAME)),
+                        dsl.render(inline(function + "()")),
+                        trigger,
+                        trigger,
+                        function
+                )
+        );
+
+        dsl.execute(query("drop function if exists {0}()", name("public", FUNCTION_NAME)));
+    }
+
+    private void dispatch(
+            Key key,
+            PGNotification notification
+    ) {
+        DdlEvent event;
+        try {
+            var payload = objectMapper.readTree(notification.getParameter());
+
+            event = new DdlEvent(
+                    key,
+                    payload.path("schema").asText(),
+                    payload.path("objectType").asText(),
+                    payload.path("object").asText()
+            );
+        } catch (JsonProcessingException e) {
+            log.warn(
+                    "Ignoring a malformed DDL event [cluster={}, database={}, payload={}]",
+                    key.cluster(),
+                    key.database(),
+                    notification.getParameter(),
+                    e
+            );
+
+            return;
+        }
+
+        meterRegistry.counter(
+                "postgresql.operator.ddl.events",
+                "cluster", key.cluster(),
+                "object_type", event.objectType()
+        ).increment();
+
+        log.debug(
+                "DDL event [cluster={}, database={}, schema={}, objectType={}, object={}]",
+                key.cluster(),
+                key.database(),
+                event.schema(),
+                event.objectType(),
+                event.object()
+        );
+
+        for (var subscription : subscriptions) {
+            try {
+                subscription.onEvent().accept(event);
+            } catch (RuntimeException e) {
+                log.error(
+                        "DDL event subscriber failed [cluster={}, database={}]",
+                        key.cluster(),
+                        key.database(),
+                        e
+                );
+            }
+        }
+    }
+
+    /// A database listened to, the cluster is the `<namespace>/<name>` of the ClusterConnection.
+    public record Key(
+            String cluster,
+            String database
+    ) {
+        public static Key of(
+                String clusterConnectionNamespace,
+                String clusterConnectionName,
+                String database
+        ) {
+            return new Key(clusterConnectionNamespace + "/" + clusterConnectionName, database);
+        }
+    }
+
+    /// A table (including views and foreign tables) or sequence that was created.
+    ///
+    /// @param objectType `table` or `sequence`, like the Grant objectType
+    public record DdlEvent(
+            Key key,
+            String schema,
+            String objectType,
+            String object
+    ) {
+    }
+
+    private record Subscription(
+            Predicate<Key> isWanted,
+            Consumer<DdlEvent> onEvent
+    ) {
+    }
+
+    private static final class Listener {
+        private final Key key;
+
+        private volatile ClusterConnection clusterConnection;
+        private volatile boolean done;
+
+        private Listener(
+                Key key,
+                ClusterConnection clusterConnection
+        ) {
+            this.key = key;
+            this.clusterConnection = clusterConnection;
+        }
+    }
+}
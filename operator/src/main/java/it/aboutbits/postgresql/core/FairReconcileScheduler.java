@@ -0,0 +1,279 @@
+package it.aboutbits.postgresql.core;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Admits reconciliations by weighted round-robin across namespaces.
+///
+/// At most `max-concurrent-reconciliations` run at the same time. A reconciliation that is not admitted right away
+/// is queued in its namespace, and its worker thread returns without blocking.
+/// Whenever a reconciliation finishes, the next namespace in the rotation admits as many queued reconciliations
+/// as its weight before the turn passes on. An admitted reconciliation keeps its slot
+/// until its resource is reconciled again, triggered through the wake-up callback, or the `admission-timeout` passed.
+/// Resources in the ERROR or PENDING phase optionally jump to the head of their namespace's queue.
+@NullMarked
+@ApplicationScoped
+@RequiredArgsConstructor
+public class FairReconcileScheduler {
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, NamespaceQueue> queues = new HashMap<>();
+    // The queued reconciliations by resource, a resource is queued at most once
+    private final Map<String, Ticket> tickets = new HashMap<>();
+    // The namespaces with queued reconciliations, in round-robin order
+    private final List<String> rotation = new ArrayList<>();
+
+    private int running;
+    private int rotationIndex;
+    private int grantsInTurn;
+
+    public boolean isEnabled() {
+        return operatorConfig.scheduling().fairQueuing();
+    }
+
+    /// How long a deferred reconciliation waits before it is retried.
+    public long deferDelayMillis() {
+        return operatorConfig.scheduling().deferDelay().toMillis();
+    }
+
+    /// Admits the reconciliation of a resource in the namespace, without waiting.
+    /// Returns an empty Optional if the reconciliation was queued instead,
+    /// `wakeUp` is called once it is admitted, so the resource is reconciled again.
+    ///
+    /// @param resourceKey identifies the resource across all kinds, a resource is queued at most once
+    public Optional<Permit> tryAcquire(
+            String namespace,
+            String resourceKey,
+            boolean priority,
+            Runnable wakeUp
+    ) {
+        var scheduling = operatorConfig.scheduling();
+
+        if (!scheduling.fairQueuing()) {
+            return Optional.of(new Permit(null));
+        }
+
+        List<Runnable> wakeUps;
+
+        lock.lock();
+        try {
+            var queue = queues.computeIfAbsent(namespace, this::newQueue);
+            var ticket = tickets.get(resourceKey);
+
+            if (ticket != null) {
+                if (!ticket.admitted) {
+                    return Optional.empty();
+                }
+
+                // The slot was reserved when the ticket was admitted
+                tickets.remove(resourceKey);
+
+                return Optional.of(admitted(queue, ticket.enqueuedNanos));
+            }
+
+            if (running < scheduling.maxConcurrentReconciliations() && rotation.isEmpty()) {
+                running++;
+
+                return Optional.of(admitted(queue, System.nanoTime()));
+            }
+
+            ticket = new Ticket(resourceKey, wakeUp, System.nanoTime());
+            tickets.put(resourceKey, ticket);
+
+            if (priority && scheduling.prioritizeUnready()) {
+                queue.waiting.addFirst(ticket);
+            } else {
+                queue.waiting.addLast(ticket);
+            }
+
+            if (queue.waiting.size() == 1) {
+                rotation.add(namespace);
+            }
+
+            // Slots might have been freed by expired admissions in the meantime
+            wakeUps = admitAll();
+        } finally {
+            lock.unlock();
+        }
+
+        wakeUps.forEach(Runnable::run);
+
+        return Optional.empty();
+    }
+
+    private Permit admitted(
+            NamespaceQueue queue,
+            long startNanos
+    ) {
+        queue.waitTime.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        return new Permit(this);
+    }
+
+    private void release() {
+        List<Runnable> wakeUps;
+
+        lock.lock();
+        try {
+            running--;
+
+            wakeUps = admitAll();
+        } finally {
+            lock.unlock();
+        }
+
+        wakeUps.forEach(Runnable::run);
+    }
+
+    /// Frees the slot of an admitted reconciliation whose resource was not reconciled within the `admission-timeout`,
+    /// for example because it was deleted in the meantime.
+    private void expire(Ticket ticket) {
+        List<Runnable> wakeUps;
+
+        lock.lock();
+        try {
+            if (!tickets.remove(ticket.resourceKey, ticket)) {
+                return;
+            }
+
+            running--;
+
+            wakeUps = admitAll();
+        } finally {
+            lock.unlock();
+        }
+
+        wakeUps.forEach(Runnable::run);
+    }
+
+    /// Admits queued reconciliations while slots are free, the returned wake-ups must be run outside the lock.
+    private List<Runnable> admitAll() {
+        var wakeUps = new ArrayList<Runnable>();
+
+        while (!rotation.isEmpty() && running < operatorConfig.scheduling().maxConcurrentReconciliations()) {
+            var ticket = admitNext();
+
+            wakeUps.add(ticket.wakeUp);
+
+            CompletableFuture.delayedExecutor(
+                    operatorConfig.scheduling().admissionTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS
+            ).execute(() -> expire(ticket));
+        }
+
+        return wakeUps;
+    }
+
+    private Ticket admitNext() {
+        if (rotationIndex >= rotation.size()) {
+            rotationIndex = 0;
+            grantsInTurn = 0;
+        }
+
+        var namespace = rotation.get(rotationIndex);
+        var queue = Objects.requireNonNull(queues.get(namespace));
+        // Every namespace in the rotation has at least one queued ticket
+        var ticket = Objects.requireNonNull(queue.waiting.pollFirst());
+
+        ticket.admitted = true;
+        running++;
+        grantsInTurn++;
+
+        if (queue.waiting.isEmpty()) {
+            rotation.remove(rotationIndex);
+            grantsInTurn = 0;
+        } else if (grantsInTurn >= weight(namespace)) {
+            rotationIndex++;
+            grantsInTurn = 0;
+        }
+
+        return ticket;
+    }
+
+    private int weight(String namespace) {
+        return Math.max(
+                1,
+                operatorConfig.scheduling().namespaceWeights().getOrDefault(namespace, 1)
+        );
+    }
+
+    private NamespaceQueue newQueue(String namespace) {
+        var queue = new NamespaceQueue(
+                new ArrayDeque<>(),
+                Timer.builder("postgresql.operator.reconcile.queue.wait")
+                        .description("Time a reconciliation waited to be admitted by the fair scheduler")
+                        .tag("namespace", namespace)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        );
+
+        Gauge.builder("postgresql.operator.reconcile.queue.depth", queue, q -> q.waiting.size())
+                .description("Reconciliations queued to be admitted by the fair scheduler")
+                .tag("namespace", namespace)
+                .register(meterRegistry);
+
+        return queue;
+    }
+
+    /// Admission of a reconciliation, which must be closed when the reconciliation is done.
+    public static final class Permit implements AutoCloseable {
+        @Nullable
+        private FairReconcileScheduler scheduler;
+
+        private Permit(@Nullable FairReconcileScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void close() {
+            var currentScheduler = scheduler;
+
+            if (currentScheduler != null) {
+                scheduler = null;
+                currentScheduler.release();
+            }
+        }
+    }
+
+    private record NamespaceQueue(
+            Deque<Ticket> waiting,
+            Timer waitTime
+    ) {
+    }
+
+    private static final class Ticket {
+        private final String resourceKey;
+        private final Runnable wakeUp;
+        private final long enqueuedNanos;
+        private boolean admitted;
+
+        private Ticket(
+                String resourceKey,
+                Runnable wakeUp,
+                long enqueuedNanos
+        ) {
+            this.resourceKey = resourceKey;
+            this.wakeUp = wakeUp;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
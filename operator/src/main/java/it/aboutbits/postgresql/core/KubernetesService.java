@@ -1,8 +1,11 @@
 package it.aboutbits.postgresql.core;
 
+import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.opentelemetry.api.trace.SpanKind;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import jakarta.inject.Singleton;
+import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
 
 import java.nio.charset.Charset;
@@ -10,11 +13,14 @@ import java.util.Base64;
 
 @NullMarked
 @Singleton
+@RequiredArgsConstructor
 public final class KubernetesService {
     public static final String SECRET_TYPE_BASIC_AUTH = "kubernetes.io/basic-auth";
     public static final String SECRET_DATA_BASIC_AUTH_USERNAME_KEY = "username";
     public static final String SECRET_DATA_BASIC_AUTH_PASSWORD_KEY = "password";
 
+    private final Tracing tracing;
+
     public Credentials getSecretRefCredentials(
             KubernetesClient kubernetesClient,
             ClusterConnection clusterConnection
@@ -30,6 +36,18 @@ public final class KubernetesService {
             KubernetesClient kubernetesClient,
             SecretRef secretRef,
             String defaultNamespace
+    ) {
+        return toCredentials(getSecret(
+                kubernetesClient,
+                secretRef,
+                defaultNamespace
+        ));
+    }
+
+    public Secret getSecret(
+            KubernetesClient kubernetesClient,
+            SecretRef secretRef,
+            String defaultNamespace
     ) {
         var secretNamespace = secretRef.getNamespace() != null
                 ? secretRef.getNamespace()
@@ -37,10 +55,14 @@ public final class KubernetesService {
 
         var secretName = secretRef.getName();
 
-        var secret = kubernetesClient.secrets()
-                .inNamespace(secretNamespace)
-                .withName(secretName)
-                .get();
+        var secret = tracing.inSpan(
+                "GET Secret",
+                SpanKind.CLIENT,
+                () -> kubernetesClient.secrets()
+                        .inNamespace(secretNamespace)
+                        .withName(secretName)
+                        .get()
+        );
 
         if (secret == null) {
             throw new IllegalStateException("SecretRef not found [secret.namespace=%s, secret.name=%s]".formatted(
@@ -49,7 +71,20 @@ public final class KubernetesService {
             ));
         }
 
-        if (!secret.getType().equals(SECRET_TYPE_BASIC_AUTH)) {
+        return secret;
+    }
+
+    /// The version of the Secret's content, its uid and resourceVersion, without decoding its data.
+    public static String version(Secret secret) {
+        return secret.getMetadata().getUid() + "/" + secret.getMetadata().getResourceVersion();
+    }
+
+    /// Decodes the basic-auth credentials of the Secret, e.g. one read from an informer cache, without modifying it.
+    public static Credentials toCredentials(Secret secret) {
+        var secretNamespace = secret.getMetadata().getNamespace();
+        var secretName = secret.getMetadata().getName();
+
+        if (!SECRET_TYPE_BASIC_AUTH.equals(secret.getType())) {
             throw new IllegalArgumentException("The SecretRef is of the wrong type [secret.namespace=%s, secret.name=%s, expected.secret.type=%s, actual.secret.type=%s]".formatted(
                     secretNamespace,
                     secretName,
@@ -88,7 +123,8 @@ public final class KubernetesService {
 
         return new Credentials(
                 username,
-                password
+                password,
+                version(secret)
         );
     }
 }
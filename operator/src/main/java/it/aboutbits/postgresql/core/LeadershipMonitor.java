@@ -0,0 +1,138 @@
+package it.aboutbits.postgresql.core;
+
+import io.javaoperatorsdk.operator.Operator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/// Publishes the leadership state of this replica and how stale its informer caches might be.
+///
+/// A standby replica keeps its informers running, so it can take over within seconds,
+/// but its caches are only as fresh as its watches: as long as an informer is unhealthy,
+/// the cache might miss changes, and the staleness gauge grows until all watches are healthy again.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class LeadershipMonitor {
+    private static final Duration CACHE_HEALTH_CHECK_INTERVAL = Duration.ofSeconds(5);
+
+    private final MeterRegistry meterRegistry;
+    // Looked up lazily, as the Operator itself depends on the leader election callbacks of this monitor
+    private final Instance<Operator> operator;
+
+    private final AtomicBoolean leader = new AtomicBoolean(false);
+
+    private volatile Instant cachesHealthySince = Instant.now();
+    private volatile boolean cachesHealthy = true;
+
+    @Nullable
+    private ScheduledExecutorService executor;
+
+    void onStart(@Observes StartupEvent event) {
+        Gauge.builder("postgresql.operator.leader", leader, isLeader -> isLeader.get() ? 1 : 0)
+                .description("Whether this replica is the leader (1) or a standby (0)")
+                .register(meterRegistry);
+
+        Gauge.builder("postgresql.operator.informer.cache.staleness", this, LeadershipMonitor::cacheStalenessSeconds)
+                .description("Seconds the informer caches of this replica have not been fully in sync, 0 when all informers are watching")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        var scheduledExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("leadership-monitor").daemon().factory()
+        );
+        scheduledExecutor.scheduleWithFixedDelay(
+                this::checkCacheHealth,
+                CACHE_HEALTH_CHECK_INTERVAL.toMillis(),
+                CACHE_HEALTH_CHECK_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+
+        executor = scheduledExecutor;
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        var scheduledExecutor = executor;
+
+        if (scheduledExecutor != null) {
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isLeader() {
+        return leader.get();
+    }
+
+    void onStartLeading() {
+        leader.set(true);
+
+        recordTransition("acquired");
+
+        log.info("Acquired the leadership, starting to reconcile [cachesHealthy={}]", cachesHealthy);
+    }
+
+    void onStopLeading() {
+        leader.set(false);
+
+        recordTransition("lost");
+
+        log.warn("Lost the leadership");
+    }
+
+    void onNewLeader(String identity) {
+        log.info("New leader elected [identity={}]", identity);
+    }
+
+    private void recordTransition(String transition) {
+        Counter.builder("postgresql.operator.leader.transitions")
+                .description("Leadership transitions of this replica")
+                .tag("transition", transition)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void checkCacheHealth() {
+        try {
+            var healthy = operator.get()
+                    .getRuntimeInfo()
+                    .allEventSourcesAreHealthy();
+
+            if (healthy && !cachesHealthy) {
+                log.info("Informer caches are in sync again");
+            }
+
+            if (healthy) {
+                cachesHealthySince = Instant.now();
+            }
+
+            cachesHealthy = healthy;
+        } catch (RuntimeException e) {
+            log.warn("Failed to check the informer cache health", e);
+        }
+    }
+
+    private double cacheStalenessSeconds() {
+        if (cachesHealthy) {
+            return 0;
+        }
+
+        return Duration.between(cachesHealthySince, Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,253 @@
+package it.aboutbits.postgresql.core;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithDefaults;
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/// Operator specific configuration, set in the `application.yml` or through `POSTGRESQL_OPERATOR_*` environment variables.
+@NullMarked
+@ConfigMapping(prefix = "postgresql-operator")
+public interface OperatorConfig {
+    Statements statements();
+
+    Sharding sharding();
+
+    LeaderElection leaderElection();
+
+    Secrets secrets();
+
+    Scheduling scheduling();
+
+    ClusterConcurrency clusterConcurrency();
+
+    Grants grants();
+
+    DdlEvents ddlEvents();
+
+    DriftCheck driftCheck();
+
+    Resync resync();
+
+    Cleanup cleanup();
+
+    interface Statements {
+        /// SQL statements running longer than this are reported in the slow statement log.
+        @WithDefault("1s")
+        Duration slowThreshold();
+
+        /// The share of slow statements that are logged, between `0.0` (none) and `1.0` (all).
+        @WithDefault("1.0")
+        double slowLogSampleRate();
+    }
+
+    interface Sharding {
+        /// Whether the replicas split the ClusterConnections (and their dependent resources) between each other.
+        /// When disabled, every replica reconciles every resource.
+        @WithDefault("false")
+        boolean enabled();
+
+        /// The identity of this replica, defaults to the Pod name.
+        Optional<String> identity();
+
+        /// The namespace of the membership Leases, defaults to the namespace the Operator runs in.
+        Optional<String> leaseNamespace();
+
+        /// A replica whose Lease was not renewed within this duration is no longer a shard member.
+        @WithDefault("30s")
+        Duration leaseDuration();
+
+        /// How often a replica renews its Lease and rebuilds the hash ring from the live members.
+        @WithDefault("10s")
+        Duration renewInterval();
+
+        /// How long a replica waits before it reconciles a ClusterConnection it took over from another replica,
+        /// so the reconciliations the previous owner already started can finish.
+        @WithDefault("10s")
+        Duration handoverDelay();
+
+        /// The number of positions of every replica on the hash ring.
+        @WithDefault("64")
+        int virtualNodes();
+    }
+
+    interface LeaderElection {
+        /// The name of the Lease the replicas compete for, the standby replicas keep their informer caches warm.
+        @WithDefault("postgresql-operator-leader")
+        String leaseName();
+
+        /// The namespace of the Lease, defaults to the namespace the Operator runs in.
+        Optional<String> leaseNamespace();
+
+        /// How long the standby replicas wait before taking over a Lease that was not renewed.
+        @WithDefault("10s")
+        Duration leaseDuration();
+
+        /// How long the leader keeps retrying to renew the Lease before giving up the leadership.
+        @WithDefault("7s")
+        Duration renewDeadline();
+
+        /// How often the replicas try to acquire or renew the Lease.
+        @WithDefault("2s")
+        Duration retryPeriod();
+    }
+
+    interface Secrets {
+        /// The namespaces the Secret informers of the Role and RoleSet controllers watch, defaults to the namespaces of each controller.
+        Optional<Set<String>> namespaces();
+
+        /// A label selector the Secrets referenced by Roles and RoleSets must match, to be watched for password changes.
+        /// Restricting the informer keeps unrelated Secrets (e.g. TLS certificates or Helm releases) out of the heap.
+        Optional<String> labelSelector();
+    }
+
+    interface Scheduling {
+        /// Whether reconciliations are admitted by weighted round-robin across namespaces,
+        /// so one namespace with thousands of resources cannot starve the others.
+        @WithDefault("false")
+        boolean fairQueuing();
+
+        /// The number of reconciliations running at the same time, the others are queued in their namespace.
+        @WithDefault("10")
+        int maxConcurrentReconciliations();
+
+        /// How long an admitted reconciliation keeps its slot until its resource is reconciled.
+        @WithDefault("30s")
+        Duration admissionTimeout();
+
+        /// How long a deferred reconciliation waits before it is retried.
+        @WithDefault("5s")
+        Duration deferDelay();
+
+        /// The weight of a namespace in the round-robin, namespaces that are not listed have the weight 1.
+        @WithDefaults
+        Map<String, Integer> namespaceWeights();
+
+        /// Whether resources in the ERROR or PENDING phase are admitted before the other resources of their namespace.
+        @WithDefault("true")
+        boolean prioritizeUnready();
+    }
+
+    interface ClusterConcurrency {
+        /// Whether the concurrent reconciliations per ClusterConnection adapt to the observed SQL latency.
+        @WithDefault("true")
+        boolean enabled();
+
+        /// The limit a ClusterConnection starts with.
+        @WithDefault("4")
+        int initialLimit();
+
+        @WithDefault("1")
+        int minLimit();
+
+        @WithDefault("32")
+        int maxLimit();
+
+        /// The limit backs off when the recent SQL latency exceeds the long-term latency by this factor.
+        @WithDefault("2.0")
+        double latencyTolerance();
+
+        /// The factor the limit is multiplied with when backing off.
+        @WithDefault("0.5")
+        double backoffRatio();
+
+        /// How often at most a changed limit is reported in the status of the ClusterConnection.
+        @WithDefault("1m")
+        Duration statusRefreshInterval();
+    }
+
+    interface Grants {
+        /// The number of rows fetched per round trip when streaming the tables or sequences of a schema,
+        /// `0` loads the whole schema into memory at once.
+        @WithDefault("1000")
+        int streamingFetchSize();
+
+        /// The number of tables or sequences applied or revoked per transaction,
+        /// `0` applies a Grant in a single transaction. Requires streaming.
+        @WithDefault("0")
+        int chunkSize();
+    }
+
+    interface DdlEvents {
+        /// Whether a `ddl_command_end` event trigger is installed in the databases of the `table` and `sequence` Grants,
+        /// so the affected Grants are reconciled as soon as a table or sequence is created. Requires a superuser.
+        @WithDefault("false")
+        boolean enabled();
+
+        /// The channel the event trigger notifies and the Operator listens on.
+        @WithDefault("postgresql_operator_ddl")
+        String channel();
+
+        /// The schema the function of the event trigger is created in, owned by the Operator and dropped with the trigger.
+        @WithDefault("postgresql_operator")
+        String schema();
+
+        /// How long a listener waits for notifications before checking whether its database is still needed.
+        @WithDefault("10s")
+        Duration pollInterval();
+
+        /// How long a failed listener waits before it reconnects.
+        @WithDefault("30s")
+        Duration reconnectDelay();
+    }
+
+    interface DriftCheck {
+        /// Whether Grants, Schemas, Roles and DefaultPrivileges skip their full drift check on a resync
+        /// as long as the catalog watermark of their database did not move since their last successful apply.
+        @WithDefault("true")
+        boolean watermark();
+
+        /// How long a probed watermark is shared by the reconciliations against the same database.
+        /// A catalog change is detected at most this much later, `0` probes on every reconciliation.
+        @WithDefault("5s")
+        Duration watermarkTtl();
+
+        /// How long a fully verified resource is trusted, keyed by the lower-case kind (e.g. `grant` or `defaultprivilege`).
+        /// Within the interval, a reconciliation with an unchanged spec hash returns without opening a database connection.
+        /// Kinds that are not listed are verified on every reconciliation.
+        @WithDefaults
+        Map<String, Duration> interval();
+    }
+
+    interface Resync {
+        /// Whether every resource is resynced periodically on its own slot within the interval of its kind,
+        /// derived from the hash of its UID, so the resyncs are spread evenly instead of arriving as waves.
+        @WithDefault("true")
+        boolean enabled();
+
+        /// The resync interval of the kinds that are not listed in `interval`.
+        @WithDefault("10h")
+        Duration defaultInterval();
+
+        /// The resync interval per lower-case kind (e.g. `grant` or `defaultprivilege`).
+        @WithDefaults
+        Map<String, Duration> interval();
+    }
+
+    interface Cleanup {
+        /// Whether a cleanup drops or revokes right away and only patches the status on failure or progress,
+        /// instead of first patching the DELETING phase and doing the work on a second invocation.
+        @WithDefault("true")
+        boolean singlePass();
+
+        /// In single-pass mode, a drop or revoke running longer than this reports the DELETING phase in the status.
+        @WithDefault("5s")
+        Duration progressDelay();
+
+        /// Whether the cleanups of dependents resolve without connecting once their database was dropped,
+        /// and the Grants of a database that are deleted together are revoked in one transaction.
+        @WithDefault("true")
+        boolean cascade();
+
+        /// Whether the cleanups of dependents whose ClusterConnection was deleted remove their finalizers anyway,
+        /// leaving their objects and privileges in PostgreSQL. Off by default, as a ClusterConnection that is deleted
+        /// and recreated (e.g. by a GitOps sync) would otherwise orphan the objects of all its dependents.
+        @WithDefault("false")
+        boolean abandonWithoutClusterConnection();
+    }
+}
@@ -0,0 +1,50 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.client.extended.leaderelection.LeaderCallbacks;
+import io.javaoperatorsdk.operator.api.config.LeaderElectionConfiguration;
+import jakarta.inject.Singleton;
+import org.jspecify.annotations.NullMarked;
+
+/// Leader election with hot standby replicas: all replicas start their informers and keep the caches warm,
+/// but only the holder of the Lease processes events, so a standby takes over within the Lease duration.
+///
+/// With sharding enabled, every replica competes for its own Lease instead,
+/// so every replica becomes a leader, and the ShardCoordinator splits the work.
+@NullMarked
+@Singleton
+public class OperatorLeaderElectionConfiguration extends LeaderElectionConfiguration {
+    public OperatorLeaderElectionConfiguration(
+            OperatorConfig operatorConfig,
+            LeadershipMonitor leadershipMonitor
+    ) {
+        super(
+                leaseName(operatorConfig),
+                operatorConfig.leaderElection().leaseNamespace().orElse(null),
+                operatorConfig.leaderElection().leaseDuration(),
+                operatorConfig.leaderElection().renewDeadline(),
+                operatorConfig.leaderElection().retryPeriod(),
+                null,
+                new LeaderCallbacks(
+                        leadershipMonitor::onStartLeading,
+                        leadershipMonitor::onStopLeading,
+                        leadershipMonitor::onNewLeader
+                ),
+                // Restart as a fresh standby instead of continuing with a half-stopped Operator
+                true
+        );
+    }
+
+    private static String leaseName(OperatorConfig operatorConfig) {
+        var leaseName = operatorConfig.leaderElection().leaseName();
+        var sharding = operatorConfig.sharding();
+
+        if (!sharding.enabled()) {
+            return leaseName;
+        }
+
+        return "%s-%s".formatted(
+                leaseName,
+                ShardCoordinator.resolveIdentity(sharding)
+        );
+    }
+}
@@ -1,11 +1,13 @@
 package it.aboutbits.postgresql.core;
 
 import com.ongres.scram.common.StringPreparation;
+import it.aboutbits.postgresql.crd.clusterconnection.PasswordEncryption;
 import it.aboutbits.postgresql.crd.role.RoleSpec;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import javax.crypto.Mac;
 import javax.crypto.SecretKeyFactory;
@@ -14,6 +16,7 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HexFormat;
@@ -30,6 +33,13 @@ public final class PostgreSQLAuthenticationService {
     private static final String HMAC_SHA_256 = "HmacSHA256";
     private static final String PBKDF2_WITH_HMAC_SHA256 = "PBKDF2WithHmacSHA256";
 
+    private static final String SCRAM_SHA_256_PREFIX = "SCRAM-SHA-256$";
+    // Same defaults PostgreSQL uses (scram_iterations = 4096, SCRAM_DEFAULT_SALT_LEN = 16)
+    private static final int SCRAM_ITERATIONS = 4096;
+    private static final int SCRAM_SALT_LENGTH = 16;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     public boolean passwordMatches(
             DSLContext dsl,
             RoleSpec spec,
@@ -41,6 +51,19 @@ public final class PostgreSQLAuthenticationService {
                 .where(PG_AUTHID.ROLNAME.eq(spec.getName()))
                 .fetchSingle(PG_AUTHID.ROLPASSWORD);
 
+        return passwordMatches(
+                spec.getName(),
+                currentPasswordVerifier,
+                expectedPassword
+        );
+    }
+
+    /// Whether the `pg_authid.rolpassword` verifier of the role, e.g. read in bulk for a RoleSet, matches the password.
+    public boolean passwordMatches(
+            String roleName,
+            @Nullable String currentPasswordVerifier,
+            String expectedPassword
+    ) {
         if (currentPasswordVerifier == null || currentPasswordVerifier.isBlank()) {
             return false;
         }
@@ -48,7 +71,7 @@ public final class PostgreSQLAuthenticationService {
         // PostgreSQL stores either:
         // - SCRAM verifier: SCRAM-SHA-256$<iterations>:<saltB64>$<storedKeyB64>:<serverKeyB64>
         // - or legacy md5: md5<md5(password + username)>
-        if (currentPasswordVerifier.startsWith("SCRAM-SHA-256$")) {
+        if (currentPasswordVerifier.startsWith(SCRAM_SHA_256_PREFIX)) {
             return verifyPostgresScramSha256(
                     currentPasswordVerifier,
                     expectedPassword
@@ -59,7 +82,7 @@ public final class PostgreSQLAuthenticationService {
             return verifyPostgresMd5(
                     currentPasswordVerifier,
                     expectedPassword,
-                    spec.getName()
+                    roleName
             );
         }
 
@@ -67,6 +90,87 @@ public final class PostgreSQLAuthenticationService {
         return false;
     }
 
+    /// Returns the password to send with CREATE/ALTER ROLE, either the cleartext password,
+    /// or the SCRAM-SHA-256 verifier computed by the Operator.
+    /// Without `passwordEncryption` the server decides, like for `Server`.
+    public @Nullable String encryptPassword(
+            @Nullable String password,
+            @Nullable PasswordEncryption passwordEncryption
+    ) {
+        if (password == null || passwordEncryption != PasswordEncryption.SCRAM_SHA_256) {
+            return password;
+        }
+
+        return generateScramSha256Verifier(password);
+    }
+
+    /// Computes the SCRAM-SHA-256 verifier PostgreSQL would store in `pg_authid.rolpassword` for the given password.
+    ///
+    /// PostgreSQL stores a password that already has the verifier format as is,
+    /// so sending the verifier instead of the cleartext password skips the PBKDF2 computation on the database server.
+    public String generateScramSha256Verifier(String cleartextPassword) {
+        var salt = new byte[SCRAM_SALT_LENGTH];
+        SECURE_RANDOM.nextBytes(salt);
+
+        return buildScramSha256Verifier(
+                cleartextPassword,
+                salt,
+                SCRAM_ITERATIONS
+        );
+    }
+
+    static String buildScramSha256Verifier(
+            String cleartextPassword,
+            byte[] salt,
+            int iterations
+    ) {
+        // Prepare the cleartext password with SASLprep
+        var preparedPassword = StringPreparation.POSTGRESQL_PREPARATION.normalize(
+                cleartextPassword.toCharArray()
+        );
+
+        byte[] saltedPassword = null;
+        byte[] clientKey = null;
+        byte[] storedKey = null;
+        byte[] serverKey = null;
+        try {
+            // RFC 5802/7677:
+            // saltedPassword := Hi(password, salt, iterations) (PBKDF2-HMAC-SHA-256, 32 bytes)
+            // clientKey      := HMAC(saltedPassword, "Client Key")
+            // storedKey      := H(clientKey)  (SHA-256)
+            // serverKey      := HMAC(saltedPassword, "Server Key")
+            saltedPassword = pbkdf2HmacSha256(preparedPassword, salt, iterations, 32);
+            clientKey = hmacSha256(saltedPassword, "Client Key".getBytes(StandardCharsets.UTF_8));
+            storedKey = sha256(clientKey);
+            serverKey = hmacSha256(saltedPassword, "Server Key".getBytes(StandardCharsets.UTF_8));
+
+            // Format: SCRAM-SHA-256$<iterations>:<saltB64>$<storedKeyB64>:<serverKeyB64>
+            var encoder = Base64.getEncoder();
+
+            return "%s%d:%s$%s:%s".formatted(
+                    SCRAM_SHA_256_PREFIX,
+                    iterations,
+                    encoder.encodeToString(salt),
+                    encoder.encodeToString(storedKey),
+                    encoder.encodeToString(serverKey)
+            );
+        } finally {
+            Arrays.fill(preparedPassword, '\0');
+            if (saltedPassword != null) {
+                Arrays.fill(saltedPassword, (byte) 0);
+            }
+            if (clientKey != null) {
+                Arrays.fill(clientKey, (byte) 0);
+            }
+            if (storedKey != null) {
+                Arrays.fill(storedKey, (byte) 0);
+            }
+            if (serverKey != null) {
+                Arrays.fill(serverKey, (byte) 0);
+            }
+        }
+    }
+
     private static boolean verifyPostgresScramSha256(String postgresVerifier, String cleartextPassword) {
         // Prepare the cleartext password with SASLprep
         var preparedPassword = StringPreparation.POSTGRESQL_PREPARATION.normalize(
@@ -74,7 +178,7 @@ public final class PostgreSQLAuthenticationService {
         );
 
         // Format: SCRAM-SHA-256$<iterations>:<saltB64>$<storedKeyB64>:<serverKeyB64>
-        var afterPrefix = postgresVerifier.substring("SCRAM-SHA-256$".length());
+        var afterPrefix = postgresVerifier.substring(SCRAM_SHA_256_PREFIX.length());
         var dollar = afterPrefix.indexOf('$');
         if (dollar < 0) {
             return false;
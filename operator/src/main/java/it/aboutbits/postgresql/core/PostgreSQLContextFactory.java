@@ -1,14 +1,29 @@
 package it.aboutbits.postgresql.core;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.opentelemetry.api.trace.SpanKind;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnectionSpec;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.RequiredArgsConstructor;
 import org.jooq.CloseableDSLContext;
-import org.jooq.impl.DSL;
+import org.jooq.Configuration;
+import org.jooq.SQLDialect;
+import org.jooq.conf.Settings;
+import org.jooq.conf.StatementType;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultConnectionProvider;
+import org.jooq.impl.DefaultDSLContext;
 import org.jspecify.annotations.NullMarked;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
 import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 
 @NullMarked
 @ApplicationScoped
@@ -16,9 +31,39 @@ import java.util.Properties;
 public class PostgreSQLContextFactory {
     private static final String POSTGRESQL_AUTHENTICATION_USER_KEY = "user";
     private static final String POSTGRESQL_AUTHENTICATION_PASSWORD_KEY = "password";
+    private static final String POSTGRESQL_OPTIONS_KEY = "options";
+
+    /// pgjdbc switches to a named server-side prepared statement from the first execution on,
+    /// so the catalog reads repeated on a connection (e.g. per object of a Grant) reuse their plan.
+    /// Both can be overridden per ClusterConnection through `spec.parameters`,
+    /// e.g. `prepareThreshold: "0"` behind a PgBouncer in transaction pooling mode.
+    private static final Map<String, String> PREPARED_STATEMENT_DEFAULTS = Map.of(
+            "prepareThreshold", "1",
+            "preparedStatementCacheQueries", "256"
+    );
+
+    /// Shared by every Configuration and never mutated after class initialization.
+    /// - Bind values instead of inlined literals, so the rendered SQL of a catalog read is identical
+    ///   between executions and hits the pgjdbc statement cache.
+    /// - IN list padding, so `relname in (...)` with a varying number of objects only renders a few distinct statements.
+    /// - jOOQ's execute logging is disabled, as it formats every statement on the DEBUG logger.
+    private static final Settings SETTINGS = new Settings()
+            .withStatementType(StatementType.PREPARED_STATEMENT)
+            .withInListPadding(true)
+            .withRenderFormatted(false)
+            .withExecuteLogging(false)
+            .withReflectionCaching(true)
+            .withCacheRecordMappers(true);
 
     private final KubernetesService kubernetesService;
     private final KubernetesClient kubernetesClient;
+    private final StatementMetrics statementMetrics;
+    private final Tracing tracing;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /// The Configuration and connection properties per `<namespace>/<name>/<database>`,
+    /// replaced when the spec of the ClusterConnection or its admin credentials change.
+    private final Map<String, ClusterConfiguration> configurations = new ConcurrentHashMap<>();
 
     /// Create a DSLContext with a JDBC connection to the PostgreSQL maintenance database.
     public CloseableDSLContext getDSLContext(ClusterConnection clusterConnection) {
@@ -32,12 +77,46 @@ public class PostgreSQLContextFactory {
     public CloseableDSLContext getDSLContext(
             ClusterConnection clusterConnection,
             String database
+    ) {
+        var configuration = configurationFor(clusterConnection, database);
+        var connection = connect(configuration);
+
+        // The connection is per call, everything else is shared through the cached Configuration
+        return new ClusterDSLContext(
+                configuration.configuration().derive(new DefaultConnectionProvider(connection)),
+                connection
+        );
+    }
+
+    private ClusterConfiguration configurationFor(
+            ClusterConnection clusterConnection,
+            String database
     ) {
         var credentials = kubernetesService.getSecretRefCredentials(
                 kubernetesClient,
                 clusterConnection
         );
 
+        var version = new ConfigurationVersion(
+                clusterConnection.getMetadata().getUid(),
+                clusterConnection.getMetadata().getGeneration(),
+                credentials.version()
+        );
+
+        return configurations.compute(
+                AdaptiveConcurrencyLimiter.clusterKey(clusterConnection) + "/" + database,
+                (_, cached) -> cached != null && cached.version().equals(version)
+                        ? cached
+                        : newConfiguration(clusterConnection, database, credentials, version)
+        );
+    }
+
+    private ClusterConfiguration newConfiguration(
+            ClusterConnection clusterConnection,
+            String database,
+            Credentials credentials,
+            ConfigurationVersion version
+    ) {
         var spec = clusterConnection.getSpec();
 
         var jdbcUrl = "jdbc:postgresql://%s:%d/%s".formatted(
@@ -46,7 +125,11 @@ public class PostgreSQLContextFactory {
                 database
         );
 
-        var properties = new Properties(2 + spec.getParameters().size());
+        var properties = new Properties(3 + PREPARED_STATEMENT_DEFAULTS.size() + spec.getParameters().size());
+
+        properties.putAll(
+                PREPARED_STATEMENT_DEFAULTS
+        );
 
         properties.setProperty(
                 POSTGRESQL_AUTHENTICATION_USER_KEY,
@@ -63,9 +146,122 @@ public class PostgreSQLContextFactory {
             );
         }
 
-        return DSL.using(
+        // Sent with the startup packet, so the timeouts cost no extra round trip
+        var options = timeoutOptions(spec);
+
+        if (!options.isEmpty()) {
+            properties.setProperty(
+                    POSTGRESQL_OPTIONS_KEY,
+                    (properties.getProperty(POSTGRESQL_OPTIONS_KEY, "") + " " + options).strip()
+            );
+        }
+
+        var configuration = new DefaultConfiguration()
+                .set(SQLDialect.POSTGRES)
+                .set(SETTINGS)
+                .set(
+                        statementMetrics.listener(clusterConnection),
+                        tracing.listener(clusterConnection, database),
+                        concurrencyLimiter.listener(clusterConnection)
+                );
+
+        return new ClusterConfiguration(
+                version,
+                AdaptiveConcurrencyLimiter.clusterKey(clusterConnection),
                 jdbcUrl,
-                properties
+                properties,
+                configuration
         );
     }
+
+    private static String timeoutOptions(ClusterConnectionSpec spec) {
+        var options = new StringJoiner(" ");
+
+        if (spec.getLockTimeout() != null) {
+            options.add("-c lock_timeout=" + withoutSpaces(spec.getLockTimeout()));
+        }
+        if (spec.getStatementTimeout() != null) {
+            options.add("-c statement_timeout=" + withoutSpaces(spec.getStatementTimeout()));
+        }
+
+        return options.toString();
+    }
+
+    /// The server splits the `options` at whitespace, so a duration like `5 s` is sent as `5s`.
+    private static String withoutSpaces(String duration) {
+        return duration.replace(" ", "");
+    }
+
+    /// Opens a JDBC connection of the (ClusterConnection, database), feeding its latency into the concurrency limit.
+    private Connection connect(ClusterConfiguration configuration) {
+        var connectStartNanos = System.nanoTime();
+
+        Connection connection;
+        try {
+            connection = tracing.inSpan(
+                    "JDBC connect",
+                    SpanKind.CLIENT,
+                    () -> {
+                        try {
+                            return DriverManager.getConnection(
+                                    configuration.jdbcUrl(),
+                                    configuration.properties()
+                            );
+                        } catch (SQLException e) {
+                            throw new DataAccessException("Error getting connection from data source", e);
+                        }
+                    }
+            );
+        } catch (RuntimeException e) {
+            concurrencyLimiter.onFailure(configuration.cluster(), e);
+
+            throw e;
+        }
+
+        concurrencyLimiter.onConnectLatency(configuration.cluster(), System.nanoTime() - connectStartNanos);
+
+        return connection;
+    }
+
+    /// The inputs a cached Configuration was built from. The generation only changes with the spec,
+    /// unlike the resourceVersion, which every status update of the ClusterConnection changes.
+    private record ConfigurationVersion(
+            String uid,
+            Long generation,
+            String credentialsVersion
+    ) {
+    }
+
+    /// The shared Configuration of a (ClusterConnection, database) and the properties its JDBC connections are opened with.
+    private record ClusterConfiguration(
+            ConfigurationVersion version,
+            String cluster,
+            String jdbcUrl,
+            Properties properties,
+            Configuration configuration
+    ) {
+    }
+
+    /// A DSLContext owning its JDBC connection, which is closed together with the DSLContext.
+    private static final class ClusterDSLContext extends DefaultDSLContext implements CloseableDSLContext {
+        private final transient Connection connection;
+
+        private ClusterDSLContext(
+                Configuration configuration,
+                Connection connection
+        ) {
+            super(configuration);
+
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new DataAccessException("Failed to close the JDBC connection", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.informers.cache.BasicItemStore;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.informers.cache.ItemStore;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/// Informer cache that strips the fields the reconcilers never read before storing an item,
+/// most notably `metadata.managedFields` and the `kubectl.kubernetes.io/last-applied-configuration` annotation,
+/// which together are often larger than the rest of the resource.
+///
+/// The approximate footprint is published per kind and namespace as `postgresql.operator.informer.cache.size`,
+/// next to the number of items. It is estimated from the serialized size of every `SAMPLE_INTERVAL`th stored item,
+/// as serializing every item on every update costs more than the estimate is worth.
+/// Instantiated by the Operator SDK through the no-arg constructor, once per watched namespace,
+/// so the footprints are shared between the stores and the metrics use the global registry.
+@NullMarked
+public class PruningItemStore<R extends HasMetadata> implements ItemStore<R> {
+    static final String LAST_APPLIED_CONFIGURATION_ANNOTATION = "kubectl.kubernetes.io/last-applied-configuration";
+
+    static final int SAMPLE_INTERVAL = 32;
+
+    private static final Map<FootprintKey, Footprint> FOOTPRINTS = new ConcurrentHashMap<>();
+
+    private final BasicItemStore<R> delegate = new BasicItemStore<>(Cache::metaNamespaceKeyFunc);
+
+    @Override
+    public String getKey(R obj) {
+        return delegate.getKey(obj);
+    }
+
+    @Override
+    public @Nullable R put(
+            String key,
+            R obj
+    ) {
+        prune(obj);
+
+        var previous = delegate.put(key, obj);
+        var footprint = footprint(obj);
+
+        if (previous == null) {
+            footprint.items.incrementAndGet();
+        }
+
+        footprint.sample(obj);
+
+        return previous;
+    }
+
+    @Override
+    public @Nullable R remove(String key) {
+        var removed = delegate.remove(key);
+
+        if (removed != null) {
+            footprint(removed).items.decrementAndGet();
+        }
+
+        return removed;
+    }
+
+    @Override
+    public Stream<String> keySet() {
+        return delegate.keySet();
+    }
+
+    @Override
+    public @Nullable R get(String key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Stream<R> values() {
+        return delegate.values();
+    }
+
+    /// Strips the fields of the resource that are not needed by the reconcilers, the resource is modified in place.
+    protected void prune(R resource) {
+        var metadata = resource.getMetadata();
+
+        metadata.setManagedFields(null);
+
+        var annotations = metadata.getAnnotations();
+        if (annotations != null) {
+            annotations.remove(LAST_APPLIED_CONFIGURATION_ANNOTATION);
+        }
+    }
+
+    static Footprint footprint(HasMetadata resource) {
+        var key = new FootprintKey(
+                resource.getKind(),
+                Objects.requireNonNullElse(resource.getMetadata().getNamespace(), "")
+        );
+
+        return FOOTPRINTS.computeIfAbsent(key, PruningItemStore::registerFootprint);
+    }
+
+    private static Footprint registerFootprint(FootprintKey key) {
+        var footprint = new Footprint();
+
+        Gauge.builder("postgresql.operator.informer.cache.size", footprint, Footprint::estimatedBytes)
+                .description("Approximate memory footprint of the informer cache (serialized size of the pruned items, sampled)")
+                .baseUnit("bytes")
+                .tag("kind", key.kind())
+                .tag("namespace", key.namespace())
+                .register(Metrics.globalRegistry);
+
+        Gauge.builder("postgresql.operator.informer.cache.items", footprint.items, AtomicLong::get)
+                .description("Number of items in the informer cache")
+                .tag("kind", key.kind())
+                .tag("namespace", key.namespace())
+                .register(Metrics.globalRegistry);
+
+        return footprint;
+    }
+
+    private record FootprintKey(
+            String kind,
+            String namespace
+    ) {
+    }
+
+    /// The number of cached items of a kind in a namespace, and their average size measured on a sample of the updates.
+    static final class Footprint {
+        final AtomicLong items = new AtomicLong();
+
+        private final AtomicLong puts = new AtomicLong();
+        private final AtomicLong sampledBytes = new AtomicLong();
+        private final AtomicLong samples = new AtomicLong();
+
+        void sample(HasMetadata resource) {
+            if (puts.getAndIncrement() % SAMPLE_INTERVAL != 0) {
+                return;
+            }
+
+            sampledBytes.addAndGet(Serialization.asJson(resource).getBytes(StandardCharsets.UTF_8).length);
+            samples.incrementAndGet();
+        }
+
+        double estimatedBytes() {
+            var sampleCount = samples.get();
+
+            if (sampleCount == 0) {
+                return 0;
+            }
+
+            return items.get() * ((double) sampledBytes.get() / sampleCount);
+        }
+    }
+}
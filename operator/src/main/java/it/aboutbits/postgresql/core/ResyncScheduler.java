@@ -0,0 +1,81 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/// Schedules the periodic resync of every resource on its own deterministic slot within the resync interval of its kind.
+///
+/// The slot is the hash of the resource's UID modulo the interval, on a wall clock aligned grid, so resources created
+/// together (e.g. by a bulk Helm install) are spread evenly across the interval instead of resyncing as one wave,
+/// and a resource keeps its slot across reconciliations, restarts and replicas.
+/// Reconciliations that already scheduled their next run (e.g. retries or deferrals) are left untouched.
+@NullMarked
+@ApplicationScoped
+@RequiredArgsConstructor
+public class ResyncScheduler {
+    /// A resource reconciled shortly before its slot (e.g. after a spec change) skips that slot.
+    private static final double MIN_DELAY_RATIO = 0.1;
+
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    /// Reschedules the reconciliation to the next slot of the resource, if it did not schedule its next run itself.
+    public <R extends HasMetadata> UpdateControl<R> schedule(
+            UpdateControl<R> updateControl,
+            R resource
+    ) {
+        var resync = operatorConfig.resync();
+
+        if (!resync.enabled() || updateControl.getScheduleDelay().isPresent()) {
+            return updateControl;
+        }
+
+        var kind = resource.getKind().toLowerCase(Locale.ROOT);
+        var interval = resync.interval().getOrDefault(kind, resync.defaultInterval());
+
+        if (interval.isZero() || interval.isNegative()) {
+            return updateControl;
+        }
+
+        var delayMillis = delayMillis(
+                resource.getMetadata().getUid(),
+                interval.toMillis(),
+                System.currentTimeMillis()
+        );
+
+        Timer.builder("postgresql.operator.resync.delay")
+                .description("The delay until the next periodic resync of a resource")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(interval.multipliedBy(2))
+                .register(meterRegistry)
+                .record(Duration.ofMillis(delayMillis));
+
+        return updateControl.rescheduleAfter(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /// The delay from `nowMillis` until the next slot of the UID, at least `MIN_DELAY_RATIO` of the interval.
+    static long delayMillis(
+            String uid,
+            long intervalMillis,
+            long nowMillis
+    ) {
+        var phaseMillis = Math.floorMod(ConsistentHashRing.hash(uid), intervalMillis);
+        var delayMillis = Math.floorMod(phaseMillis - nowMillis, intervalMillis);
+
+        if (delayMillis < intervalMillis * MIN_DELAY_RATIO) {
+            delayMillis += intervalMillis;
+        }
+
+        return delayMillis;
+    }
+}
@@ -2,13 +2,19 @@ package it.aboutbits.postgresql.core;
 
 import org.jooq.QueryPart;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Objects;
 
 import static org.jooq.impl.DSL.sql;
 
 @NullMarked
 public final class SQLUtil {
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+    private static final String QUERY_CANCELED = "57014";
+
     public static QueryPart concatenateQueryPartsWithSpaces(List<? extends QueryPart> parts) {
         return concatenateQueryParts(parts, " ");
     }
@@ -17,6 +23,36 @@ public final class SQLUtil {
         return concatenateQueryParts(parts, ", ");
     }
 
+    /**
+     * Whether the failure was caused by {@code lock_timeout} (SQLState {@code 55P03} lock_not_available),
+     * i.e. the object is locked by another transaction and the statement can be retried later.
+     */
+    public static boolean isLockTimeout(@Nullable Throwable throwable) {
+        return hasSqlState(throwable, LOCK_NOT_AVAILABLE);
+    }
+
+    /**
+     * Whether the failure was caused by {@code statement_timeout} (SQLState {@code 57014} query_canceled),
+     * i.e. the statement itself ran too long, retrying it soon does not help.
+     */
+    public static boolean isStatementTimeout(@Nullable Throwable throwable) {
+        return hasSqlState(throwable, QUERY_CANCELED);
+    }
+
+    private static boolean hasSqlState(
+            @Nullable Throwable throwable,
+            String sqlState
+    ) {
+        for (var cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && Objects.equals(sqlException.getSQLState(), sqlState)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Concatenate QueryParts with the requested separator
      */
@@ -0,0 +1,31 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Set;
+
+import static it.aboutbits.postgresql.core.KubernetesService.SECRET_DATA_BASIC_AUTH_PASSWORD_KEY;
+import static it.aboutbits.postgresql.core.KubernetesService.SECRET_DATA_BASIC_AUTH_USERNAME_KEY;
+
+/// Informer cache for Secrets, that only keeps the basic-auth `username` and `password` keys of the data,
+/// so certificates, Helm releases or other large Secrets in the watched namespaces only cost their metadata.
+@NullMarked
+public class SecretPruningItemStore extends PruningItemStore<Secret> {
+    private static final Set<String> RETAINED_DATA_KEYS = Set.of(
+            SECRET_DATA_BASIC_AUTH_USERNAME_KEY,
+            SECRET_DATA_BASIC_AUTH_PASSWORD_KEY
+    );
+
+    @Override
+    protected void prune(Secret resource) {
+        super.prune(resource);
+
+        resource.setStringData(null);
+
+        var data = resource.getData();
+        if (data != null) {
+            data.keySet().retainAll(RETAINED_DATA_KEYS);
+        }
+    }
+}
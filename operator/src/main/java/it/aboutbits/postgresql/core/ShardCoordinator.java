@@ -0,0 +1,398 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NonDeletingOperation;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/// Splits the reconciliation work between the Operator replicas by ClusterConnection.
+///
+/// Every replica holds its own `Lease` (labeled as shard member), which it renews periodically.
+/// The replicas with a live Lease form a consistent hash ring, and a replica only reconciles the ClusterConnections,
+/// and the resources referencing them through `clusterRef`, whose `<namespace>/<name>` hashes to itself.
+/// The membership Leases are watched, so the ring is rebuilt as soon as a replica joins or leaves,
+/// and on every renewal to drop the replicas whose Lease expired. Only the keys of that replica move.
+///
+/// A replica waits for the `handover-delay` before it reconciles a ClusterConnection it took over,
+/// so the reconciliations the previous owner started in the meantime can finish.
+/// The subscribers are notified of every ring change, to reconcile the resources this replica took over right away
+/// instead of checking the skipped resources periodically.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class ShardCoordinator {
+    static final String MEMBER_LABEL = "postgresql.aboutbits.it/shard-member";
+    static final String LEASE_NAME_PREFIX = "postgresql-operator-shard-";
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Consumer<Handover>> subscriptions = new CopyOnWriteArrayList<>();
+
+    private volatile Handover handover = Handover.NONE;
+
+    private volatile boolean isMember;
+
+    @Nullable
+    private volatile String identity;
+
+    @Nullable
+    private ScheduledExecutorService executor;
+
+    @Nullable
+    private SharedIndexInformer<Lease> leaseInformer;
+
+    void onStart(@Observes StartupEvent event) {
+        var sharding = operatorConfig.sharding();
+
+        if (!sharding.enabled()) {
+            return;
+        }
+
+        identity = resolveIdentity(sharding);
+
+        Gauge.builder("postgresql.operator.shard.members", this, coordinator -> coordinator.ring().members().size())
+                .description("The number of Operator replicas sharing the ClusterConnections")
+                .register(meterRegistry);
+
+        leaseInformer = kubernetesClient.leases()
+                .inNamespace(leaseNamespace())
+                .withLabel(MEMBER_LABEL, "true")
+                .inform(new ResourceEventHandler<>() {
+                    @Override
+                    public void onAdd(Lease lease) {
+                        rebuildRing();
+                    }
+
+                    @Override
+                    public void onUpdate(Lease oldLease, Lease newLease) {
+                        rebuildRing();
+                    }
+
+                    @Override
+                    public void onDelete(Lease lease, boolean deletedFinalStateUnknown) {
+                        rebuildRing();
+                    }
+                });
+
+        renew();
+
+        var scheduledExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("shard-coordinator").daemon().factory()
+        );
+        scheduledExecutor.scheduleWithFixedDelay(
+                this::renew,
+                sharding.renewInterval().toMillis(),
+                sharding.renewInterval().toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+
+        executor = scheduledExecutor;
+
+        log.info(
+                "Sharding enabled [identity={}, members={}]",
+                identity,
+                ring().members()
+        );
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        var scheduledExecutor = executor;
+        var ownIdentity = identity;
+
+        if (scheduledExecutor == null || ownIdentity == null) {
+            return;
+        }
+
+        scheduledExecutor.shutdownNow();
+
+        var informer = leaseInformer;
+        if (informer != null) {
+            informer.close();
+        }
+
+        // Leave the ring right away, so the other replicas take over without waiting for the Lease to expire
+        try {
+            kubernetesClient.leases()
+                    .inNamespace(leaseNamespace())
+                    .withName(LEASE_NAME_PREFIX + ownIdentity)
+                    .delete();
+        } catch (RuntimeException e) {
+            log.warn(
+                    "Failed to release the shard Lease [identity={}]",
+                    ownIdentity,
+                    e
+            );
+        }
+    }
+
+    public boolean isEnabled() {
+        return operatorConfig.sharding().enabled();
+    }
+
+    /// Registers a subscriber, called on every change of the ring.
+    public void subscribe(Consumer<Handover> onRingChange) {
+        subscriptions.add(onRingChange);
+    }
+
+    /// Whether this replica is responsible for the ClusterConnection `<namespace>/<name>`.
+    /// Always `true` if sharding is disabled, and `false` as long as this replica is not part of the ring
+    /// or still waits for the handover of the ClusterConnection.
+    public boolean owns(
+            String clusterConnectionNamespace,
+            String clusterConnectionName
+    ) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        var current = handover;
+        var key = key(clusterConnectionNamespace, clusterConnectionName);
+
+        return current.isOwned(key) && current.remainingNanos(key, System.nanoTime()) == 0;
+    }
+
+    /// How long this replica still waits before it reconciles the ClusterConnection `<namespace>/<name>` it took over,
+    /// `0` if it is not taking it over.
+    public long handoverRemainingMillis(
+            String clusterConnectionNamespace,
+            String clusterConnectionName
+    ) {
+        if (!isEnabled()) {
+            return 0;
+        }
+
+        var remainingNanos = handover.remainingNanos(
+                key(clusterConnectionNamespace, clusterConnectionName),
+                System.nanoTime()
+        );
+
+        return Math.ceilDiv(remainingNanos, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private ConsistentHashRing ring() {
+        return handover.current;
+    }
+
+    private void renew() {
+        var ownIdentity = Objects.requireNonNull(identity);
+        var sharding = operatorConfig.sharding();
+        var namespace = leaseNamespace();
+        var now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        try {
+            var lease = new LeaseBuilder()
+                    .withNewMetadata()
+                    .withName(LEASE_NAME_PREFIX + ownIdentity)
+                    .withNamespace(namespace)
+                    .addToLabels(MEMBER_LABEL, "true")
+                    .endMetadata()
+                    .withNewSpec()
+                    .withHolderIdentity(ownIdentity)
+                    .withLeaseDurationSeconds((int) sharding.leaseDuration().toSeconds())
+                    .withRenewTime(now)
+                    .endSpec()
+                    .build();
+
+            kubernetesClient.resource(lease)
+                    .createOr(NonDeletingOperation::update);
+
+            isMember = true;
+        } catch (RuntimeException e) {
+            // Without a renewed Lease, the other replicas will take over the ClusterConnections of this replica,
+            // so this replica must stop reconciling them as well
+            log.error(
+                    "Failed to renew the shard Lease, leaving the ring [identity={}]",
+                    ownIdentity,
+                    e
+            );
+
+            isMember = false;
+        }
+
+        rebuildRing();
+    }
+
+    /// Rebuilds the ring from the live members, and notifies the subscribers if the members changed.
+    private synchronized void rebuildRing() {
+        var ownIdentity = Objects.requireNonNull(identity);
+        var informer = leaseInformer;
+        var now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        // This replica's own Lease might not be in the informer cache yet
+        Set<String> members = isMember && informer != null
+                ? Stream.concat(
+                        informer.getStore()
+                                .list()
+                                .stream()
+                                .filter(member -> isAlive(member, now))
+                                .map(member -> member.getSpec().getHolderIdentity()),
+                        Stream.of(ownIdentity)
+                ).collect(Collectors.toSet())
+                : Set.of();
+
+        var current = handover;
+        if (current.current.members().equals(members)) {
+            return;
+        }
+
+        log.info(
+                "Shard members changed, rebalancing [identity={}, members={}]",
+                ownIdentity,
+                members
+        );
+
+        var next = current.next(
+                ConsistentHashRing.of(members, operatorConfig.sharding().virtualNodes()),
+                ownIdentity,
+                System.nanoTime(),
+                operatorConfig.sharding().handoverDelay().toNanos()
+        );
+
+        handover = next;
+
+        for (var subscription : subscriptions) {
+            try {
+                subscription.accept(next);
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Failed to notify a subscriber of the ring change [identity={}]",
+                        ownIdentity,
+                        e
+                );
+            }
+        }
+    }
+
+    private static String key(
+            String clusterConnectionNamespace,
+            String clusterConnectionName
+    ) {
+        return clusterConnectionNamespace + "/" + clusterConnectionName;
+    }
+
+    /// The configured identity, or else the Pod name, or else a random identity.
+    static String resolveIdentity(OperatorConfig.Sharding sharding) {
+        return sharding.identity()
+                .or(() -> Optional.ofNullable(System.getenv("HOSTNAME")))
+                .orElseGet(() -> UUID.randomUUID().toString());
+    }
+
+    private String leaseNamespace() {
+        return operatorConfig.sharding()
+                .leaseNamespace()
+                .orElseGet(kubernetesClient::getNamespace);
+    }
+
+    private static boolean isAlive(
+            Lease lease,
+            ZonedDateTime now
+    ) {
+        var spec = lease.getSpec();
+
+        if (spec == null || spec.getHolderIdentity() == null || spec.getRenewTime() == null) {
+            return false;
+        }
+
+        var leaseDurationSeconds = Objects.requireNonNullElse(spec.getLeaseDurationSeconds(), 0);
+
+        return spec.getRenewTime()
+                .plusSeconds(leaseDurationSeconds)
+                .isAfter(now);
+    }
+
+    /// A change of the ring, as seen by this replica.
+    public static final class Handover {
+        static final Handover NONE = new Handover(ConsistentHashRing.EMPTY, ConsistentHashRing.EMPTY, "", 0);
+
+        private final ConsistentHashRing previous;
+        private final ConsistentHashRing current;
+        private final String identity;
+        private final long deadlineNanos;
+
+        Handover(
+                ConsistentHashRing previous,
+                ConsistentHashRing current,
+                String identity,
+                long deadlineNanos
+        ) {
+            this.previous = previous;
+            this.current = current;
+            this.identity = identity;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /// Whether this replica takes over the ClusterConnection `<namespace>/<name>` with this change.
+        public boolean isTakenOver(
+                String clusterConnectionNamespace,
+                String clusterConnectionName
+        ) {
+            return isTakenOver(key(clusterConnectionNamespace, clusterConnectionName));
+        }
+
+        /// The change to the `next` ring. While this handover is still pending,
+        /// the keys it takes over are compared to its previous ring, as this replica did not reconcile them yet.
+        Handover next(
+                ConsistentHashRing next,
+                String ownIdentity,
+                long nowNanos,
+                long handoverDelayNanos
+        ) {
+            return new Handover(
+                    nowNanos - deadlineNanos < 0 ? previous : current,
+                    next,
+                    ownIdentity,
+                    nowNanos + handoverDelayNanos
+            );
+        }
+
+        boolean isOwned(String key) {
+            return identity.equals(current.ownerOf(key));
+        }
+
+        boolean isTakenOver(String key) {
+            return isOwned(key) && !identity.equals(previous.ownerOf(key));
+        }
+
+        /// How long this replica still waits for the previous owner of the key, `0` if it does not take it over.
+        long remainingNanos(
+                String key,
+                long nowNanos
+        ) {
+            if (!isTakenOver(key)) {
+                return 0;
+            }
+
+            return Math.max(0, deadlineNanos - nowNanos);
+        }
+    }
+}
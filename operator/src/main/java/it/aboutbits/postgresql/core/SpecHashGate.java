@@ -0,0 +1,140 @@
+package it.aboutbits.postgresql.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.micrometer.core.instrument.MeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/// Short-circuits reconciliations of resources that were fully verified recently with the same effective spec.
+///
+/// The effective spec is the spec itself, the referenced ClusterConnection and further resolved inputs
+/// (e.g. the uid and resourceVersion of a Role's password Secret, never the password itself). Its SHA-256 hash
+/// and the time of the last successful full verification are recorded in the status. Within the `drift-check.interval`
+/// of the resource's kind, a periodic or secondary-triggered reconciliation with an unchanged hash returns right away,
+/// without opening a database connection.
+@NullMarked
+@ApplicationScoped
+@RequiredArgsConstructor
+public class SpecHashGate {
+    private final OperatorConfig operatorConfig;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    /// The hash of the effective spec.
+    ///
+    /// @param input further inputs of the resource that are not part of its spec (e.g. the version of a password Secret),
+    ///              `null` if none, never a secret itself, as the hash is stored in the status
+    public String hash(
+            CustomResource<?, ?> resource,
+            ClusterConnection clusterConnection,
+            @Nullable String input
+    ) {
+        try {
+            return sha256("%s/%s/%d/%s".formatted(
+                    objectMapper.writeValueAsString(resource.getSpec()),
+                    clusterConnection.getMetadata().getUid(),
+                    clusterConnection.getMetadata().getGeneration(),
+                    input != null ? input : ""
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("The spec of %s/%s cannot be serialized".formatted(
+                    resource.getMetadata().getNamespace(),
+                    resource.getMetadata().getName()
+            ), e);
+        }
+    }
+
+    /// Whether the resource is READY and was fully verified with the same spec hash within the drift check interval.
+    public boolean isVerified(
+            CustomResource<?, ?> resource,
+            CRStatus status,
+            String specHash
+    ) {
+        var interval = interval(resource);
+
+        if (interval.isZero()) {
+            return false;
+        }
+
+        var lastVerifiedTime = status.getLastVerifiedTime();
+        var isVerified = status.getPhase() == CRPhase.READY
+                && specHash.equals(status.getSpecHash())
+                && lastVerifiedTime != null
+                && lastVerifiedTime.plus(interval).isAfter(OffsetDateTime.now(ZoneOffset.UTC));
+
+        if (isVerified) {
+            meterRegistry.counter(
+                    "postgresql.operator.drift.checks",
+                    "kind", resource.getKind(),
+                    "outcome", "short-circuited"
+            ).increment();
+        }
+
+        return isVerified;
+    }
+
+    /// Records a successful full verification in the status.
+    public void verified(
+            CRStatus status,
+            String specHash
+    ) {
+        status.setSpecHash(specHash)
+                .setLastVerifiedTime(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    /// Records a successful full verification in the status and makes sure the status is patched,
+    /// as a verification that found nothing to change returns without a patch and would not persist it.
+    /// The reschedule of the given control is kept.
+    public <P extends HasMetadata> UpdateControl<P> verified(
+            P resource,
+            CRStatus status,
+            String specHash,
+            UpdateControl<P> updateControl
+    ) {
+        verified(status, specHash);
+
+        if (updateControl.isPatchStatus()) {
+            return updateControl;
+        }
+
+        var patchStatus = updateControl.isPatchResource()
+                ? UpdateControl.patchResourceAndStatus(resource)
+                : UpdateControl.patchStatus(resource);
+
+        updateControl.getScheduleDelay().ifPresent(patchStatus::rescheduleAfter);
+
+        return patchStatus;
+    }
+
+    private Duration interval(CustomResource<?, ?> resource) {
+        return operatorConfig.driftCheck()
+                .interval()
+                .getOrDefault(resource.getKind().toLowerCase(Locale.ROOT), Duration.ZERO);
+    }
+
+    static String sha256(String input) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8))
+            );
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
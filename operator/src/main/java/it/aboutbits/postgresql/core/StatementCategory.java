@@ -0,0 +1,22 @@
+package it.aboutbits.postgresql.core;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+
+/// The category a SQL statement is tagged with in the `postgresql.operator.statement` metric.
+@NullMarked
+@RequiredArgsConstructor
+public enum StatementCategory {
+    CATALOG_READ("catalog-read"),
+    GRANT("grant"),
+    REVOKE("revoke"),
+    ALTER_ROLE("alter-role"),
+    CREATE_DATABASE("create-database"),
+    OTHER("other");
+
+    private final String category;
+
+    public String toValue() {
+        return category;
+    }
+}
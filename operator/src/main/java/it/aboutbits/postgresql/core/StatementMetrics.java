@@ -0,0 +1,151 @@
+package it.aboutbits.postgresql.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/// Records the latency of every SQL statement executed by the Operator, tagged by statement category and ClusterConnection,
+/// and reports statements above `postgresql-operator.statements.slow-threshold` in a sampled slow statement log.
+///
+/// The latency is measured up to the end of the execution (for a query, up to the first row).
+/// A lazily fetched cursor stays open while the caller processes its rows, which is not the latency of the statement.
+@NullMarked
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class StatementMetrics {
+    static final String METRIC_NAME = "postgresql.operator.statement";
+
+    private static final String START_NANOS_KEY = StatementMetrics.class.getName() + ".startNanos";
+
+    private static final Pattern PASSWORD_LITERAL = Pattern.compile(
+            "(?i)(password\\s+)'(?:[^']|'')*'"
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final OperatorConfig operatorConfig;
+
+    /// Create a listener for the DSLContext of a single JDBC connection to the given ClusterConnection.
+    public ExecuteListener listener(ClusterConnection clusterConnection) {
+        var cluster = "%s/%s".formatted(
+                clusterConnection.getMetadata().getNamespace(),
+                clusterConnection.getMetadata().getName()
+        );
+
+        return new Listener(cluster);
+    }
+
+    static StatementCategory category(String sql) {
+        var normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+
+        if (normalized.startsWith("select") || normalized.startsWith("with")) {
+            return StatementCategory.CATALOG_READ;
+        }
+        if (normalized.startsWith("grant")) {
+            return StatementCategory.GRANT;
+        }
+        if (normalized.startsWith("revoke")) {
+            return StatementCategory.REVOKE;
+        }
+        if (normalized.startsWith("alter role")) {
+            return StatementCategory.ALTER_ROLE;
+        }
+        if (normalized.startsWith("create database")) {
+            return StatementCategory.CREATE_DATABASE;
+        }
+
+        return StatementCategory.OTHER;
+    }
+
+    static String redact(String sql) {
+        return PASSWORD_LITERAL.matcher(sql).replaceAll("$1'***'");
+    }
+
+    private void record(
+            String cluster,
+            @Nullable String sql,
+            long durationNanos,
+            boolean failed
+    ) {
+        if (sql == null) {
+            return;
+        }
+
+        var category = category(sql);
+
+        Timer.builder(METRIC_NAME)
+                .description("Latency of the SQL statements executed by the Operator")
+                .tag("category", category.toValue())
+                .tag("cluster", cluster)
+                .tag("outcome", failed ? "error" : "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        var statements = operatorConfig.statements();
+
+        if (durationNanos < statements.slowThreshold().toNanos()
+                || ThreadLocalRandom.current().nextDouble() >= statements.slowLogSampleRate()) {
+            return;
+        }
+
+        log.warn(
+                "Slow SQL statement [cluster={}, category={}, duration={}ms, sql={}]",
+                cluster,
+                category.toValue(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                redact(sql)
+        );
+    }
+
+    @RequiredArgsConstructor
+    private final class Listener implements ExecuteListener {
+        private final String cluster;
+
+        @Override
+        public void executeStart(ExecuteContext ctx) {
+            ctx.data(START_NANOS_KEY, System.nanoTime());
+        }
+
+        @Override
+        public void executeEnd(ExecuteContext ctx) {
+            if (!(ctx.data().remove(START_NANOS_KEY) instanceof Long startNanos)) {
+                return;
+            }
+
+            record(
+                    cluster,
+                    ctx.sql(),
+                    System.nanoTime() - startNanos,
+                    false
+            );
+        }
+
+        /// Records the statements that failed before the end of their execution
+        @Override
+        public void end(ExecuteContext ctx) {
+            if (!(ctx.data().remove(START_NANOS_KEY) instanceof Long startNanos)) {
+                return;
+            }
+
+            record(
+                    cluster,
+                    ctx.sql(),
+                    System.nanoTime() - startNanos,
+                    ctx.exception() != null
+            );
+        }
+    }
+}
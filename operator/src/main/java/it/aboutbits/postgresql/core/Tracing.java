@@ -0,0 +1,152 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.function.Supplier;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+/// OpenTelemetry spans for the phases of a reconciliation: Kubernetes API calls, the JDBC connect,
+/// every SQL statement and the status patches, all as children of one span per reconciliation.
+@NullMarked
+@ApplicationScoped
+@RequiredArgsConstructor
+public class Tracing {
+    public static final AttributeKey<String> RESOURCE_KIND = stringKey("k8s.resource.kind");
+    public static final AttributeKey<String> RESOURCE_NAMESPACE = stringKey("k8s.namespace.name");
+    public static final AttributeKey<String> RESOURCE_NAME = stringKey("k8s.resource.name");
+    public static final AttributeKey<String> CLUSTER = stringKey("postgresql.cluster");
+
+    private static final AttributeKey<String> DB_SYSTEM = stringKey("db.system");
+    private static final AttributeKey<String> DB_NAMESPACE = stringKey("db.namespace");
+    private static final AttributeKey<String> DB_OPERATION = stringKey("db.operation.name");
+    private static final AttributeKey<String> DB_QUERY_TEXT = stringKey("db.query.text");
+
+    private static final String SPAN_KEY = Tracing.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    /// Runs the body in a new root span for the given operation on the resource, e.g. `Grant reconcile`.
+    public <T> T inResourceSpan(
+            String operation,
+            HasMetadata resource,
+            Supplier<T> body
+    ) {
+        var span = tracer.spanBuilder("%s %s".formatted(resource.getKind(), operation))
+                .setNoParent()
+                .setSpanKind(SpanKind.INTERNAL)
+                .setAttribute(RESOURCE_KIND, resource.getKind())
+                .setAttribute(RESOURCE_NAMESPACE, resource.getMetadata().getNamespace())
+                .setAttribute(RESOURCE_NAME, resource.getMetadata().getName())
+                .startSpan();
+
+        return run(span, body);
+    }
+
+    /// Runs the body in a child span of the current span.
+    public <T> T inSpan(
+            String spanName,
+            SpanKind spanKind,
+            Supplier<T> body
+    ) {
+        var span = tracer.spanBuilder(spanName)
+                .setSpanKind(spanKind)
+                .startSpan();
+
+        return run(span, body);
+    }
+
+    /// Tags the current span (and thereby the reconciliation) with the ClusterConnection it operates on.
+    public void tagCluster(ClusterConnection clusterConnection) {
+        Span.current().setAttribute(CLUSTER, cluster(clusterConnection));
+    }
+
+    /// Create a listener that records a client span for every SQL statement executed on the connection.
+    public ExecuteListener listener(
+            ClusterConnection clusterConnection,
+            String database
+    ) {
+        return new Listener(
+                cluster(clusterConnection),
+                database
+        );
+    }
+
+    private static String cluster(ClusterConnection clusterConnection) {
+        return "%s/%s".formatted(
+                clusterConnection.getMetadata().getNamespace(),
+                clusterConnection.getMetadata().getName()
+        );
+    }
+
+    private static <T> T run(
+            Span span,
+            Supplier<T> body
+    ) {
+        try (var _ = span.makeCurrent()) {
+            return body.get();
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private final class Listener implements ExecuteListener {
+        private final String cluster;
+        private final String database;
+
+        @Override
+        public void executeStart(ExecuteContext ctx) {
+            var sql = ctx.sql();
+            var category = sql == null
+                    ? StatementCategory.OTHER
+                    : StatementMetrics.category(sql);
+
+            var spanBuilder = tracer.spanBuilder("SQL %s".formatted(category.toValue()))
+                    .setParent(Context.current())
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setAttribute(DB_SYSTEM, "postgresql")
+                    .setAttribute(DB_NAMESPACE, database)
+                    .setAttribute(DB_OPERATION, category.toValue())
+                    .setAttribute(CLUSTER, cluster);
+
+            if (sql != null) {
+                spanBuilder.setAttribute(DB_QUERY_TEXT, StatementMetrics.redact(sql));
+            }
+
+            ctx.data(SPAN_KEY, spanBuilder.startSpan());
+        }
+
+        @Override
+        public void end(ExecuteContext ctx) {
+            if (!(ctx.data(SPAN_KEY) instanceof Span span)) {
+                return;
+            }
+
+            var exception = ctx.exception();
+            if (exception != null) {
+                span.recordException(exception);
+                span.setStatus(StatusCode.ERROR);
+            }
+
+            span.end();
+        }
+    }
+}
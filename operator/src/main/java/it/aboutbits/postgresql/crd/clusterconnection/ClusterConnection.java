@@ -6,7 +6,6 @@ import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.model.annotation.Group;
 import io.fabric8.kubernetes.model.annotation.Version;
-import it.aboutbits.postgresql.core.CRStatus;
 import it.aboutbits.postgresql.core.Named;
 import org.jspecify.annotations.NullMarked;
 
@@ -43,7 +42,7 @@ import java.util.StringJoiner;
         type = AdditionalPrinterColumn.Type.DATE
 )
 public class ClusterConnection
-        extends CustomResource<ClusterConnectionSpec, CRStatus>
+        extends CustomResource<ClusterConnectionSpec, ClusterConnectionStatus>
         implements Namespaced, Named {
     @Override
     @JsonIgnore
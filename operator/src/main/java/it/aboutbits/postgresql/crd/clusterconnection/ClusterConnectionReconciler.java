@@ -1,21 +1,41 @@
 package it.aboutbits.postgresql.crd.clusterconnection;
 
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.inbound.SimpleInboundEventSource;
+import io.quarkiverse.operatorsdk.annotations.AdditionalRBACRules;
+import io.quarkiverse.operatorsdk.annotations.RBACRule;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
-import it.aboutbits.postgresql.core.CRStatus;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.PruningItemStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NullMarked;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @NullMarked
 @Slf4j
+@AdditionalRBACRules({
+        @RBACRule(
+                apiGroups = {"coordination.k8s.io"},
+                resources = {"leases"},
+                verbs = {"get", "list", "watch", "create", "update", "patch", "delete"}
+        )
+})
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
 @RequiredArgsConstructor
 public class ClusterConnectionReconciler
-        extends BaseReconciler<ClusterConnection, CRStatus>
+        extends BaseReconciler<ClusterConnection, ClusterConnectionStatus>
         implements Reconciler<ClusterConnection> {
     private final PostgreSQLContextFactory contextFactory;
 
@@ -23,9 +43,31 @@ public class ClusterConnectionReconciler
     public UpdateControl<ClusterConnection> reconcile(
             ClusterConnection resource,
             Context<ClusterConnection> context
+    ) {
+        var metadata = resource.getMetadata();
+
+        if (!shardCoordinator().owns(metadata.getNamespace(), metadata.getName())) {
+            return skipNotOwned(resource, metadata.getNamespace(), metadata.getName());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<ClusterConnection> reconcileResource(
+            ClusterConnection resource,
+            Context<ClusterConnection> context
     ) {
         var status = initializeStatus(resource);
 
+        tracing().tagCluster(resource);
+
         var name = resource.getMetadata().getName();
         var namespace = resource.getMetadata().getNamespace();
 
@@ -40,6 +82,7 @@ public class ClusterConnectionReconciler
             var version = dsl.fetchSingle("select version()").into(String.class);
 
             status.setPhase(CRPhase.READY).setMessage(version);
+            status.setConcurrencyLimit(concurrencyLimiter().currentLimit(resource));
 
             return UpdateControl.patchStatus(resource);
         } catch (Exception e) {
@@ -53,8 +96,31 @@ public class ClusterConnectionReconciler
         }
     }
 
+    /// Reconciles the ClusterConnections this replica takes over, the ones admitted by the fair scheduler,
+    /// and the ones whose concurrency limit changed, to report the limit in their status.
+    @Override
+    public List<EventSource<?, ClusterConnection>> prepareEventSources(EventSourceContext<ClusterConnection> context) {
+        var eventSources = new ArrayList<>(commonEventSources(
+                context,
+                (handover, resource) -> handover.isTakenOver(
+                        resource.getMetadata().getNamespace(),
+                        resource.getMetadata().getName()
+                )
+        ));
+
+        if (operatorConfig().clusterConcurrency().enabled()) {
+            var limitEventSource = new SimpleInboundEventSource<Void, ClusterConnection>();
+
+            concurrencyLimiter().subscribe(limitEventSource::propagateEvent);
+
+            eventSources.add(limitEventSource);
+        }
+
+        return eventSources;
+    }
+
     @Override
-    protected CRStatus newStatus() {
-        return new CRStatus();
+    protected ClusterConnectionStatus newStatus() {
+        return new ClusterConnectionStatus();
     }
 }
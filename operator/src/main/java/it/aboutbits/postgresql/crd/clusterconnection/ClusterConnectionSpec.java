@@ -8,6 +8,7 @@ import it.aboutbits.postgresql.core.SecretRef;
 import lombok.Getter;
 import lombok.Setter;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -40,4 +41,32 @@ public class ClusterConnectionSpec {
 
     @io.fabric8.generator.annotation.Nullable
     private Map<String, String> parameters = new HashMap<>();
+
+    /// Whether Role passwords are sent to PostgreSQL in cleartext (`Server`), or as a SCRAM-SHA-256 verifier
+    /// computed by the Operator (`ScramSha256`), which moves the PBKDF2 cost away from the database server.
+    /// Not set (or `null`) is the same as `Server`.
+    @Nullable
+    @io.fabric8.generator.annotation.Nullable
+    private PasswordEncryption passwordEncryption = PasswordEncryption.SERVER;
+
+    /// The PostgreSQL `lock_timeout` of the Operator's connections (e.g. `5s`), so statements waiting behind
+    /// a long-running `alter table` or `vacuum full` give up instead of pinning a worker thread.
+    /// Objects that time out are reported as busy and retried with backoff.
+    /// A space between the number and the unit (`5 s`) is accepted, like PostgreSQL does.
+    @Nullable
+    @io.fabric8.generator.annotation.Nullable
+    @ValidationRule(
+            value = "self.matches('^[0-9]+ ?(us|ms|s|min|h|d)?$')",
+            message = "The ClusterConnection lockTimeout must be a PostgreSQL duration like '5s', '5 s' or '500ms'."
+    )
+    private String lockTimeout = null;
+
+    /// The PostgreSQL `statement_timeout` of the Operator's connections (e.g. `60s`).
+    @Nullable
+    @io.fabric8.generator.annotation.Nullable
+    @ValidationRule(
+            value = "self.matches('^[0-9]+ ?(us|ms|s|min|h|d)?$')",
+            message = "The ClusterConnection statementTimeout must be a PostgreSQL duration like '60s', '60 s' or '5min'."
+    )
+    private String statementTimeout = null;
 }
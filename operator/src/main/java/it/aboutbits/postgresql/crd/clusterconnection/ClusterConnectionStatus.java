@@ -0,0 +1,26 @@
+package it.aboutbits.postgresql.crd.clusterconnection;
+
+import it.aboutbits.postgresql.core.CRStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Status Object for the ClusterConnection.
+ * <p>
+ * Extends the common status with the adaptive limit of concurrent reconciliations against the cluster.
+ */
+@NullMarked
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ClusterConnectionStatus extends CRStatus {
+    /**
+     * The current limit of concurrent reconciliations against the cluster
+     * ({@code null} if adaptive concurrency is disabled).
+     */
+    @Nullable
+    private Integer concurrencyLimit = null;
+}
@@ -0,0 +1,27 @@
+package it.aboutbits.postgresql.crd.clusterconnection;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Where the password verifier of a LOGIN role is computed.
+ * <a href="https://www.postgresql.org/docs/current/auth-password.html">
+ * https://www.postgresql.org/docs/current/auth-password.html
+ * </a>
+ */
+@NullMarked
+@RequiredArgsConstructor
+public enum PasswordEncryption {
+    /// The cleartext password is sent to PostgreSQL, which computes the verifier based on `password_encryption`.
+    SERVER("Server"),
+    /// The Operator computes the SCRAM-SHA-256 verifier and sends it instead of the cleartext password.
+    SCRAM_SHA_256("ScramSha256");
+
+    private final String encryption;
+
+    @JsonValue
+    public String toValue() {
+        return encryption;
+    }
+}
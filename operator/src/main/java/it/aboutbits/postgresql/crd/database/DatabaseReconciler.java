@@ -1,39 +1,84 @@
 package it.aboutbits.postgresql.crd.database;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CleanupCascade;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.PruningItemStore;
 import it.aboutbits.postgresql.core.ReclaimPolicy;
+import it.aboutbits.postgresql.core.SpecHashGate;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jspecify.annotations.NullMarked;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 @NullMarked
 @Slf4j
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class),
+        triggerReconcilerOnAllEvents = true
+)
 @RequiredArgsConstructor
 public class DatabaseReconciler
         extends BaseReconciler<Database, CRStatus>
-        implements Reconciler<Database>, Cleaner<Database> {
+        implements Reconciler<Database> {
     private final DatabaseService databaseService;
 
     private final KubernetesClient kubernetesClient;
     private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
 
     @Override
     public UpdateControl<Database> reconcile(
             Database resource,
             Context<Database> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        // Only databases that are dropped on deletion need a finalizer, RETAIN ones are deleted right away
+        return reconcileWithConditionalFinalizer(
+                context,
+                resource,
+                resource.getSpec().getReclaimPolicy() == ReclaimPolicy.DELETE,
+                () -> traced(
+                        "reconcile",
+                        resource,
+                        () -> reconcileFairly(
+                                resource,
+                                () -> reconcileResource(resource, context)
+                        )
+                ),
+                () -> traced(
+                        "cleanup",
+                        resource,
+                        () -> cleanupResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<Database> reconcileResource(
+            Database resource,
+            Context<Database> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -69,12 +114,25 @@ public class DatabaseReconciler
 
         var clusterConnection = clusterConnectionOptional.get();
 
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+        if (specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
         UpdateControl<Database> updateControl;
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection)) {
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection)) {
             // PostgreSQL doesn't allow running `create database` in a transaction
             updateControl = reconcile(
                     dsl,
+                    clusterConnection,
                     resource,
                     status
             );
@@ -86,11 +144,14 @@ public class DatabaseReconciler
             );
         }
 
+        if (status.getPhase() == CRPhase.READY) {
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
         return updateControl;
     }
 
-    @Override
-    public DeleteControl cleanup(
+    private DeleteControl cleanupResource(
             Database resource,
             Context<Database> context
     ) {
@@ -116,10 +177,11 @@ public class DatabaseReconciler
                 status.setMessage("Database deletion in progress");
             }
 
-            context.getClient().resource(resource).patchStatus();
+            var roundTrip = deletingRoundTrip(context, resource);
 
-            return DeleteControl.noFinalizerRemoval()
-                    .rescheduleAfter(100, TimeUnit.MILLISECONDS);
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
         }
 
         // We do not actually delete the database if the reclaimPolicy is set to RETAIN, we only delete the CR instance
@@ -141,7 +203,7 @@ public class DatabaseReconciler
                     clusterRef.getName()
             ));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -149,9 +211,12 @@ public class DatabaseReconciler
 
         var clusterConnection = clusterConnectionOptional.get();
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection)) {
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection)) {
             databaseService.dropDatabase(dsl, spec);
 
+            catalogOidCache.invalidateNamespaces(clusterConnection, spec.getName());
+            cleanupCascade.databaseDropped(clusterConnection, spec.getName());
+
             return DeleteControl.defaultDelete();
         } catch (Exception e) {
             log.error(
@@ -166,13 +231,19 @@ public class DatabaseReconciler
 
             status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
         }
     }
 
+    /// Reconciles the Databases this replica takes over with their ClusterConnection, and the ones admitted by the fair scheduler.
+    @Override
+    public List<EventSource<?, Database>> prepareEventSources(EventSourceContext<Database> context) {
+        return commonEventSources(context, resource -> resource.getSpec().getClusterRef());
+    }
+
     @Override
     protected CRStatus newStatus() {
         return new CRStatus();
@@ -180,6 +251,7 @@ public class DatabaseReconciler
 
     private UpdateControl<Database> reconcile(
             DSLContext dsl,
+            ClusterConnection clusterConnection,
             Database resource,
             CRStatus status
     ) {
@@ -201,6 +273,9 @@ public class DatabaseReconciler
                     spec
             );
 
+            catalogOidCache.invalidateNamespaces(clusterConnection, spec.getName());
+            cleanupCascade.databaseCreated(clusterConnection, spec.getName());
+
             status.setPhase(CRPhase.READY)
                     .setMessage(null);
 
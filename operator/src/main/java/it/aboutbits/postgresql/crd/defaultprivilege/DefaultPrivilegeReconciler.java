@@ -1,22 +1,34 @@
 package it.aboutbits.postgresql.crd.defaultprivilege;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogOids;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.core.PruningItemStore;
+import it.aboutbits.postgresql.core.SpecHashGate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -24,6 +36,9 @@ import java.util.stream.Collectors;
 
 @NullMarked
 @Slf4j
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
 @RequiredArgsConstructor
 public class DefaultPrivilegeReconciler
         extends BaseReconciler<DefaultPrivilege, CRStatus>
@@ -32,11 +47,33 @@ public class DefaultPrivilegeReconciler
 
     private final KubernetesClient kubernetesClient;
     private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
 
     @Override
     public UpdateControl<DefaultPrivilege> reconcile(
             DefaultPrivilege resource,
             Context<DefaultPrivilege> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<DefaultPrivilege> reconcileResource(
+            DefaultPrivilege resource,
+            Context<DefaultPrivilege> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -94,18 +131,41 @@ public class DefaultPrivilegeReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+        if (specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
         UpdateControl<DefaultPrivilege> updateControl;
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            watermark = catalogWatermark.probe(dsl, clusterConnection, database);
+
+            if (catalogWatermark.isUnchanged(resource, clusterConnection, null, watermark)) {
+                return UpdateControl.noUpdate();
+            }
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
             // Run everything in a single transaction
             updateControl = dsl.transactionResult(
                     cfg -> reconcileInTransaction(
                             cfg.dsl(),
+                            catalogOidCache.forDatabase(cfg.dsl(), clusterConnection, database),
                             resource,
                             status
                     )
             );
         } catch (Exception e) {
+            // The failure might have been caused by an outdated role or namespace OID
+            catalogOidCache.invalidate(clusterConnection, database);
+
             return handleError(
                     resource,
                     status,
@@ -113,6 +173,11 @@ public class DefaultPrivilegeReconciler
             );
         }
 
+        if (status.getPhase() == CRPhase.READY) {
+            catalogWatermark.record(resource, clusterConnection, null, watermark);
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
         return updateControl;
     }
 
@@ -120,6 +185,23 @@ public class DefaultPrivilegeReconciler
     public DeleteControl cleanup(
             DefaultPrivilege resource,
             Context<DefaultPrivilege> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipCleanupNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        catalogWatermark.forget(resource);
+
+        return traced(
+                "cleanup",
+                resource,
+                () -> cleanupResource(resource, context)
+        );
+    }
+
+    private DeleteControl cleanupResource(
+            DefaultPrivilege resource,
+            Context<DefaultPrivilege> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -134,14 +216,21 @@ public class DefaultPrivilegeReconciler
                 status.getPhase()
         );
 
+        var target = cleanupTarget(resource, spec.getClusterRef(), spec.getDatabase());
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
         if (status.getPhase() != CRPhase.DELETING) {
             status.setPhase(CRPhase.DELETING)
                     .setMessage("DefaultPrivilege deletion in progress");
 
-            context.getClient().resource(resource).patchStatus();
+            var roundTrip = deletingRoundTrip(context, resource);
 
-            return DeleteControl.noFinalizerRemoval()
-                    .rescheduleAfter(100, TimeUnit.MILLISECONDS);
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
         }
 
         var clusterRef = spec.getClusterRef();
@@ -153,12 +242,16 @@ public class DefaultPrivilegeReconciler
         );
 
         if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
             status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
                     getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
                     clusterRef.getName()
             ));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -167,11 +260,12 @@ public class DefaultPrivilegeReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
             dsl.transaction(cfg -> {
                 var tx = cfg.dsl();
+                var oids = catalogOidCache.forDatabase(tx, clusterConnection, database);
 
-                var currentDefaultPrivileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(tx, spec);
+                var currentDefaultPrivileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(tx, oids, spec);
 
                 if (!currentDefaultPrivileges.isEmpty()) {
                     defaultPrivilegeService.revoke(
@@ -184,6 +278,12 @@ public class DefaultPrivilegeReconciler
 
             return DeleteControl.defaultDelete();
         } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            catalogOidCache.invalidate(clusterConnection, database);
+
             log.error(
                     "Failed to delete DefaultPrivilege [resource={}/{}, status.phase={}]",
                     namespace,
@@ -193,13 +293,19 @@ public class DefaultPrivilegeReconciler
 
             status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
         }
     }
 
+    /// Reconciles the DefaultPrivileges this replica takes over with their ClusterConnection, and the ones admitted by the fair scheduler.
+    @Override
+    public List<EventSource<?, DefaultPrivilege>> prepareEventSources(EventSourceContext<DefaultPrivilege> context) {
+        return commonEventSources(context, resource -> resource.getSpec().getClusterRef());
+    }
+
     @Override
     protected CRStatus newStatus() {
         return new CRStatus();
@@ -208,6 +314,7 @@ public class DefaultPrivilegeReconciler
     @SuppressWarnings("java:S3776")
     private UpdateControl<DefaultPrivilege> reconcileInTransaction(
             DSLContext tx,
+            CatalogOids oids,
             DefaultPrivilege resource,
             CRStatus status
     ) {
@@ -243,7 +350,7 @@ public class DefaultPrivilegeReconciler
             return UpdateControl.patchStatus(resource);
         }
 
-        var currentDefaultPrivileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(tx, spec);
+        var currentDefaultPrivileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(tx, oids, spec);
 
         // Calculate Revokes: Current - Expected
         var privilegesToRevoke = new HashSet<>(currentDefaultPrivileges);
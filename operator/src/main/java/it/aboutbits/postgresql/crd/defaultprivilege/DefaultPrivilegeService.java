@@ -1,48 +1,41 @@
 package it.aboutbits.postgresql.crd.defaultprivilege;
 
+import it.aboutbits.postgresql.core.CatalogOids;
 import it.aboutbits.postgresql.core.Privilege;
 import it.aboutbits.postgresql.core.SQLUtil;
 import it.aboutbits.postgresql.core.infrastructure.persistence.Routines;
 import jakarta.inject.Singleton;
 import org.jooq.DSLContext;
-import org.jooq.DataType;
-import org.jooq.impl.SQLDataType;
 import org.jspecify.annotations.NullMarked;
 
+import java.util.Objects;
 import java.util.Set;
 
 import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.ACLEXPLODE;
 import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_DEFAULT_ACL;
 import static it.aboutbits.postgresql.crd.defaultprivilege.DefaultPrivilegeObjectType.SCHEMA;
-import static org.jooq.impl.DSL.field;
 import static org.jooq.impl.DSL.noCondition;
 import static org.jooq.impl.DSL.query;
 import static org.jooq.impl.DSL.quotedName;
 import static org.jooq.impl.DSL.role;
 import static org.jooq.impl.DSL.sql;
-import static org.jooq.impl.DSL.val;
 
 @NullMarked
 @Singleton
 public class DefaultPrivilegeService {
-    private static final DataType<Long> OID_DATA_TYPE = SQLDataType.BIGINT;
-
-    // language=SQL
-    private static final String ROLE_OID_SQL = "{0}::regrole";
-    // language=SQL
-    private static final String NAMESPACE_OID_SQL = "{0}::regnamespace";
-
     /// Determines all existing default privileges for the specified `role`, `schema`, and the given `objectType`.
     ///
     /// @param tx   The DSLContext for database operations.
+    /// @param oids The role and namespace OIDs of the database.
     /// @param spec The DefaultPrivilegeSpec containing the specification details.
     /// @return A set of Privilege as values.
     public Set<Privilege> determineCurrentDefaultPrivileges(
             DSLContext tx,
+            CatalogOids oids,
             DefaultPrivilegeSpec spec
     ) {
-        var owner = spec.getOwner();
-        var role = spec.getRole();
+        var ownerOid = oids.role(spec.getOwner());
+        var roleOid = oids.role(spec.getRole());
         var schema = spec.getSchema();
 
         var objectType = spec.getObjectType();
@@ -54,36 +47,25 @@ public class DefaultPrivilegeService {
          * from pg_catalog.pg_default_acl d
          * cross join aclexplode(d.defaclacl) a
          * where
+         *   d.defaclrole = :owner_oid
          *   -- One of the following conditions
-         *   --d.defaclobjtype = 'n' -- For schema
-         *   --d.defaclobjtype = 'r' -- For table/view
-         *   --d.defaclobjtype = 'S' -- For sequence
-         *   --and d.defaclnamespace = '<schema_name>'::regnamespace -- Only if d.defaclobjtype is not 'n' (schema)
-         *   and a.grantee = '<role_name>'::regrole
+         *   --and d.defaclobjtype = 'n' -- For schema
+         *   --and d.defaclobjtype = 'r' -- For table/view
+         *   --and d.defaclobjtype = 'S' -- For sequence
+         *   --and d.defaclnamespace = :schema_oid -- Only if d.defaclobjtype is not 'n' (schema)
+         *   and a.grantee = :role_oid
          */
         var currentObjectPrivileges = tx
                 .select(ACLEXPLODE.PRIVILEGE_TYPE)
                 .from(PG_DEFAULT_ACL)
                 .crossJoin(Routines.aclexplode(PG_DEFAULT_ACL.DEFACLACL))
                 .where(
-                        PG_DEFAULT_ACL.DEFACLROLE.eq(field(
-                                ROLE_OID_SQL,
-                                OID_DATA_TYPE,
-                                val(owner)
-                        )),
+                        PG_DEFAULT_ACL.DEFACLROLE.eq(ownerOid),
                         PG_DEFAULT_ACL.DEFACLOBJTYPE.eq(objectType.objectTypeChar()),
                         objectType == SCHEMA
                                 ? noCondition()
-                                : PG_DEFAULT_ACL.DEFACLNAMESPACE.eq(field(
-                                        NAMESPACE_OID_SQL,
-                                        OID_DATA_TYPE,
-                                        val(schema)
-                                )),
-                        ACLEXPLODE.GRANTEE.eq(field(
-                                ROLE_OID_SQL,
-                                OID_DATA_TYPE,
-                                val(role)
-                        ))
+                                : PG_DEFAULT_ACL.DEFACLNAMESPACE.eq(oids.namespace(Objects.requireNonNull(schema))),
+                        ACLEXPLODE.GRANTEE.eq(roleOid)
                 )
                 .fetch(r -> r.get(ACLEXPLODE.PRIVILEGE_TYPE, Privilege.class));
 
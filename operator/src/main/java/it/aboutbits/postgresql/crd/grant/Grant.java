@@ -6,7 +6,6 @@ import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.model.annotation.Group;
 import io.fabric8.kubernetes.model.annotation.Version;
-import it.aboutbits.postgresql.core.CRStatus;
 import it.aboutbits.postgresql.core.Named;
 import org.jspecify.annotations.NullMarked;
 
@@ -39,7 +38,7 @@ import org.jspecify.annotations.NullMarked;
         type = AdditionalPrinterColumn.Type.DATE
 )
 public class Grant
-        extends CustomResource<GrantSpec, CRStatus>
+        extends CustomResource<GrantSpec, GrantStatus>
         implements Namespaced, Named {
     @Override
     @JsonIgnore
@@ -0,0 +1,54 @@
+package it.aboutbits.postgresql.crd.grant;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Checkpoint of a Grant applied or revoked in chunks, one transaction per chunk.
+ * <p>
+ * The objects are processed ordered by name, the next chunk continues after the {@link #cursor}.
+ */
+@NullMarked
+@Getter
+@Setter
+@Accessors(chain = true)
+public class GrantProgress {
+    /**
+     * The name of the last object of the last committed chunk.
+     */
+    @Nullable
+    private String cursor = null;
+
+    /**
+     * The resource generation the checkpoint belongs to, a changed spec starts over.
+     */
+    private long observedGeneration = 0;
+
+    /**
+     * Objects processed so far.
+     */
+    private long processedObjects = 0;
+
+    /**
+     * Objects privileges were granted on so far.
+     */
+    private long grantedObjects = 0;
+
+    /**
+     * Objects privileges were revoked from so far.
+     */
+    private long revokedObjects = 0;
+
+    /**
+     * Objects skipped so far, as the role owns them.
+     */
+    private long ownedObjects = 0;
+
+    /**
+     * Objects locked by other transactions so far.
+     */
+    private long busyObjects = 0;
+}
@@ -1,26 +1,41 @@
 package it.aboutbits.postgresql.crd.grant;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.inbound.SimpleInboundEventSource;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
-import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogOids;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
+import it.aboutbits.postgresql.core.DdlEventListener;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.core.PruningItemStore;
+import it.aboutbits.postgresql.core.SQLUtil;
+import it.aboutbits.postgresql.core.SpecHashGate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -29,19 +44,54 @@ import static org.jooq.impl.DSL.quotedName;
 
 @NullMarked
 @Slf4j
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
 @RequiredArgsConstructor
 public class GrantReconciler
-        extends BaseReconciler<Grant, CRStatus>
+        extends BaseReconciler<Grant, GrantStatus>
         implements Reconciler<Grant>, Cleaner<Grant> {
+    /// The owned objects listed in the status message at most.
+    private static final int MAX_LISTED_OBJECTS = 100;
+
+    /// The delay before the next chunk of a Grant applied in chunks, so other resources get their turn in between.
+    private static final long CHUNK_DELAY_MILLIS = 100;
+
     private final GrantService grantService;
 
     private final KubernetesClient kubernetesClient;
     private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
+    private final DdlEventListener ddlEventListener;
+
+    /// The Grants affected by a created table or sequence that were not applied since, they bypass the spec hash gate.
+    private final Set<ResourceID> ddlTriggered = ConcurrentHashMap.newKeySet();
 
     @Override
     public UpdateControl<Grant> reconcile(
             Grant resource,
             Context<Grant> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<Grant> reconcileResource(
+            Grant resource,
+            Context<Grant> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -99,18 +149,60 @@ public class GrantReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+        var resourceId = ResourceID.fromResource(resource);
+
+        // A DDL event or a pending chunk bypasses the gates until the last chunk committed,
+        // as the recorded hash and watermark still stem from the verification before the re-apply started
+        var isApplying = ddlTriggered.contains(resourceId) || status.getProgress() != null;
+
+        if (!isApplying && specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
+        // The checkpoint is only replaced, never mutated, so it can be restored if the chunk did not commit
+        var checkpoint = status.getProgress();
+        var busyObjects = new BusyObjects(clusterConnection.getSpec().getLockTimeout() != null);
+
         UpdateControl<Grant> updateControl;
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            // A re-apply in chunks keeps bypassing the gates through its progress
+            ddlTriggered.remove(resourceId);
+
+            watermark = catalogWatermark.probe(dsl, clusterConnection, database);
+
+            if (!isApplying && catalogWatermark.isUnchanged(resource, clusterConnection, null, watermark)) {
+                return UpdateControl.noUpdate();
+            }
+
+            if (isTableOrSequence(spec)) {
+                ddlEventListener.dropLeftoverTrigger(dsl, listenerKey(resource));
+            }
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
             // Run everything in a single transaction
             updateControl = dsl.transactionResult(
                     cfg -> reconcileInTransaction(
                             cfg.dsl(),
+                            catalogOidCache.forDatabase(cfg.dsl(), clusterConnection, database),
                             resource,
-                            status
+                            status,
+                            busyObjects
                     )
             );
         } catch (Exception e) {
+            // The failure might have been caused by an outdated role or namespace OID
+            catalogOidCache.invalidate(clusterConnection, database);
+
+            status.setProgress(checkpoint);
+
             return handleError(
                     resource,
                     status,
@@ -118,6 +210,16 @@ public class GrantReconciler
             );
         }
 
+        if (isListenedFor(spec)) {
+            ddlEventListener.listen(clusterConnection, database);
+        }
+
+        // A READY Grant that is verified again in chunks is only verified once its last chunk committed
+        if (status.getPhase() == CRPhase.READY && status.getProgress() == null) {
+            catalogWatermark.record(resource, clusterConnection, null, watermark);
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
         return updateControl;
     }
 
@@ -125,6 +227,23 @@ public class GrantReconciler
     public DeleteControl cleanup(
             Grant resource,
             Context<Grant> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipCleanupNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        catalogWatermark.forget(resource);
+
+        return traced(
+                "cleanup",
+                resource,
+                () -> cleanupResource(resource, context)
+        );
+    }
+
+    private DeleteControl cleanupResource(
+            Grant resource,
+            Context<Grant> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -132,6 +251,8 @@ public class GrantReconciler
         var name = resource.getMetadata().getName();
         var namespace = resource.getMetadata().getNamespace();
 
+        ddlTriggered.remove(ResourceID.fromResource(resource));
+
         log.info(
                 "Deleting Grant [resource={}/{}, status.phase={}]",
                 namespace,
@@ -139,14 +260,22 @@ public class GrantReconciler
                 status.getPhase()
         );
 
+        var target = cleanupTarget(resource, spec.getClusterRef(), spec.getDatabase());
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
         if (status.getPhase() != CRPhase.DELETING) {
-            status.setPhase(CRPhase.DELETING)
+            status.setProgress(null)
+                    .setPhase(CRPhase.DELETING)
                     .setMessage("Grant deletion in progress");
 
-            context.getClient().resource(resource).patchStatus();
+            var roundTrip = deletingRoundTrip(context, resource);
 
-            return DeleteControl.noFinalizerRemoval()
-                    .rescheduleAfter(100, TimeUnit.MILLISECONDS);
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
         }
 
         var clusterRef = spec.getClusterRef();
@@ -158,12 +287,16 @@ public class GrantReconciler
         );
 
         if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
             status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
                     getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
                     clusterRef.getName()
             ));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -172,27 +305,92 @@ public class GrantReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
-            dsl.transaction(cfg -> {
-                var tx = cfg.dsl();
+        var chunkSize = chunkSize(spec);
+        var checkpoint = status.getProgress();
+        var tally = new ChunkTally();
 
-                var currentObjectPrivileges = grantService.determineCurrentObjectPrivileges(tx, spec);
+        // The other Grants of the database that are deleted together are revoked in the same transaction
+        var bulkGrants = chunkSize > 0 ? List.<Grant>of() : bulkGrants(resource, context, target);
+        var revokedGrants = new ArrayList<Grant>();
 
-                for (var objectPrivileges : currentObjectPrivileges.entrySet()) {
-                    var object = objectPrivileges.getKey();
-                    var privileges = objectPrivileges.getValue();
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            var hasMoreObjects = dsl.transactionResult(cfg -> {
+                var tx = cfg.dsl();
+                var oids = catalogOidCache.forDatabase(tx, clusterConnection, database);
 
-                    grantService.revoke(
+                if (isStreamed(spec)) {
+                    var streamedObjects = grantService.streamObjectPrivileges(
                             tx,
+                            oids,
                             spec,
-                            object,
-                            privileges
+                            checkpoint != null ? checkpoint.getCursor() : null,
+                            chunkSize,
+                            operatorConfig().grants().streamingFetchSize(),
+                            objectPrivileges -> {
+                                tally.processed(objectPrivileges.object());
+
+                                if (!objectPrivileges.privileges().isEmpty()) {
+                                    grantService.revoke(
+                                            tx,
+                                            spec,
+                                            objectPrivileges.object(),
+                                            objectPrivileges.privileges()
+                                    );
+
+                                    tally.revokedObjects++;
+                                }
+                            }
                     );
+
+                    var hasMoreObjects = chunkSize > 0 && streamedObjects == chunkSize;
+
+                    if (!hasMoreObjects && spec.isPartitionAware()) {
+                        grantService.alignPartitionPrivileges(tx, oids, spec, Set.of(), operatorConfig().grants().streamingFetchSize());
+                    }
+
+                    if (!hasMoreObjects) {
+                        revokeInBulk(tx, oids, bulkGrants, revokedGrants);
+                    }
+
+                    return hasMoreObjects;
                 }
+
+                revokeAll(tx, oids, spec);
+                revokeInBulk(tx, oids, bulkGrants, revokedGrants);
+
+                return false;
             });
 
+            if (hasMoreObjects) {
+                var progress = tally.advance(checkpoint, resource.getMetadata().getGeneration());
+
+                status.setProgress(progress)
+                        .setMessage("Grant deletion in progress, revoking in chunks of %d objects [processedObjects=%d, revokedObjects=%d]".formatted(
+                                chunkSize,
+                                progress.getProcessedObjects(),
+                                progress.getRevokedObjects()
+                        ));
+
+                patchStatus(context, resource);
+
+                return DeleteControl.noFinalizerRemoval()
+                        .rescheduleAfter(CHUNK_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+
+            if (isTableOrSequence(spec) && isLastTableOrSequenceGrant(resource, context)) {
+                ddlEventListener.uninstall(dsl, listenerKey(resource));
+            }
+
+            cleanupCascade.resolved(revokedGrants);
+
             return DeleteControl.defaultDelete();
         } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            catalogOidCache.invalidate(clusterConnection, database);
+
             log.error(
                     "Failed to delete Grant [resource={}/{}, status.phase={}]",
                     namespace,
@@ -202,23 +400,119 @@ public class GrantReconciler
 
             status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
         }
     }
 
+    /// Revokes the other Grants of the database in the transaction of the current cleanup,
+    /// with a savepoint per Grant, so a failing one is left to its own cleanup, which reports the failure.
+    private void revokeInBulk(
+            DSLContext tx,
+            CatalogOids oids,
+            List<Grant> bulkGrants,
+            List<Grant> revokedGrants
+    ) {
+        for (var grant : bulkGrants) {
+            try {
+                tx.transaction(nested -> revokeAll(nested.dsl(), oids, grant.getSpec()));
+
+                revokedGrants.add(grant);
+            } catch (DataAccessException e) {
+                log.warn(
+                        "Failed to revoke Grant in bulk, leaving it to its own cleanup [resource={}/{}]",
+                        grant.getMetadata().getNamespace(),
+                        grant.getMetadata().getName(),
+                        e
+                );
+            }
+        }
+    }
+
+    /// Revokes all privileges of a Grant that is cleaned up in a single transaction.
+    private void revokeAll(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantSpec spec
+    ) {
+        if (isStreamed(spec)) {
+            grantService.streamObjectPrivileges(
+                    tx,
+                    oids,
+                    spec,
+                    null,
+                    0,
+                    operatorConfig().grants().streamingFetchSize(),
+                    objectPrivileges -> {
+                        if (!objectPrivileges.privileges().isEmpty()) {
+                            grantService.revoke(
+                                    tx,
+                                    spec,
+                                    objectPrivileges.object(),
+                                    objectPrivileges.privileges()
+                            );
+                        }
+                    }
+            );
+        } else {
+            var currentObjectPrivileges = grantService.determineCurrentObjectPrivileges(tx, oids, spec);
+
+            for (var objectPrivileges : currentObjectPrivileges.entrySet()) {
+                var object = objectPrivileges.getKey();
+                var privileges = objectPrivileges.getValue();
+
+                grantService.revoke(
+                        tx,
+                        spec,
+                        object,
+                        privileges
+                );
+            }
+        }
+
+        if (spec.isPartitionAware()) {
+            grantService.alignPartitionPrivileges(tx, oids, spec, Set.of(), operatorConfig().grants().streamingFetchSize());
+        }
+    }
+
+    /// The other Grants of the same database that are marked for deletion, owned by this replica and not chunked,
+    /// found through the cleanup target index of the informer cache.
+    private List<Grant> bulkGrants(
+            Grant resource,
+            Context<Grant> context,
+            CleanupCascade.Target target
+    ) {
+        if (!cleanupCascade.isEnabled()) {
+            return List.of();
+        }
+
+        var uid = resource.getMetadata().getUid();
+
+        return context.getPrimaryCache()
+                .byIndex(CleanupCascade.TARGET_INDEX, target.indexKey())
+                .stream()
+                .filter(grant -> grant.isMarkedForDeletion()
+                        && !uid.equals(grant.getMetadata().getUid())
+                        && chunkSize(grant.getSpec()) == 0
+                        && isOwnedByThisReplica(grant, grant.getSpec().getClusterRef())
+                )
+                .toList();
+    }
+
     @Override
-    protected CRStatus newStatus() {
-        return new CRStatus();
+    protected GrantStatus newStatus() {
+        return new GrantStatus();
     }
 
     @SuppressWarnings({"checkstyle:MethodLength", "java:S3776"})
     private UpdateControl<Grant> reconcileInTransaction(
             DSLContext tx,
+            CatalogOids oids,
             Grant resource,
-            CRStatus status
+            GrantStatus status,
+            BusyObjects busyObjects
     ) {
         var name = resource.getMetadata().getName();
         var namespace = resource.getMetadata().getNamespace();
@@ -228,13 +522,7 @@ public class GrantReconciler
         var schema = spec.getSchema();
         var objectType = spec.getObjectType();
 
-        var expectedObjects = Set.copyOf(
-                Objects.requireNonNullElse(
-                        spec.getObjects(),
-                        Collections.emptySet()
-                )
-        );
-        var isAllMode = expectedObjects.isEmpty();
+        var isAllMode = GrantService.isAllMode(spec);
 
         var expectedPrivileges = Set.copyOf(spec.getPrivileges());
 
@@ -263,8 +551,18 @@ public class GrantReconciler
             return UpdateControl.patchStatus(resource);
         }
 
-        var currentObjectPrivileges = grantService.determineCurrentObjectPrivileges(tx, spec);
-        var ownershipMap = grantService.determineObjectExistenceAndOwnership(tx, spec);
+        if (isStreamed(spec)) {
+            return reconcileStreamed(
+                    tx,
+                    oids,
+                    resource,
+                    status,
+                    busyObjects
+            );
+        }
+
+        var currentObjectPrivileges = grantService.determineCurrentObjectPrivileges(tx, oids, spec);
+        var ownershipMap = grantService.determineObjectExistenceAndOwnership(tx, oids, spec);
 
         // Classify objects in a single pass
         var missingObjects = new ArrayList<String>();
@@ -306,12 +604,12 @@ public class GrantReconciler
             privilegesToRevoke.removeAll(expectedPrivileges);
 
             if (!privilegesToRevoke.isEmpty()) {
-                grantService.revoke(
+                busyObjects.apply(tx, object, () -> grantService.revoke(
                         tx,
                         spec,
                         object,
                         privilegesToRevoke
-                );
+                ));
             }
 
             // If we are not in the "ALL" mode, e.g. objects is an empty List, do explicit grants
@@ -325,34 +623,35 @@ public class GrantReconciler
                 privilegesToGrant.removeAll(currentPrivileges);
 
                 if (!privilegesToGrant.isEmpty()) {
-                    grantService.grant(
+                    busyObjects.apply(tx, object, () -> grantService.grant(
                             tx,
                             spec,
                             object,
                             privilegesToGrant
-                    );
+                    ));
                 }
             }
         }
 
         // 2. Bulk grant ("ALL" mode only)
         if (isAllMode) {
-            grantService.grantOnAll(
+            busyObjects.apply(tx, "all %ss in schema %s".formatted(objectType.toValue(), schema), () -> grantService.grantOnAll(
                     tx,
                     spec,
                     expectedPrivileges
-            );
+            ));
         }
 
         // 2. Revoke orphaned object privileges (Objects with privileges but not in Spec)
         // We iterate current privileges and skip those we just processed.
-        // Any object currently having privileges but not listed in 'expectedObjects' is an orphan.
-        // Objects in 'expectedObjects' were either processed in Step 1 or skipped as 'owned'.
+        // Any object currently having privileges but not listed in 'objects' or matching the 'objectSelectors' is an orphan.
+        // The listed or matching objects were either processed in Step 1 or skipped as 'owned'.
         for (var entry : currentObjectPrivileges.entrySet()) {
             var object = entry.getKey();
 
             // If the role owns the object, we can skip it:
             // - In "Explicit" mode: ownershipMap contains exactly the spec objects.
+            // - In "Selectors" mode: ownershipMap contains the objects matching the objectSelectors.
             // - In "ALL" mode: ownershipMap contains ALL objects.
             // Therefore, if it's in ownershipMap, it is NOT an orphan so we should not revoke anything
             if (ownershipMap.containsKey(object)) {
@@ -361,15 +660,18 @@ public class GrantReconciler
 
             var privilegesToRevoke = entry.getValue();
             if (!privilegesToRevoke.isEmpty()) {
-                grantService.revoke(
+                busyObjects.apply(tx, object, () -> grantService.revoke(
                         tx,
                         spec,
                         object,
                         privilegesToRevoke
-                );
+                ));
             }
         }
 
+        // 3. Align the partitions with their parents ("partitionAware" only)
+        alignPartitions(tx, oids, spec, expectedPrivileges, busyObjects);
+
         String message = null;
         if (!ownedObjects.isEmpty()) {
             message = "The role is the owner of the listed %s objects and thus we did not need to grant or revoke any privileges from them. [resource=%s/%s]%n%s".formatted(
@@ -380,9 +682,497 @@ public class GrantReconciler
             );
         }
 
-        status.setPhase(CRPhase.READY)
+        if (busyObjects.count() > 0) {
+            return busy(resource, status, busyObjects);
+        }
+
+        status.setBusyObjects(new ArrayList<>())
+                .setBusyRetries(0)
+                .setPhase(CRPhase.READY)
                 .setMessage(message);
 
         return UpdateControl.patchStatus(resource);
     }
+
+    /// Aligns the partitions of the partitioned tables with the privileges of the Grant, a no-op if not `partitionAware`.
+    private void alignPartitions(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantSpec spec,
+            Set<Privilege> expectedPrivileges,
+            BusyObjects busyObjects
+    ) {
+        if (!spec.isPartitionAware() || spec.getObjectType() != GrantObjectType.TABLE) {
+            return;
+        }
+
+        busyObjects.apply(tx, "partitions in schema %s".formatted(spec.getSchema()), () -> grantService.alignPartitionPrivileges(
+                tx,
+                oids,
+                spec,
+                expectedPrivileges,
+                operatorConfig().grants().streamingFetchSize()
+        ));
+    }
+
+    /// Indexes the Grants by their cleanup target, so Grants of a database that are deleted together are revoked in bulk.
+    ///
+    /// Reconciles the Grants this replica takes over with their ClusterConnection, and the ones admitted by the fair scheduler.
+    ///
+    /// Reconciles the Grants affected by a created table or sequence right away, if DDL events are enabled.
+    /// In "ALL" mode every created object of the schema affects the Grant, in "Explicit" mode only the listed ones.
+    /// With `objectSelectors` every created object of the schema affects the Grant, as the patterns are only evaluated by PostgreSQL.
+    @Override
+    public List<EventSource<?, Grant>> prepareEventSources(EventSourceContext<Grant> context) {
+        context.getPrimaryCache().addIndexer(
+                CleanupCascade.TARGET_INDEX,
+                grant -> List.of(
+                        cleanupTarget(grant, grant.getSpec().getClusterRef(), grant.getSpec().getDatabase()).indexKey()
+                )
+        );
+
+        var eventSources = new ArrayList<>(commonEventSources(context, grant -> grant.getSpec().getClusterRef()));
+
+        if (!ddlEventListener.isEnabled()) {
+            return eventSources;
+        }
+
+        var ddlEventSource = new SimpleInboundEventSource<Void, Grant>();
+
+        ddlEventListener.subscribe(
+                key -> context.getPrimaryCache()
+                        .list()
+                        .anyMatch(grant -> !grant.isMarkedForDeletion()
+                                && isListenedFor(grant.getSpec())
+                                && key.equals(listenerKey(grant))
+                        ),
+                event -> context.getPrimaryCache()
+                        .list()
+                        .filter(grant -> isAffectedBy(grant, event))
+                        .map(ResourceID::fromResource)
+                        .forEach(resourceId -> {
+                            ddlTriggered.add(resourceId);
+                            ddlEventSource.propagateEvent(resourceId);
+                        })
+        );
+
+        eventSources.add(ddlEventSource);
+
+        return eventSources;
+    }
+
+    private boolean isListenedFor(GrantSpec spec) {
+        return ddlEventListener.isEnabled() && isTableOrSequence(spec);
+    }
+
+    private static boolean isTableOrSequence(GrantSpec spec) {
+        return spec.getObjectType() == GrantObjectType.TABLE || spec.getObjectType() == GrantObjectType.SEQUENCE;
+    }
+
+    /// Whether no other `table` or `sequence` Grant of the database remains, so its DDL event trigger can be dropped.
+    private boolean isLastTableOrSequenceGrant(
+            Grant resource,
+            Context<Grant> context
+    ) {
+        var uid = resource.getMetadata().getUid();
+        var key = listenerKey(resource);
+
+        return context.getPrimaryCache()
+                .list()
+                .noneMatch(grant -> !grant.isMarkedForDeletion()
+                        && !uid.equals(grant.getMetadata().getUid())
+                        && isTableOrSequence(grant.getSpec())
+                        && key.equals(listenerKey(grant))
+                );
+    }
+
+    private DdlEventListener.Key listenerKey(Grant grant) {
+        var spec = grant.getSpec();
+        var clusterRef = spec.getClusterRef();
+
+        return DdlEventListener.Key.of(
+                getResourceNamespaceOrOwn(grant, clusterRef.getNamespace()),
+                clusterRef.getName(),
+                spec.getDatabase()
+        );
+    }
+
+    private boolean isAffectedBy(
+            Grant grant,
+            DdlEventListener.DdlEvent event
+    ) {
+        var spec = grant.getSpec();
+        var objects = spec.getObjects();
+
+        return grant.getMetadata().getDeletionTimestamp() == null
+                && isListenedFor(spec)
+                && isOwnedByThisReplica(grant, spec.getClusterRef())
+                && event.key().equals(listenerKey(grant))
+                && spec.getObjectType().toValue().equals(event.objectType())
+                && event.schema().equals(spec.getSchema())
+                && (objects == null || objects.isEmpty() || objects.contains(event.object()));
+    }
+
+    /// Whether the objects of the Grant are streamed from the catalog instead of loaded into memory at once.
+    private boolean isStreamed(GrantSpec spec) {
+        return operatorConfig().grants().streamingFetchSize() > 0
+                && (spec.getObjectType() == GrantObjectType.TABLE || spec.getObjectType() == GrantObjectType.SEQUENCE);
+    }
+
+    /// The objects per transaction, `0` if the Grant is applied in a single transaction.
+    private int chunkSize(GrantSpec spec) {
+        return isStreamed(spec) ? Math.max(0, operatorConfig().grants().chunkSize()) : 0;
+    }
+
+    /// Reconciles a `table` or `sequence` Grant while streaming the objects of the schema,
+    /// computing and applying the revokes and grants object by object as the rows arrive.
+    ///
+    /// With a `chunk-size`, only that many objects are applied per reconciliation (and thus per transaction),
+    /// the checkpoint in the status tells the next reconciliation where to continue.
+    @SuppressWarnings({"checkstyle:MethodLength", "java:S3776"})
+    private UpdateControl<Grant> reconcileStreamed(
+            DSLContext tx,
+            CatalogOids oids,
+            Grant resource,
+            GrantStatus status,
+            BusyObjects busyObjects
+    ) {
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+        var generation = resource.getMetadata().getGeneration();
+
+        var spec = resource.getSpec();
+
+        var schema = spec.getSchema();
+        var objectType = spec.getObjectType();
+
+        var isAllMode = GrantService.isAllMode(spec);
+
+        var expectedPrivileges = Set.copyOf(spec.getPrivileges());
+
+        var chunkSize = chunkSize(spec);
+        var isChunked = chunkSize > 0;
+
+        var checkpoint = status.getProgress();
+
+        // A changed spec starts over
+        if (checkpoint != null && checkpoint.getObservedGeneration() != generation) {
+            checkpoint = null;
+        }
+
+        var cursor = checkpoint != null ? checkpoint.getCursor() : null;
+
+        // The busy objects of the previous chunks are reported once the last chunk is applied
+        if (checkpoint != null) {
+            busyObjects.continueFrom(status.getBusyObjects(), checkpoint.getBusyObjects());
+        }
+
+        // Only the listed objects are checked for existence, so this is bounded by the size of the spec,
+        // patterns of the objectSelectors may match no object at all
+        if (!isAllMode && spec.getObjectSelectors() == null && cursor == null) {
+            var missingObjects = new ArrayList<String>();
+
+            grantService.determineObjectExistenceAndOwnership(tx, oids, spec).forEach((object, isOwned) -> {
+                if (isOwned == null) {
+                    missingObjects.add(tx.render(quotedName(schema, object)));
+                }
+            });
+
+            if (!missingObjects.isEmpty()) {
+                status.setPhase(CRPhase.ERROR)
+                        .setMessage("Did not grant or revoke any privileges as the listed %s objects do not exist [resource=%s/%s]%n%s".formatted(
+                                objectType,
+                                getResourceNamespaceOrOwn(resource, namespace),
+                                name,
+                                String.join("\n  • ", missingObjects)
+                        ));
+
+                return UpdateControl.patchStatus(resource)
+                        .rescheduleAfter(60, TimeUnit.SECONDS);
+            }
+        }
+
+        var ownedObjects = new ArrayList<String>();
+        var tally = new ChunkTally();
+
+        var streamedObjects = grantService.streamObjectPrivileges(
+                tx,
+                oids,
+                spec,
+                cursor,
+                chunkSize,
+                operatorConfig().grants().streamingFetchSize(),
+                objectPrivileges -> {
+                    var object = objectPrivileges.object();
+                    var currentPrivileges = objectPrivileges.privileges();
+
+                    tally.processed(object);
+
+                    // An object with privileges but not in the spec is an orphan, so we revoke everything
+                    if (!objectPrivileges.isSelected()) {
+                        if (!currentPrivileges.isEmpty()) {
+                            if (busyObjects.apply(tx, object, () -> grantService.revoke(
+                                    tx,
+                                    spec,
+                                    object,
+                                    currentPrivileges
+                            ))) {
+                                tally.revokedObjects++;
+                            }
+                        }
+
+                        return;
+                    }
+
+                    if (objectPrivileges.isOwner()) {
+                        // Keep the status message bounded as well
+                        if (ownedObjects.size() < MAX_LISTED_OBJECTS) {
+                            ownedObjects.add(tx.render(quotedName(schema, object)));
+                        }
+
+                        tally.ownedObjects++;
+
+                        return;
+                    }
+
+                    // Calculate Revokes: Current - Expected
+                    var privilegesToRevoke = new HashSet<>(currentPrivileges);
+                    privilegesToRevoke.removeAll(expectedPrivileges);
+
+                    if (!privilegesToRevoke.isEmpty()) {
+                        if (busyObjects.apply(tx, object, () -> grantService.revoke(
+                                tx,
+                                spec,
+                                object,
+                                privilegesToRevoke
+                        ))) {
+                            tally.revokedObjects++;
+                        }
+                    }
+
+                    // In the "ALL" mode the grants are applied in bulk below,
+                    // except when chunked, as the bulk grant would lock every object of the schema in a single transaction
+                    if (!isAllMode || isChunked) {
+                        // Calculate Grants: Expected - Current
+                        var privilegesToGrant = new HashSet<>(expectedPrivileges);
+                        privilegesToGrant.removeAll(currentPrivileges);
+
+                        if (!privilegesToGrant.isEmpty()) {
+                            if (busyObjects.apply(tx, object, () -> grantService.grant(
+                                    tx,
+                                    spec,
+                                    object,
+                                    privilegesToGrant
+                            ))) {
+                                tally.grantedObjects++;
+                            }
+                        }
+                    }
+                }
+        );
+
+        var progress = tally.advance(checkpoint, generation)
+                .setBusyObjects(busyObjects.count());
+
+        if (isChunked && streamedObjects == chunkSize) {
+            status.setProgress(progress)
+                    .setBusyObjects(busyObjects.objects())
+                    .setMessage("Applying the Grant in chunks of %d objects [processedObjects=%d, grantedObjects=%d, revokedObjects=%d, cursor=%s]".formatted(
+                            chunkSize,
+                            progress.getProcessedObjects(),
+                            progress.getGrantedObjects(),
+                            progress.getRevokedObjects(),
+                            progress.getCursor()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(CHUNK_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        if (isAllMode && !isChunked) {
+            busyObjects.apply(tx, "all %ss in schema %s".formatted(objectType.toValue(), schema), () -> grantService.grantOnAll(
+                    tx,
+                    spec,
+                    expectedPrivileges
+            ));
+        }
+
+        alignPartitions(tx, oids, spec, expectedPrivileges, busyObjects);
+
+        String message = null;
+        if (progress.getOwnedObjects() > 0) {
+            if (progress.getOwnedObjects() > ownedObjects.size()) {
+                ownedObjects.add("... and %d more".formatted(progress.getOwnedObjects() - ownedObjects.size()));
+            }
+
+            message = "The role is the owner of the listed %s objects and thus we did not need to grant or revoke any privileges from them. [resource=%s/%s]%n%s".formatted(
+                    objectType,
+                    getResourceNamespaceOrOwn(resource, namespace),
+                    name,
+                    String.join("\n  • ", ownedObjects)
+            );
+        }
+
+        if (busyObjects.count() > 0) {
+            return busy(resource, status, busyObjects);
+        }
+
+        status.setProgress(null)
+                .setBusyObjects(new ArrayList<>())
+                .setBusyRetries(0)
+                .setPhase(CRPhase.READY)
+                .setMessage(message);
+
+        return UpdateControl.patchStatus(resource);
+    }
+
+    /// Reports the objects locked by other transactions, all other objects were applied and are committed.
+    /// They are retried with an exponential backoff, where the converged objects need no statement anymore.
+    private UpdateControl<Grant> busy(
+            Grant resource,
+            GrantStatus status,
+            BusyObjects busyObjects
+    ) {
+        var retries = status.getBusyRetries() + 1;
+        var delaySeconds = busyBackoffSeconds(retries);
+
+        log.info(
+                "Grant has objects locked by other transactions, retrying [resource={}/{}, busyObjects={}, retries={}, delaySeconds={}]",
+                resource.getMetadata().getNamespace(),
+                resource.getMetadata().getName(),
+                busyObjects.count(),
+                retries,
+                delaySeconds
+        );
+
+        status.setProgress(null)
+                .setBusyObjects(busyObjects.objects())
+                .setBusyRetries(retries)
+                .setPhase(CRPhase.PENDING)
+                .setMessage("Busy, %d %s objects are locked by other transactions and are retried in %ds, all other objects were applied [resource=%s/%s]".formatted(
+                        busyObjects.count(),
+                        resource.getSpec().getObjectType(),
+                        delaySeconds,
+                        getResourceNamespaceOrOwn(resource, resource.getMetadata().getNamespace()),
+                        resource.getMetadata().getName()
+                ));
+
+        return UpdateControl.patchStatus(resource)
+                .rescheduleAfter(delaySeconds, TimeUnit.SECONDS);
+    }
+
+    /// The objects of a Grant locked by other transactions (`lock_timeout`), collected while the other objects converge.
+    private static final class BusyObjects {
+        private final boolean isGuarded;
+        private final List<String> objects = new ArrayList<>();
+
+        private long count;
+
+        @Nullable
+        private String lastBusyObject;
+
+        private BusyObjects(boolean isGuarded) {
+            this.isGuarded = isGuarded;
+        }
+
+        /// Runs a statement on the object in a savepoint if the ClusterConnection has a `lock_timeout`,
+        /// so a lock timeout only rolls back this object instead of the whole transaction.
+        ///
+        /// @return whether the statement was applied
+        private boolean apply(
+                DSLContext tx,
+                String object,
+                Runnable statement
+        ) {
+            if (!isGuarded) {
+                statement.run();
+
+                return true;
+            }
+
+            // The object timed out on its previous statement already, the next one would only wait for the lock again
+            if (object.equals(lastBusyObject)) {
+                return false;
+            }
+
+            try {
+                tx.transaction(_ -> statement.run());
+
+                return true;
+            } catch (DataAccessException e) {
+                if (!SQLUtil.isLockTimeout(e)) {
+                    throw e;
+                }
+
+                lastBusyObject = object;
+                add(object);
+
+                return false;
+            }
+        }
+
+        private void continueFrom(
+                List<String> previousObjects,
+                long previousCount
+        ) {
+            previousObjects.forEach(this::add);
+            count = Math.max(count, previousCount);
+        }
+
+        private void add(String object) {
+            // Keep the status bounded, the count is still exact
+            if (objects.size() < MAX_LISTED_OBJECTS) {
+                objects.add(object);
+            }
+
+            count++;
+        }
+
+        private long count() {
+            return count;
+        }
+
+        private List<String> objects() {
+            return List.copyOf(objects);
+        }
+    }
+
+    /// The counts of a single chunk, which only advance the checkpoint once the transaction of the chunk committed.
+    private static final class ChunkTally {
+        @Nullable
+        private String lastObject;
+
+        private long processedObjects;
+        private long grantedObjects;
+        private long revokedObjects;
+        private long ownedObjects;
+
+        private void processed(String object) {
+            lastObject = object;
+            processedObjects++;
+        }
+
+        private GrantProgress advance(
+                @Nullable GrantProgress checkpoint,
+                long generation
+        ) {
+            var progress = new GrantProgress()
+                    .setCursor(lastObject)
+                    .setObservedGeneration(generation)
+                    .setProcessedObjects(processedObjects)
+                    .setGrantedObjects(grantedObjects)
+                    .setRevokedObjects(revokedObjects)
+                    .setOwnedObjects(ownedObjects);
+
+            if (checkpoint != null) {
+                progress.setCursor(lastObject != null ? lastObject : checkpoint.getCursor())
+                        .setProcessedObjects(checkpoint.getProcessedObjects() + processedObjects)
+                        .setGrantedObjects(checkpoint.getGrantedObjects() + grantedObjects)
+                        .setRevokedObjects(checkpoint.getRevokedObjects() + revokedObjects)
+                        .setOwnedObjects(checkpoint.getOwnedObjects() + ownedObjects);
+            }
+
+            return progress;
+        }
+    }
 }
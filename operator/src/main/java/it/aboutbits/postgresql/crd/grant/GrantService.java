@@ -1,20 +1,33 @@
 package it.aboutbits.postgresql.crd.grant;
 
+import it.aboutbits.postgresql.core.CatalogOids;
 import it.aboutbits.postgresql.core.Privilege;
 import it.aboutbits.postgresql.core.SQLUtil;
 import it.aboutbits.postgresql.core.infrastructure.persistence.Routines;
 import jakarta.inject.Singleton;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
-import org.jooq.DataType;
-import org.jooq.impl.SQLDataType;
+import org.jooq.Name;
+import org.jooq.Field;
+import org.jooq.Record4;
+import org.jooq.Record6;
+import org.jooq.ResultQuery;
+import org.jooq.impl.DSL;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.ACLEXPLODE;
@@ -23,35 +36,44 @@ import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_
 import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_NAMESPACE;
 import static it.aboutbits.postgresql.crd.grant.GrantObjectType.SEQUENCE;
 import static it.aboutbits.postgresql.crd.grant.GrantObjectType.TABLE;
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.array;
+import static org.jooq.impl.DSL.condition;
+import static org.jooq.impl.DSL.exists;
 import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.name;
 import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.or;
 import static org.jooq.impl.DSL.query;
 import static org.jooq.impl.DSL.quotedName;
 import static org.jooq.impl.DSL.role;
+import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectOne;
+import static org.jooq.impl.DSL.table;
 import static org.jooq.impl.DSL.val;
+import static org.jooq.impl.DSL.when;
 
 @NullMarked
 @Singleton
 public class GrantService {
-    private static final DataType<Long> OID_DATA_TYPE = SQLDataType.BIGINT;
-
-    // language=SQL
-    private static final String ROLE_OID_SQL = "{0}::regrole";
-    // language=SQL
-    private static final String NAMESPACE_OID_SQL = "{0}::regnamespace";
+    /// The partitions or objects granted or revoked at most in a single statement.
+    private static final int OBJECT_BATCH_SIZE = 1000;
 
     /// Determines all existing privileges for the specified `role`, when applicable `schema`, and the given `objectType`.
     ///
     /// @param tx   The DSLContext for database operations.
+    /// @param oids The role and namespace OIDs of the database.
     /// @param spec The GrantSpec containing the specification details.
     /// @return A map with object names as keys and lists of Privilege as values.
     @SuppressWarnings("checkstyle:MethodLength")
     public Map<String, Set<Privilege>> determineCurrentObjectPrivileges(
             DSLContext tx,
+            CatalogOids oids,
             GrantSpec spec
     ) {
         var database = spec.getDatabase();
-        var role = spec.getRole();
+        var roleOid = oids.role(spec.getRole());
         var schema = spec.getSchema();
 
         var objectType = spec.getObjectType();
@@ -65,7 +87,7 @@ public class GrantService {
              * cross join aclexplode(d.datacl) a
              * where
              *   d.datname = '<database_name>'
-             *   and a.grantee = '<role_name>'::regrole
+             *   and a.grantee = :role_oid
              */
             case DATABASE -> tx
                     .select(
@@ -76,11 +98,7 @@ public class GrantService {
                     .crossJoin(Routines.aclexplode(PG_DATABASE.DATACL))
                     .where(
                             PG_DATABASE.DATNAME.eq(database),
-                            ACLEXPLODE.GRANTEE.eq(field(
-                                    ROLE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(role)
-                            ))
+                            ACLEXPLODE.GRANTEE.eq(roleOid)
                     )
                     .fetchGroups(
                             PG_DATABASE.DATNAME,
@@ -94,7 +112,7 @@ public class GrantService {
              * cross join aclexplode(s.nspacl) a
              * where
              *   s.nspname = '<schema_name>'
-             *   and a.grantee = '<role_name>'::regrole
+             *   and a.grantee = :role_oid
              */
             case SCHEMA -> tx
                     .select(
@@ -105,11 +123,7 @@ public class GrantService {
                     .crossJoin(Routines.aclexplode(PG_NAMESPACE.NSPACL))
                     .where(
                             PG_NAMESPACE.NSPNAME.eq(schema),
-                            ACLEXPLODE.GRANTEE.eq(field(
-                                    ROLE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(role)
-                            ))
+                            ACLEXPLODE.GRANTEE.eq(roleOid)
                     )
                     .fetchGroups(
                             PG_NAMESPACE.NSPNAME,
@@ -123,9 +137,9 @@ public class GrantService {
              * from pg_catalog.pg_class c
              * cross join aclexplode(c.relacl) a
              * where
-             *   c.relnamespace = '<schema_name>'::regnamespace
+             *   c.relnamespace = :schema_oid
              *   and c.relkind in ('r', 'p', 'v', 'm', 'f')
-             *   and a.grantee = '<role_name>'::regrole
+             *   and a.grantee = :role_oid
              */
             case TABLE -> tx
                     .select(
@@ -135,11 +149,7 @@ public class GrantService {
                     .from(PG_CLASS)
                     .crossJoin(Routines.aclexplode(PG_CLASS.RELACL))
                     .where(
-                            PG_CLASS.RELNAMESPACE.eq(field(
-                                    NAMESPACE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(schema)
-                            )),
+                            PG_CLASS.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(schema))),
                             // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
                             PG_CLASS.RELKIND.in(
                                     "r", // Ordinary Table
@@ -148,11 +158,8 @@ public class GrantService {
                                     "m", // Materialized View
                                     "f" // Foreign Table
                             ),
-                            ACLEXPLODE.GRANTEE.eq(field(
-                                    ROLE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(role)
-                            ))
+                            partitionCondition(spec),
+                            ACLEXPLODE.GRANTEE.eq(roleOid)
                     )
                     .fetchGroups(
                             PG_CLASS.RELNAME,
@@ -165,9 +172,9 @@ public class GrantService {
              * from pg_catalog.pg_class c
              * cross join aclexplode(c.relacl) a
              * where
-             *   c.relnamespace = '<schema_name>'::regnamespace
+             *   c.relnamespace = :schema_oid
              *   and c.relkind = 'S'
-             *   and a.grantee = '<role_name>'::regrole
+             *   and a.grantee = :role_oid
              */
             case SEQUENCE -> tx
                     .select(
@@ -177,20 +184,12 @@ public class GrantService {
                     .from(PG_CLASS)
                     .crossJoin(Routines.aclexplode(PG_CLASS.RELACL))
                     .where(
-                            PG_CLASS.RELNAMESPACE.eq(field(
-                                    NAMESPACE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(schema)
-                            )),
+                            PG_CLASS.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(schema))),
                             // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
                             PG_CLASS.RELKIND.eq(
                                     "S" // Sequence
                             ),
-                            ACLEXPLODE.GRANTEE.eq(field(
-                                    ROLE_OID_SQL,
-                                    OID_DATA_TYPE,
-                                    val(role)
-                            ))
+                            ACLEXPLODE.GRANTEE.eq(roleOid)
                     )
                     .fetchGroups(
                             PG_CLASS.RELNAME,
@@ -211,18 +210,21 @@ public class GrantService {
     ///
     /// If the `objects` List is empty, no condition is applied for object filtering,
     /// and thus all objects from this `namespace`/`schema` are returned.
+    /// With `objectSelectors`, all objects of the `namespace`/`schema` matching them are returned.
     ///
     /// @param tx   the DSLContext used to execute database operations
+    /// @param oids the role and namespace OIDs of the database
     /// @param spec the GrantSpec object containing specifications about the target database objects and privileges
     /// @return a map where the keys represent object names and the values indicate ownership status,
     /// or `null` if the object does not exist
     @SuppressWarnings({"checkstyle:MethodLength", "java:S3776"})
     public Map<String, @Nullable Boolean> determineObjectExistenceAndOwnership(
             DSLContext tx,
+            CatalogOids oids,
             GrantSpec spec
     ) {
         var database = spec.getDatabase();
-        var role = spec.getRole();
+        var roleOid = oids.role(spec.getRole());
         var schema = spec.getSchema();
 
         var objectType = spec.getObjectType();
@@ -240,18 +242,14 @@ public class GrantService {
         switch (objectType) {
             case DATABASE -> {
                 /*
-                 * select (d.datdba = '<role_name>'::regrole) is_owner
+                 * select (d.datdba = :role_oid) is_owner
                  * from pg_catalog.pg_database d
                  * where
                  *   d.datname = '<database_name>'
                  */
                 var isOwner = tx
                         .select(
-                                field(PG_DATABASE.DATDBA.eq(field(
-                                        ROLE_OID_SQL,
-                                        OID_DATA_TYPE,
-                                        val(role)
-                                )))
+                                field(PG_DATABASE.DATDBA.eq(roleOid))
                         )
                         .from(PG_DATABASE)
                         .where(PG_DATABASE.DATNAME.eq(database))
@@ -261,18 +259,14 @@ public class GrantService {
             }
             case SCHEMA -> {
                 /*
-                 * select (s.nspowner = '<role_name>'::regrole) is_owner
+                 * select (s.nspowner = :role_oid) is_owner
                  * from pg_catalog.pg_namespace s
                  * where
                  *   s.nspname = '<schema_name>'
                  */
                 var isOwner = tx
                         .select(
-                                field(PG_NAMESPACE.NSPOWNER.eq(field(
-                                        ROLE_OID_SQL,
-                                        OID_DATA_TYPE,
-                                        val(role)
-                                )))
+                                field(PG_NAMESPACE.NSPOWNER.eq(roleOid))
                         )
                         .from(PG_NAMESPACE)
                         .where(PG_NAMESPACE.NSPNAME.eq(schema))
@@ -286,19 +280,15 @@ public class GrantService {
                  *
                  * select
                  *   c.relname,
-                 *   (c.relowner = '<role_name>'::regrole) is_owner
+                 *   (c.relowner = :role_oid) is_owner
                  * from pg_catalog.pg_class c
                  * where
-                 *   c.relnamespace = '<schema_name>'::regnamespace
+                 *   c.relnamespace = :schema_oid
                  *   and c.relname in (<table_1>, <table_2>, ..., <table_n>) // only if we specified objects in the CRD
+                 *   and (c.relname like <include_1> or c.relname ~ <include_2> ...) and not (...) // only if we specified objectSelectors in the CRD
                  *   and c.relkind in ('r', 'p', 'v', 'm', 'f')
                  */
-                var isOwnerCondition = PG_CLASS.RELOWNER.eq(field(
-                                ROLE_OID_SQL,
-                                OID_DATA_TYPE,
-                                val(role)
-                        )
-                );
+                var isOwnerCondition = PG_CLASS.RELOWNER.eq(roleOid);
 
                 var existingObjectsOwner = tx
                         .select(
@@ -307,12 +297,9 @@ public class GrantService {
                         )
                         .from(PG_CLASS)
                         .where(
-                                PG_CLASS.RELNAMESPACE.eq(field(
-                                        NAMESPACE_OID_SQL,
-                                        OID_DATA_TYPE,
-                                        val(schema)
-                                )),
-                                objects.isEmpty() ? noCondition() : PG_CLASS.RELNAME.in(objects),
+                                PG_CLASS.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(schema))),
+                                objectCondition(spec, PG_CLASS.RELNAME),
+                                partitionCondition(spec),
                                 // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
                                 PG_CLASS.RELKIND.in(
                                         "r", // Ordinary Table
@@ -341,19 +328,15 @@ public class GrantService {
                  *
                  * select
                  *   c.relname,
-                 *   (c.relowner = '<role_name>'::regrole) is_owner
+                 *   (c.relowner = :role_oid) is_owner
                  * from pg_catalog.pg_class c
                  * where
-                 *   c.relnamespace = '<schema_name>'::regnamespace
+                 *   c.relnamespace = :schema_oid
                  *   and c.relname in (<sequence_1>, <sequence_2>, ..., <sequence_n>) // only if we specified objects in the CRD
+                 *   and (c.relname like <include_1> or c.relname ~ <include_2> ...) and not (...) // only if we specified objectSelectors in the CRD
                  *   and c.relkind = 'S'
                  */
-                var isOwnerCondition = PG_CLASS.RELOWNER.eq(field(
-                                ROLE_OID_SQL,
-                                OID_DATA_TYPE,
-                                val(role)
-                        )
-                );
+                var isOwnerCondition = PG_CLASS.RELOWNER.eq(roleOid);
 
                 var existingObjectsOwner = tx
                         .select(
@@ -362,12 +345,8 @@ public class GrantService {
                         )
                         .from(PG_CLASS)
                         .where(
-                                PG_CLASS.RELNAMESPACE.eq(field(
-                                        NAMESPACE_OID_SQL,
-                                        OID_DATA_TYPE,
-                                        val(schema)
-                                )),
-                                isAllMode ? noCondition() : PG_CLASS.RELNAME.in(objects),
+                                PG_CLASS.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(schema))),
+                                objectCondition(spec, PG_CLASS.RELNAME),
                                 // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
                                 PG_CLASS.RELKIND.eq(
                                         "S" // Sequence
@@ -397,6 +376,405 @@ public class GrantService {
         return objectExistenceAndOwnershipMap;
     }
 
+    /// Streams the tables or sequences of the schema together with the ownership and the current privileges of the role,
+    /// ordered by name, through a server-side cursor, so the memory stays bounded regardless of the schema size.
+    ///
+    /// Without `objects` or `objectSelectors` in the spec all relations of the schema are streamed,
+    /// otherwise the listed or matching objects and all others the role has privileges on (orphans).
+    /// Whether an object is listed or matching is evaluated in the query, see `ObjectPrivileges.isSelected`.
+    /// The cursor needs an open transaction, else pgjdbc ignores the fetch size and reads all rows at once.
+    ///
+    /// @param tx          the DSLContext of an open transaction
+    /// @param oids        the role and namespace OIDs of the database
+    /// @param spec        the GrantSpec of a `table` or `sequence` Grant
+    /// @param afterObject only objects ordered after this name are streamed, `null` starts from the first object
+    /// @param limit       the maximum number of objects streamed, `0` for all
+    /// @param fetchSize   the number of rows fetched per round trip
+    /// @param consumer    receives the objects one by one as the rows arrive
+    /// @return the number of objects streamed
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public int streamObjectPrivileges(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantSpec spec,
+            @Nullable String afterObject,
+            int limit,
+            int fetchSize,
+            Consumer<ObjectPrivileges> consumer
+    ) {
+        var roleOid = oids.role(spec.getRole());
+        var isAllMode = isAllMode(spec);
+
+        var isOwnerCondition = PG_CLASS.RELOWNER.eq(roleOid);
+        var isSelected = isAllMode
+                ? inline(true)
+                : field(objectCondition(spec, PG_CLASS.RELNAME));
+
+        // Order and continue with the same collation, else the comparison with the bound cursor could skip objects
+        var objectName = PG_CLASS.RELNAME.collate("C");
+
+        var hasPrivileges = exists(
+                selectOne()
+                        .from(Routines.aclexplode(PG_CLASS.RELACL))
+                        .where(ACLEXPLODE.GRANTEE.eq(roleOid))
+        );
+
+        /*
+         * select
+         *   c.relname,
+         *   (c.relname in (<object_1>, ..., <object_n>)) is_selected, // or the objectSelectors, true without both
+         *   (c.relowner = :role_oid) is_owner,
+         *   array(
+         *     select a.privilege_type
+         *     from aclexplode(c.relacl) a
+         *     where a.grantee = :role_oid
+         *   ) privileges
+         * from pg_catalog.pg_class c
+         * where
+         *   c.relnamespace = :schema_oid
+         *   and c.relkind in (...)
+         *   and (not c.relispartition or c.relname in (<object_1>, ..., <object_n>)) // only if partition aware
+         *   and (<is_selected> or exists (<privileges of the role>)) // only if we specified objects or objectSelectors in the CRD
+         *   and c.relname collate "C" > :after_object // only when continuing after a checkpoint
+         * order by c.relname collate "C"
+         * limit :limit // only when applying in chunks
+         */
+        var orderedQuery = tx
+                .select(
+                        PG_CLASS.RELNAME,
+                        isSelected,
+                        isOwnerCondition,
+                        array(
+                                select(ACLEXPLODE.PRIVILEGE_TYPE)
+                                        .from(Routines.aclexplode(PG_CLASS.RELACL))
+                                        .where(ACLEXPLODE.GRANTEE.eq(roleOid))
+                        )
+                )
+                .from(PG_CLASS)
+                .where(
+                        PG_CLASS.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(spec.getSchema()))),
+                        relationKindCondition(spec.getObjectType()),
+                        partitionCondition(spec),
+                        isAllMode ? noCondition() : objectCondition(spec, PG_CLASS.RELNAME).or(hasPrivileges),
+                        afterObject == null ? noCondition() : objectName.gt(afterObject)
+                )
+                .orderBy(objectName);
+
+        ResultQuery<Record4<String, Boolean, Boolean, String[]>> query = limit > 0
+                ? orderedQuery.limit(limit)
+                : orderedQuery;
+
+        try (var cursor = query.fetchSize(fetchSize).fetchLazy()) {
+            var count = 0;
+
+            for (var record : cursor) {
+                count++;
+
+                var privileges = EnumSet.noneOf(Privilege.class);
+
+                Arrays.stream(Objects.requireNonNullElse(record.value4(), new String[0]))
+                        .map(Privilege::valueOf)
+                        .forEach(privileges::add);
+
+                consumer.accept(new ObjectPrivileges(
+                        record.value1(),
+                        Boolean.TRUE.equals(record.value2()),
+                        Boolean.TRUE.equals(record.value3()),
+                        privileges
+                ));
+            }
+
+            return count;
+        }
+    }
+
+    /// Aligns the privileges of the partitions of the Grant's partitioned tables (at any depth) with `expectedPrivileges`,
+    /// and revokes the privileges of the role on the partitions of the other partitioned tables of the schema
+    /// (e.g. a table that was removed from `objects`), as their parent is revoked as an orphan.
+    /// A partition listed in `objects` itself is left to the Grant's objects.
+    ///
+    /// Only the partitions whose privileges differ are read (as the comparison happens in the catalog query),
+    /// and they are granted the missing and revoked the extra privileges with one statement per batch of partitions
+    /// with the same difference, so the cost scales with the partitioned tables and not with their partitions.
+    ///
+    /// @param tx                 the DSLContext of an open transaction
+    /// @param oids               the role and namespace OIDs of the database
+    /// @param spec               the GrantSpec of a partition aware `table` Grant
+    /// @param expectedPrivileges the privileges the partitions should have, empty to revoke everything
+    /// @param fetchSize          the number of rows fetched per round trip
+    public void alignPartitionPrivileges(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantSpec spec,
+            Set<Privilege> expectedPrivileges,
+            int fetchSize
+    ) {
+        var roleOid = oids.role(spec.getRole());
+        var objects = spec.getObjects();
+
+        var parent = PG_CLASS.as("p");
+        var partition = PG_CLASS.as("c");
+        var partitionNamespace = PG_NAMESPACE.as("n");
+        var tree = table("pg_catalog.pg_partition_tree({0})", parent.OID).as("t", "relid", "parentrelid", "isleaf", "level");
+
+        var partitionPrivileges = array(
+                select(ACLEXPLODE.PRIVILEGE_TYPE)
+                        .from(Routines.aclexplode(partition.RELACL))
+                        .where(ACLEXPLODE.GRANTEE.eq(roleOid))
+        );
+        var isParentSelected = isAllMode(spec)
+                ? inline(true)
+                : field(objectCondition(spec, parent.RELNAME));
+        var expected = when(
+                isParentSelected.isTrue(),
+                val(
+                        expectedPrivileges.stream()
+                                .map(Privilege::name)
+                                .toArray(String[]::new)
+                )
+        ).otherwise(val(new String[0]));
+
+        /*
+         * select
+         *   n.nspname,
+         *   c.relname,
+         *   array(
+         *     select a.privilege_type
+         *     from aclexplode(c.relacl) a
+         *     where a.grantee = :role_oid
+         *   ) privileges,
+         *   (p.relname in (<table_1>, ..., <table_n>)) is_parent_selected // or the objectSelectors, true without both
+         * from pg_catalog.pg_class p
+         * cross join pg_catalog.pg_partition_tree(p.oid) t(relid, parentrelid, isleaf, level)
+         * join pg_catalog.pg_class c on c.oid = t.relid
+         * join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+         * where
+         *   p.relnamespace = :schema_oid
+         *   and p.relkind = 'p'
+         *   and not p.relispartition
+         *   and t.level > 0
+         *   and c.relowner <> :role_oid
+         *   and (<is_parent_selected> or c.relname not in (<table_1>, ..., <table_n>)) // only if we specified objects in the CRD
+         *   and not (privileges @> <expected> and privileges <@ <expected>) // expected: case when <is_parent_selected> then :expected else '{}' end
+         */
+        try (var cursor = tx
+                .select(
+                        partitionNamespace.NSPNAME,
+                        partition.RELNAME,
+                        partitionPrivileges,
+                        isParentSelected
+                )
+                .from(parent)
+                .crossJoin(tree)
+                .join(partition).on(partition.OID.eq(field(name("t", "relid"), Long.class)))
+                .join(partitionNamespace).on(partitionNamespace.OID.eq(partition.RELNAMESPACE))
+                .where(
+                        parent.RELNAMESPACE.eq(oids.namespace(Objects.requireNonNull(spec.getSchema()))),
+                        parent.RELKIND.eq("p"), // Partitioned Table
+                        parent.RELISPARTITION.isFalse(),
+                        field(name("t", "level"), Integer.class).gt(0),
+                        partition.RELOWNER.ne(roleOid),
+                        objects == null || objects.isEmpty()
+                                ? noCondition()
+                                : isParentSelected.isTrue().or(partition.RELNAME.notIn(objects)),
+                        condition("not ({0} @> {1}::text[] and {0} <@ {1}::text[])", partitionPrivileges, expected)
+                )
+                .fetchSize(fetchSize)
+                .fetchLazy()
+        ) {
+            var grants = new HashMap<Set<Privilege>, List<Name>>();
+            var revokes = new HashMap<Set<Privilege>, List<Name>>();
+
+            for (var record : cursor) {
+                var currentPrivileges = EnumSet.noneOf(Privilege.class);
+
+                Arrays.stream(Objects.requireNonNullElse(record.value3(), new String[0]))
+                        .map(Privilege::valueOf)
+                        .forEach(currentPrivileges::add);
+
+                var qualifiedPartition = quotedName(record.value1(), record.value2());
+
+                // The partitions of a partitioned table that is not selected (anymore) follow their orphaned parent
+                var partitionExpectedPrivileges = Boolean.TRUE.equals(record.value4())
+                        ? expectedPrivileges
+                        : Set.<Privilege>of();
+
+                var privilegesToGrant = EnumSet.noneOf(Privilege.class);
+                privilegesToGrant.addAll(partitionExpectedPrivileges);
+                privilegesToGrant.removeAll(currentPrivileges);
+
+                var privilegesToRevoke = EnumSet.copyOf(currentPrivileges);
+                privilegesToRevoke.removeAll(partitionExpectedPrivileges);
+
+                batch(tx, spec, "grant {0} on {1} {2} to {3}", grants, privilegesToGrant, qualifiedPartition);
+                batch(tx, spec, "revoke {0} on {1} {2} from {3}", revokes, privilegesToRevoke, qualifiedPartition);
+            }
+
+            grants.forEach((privileges, partitions) ->
+                    executeOnPartitions(tx, spec, "grant {0} on {1} {2} to {3}", privileges, partitions)
+            );
+            revokes.forEach((privileges, partitions) ->
+                    executeOnPartitions(tx, spec, "revoke {0} on {1} {2} from {3}", privileges, partitions)
+            );
+        }
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private void batch(
+            DSLContext tx,
+            GrantSpec spec,
+            String template,
+            Map<Set<Privilege>, List<Name>> batches,
+            Set<Privilege> privileges,
+            Name qualifiedPartition
+    ) {
+        if (privileges.isEmpty()) {
+            return;
+        }
+
+        var partitions = batches.computeIfAbsent(privileges, _ -> new ArrayList<>());
+        partitions.add(qualifiedPartition);
+
+        if (partitions.size() >= OBJECT_BATCH_SIZE) {
+            executeOnPartitions(tx, spec, template, privileges, partitions);
+            partitions.clear();
+        }
+    }
+
+    private void executeOnPartitions(
+            DSLContext tx,
+            GrantSpec spec,
+            String template,
+            Set<Privilege> privileges,
+            List<Name> partitions
+    ) {
+        executeOnObjects(
+                tx,
+                template,
+                spec.getObjectType(),
+                privileges,
+                partitions,
+                List.of(spec.getRole())
+        );
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private void executeOnObjects(
+            DSLContext tx,
+            String template,
+            GrantObjectType objectType,
+            Set<Privilege> privileges,
+            List<Name> objects,
+            Collection<String> roles
+    ) {
+        if (objects.isEmpty() || roles.isEmpty()) {
+            return;
+        }
+
+        var statement = query(
+                template,
+                SQLUtil.concatenateQueryPartsWithComma(
+                        privileges.stream()
+                                .map(Privilege::privilege)
+                                .toList()
+                ),
+                objectType.objectType(),
+                SQLUtil.concatenateQueryPartsWithComma(objects),
+                SQLUtil.concatenateQueryPartsWithComma(
+                        roles.stream()
+                                .map(DSL::role)
+                                .toList()
+                )
+        );
+
+        tx.execute(statement);
+    }
+
+    /// In a partition aware Grant, partitions are handled through their parent (see `alignPartitionPrivileges`),
+    /// except the ones listed in `objects` explicitly. Partitions matching the `objectSelectors` follow their parent as well,
+    /// so do the partitions of a parent that is not selected.
+    private static Condition partitionCondition(GrantSpec spec) {
+        if (!spec.isPartitionAware() || spec.getObjectType() != TABLE) {
+            return noCondition();
+        }
+
+        var objects = spec.getObjects();
+
+        if (objects == null || objects.isEmpty()) {
+            return PG_CLASS.RELISPARTITION.isFalse();
+        }
+
+        return PG_CLASS.RELISPARTITION.isFalse().or(PG_CLASS.RELNAME.in(objects));
+    }
+
+    /// Whether the Grant applies to all objects of its type in the schema, as neither `objects` nor `objectSelectors` are set.
+    public static boolean isAllMode(GrantSpec spec) {
+        var objects = spec.getObjects();
+
+        return (objects == null || objects.isEmpty()) && spec.getObjectSelectors() == null;
+    }
+
+    /// The objects of the Grant by their name: the listed `objects`, or the ones matching any `include` and no `exclude`
+    /// pattern of the `objectSelectors`, so the patterns are evaluated by PostgreSQL in the scan of `pg_class`.
+    /// No condition in the "ALL" mode.
+    private static Condition objectCondition(
+            GrantSpec spec,
+            Field<String> relationName
+    ) {
+        var objectSelectors = spec.getObjectSelectors();
+
+        if (objectSelectors != null) {
+            return or(objectSelectors.getInclude().stream()
+                    .map(pattern -> patternCondition(pattern, relationName))
+                    .toList()
+            ).andNot(or(objectSelectors.getExclude().stream()
+                    .map(pattern -> patternCondition(pattern, relationName))
+                    .toList()
+            ));
+        }
+
+        var objects = spec.getObjects();
+
+        if (objects == null || objects.isEmpty()) {
+            return noCondition();
+        }
+
+        return relationName.in(objects);
+    }
+
+    private static Condition patternCondition(
+            GrantSpec.ObjectPattern pattern,
+            Field<String> relationName
+    ) {
+        if (pattern.getLike() != null) {
+            return relationName.like(pattern.getLike());
+        }
+
+        // Renders as the POSIX regular expression match operator `~`
+        return relationName.likeRegex(Objects.requireNonNull(pattern.getRegex()));
+    }
+
+    private static Condition relationKindCondition(GrantObjectType objectType) {
+        // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
+        return switch (objectType) {
+            case TABLE -> PG_CLASS.RELKIND.in(
+                    "r", // Ordinary Table
+                    "p", // Partitioned Table
+                    "v", // View
+                    "m", // Materialized View
+                    "f" // Foreign Table
+            );
+            case SEQUENCE -> PG_CLASS.RELKIND.eq(
+                    "S" // Sequence
+            );
+            default -> throw new UnsupportedOperationException(
+                    "The GrantObjectType has no relations to stream [objectType=%s]".formatted(
+                            objectType
+                    )
+            );
+        };
+    }
+
     public void grant(
             DSLContext tx,
             GrantSpec spec,
@@ -486,4 +864,229 @@ public class GrantService {
 
         tx.execute(statement);
     }
+
+    /// Streams the privileges of several roles on several schemas and on their tables and sequences with a single query,
+    /// one row per role and object, whether the role has any privileges on the object or not.
+    /// Only the object types in `objectTypes` (`schema`, `table` and `sequence`) are read.
+    ///
+    /// @param tx            the DSLContext of an open transaction
+    /// @param roleOids      the OIDs of the roles
+    /// @param namespaceOids the OIDs of the schemas
+    /// @param objectTypes   the object types to read
+    /// @param fetchSize     the number of rows fetched per round trip
+    /// @param consumer      receives the objects one by one as the rows arrive
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public void streamRolePrivileges(
+            DSLContext tx,
+            Collection<Long> roleOids,
+            Collection<Long> namespaceOids,
+            Set<GrantObjectType> objectTypes,
+            int fetchSize,
+            Consumer<RoleObjectPrivileges> consumer
+    ) {
+        if (roleOids.isEmpty() || namespaceOids.isEmpty()) {
+            return;
+        }
+
+        var roles = table("unnest({0}::oid[])", val(roleOids.toArray(Long[]::new))).as("r", "oid");
+        var roleOid = field(name("r", "oid"), Long.class);
+        var namespaceOidArray = namespaceOids.toArray(Long[]::new);
+
+        var relationKinds = new ArrayList<String>();
+        if (objectTypes.contains(TABLE)) {
+            relationKinds.addAll(List.of(
+                    "r", // Ordinary Table
+                    "p", // Partitioned Table
+                    "v", // View
+                    "m", // Materialized View
+                    "f" // Foreign Table
+            ));
+        }
+        if (objectTypes.contains(SEQUENCE)) {
+            relationKinds.add("S"); // Sequence
+        }
+
+        /*
+         * select
+         *   n.nspname,
+         *   'schema',
+         *   n.nspname,
+         *   r.oid,
+         *   (n.nspowner = r.oid) is_owner,
+         *   array(
+         *     select a.privilege_type
+         *     from aclexplode(n.nspacl) a
+         *     where a.grantee = r.oid
+         *   ) privileges
+         * from pg_catalog.pg_namespace n
+         * cross join unnest(:role_oids) r(oid)
+         * where n.oid = any(:schema_oids)
+         * union all
+         * select
+         *   n.nspname,
+         *   case when c.relkind = 'S' then 'sequence' else 'table' end,
+         *   c.relname,
+         *   r.oid,
+         *   (c.relowner = r.oid) is_owner,
+         *   array(
+         *     select a.privilege_type
+         *     from aclexplode(c.relacl) a
+         *     where a.grantee = r.oid
+         *   ) privileges
+         * from pg_catalog.pg_class c
+         * join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+         * cross join unnest(:role_oids) r(oid)
+         * where
+         *   c.relnamespace = any(:schema_oids)
+         *   and c.relkind in (...)
+         */
+        var schemaPrivileges = tx
+                .select(
+                        PG_NAMESPACE.NSPNAME,
+                        inline(GrantObjectType.SCHEMA.toValue()),
+                        PG_NAMESPACE.NSPNAME,
+                        roleOid,
+                        field(PG_NAMESPACE.NSPOWNER.eq(roleOid)),
+                        array(
+                                select(ACLEXPLODE.PRIVILEGE_TYPE)
+                                        .from(Routines.aclexplode(PG_NAMESPACE.NSPACL))
+                                        .where(ACLEXPLODE.GRANTEE.eq(roleOid))
+                        )
+                )
+                .from(PG_NAMESPACE)
+                .crossJoin(roles)
+                .where(PG_NAMESPACE.OID.eq(any(namespaceOidArray)));
+
+        var relationPrivileges = tx
+                .select(
+                        PG_NAMESPACE.NSPNAME,
+                        when(PG_CLASS.RELKIND.eq("S"), inline(SEQUENCE.toValue())).otherwise(inline(TABLE.toValue())),
+                        PG_CLASS.RELNAME,
+                        roleOid,
+                        field(PG_CLASS.RELOWNER.eq(roleOid)),
+                        array(
+                                select(ACLEXPLODE.PRIVILEGE_TYPE)
+                                        .from(Routines.aclexplode(PG_CLASS.RELACL))
+                                        .where(ACLEXPLODE.GRANTEE.eq(roleOid))
+                        )
+                )
+                .from(PG_CLASS)
+                .join(PG_NAMESPACE).on(PG_NAMESPACE.OID.eq(PG_CLASS.RELNAMESPACE))
+                .crossJoin(roles)
+                .where(
+                        PG_CLASS.RELNAMESPACE.eq(any(namespaceOidArray)),
+                        // See https://www.postgresql.org/docs/current/catalog-pg-class.html#CATALOG-PG-CLASS
+                        PG_CLASS.RELKIND.in(relationKinds)
+                );
+
+        ResultQuery<Record6<String, String, String, Long, Boolean, String[]>> query;
+        if (!objectTypes.contains(GrantObjectType.SCHEMA)) {
+            query = relationPrivileges;
+        } else if (relationKinds.isEmpty()) {
+            query = schemaPrivileges;
+        } else {
+            query = schemaPrivileges.unionAll(relationPrivileges);
+        }
+
+        try (var cursor = query.fetchSize(fetchSize).fetchLazy()) {
+            for (var record : cursor) {
+                var privileges = EnumSet.noneOf(Privilege.class);
+
+                Arrays.stream(Objects.requireNonNullElse(record.value6(), new String[0]))
+                        .map(Privilege::valueOf)
+                        .forEach(privileges::add);
+
+                consumer.accept(new RoleObjectPrivileges(
+                        record.value4(),
+                        record.value1(),
+                        GrantObjectType.valueOf(record.value2().toUpperCase(Locale.ROOT)),
+                        record.value3(),
+                        Boolean.TRUE.equals(record.value5()),
+                        privileges
+                ));
+            }
+        }
+    }
+
+    /// Grants the privileges on all objects of the type in the schemas to all roles with a single statement,
+    /// `grant ... on schema ...` for `schema` and `grant ... on all <objectType>s in schema ...` for `table` and `sequence`.
+    public void grantOnAllInSchemas(
+            DSLContext tx,
+            GrantObjectType objectType,
+            Set<Privilege> privileges,
+            Collection<String> schemas,
+            Collection<String> roles
+    ) {
+        if (privileges.isEmpty() || schemas.isEmpty() || roles.isEmpty()) {
+            return;
+        }
+
+        var schemaNames = schemas.stream()
+                .map(DSL::quotedName)
+                .toList();
+
+        if (objectType == GrantObjectType.SCHEMA) {
+            executeOnObjects(tx, "grant {0} on {1} {2} to {3}", objectType, privileges, schemaNames, roles);
+
+            return;
+        }
+
+        if (objectType != TABLE && objectType != SEQUENCE) {
+            throw new UnsupportedOperationException(
+                    "The GrantObjectType has no objects in schemas [objectType=%s]".formatted(
+                            objectType
+                    )
+            );
+        }
+
+        var statement = query(
+                "grant {0} on all {1}s in schema {2} to {3}",
+                SQLUtil.concatenateQueryPartsWithComma(
+                        privileges.stream()
+                                .map(Privilege::privilege)
+                                .toList()
+                ),
+                objectType.objectType(),
+                SQLUtil.concatenateQueryPartsWithComma(schemaNames),
+                SQLUtil.concatenateQueryPartsWithComma(
+                        roles.stream()
+                                .map(DSL::role)
+                                .toList()
+                )
+        );
+
+        tx.execute(statement);
+    }
+
+    /// Revokes the privileges on the objects from all roles, with one statement per batch of objects.
+    ///
+    /// @param objects the qualified names of the objects (`schema.object`), or the schema names for `schema`
+    /// @return the number of statements sent
+    public int revokeOnObjects(
+            DSLContext tx,
+            GrantObjectType objectType,
+            Set<Privilege> privileges,
+            List<Name> objects,
+            Collection<String> roles
+    ) {
+        if (privileges.isEmpty() || roles.isEmpty()) {
+            return 0;
+        }
+
+        var statements = 0;
+
+        for (var from = 0; from < objects.size(); from += OBJECT_BATCH_SIZE) {
+            executeOnObjects(
+                    tx,
+                    "revoke {0} on {1} {2} from {3}",
+                    objectType,
+                    privileges,
+                    objects.subList(from, Math.min(from + OBJECT_BATCH_SIZE, objects.size())),
+                    roles
+            );
+            statements++;
+        }
+
+        return statements;
+    }
 }
@@ -22,8 +22,20 @@ import java.util.List;
         message = "The Grant schema must be not set if objectType is 'database', for all other objectType's it is required."
 )
 @ValidationRule(
-        value = "self.objectType in ['database', 'schema'] ? !has(self.objects) : has(self.objects)",
-        message = "The Grant objects must be not set if objectType is 'database' or 'schema', for all other objectType's a list is required."
+        value = "self.objectType in ['database', 'schema'] ? !has(self.objects) : (has(self.objects) || has(self.objectSelectors))",
+        message = "The Grant objects must be not set if objectType is 'database' or 'schema', for all other objectType's a list is required. The objectSelectors can be set instead of the list."
+)
+@ValidationRule(
+        value = "!has(self.objects) || !has(self.objectSelectors)",
+        message = "The Grant objects and objectSelectors are mutually exclusive."
+)
+@ValidationRule(
+        value = "!has(self.objectSelectors) || self.objectType in ['table', 'sequence']",
+        message = "The Grant objectSelectors are only supported if objectType is 'table' or 'sequence'."
+)
+@ValidationRule(
+        value = "self.objectType == 'table' || !has(self.partitionAware) || !self.partitionAware",
+        message = "The Grant partitionAware flag is only supported if objectType is 'table'."
 )
 public class GrantSpec {
     @Required
@@ -90,6 +102,14 @@ public class GrantSpec {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> objects = null;
 
+    /// Instead of `objects`: The patterns the names of the PostgreSQL objects are matched against in the catalog query.
+    /// An object is granted if it matches any `include` and no `exclude` pattern,
+    /// the privileges on all other objects of the schema are revoked.
+    @Nullable
+    @io.fabric8.generator.annotation.Nullable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ObjectSelectors objectSelectors = null;
+
     /// The privileges to grant on the PostgreSQL objects.
     /// The Operator also validates if the objectType supports the privileges.
     ///
@@ -113,4 +133,47 @@ public class GrantSpec {
             message = "The Grant privileges must not be empty. The Operator currently does not support revoking all privileges from existing roles (e.g. public user) by specifying an empty array."
     )
     private List<Privilege> privileges = new ArrayList<>();
+
+    /// Only for objectType `table`: Whether the partitions of partitioned tables are handled through their parent.
+    /// Partitions are then not diffed one by one; after the parents are reconciled,
+    /// all partitions whose privileges differ from the Grant are aligned with one statement per batch of partitions.
+    // The Fabric8 @Nullable annotation is relevant for generating nullable annotations in the resulting CRD YAML JSON Schema
+    @SuppressWarnings("NullablePrimitive")
+    @io.fabric8.generator.annotation.Nullable
+    private boolean partitionAware = false;
+
+    @Getter
+    @Setter
+    public static class ObjectSelectors {
+        /// The patterns of the objects to grant privileges on.
+        @Required
+        @ValidationRule(
+                value = "self.size() > 0",
+                message = "The Grant objectSelectors include patterns must not be empty."
+        )
+        private List<ObjectPattern> include = new ArrayList<>();
+
+        /// The patterns of the objects to leave out, even if they match an `include` pattern.
+        private List<ObjectPattern> exclude = new ArrayList<>();
+    }
+
+    /// A pattern matched against the object name, either an SQL `like` pattern (`%` and `_` as wildcards)
+    /// or a POSIX regular expression (`~`), both case-sensitive.
+    @Getter
+    @Setter
+    @ValidationRule(
+            value = "has(self.like) != has(self.regex)",
+            message = "The Grant object pattern must set either like or regex."
+    )
+    public static class ObjectPattern {
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String like = null;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String regex = null;
+    }
 }
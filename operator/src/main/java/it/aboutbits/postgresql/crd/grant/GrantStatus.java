@@ -0,0 +1,34 @@
+package it.aboutbits.postgresql.crd.grant;
+
+import it.aboutbits.postgresql.core.CRStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status Object for the Grant.
+ * <p>
+ * Extends the common status with the checkpoint of a Grant applied in chunks
+ * and the objects that were locked by other transactions.
+ */
+@NullMarked
+@Getter
+@Setter
+@Accessors(chain = true)
+public class GrantStatus extends CRStatus {
+    /**
+     * The progress of the chunked apply or revoke currently running, {@code null} if none is running.
+     */
+    @Nullable
+    private GrantProgress progress = null;
+
+    /**
+     * Objects locked by other transactions during the last reconciliation (at most 100), retried with backoff.
+     */
+    private List<String> busyObjects = new ArrayList<>();
+}
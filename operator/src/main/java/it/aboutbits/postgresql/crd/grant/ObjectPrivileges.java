@@ -0,0 +1,19 @@
+package it.aboutbits.postgresql.crd.grant;
+
+import it.aboutbits.postgresql.core.Privilege;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Set;
+
+/// The ownership and the current privileges of the Grant role on a single table or sequence.
+///
+/// An object that is not selected, i.e. neither listed in `objects` nor matching the `objectSelectors`,
+/// is an orphan the role still has privileges on.
+@NullMarked
+public record ObjectPrivileges(
+        String object,
+        boolean isSelected,
+        boolean isOwner,
+        Set<Privilege> privileges
+) {
+}
@@ -0,0 +1,18 @@
+package it.aboutbits.postgresql.crd.grant;
+
+import it.aboutbits.postgresql.core.Privilege;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Set;
+
+/// The ownership and the current privileges of a role on a single schema, table or sequence.
+@NullMarked
+public record RoleObjectPrivileges(
+        long roleOid,
+        String schema,
+        GrantObjectType objectType,
+        String object,
+        boolean isOwner,
+        Set<Privilege> privileges
+) {
+}
@@ -0,0 +1,454 @@
+package it.aboutbits.postgresql.crd.grantmatrix;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
+import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import it.aboutbits.postgresql.core.BaseReconciler;
+import it.aboutbits.postgresql.core.CRPhase;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogOids;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
+import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.core.PruningItemStore;
+import it.aboutbits.postgresql.core.SpecHashGate;
+import it.aboutbits.postgresql.crd.grant.GrantObjectType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/// Reconciles a matrix of roles × schemas × privileges per object type, which would otherwise take one Grant
+/// per (role, schema, objectType) tuple, each reading the same catalog rows separately.
+///
+/// The whole matrix is applied within one transaction: one catalog read of the privileges of all roles on all schemas,
+/// one in-memory diff and set-based GRANT and REVOKE statements (see [GrantMatrixService]).
+/// Tables and sequences created after a reconciliation are granted with the next one, e.g. the periodic resync.
+@NullMarked
+@Slf4j
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
+@RequiredArgsConstructor
+public class GrantMatrixReconciler
+        extends BaseReconciler<GrantMatrix, GrantMatrixStatus>
+        implements Reconciler<GrantMatrix>, Cleaner<GrantMatrix> {
+    private final GrantMatrixService grantMatrixService;
+
+    private final KubernetesClient kubernetesClient;
+    private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
+
+    @Override
+    public UpdateControl<GrantMatrix> reconcile(
+            GrantMatrix resource,
+            Context<GrantMatrix> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource)
+                )
+        );
+    }
+
+    private UpdateControl<GrantMatrix> reconcileResource(GrantMatrix resource) {
+        var spec = resource.getSpec();
+        var status = initializeStatus(resource);
+
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        log.info(
+                "Reconciling GrantMatrix [resource={}/{}, status.phase={}]",
+                namespace,
+                name,
+                status.getPhase()
+        );
+
+        var clusterRef = spec.getClusterRef();
+
+        for (var entry : spec.getPrivileges()) {
+            var objectType = entry.getObjectType();
+            var allowedPrivilegesForObjectType = objectType.privilegesSet();
+
+            if (!allowedPrivilegesForObjectType.containsAll(entry.getPrivileges())) {
+                var invalid = new TreeSet<>(entry.getPrivileges());
+
+                invalid.removeAll(allowedPrivilegesForObjectType);
+
+                status.setPhase(CRPhase.ERROR)
+                        .setMessage("GrantMatrix contains invalid privileges for the objectType. [resource=%s/%s, objectType=%s, invalidPrivileges=%s, allowedPrivilegesForObjectType=%s]".formatted(
+                                namespace,
+                                name,
+                                objectType,
+                                invalid,
+                                objectType.privileges()
+                        ));
+
+                return UpdateControl.patchStatus(resource);
+            }
+        }
+
+        var clusterConnectionOptional = getReferencedClusterConnection(
+                kubernetesClient,
+                resource,
+                clusterRef
+        );
+
+        if (clusterConnectionOptional.isEmpty()) {
+            status.setPhase(CRPhase.PENDING)
+                    .setMessage("The specified ClusterConnection does not exist or is not ready yet [resource=%s/%s]".formatted(
+                            getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                            clusterRef.getName()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        var database = spec.getDatabase();
+        var clusterConnection = clusterConnectionOptional.get();
+
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+        if (specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
+        UpdateControl<GrantMatrix> updateControl;
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            watermark = catalogWatermark.probe(dsl, clusterConnection, database);
+
+            if (catalogWatermark.isUnchanged(resource, clusterConnection, null, watermark)) {
+                return UpdateControl.noUpdate();
+            }
+
+            // Run everything in a single transaction
+            updateControl = dsl.transactionResult(
+                    cfg -> reconcileInTransaction(
+                            cfg.dsl(),
+                            catalogOidCache.forDatabase(cfg.dsl(), clusterConnection, database),
+                            resource,
+                            status
+                    )
+            );
+        } catch (Exception e) {
+            // The failure might have been caused by an outdated role or namespace OID
+            catalogOidCache.invalidate(clusterConnection, database);
+
+            return handleError(
+                    resource,
+                    status,
+                    e
+            );
+        }
+
+        if (status.getPhase() == CRPhase.READY) {
+            catalogWatermark.record(resource, clusterConnection, null, watermark);
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
+        return updateControl;
+    }
+
+    @Override
+    public DeleteControl cleanup(
+            GrantMatrix resource,
+            Context<GrantMatrix> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipCleanupNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        catalogWatermark.forget(resource);
+
+        return traced(
+                "cleanup",
+                resource,
+                () -> cleanupResource(resource, context)
+        );
+    }
+
+    private DeleteControl cleanupResource(
+            GrantMatrix resource,
+            Context<GrantMatrix> context
+    ) {
+        var spec = resource.getSpec();
+        var status = initializeStatus(resource);
+
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        log.info(
+                "Deleting GrantMatrix [resource={}/{}, status.phase={}]",
+                namespace,
+                name,
+                status.getPhase()
+        );
+
+        var target = cleanupTarget(resource, spec.getClusterRef(), spec.getDatabase());
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
+        if (status.getPhase() != CRPhase.DELETING) {
+            status.setPhase(CRPhase.DELETING)
+                    .setMessage("GrantMatrix deletion in progress");
+
+            var roundTrip = deletingRoundTrip(context, resource);
+
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
+        }
+
+        var clusterRef = spec.getClusterRef();
+
+        var clusterConnectionOptional = getReferencedClusterConnection(
+                kubernetesClient,
+                resource,
+                clusterRef
+        );
+
+        if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
+                    getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                    clusterRef.getName()
+            ));
+
+            patchStatus(context, resource);
+
+            return DeleteControl.noFinalizerRemoval()
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        var database = spec.getDatabase();
+        var clusterConnection = clusterConnectionOptional.get();
+
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            dsl.transaction(cfg -> {
+                var tx = cfg.dsl();
+                var oids = catalogOidCache.forDatabase(tx, clusterConnection, database);
+
+                // Everything the matrix was or is applied to is revoked
+                apply(tx, oids, resource, GrantMatrixService.Matrix.EMPTY);
+            });
+
+            return DeleteControl.defaultDelete();
+        } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            catalogOidCache.invalidate(clusterConnection, database);
+
+            log.error(
+                    "Failed to delete GrantMatrix [resource=%s/%s, status.phase=%s]".formatted(
+                            namespace,
+                            name,
+                            status.getPhase()
+                    ),
+                    e
+            );
+
+            status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
+
+            patchStatus(context, resource);
+
+            return DeleteControl.noFinalizerRemoval()
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+    }
+
+    /// Reconciles the GrantMatrix resources this replica takes over with their ClusterConnection, and the ones admitted by the fair scheduler.
+    @Override
+    public List<EventSource<?, GrantMatrix>> prepareEventSources(EventSourceContext<GrantMatrix> context) {
+        return commonEventSources(context, resource -> resource.getSpec().getClusterRef());
+    }
+
+    @Override
+    protected GrantMatrixStatus newStatus() {
+        return new GrantMatrixStatus();
+    }
+
+    private UpdateControl<GrantMatrix> reconcileInTransaction(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantMatrix resource,
+            GrantMatrixStatus status
+    ) {
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        var spec = resource.getSpec();
+        var matrix = GrantMatrixService.Matrix.of(spec);
+
+        int databaseMajorVersion = tx.connectionResult(connection ->
+                connection.getMetaData().getDatabaseMajorVersion()
+        );
+
+        var unsupportedPrivileges = matrix.privileges()
+                .values()
+                .stream()
+                .flatMap(Set::stream)
+                .filter(privilege -> privilege.minimumPostgresVersion() != null
+                        && databaseMajorVersion < privilege.minimumPostgresVersion()
+                )
+                .distinct()
+                .collect(Collectors.toMap(
+                        Function.identity(),
+                        Privilege::minimumPostgresVersion
+                ));
+
+        if (!unsupportedPrivileges.isEmpty()) {
+            status.setPhase(CRPhase.ERROR)
+                    .setMessage("The following privileges require a newer PostgreSQL version (current: %d): %s [resource=%s/%s]".formatted(
+                            databaseMajorVersion,
+                            unsupportedPrivileges,
+                            namespace,
+                            name
+                    ));
+
+            return UpdateControl.patchStatus(resource);
+        }
+
+        var missingRoles = new TreeSet<String>();
+        for (var role : matrix.roles()) {
+            if (oids.findRole(role) == null) {
+                missingRoles.add(role);
+            }
+        }
+
+        var missingSchemas = new TreeSet<String>();
+        for (var schema : matrix.schemas()) {
+            if (oids.findNamespace(schema) == null) {
+                missingSchemas.add(schema);
+            }
+        }
+
+        if (!missingRoles.isEmpty() || !missingSchemas.isEmpty()) {
+            status.setPhase(CRPhase.ERROR)
+                    .setMessage("Did not grant or revoke any privileges as the listed roles or schemas do not exist [resource=%s/%s, roles=%s, schemas=%s]".formatted(
+                            namespace,
+                            name,
+                            missingRoles,
+                            missingSchemas
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        var statements = apply(tx, oids, resource, matrix);
+
+        log.info(
+                "Reconciled GrantMatrix [resource={}/{}, tuples={}, statements={}]",
+                namespace,
+                name,
+                matrix.tuples(),
+                statements
+        );
+
+        status.setTuples(matrix.tuples())
+                .setStatements(statements)
+                .setManagedRoles(new ArrayList<>(new TreeSet<>(matrix.roles())))
+                .setManagedSchemas(new ArrayList<>(new TreeSet<>(matrix.schemas())))
+                .setManagedObjectTypes(new ArrayList<>(matrix.privileges().keySet()))
+                .setPhase(CRPhase.READY)
+                .setMessage(null);
+
+        return UpdateControl.patchStatus(resource);
+    }
+
+    /// Applies the matrix to its roles, schemas and object types and to the ones it was last applied to,
+    /// so the privileges of removed ones are revoked.
+    private int apply(
+            DSLContext tx,
+            CatalogOids oids,
+            GrantMatrix resource,
+            GrantMatrixService.Matrix matrix
+    ) {
+        var spec = resource.getSpec();
+        var status = initializeStatus(resource);
+
+        var roleNames = new TreeSet<>(spec.getRoles());
+        roleNames.addAll(status.getManagedRoles());
+
+        var schemaNames = new TreeSet<>(spec.getSchemas());
+        schemaNames.addAll(status.getManagedSchemas());
+
+        var objectTypes = EnumSet.noneOf(GrantObjectType.class);
+        spec.getPrivileges().forEach(entry -> objectTypes.add(entry.getObjectType()));
+        objectTypes.addAll(status.getManagedObjectTypes());
+
+        // Roles and schemas that were dropped in the meantime have no privileges left
+        var roles = new HashMap<Long, String>();
+        for (var roleName : roleNames) {
+            var oid = oids.findRole(roleName);
+
+            if (oid != null) {
+                roles.put(oid, roleName);
+            }
+        }
+
+        var namespaceOids = new ArrayList<Long>();
+        for (var schemaName : schemaNames) {
+            var oid = oids.findNamespace(schemaName);
+
+            if (oid != null) {
+                namespaceOids.add(oid);
+            }
+        }
+
+        return grantMatrixService.apply(
+                tx,
+                matrix,
+                roles,
+                namespaceOids,
+                objectTypes,
+                operatorConfig().grants().streamingFetchSize()
+        );
+    }
+}
@@ -0,0 +1,251 @@
+package it.aboutbits.postgresql.crd.grantmatrix;
+
+import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.crd.grant.GrantObjectType;
+import it.aboutbits.postgresql.crd.grant.GrantService;
+import it.aboutbits.postgresql.crd.grant.RoleObjectPrivileges;
+import jakarta.inject.Singleton;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jooq.Name;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.jooq.impl.DSL.quotedName;
+
+/// Applies a GrantMatrix with one catalog read, one in-memory diff and set-based statements:
+/// the tuples missing the same privileges are granted together (`grant ... on all tables in schema <schemas> to <roles>`),
+/// the objects with the same extra privileges are revoked together (`revoke ... on table <objects> from <roles>`).
+@NullMarked
+@Singleton
+@RequiredArgsConstructor
+public final class GrantMatrixService {
+    private final GrantService grantService;
+
+    /// Aligns the privileges of the roles on the schemas (and their tables and sequences) with the matrix.
+    ///
+    /// Roles, schemas and object types that are read but not part of the matrix are expected to have no privileges,
+    /// so everything a removed role, schema or object type was granted is revoked.
+    /// Objects owned by a role are skipped for that role, like for a Grant.
+    ///
+    /// @param tx             the DSLContext of an open transaction
+    /// @param matrix         the expected privileges
+    /// @param roles          the names of the roles to read by their OID, a superset of the roles of the matrix
+    /// @param namespaceOids  the OIDs of the schemas to read, a superset of the schemas of the matrix
+    /// @param objectTypes    the object types to read, a superset of the object types of the matrix
+    /// @param fetchSize      the number of rows fetched per round trip
+    /// @return the number of GRANT and REVOKE statements sent
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public int apply(
+            DSLContext tx,
+            Matrix matrix,
+            Map<Long, String> roles,
+            Collection<Long> namespaceOids,
+            Set<GrantObjectType> objectTypes,
+            int fetchSize
+    ) {
+        var diff = new Diff(matrix);
+
+        grantService.streamRolePrivileges(
+                tx,
+                roles.keySet(),
+                namespaceOids,
+                objectTypes,
+                fetchSize,
+                objectPrivileges -> diff.add(
+                        Objects.requireNonNull(roles.get(objectPrivileges.roleOid())),
+                        objectPrivileges
+                )
+        );
+
+        var statements = 0;
+
+        // Revoke first, like a Grant does
+        for (var revoke : diff.revokes().entrySet()) {
+            var key = revoke.getKey();
+
+            statements += grantService.revokeOnObjects(tx, key.objectType(), key.privileges(), key.objects(), revoke.getValue());
+        }
+
+        for (var grant : diff.grants().entrySet()) {
+            var key = grant.getKey();
+
+            grantService.grantOnAllInSchemas(tx, key.objectType(), key.privileges(), key.schemas(), grant.getValue());
+            statements++;
+        }
+
+        return statements;
+    }
+
+    /// The expected privileges of a GrantMatrix: every role gets the privileges of an object type on every schema.
+    public record Matrix(
+            Set<String> roles,
+            Set<String> schemas,
+            Map<GrantObjectType, Set<Privilege>> privileges
+    ) {
+        /// Nothing is expected, everything read is revoked.
+        public static final Matrix EMPTY = new Matrix(Set.of(), Set.of(), Map.of());
+
+        public static Matrix of(GrantMatrixSpec spec) {
+            var privileges = new EnumMap<GrantObjectType, Set<Privilege>>(GrantObjectType.class);
+
+            for (var entry : spec.getPrivileges()) {
+                privileges.put(entry.getObjectType(), Set.copyOf(entry.getPrivileges()));
+            }
+
+            return new Matrix(
+                    Set.copyOf(spec.getRoles()),
+                    Set.copyOf(spec.getSchemas()),
+                    privileges
+            );
+        }
+
+        public int tuples() {
+            return roles.size() * schemas.size() * privileges.size();
+        }
+
+        Set<Privilege> expected(
+                String role,
+                String schema,
+                GrantObjectType objectType
+        ) {
+            if (!roles.contains(role) || !schemas.contains(schema)) {
+                return Set.of();
+            }
+
+            return privileges.getOrDefault(objectType, Set.of());
+        }
+    }
+
+    /// Collects the differences row by row and groups them into as few statements as possible.
+    private static final class Diff {
+        private final Matrix matrix;
+
+        /// The privileges each (role, schema, objectType) tuple misses on at least one of its objects.
+        private final Map<Tuple, Set<Privilege>> missing = new HashMap<>();
+
+        /// The objects with extra privileges, by role.
+        private final Map<RoleKey, List<Name>> extra = new HashMap<>();
+
+        Diff(Matrix matrix) {
+            this.matrix = matrix;
+        }
+
+        void add(
+                String role,
+                RoleObjectPrivileges objectPrivileges
+        ) {
+            // The owner has all privileges implicitly, nothing needs to be granted or revoked
+            if (objectPrivileges.isOwner()) {
+                return;
+            }
+
+            var objectType = objectPrivileges.objectType();
+            var expected = matrix.expected(role, objectPrivileges.schema(), objectType);
+            var current = objectPrivileges.privileges();
+
+            var privilegesToGrant = EnumSet.noneOf(Privilege.class);
+            privilegesToGrant.addAll(expected);
+            privilegesToGrant.removeAll(current);
+
+            if (!privilegesToGrant.isEmpty()) {
+                missing.computeIfAbsent(
+                        new Tuple(role, objectPrivileges.schema(), objectType),
+                        _ -> EnumSet.noneOf(Privilege.class)
+                ).addAll(privilegesToGrant);
+            }
+
+            var privilegesToRevoke = EnumSet.noneOf(Privilege.class);
+            privilegesToRevoke.addAll(current);
+            privilegesToRevoke.removeAll(expected);
+
+            if (!privilegesToRevoke.isEmpty()) {
+                var object = objectType == GrantObjectType.SCHEMA
+                        ? quotedName(objectPrivileges.schema())
+                        : quotedName(objectPrivileges.schema(), objectPrivileges.object());
+
+                extra.computeIfAbsent(
+                        new RoleKey(role, objectType, Set.copyOf(privilegesToRevoke)),
+                        _ -> new ArrayList<>()
+                ).add(object);
+            }
+        }
+
+        /// The roles per (objectType, privileges, schemas), the roles missing the same privileges on the same schemas
+        /// share a single statement.
+        Map<GrantKey, Set<String>> grants() {
+            var schemasByRole = new HashMap<RoleKey, Set<String>>();
+
+            missing.forEach((tuple, privileges) -> schemasByRole.computeIfAbsent(
+                    new RoleKey(tuple.role(), tuple.objectType(), Set.copyOf(privileges)),
+                    _ -> new TreeSet<>()
+            ).add(tuple.schema()));
+
+            var grants = new HashMap<GrantKey, Set<String>>();
+
+            schemasByRole.forEach((roleKey, schemas) -> grants.computeIfAbsent(
+                    new GrantKey(roleKey.objectType(), roleKey.privileges(), List.copyOf(schemas)),
+                    _ -> new TreeSet<>()
+            ).add(roleKey.role()));
+
+            return grants;
+        }
+
+        /// The roles per (objectType, privileges, objects), the roles with the same extra privileges on the same objects
+        /// share a single statement.
+        Map<ObjectsKey, Set<String>> revokes() {
+            var revokes = new HashMap<ObjectsKey, Set<String>>();
+
+            extra.forEach((revokeKey, objects) -> {
+                var sortedObjects = new TreeMap<String, Name>();
+                objects.forEach(object -> sortedObjects.put(object.toString(), object));
+
+                revokes.computeIfAbsent(
+                        new ObjectsKey(revokeKey.objectType(), revokeKey.privileges(), List.copyOf(sortedObjects.values())),
+                        _ -> new TreeSet<>()
+                ).add(revokeKey.role());
+            });
+
+            return revokes;
+        }
+    }
+
+    private record Tuple(
+            String role,
+            String schema,
+            GrantObjectType objectType
+    ) {
+    }
+
+    private record RoleKey(
+            String role,
+            GrantObjectType objectType,
+            Set<Privilege> privileges
+    ) {
+    }
+
+    private record GrantKey(
+            GrantObjectType objectType,
+            Set<Privilege> privileges,
+            List<String> schemas
+    ) {
+    }
+
+    private record ObjectsKey(
+            GrantObjectType objectType,
+            Set<Privilege> privileges,
+            List<Name> objects
+    ) {
+    }
+}
@@ -0,0 +1,90 @@
+package it.aboutbits.postgresql.crd.grantmatrix;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.fabric8.generator.annotation.Required;
+import io.fabric8.generator.annotation.ValidationRule;
+import it.aboutbits.postgresql.core.ClusterReference;
+import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.crd.grant.GrantObjectType;
+import lombok.Getter;
+import lombok.Setter;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NullMarked
+@Getter
+@Setter
+public class GrantMatrixSpec {
+    @Required
+    private ClusterReference clusterRef = new ClusterReference();
+
+    /// The database to grant privileges in.
+    @Required
+    @ValidationRule(
+            value = "self == oldSelf",
+            message = "The GrantMatrix database is immutable. Changing it would require revoking permissions from the old database before granting them in the new one."
+    )
+    @ValidationRule(
+            value = "self.trim().size() > 0",
+            message = "The GrantMatrix database must not be empty."
+    )
+    private String database = "";
+
+    /// The names of the roles to grant the privileges to.
+    @Required
+    @ValidationRule(
+            value = "self.size() > 0 && self.all(role, role.trim().size() > 0)",
+            message = "The GrantMatrix roles must not be empty."
+    )
+    private List<String> roles = new ArrayList<>();
+
+    /// The schemas to grant the privileges on, for `table` and `sequence` on all their tables or sequences.
+    @Required
+    @ValidationRule(
+            value = "self.size() > 0 && self.all(schema, schema.trim().size() > 0)",
+            message = "The GrantMatrix schemas must not be empty."
+    )
+    private List<String> schemas = new ArrayList<>();
+
+    /// The privileges per object type, granted to every role on every schema.
+    @Required
+    @ValidationRule(
+            value = "self.size() > 0",
+            message = "The GrantMatrix privileges must not be empty."
+    )
+    @ValidationRule(
+            value = "self.all(a, self.exists_one(b, b.objectType == a.objectType))",
+            message = "The GrantMatrix privileges must list each objectType only once."
+    )
+    private List<ObjectTypePrivileges> privileges = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @ValidationRule(
+            value = "self.objectType in ['schema', 'table', 'sequence']",
+            message = "The GrantMatrix objectType must be one of 'schema', 'table' or 'sequence'."
+    )
+    public static class ObjectTypePrivileges {
+        /// The PostgreSQL object type to grant the privileges on.
+        ///
+        /// Must be one of:
+        /// - `schema`
+        /// - `table`
+        /// - `sequence`
+        @Required
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_CASE_INSENSITIVE_VALUES)
+        private GrantObjectType objectType = GrantObjectType.SCHEMA;
+
+        /// The privileges to grant on the objects of the type.
+        /// The Operator also validates if the objectType supports the privileges.
+        @Required
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_CASE_INSENSITIVE_VALUES)
+        @ValidationRule(
+                value = "self.size() > 0",
+                message = "The GrantMatrix privileges of an objectType must not be empty."
+        )
+        private List<Privilege> privileges = new ArrayList<>();
+    }
+}
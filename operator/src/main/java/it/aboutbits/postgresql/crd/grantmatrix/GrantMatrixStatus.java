@@ -0,0 +1,48 @@
+package it.aboutbits.postgresql.crd.grantmatrix;
+
+import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.crd.grant.GrantObjectType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status Object for the GrantMatrix.
+ * <p>
+ * Extends the common status with the size of the matrix and the roles, schemas and object types it was applied to,
+ * so the privileges are revoked once they are removed from the spec.
+ */
+@NullMarked
+@Getter
+@Setter
+@Accessors(chain = true)
+public class GrantMatrixStatus extends CRStatus {
+    /**
+     * The number of (role, schema, objectType) tuples of the matrix.
+     */
+    private int tuples = 0;
+
+    /**
+     * The number of GRANT and REVOKE statements sent in the last reconciliation.
+     */
+    private int statements = 0;
+
+    /**
+     * The roles the matrix was last applied to.
+     */
+    private List<String> managedRoles = new ArrayList<>();
+
+    /**
+     * The schemas the matrix was last applied to.
+     */
+    private List<String> managedSchemas = new ArrayList<>();
+
+    /**
+     * The object types the matrix was last applied to.
+     */
+    private List<GrantObjectType> managedObjectTypes = new ArrayList<>();
+}
@@ -2,35 +2,39 @@ package it.aboutbits.postgresql.crd.role;
 
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.config.informer.InformerEventSourceConfiguration;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
 import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
-import io.javaoperatorsdk.operator.processing.event.ResourceID;
 import io.javaoperatorsdk.operator.processing.event.source.EventSource;
-import io.javaoperatorsdk.operator.processing.event.source.SecondaryToPrimaryMapper;
-import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
 import io.quarkiverse.operatorsdk.annotations.AdditionalRBACRules;
 import io.quarkiverse.operatorsdk.annotations.RBACRule;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
 import it.aboutbits.postgresql.core.KubernetesService;
 import it.aboutbits.postgresql.core.PostgreSQLAuthenticationService;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.PruningItemStore;
+import it.aboutbits.postgresql.core.SpecHashGate;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 @NullMarked
 @Slf4j
@@ -41,6 +45,9 @@ import java.util.stream.Collectors;
                 verbs = {"get", "list", "watch"}
         )
 })
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
 @RequiredArgsConstructor
 public class RoleReconciler
         extends BaseReconciler<Role, CRStatus>
@@ -51,11 +58,33 @@ public class RoleReconciler
 
     private final KubernetesClient kubernetesClient;
     private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
 
     @Override
     public UpdateControl<Role> reconcile(
             Role resource,
             Context<Role> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<Role> reconcileResource(
+            Role resource,
+            Context<Role> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -99,26 +128,52 @@ public class RoleReconciler
         var passwordSecretRef = spec.getPasswordSecretRef();
 
         String password;
+        String passwordVersion;
         if (passwordSecretRef != null) {
-            password = kubernetesService.getSecretRefCredentials(
+            var credentials = kubernetesService.getSecretRefCredentials(
                     kubernetesClient,
                     passwordSecretRef,
                     namespace
-            ).password();
+            );
+
+            password = credentials.password();
+            passwordVersion = credentials.version();
         } else {
             password = null;
+            passwordVersion = null;
+        }
+
+        // The gates only see the version of the Secret, never the password itself
+        var specHash = specHashGate.hash(resource, clusterConnection, passwordVersion);
+
+        if (specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
         }
 
         UpdateControl<Role> updateControl;
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection)) {
+            watermark = catalogWatermark.probe(dsl, clusterConnection, clusterConnection.getSpec().getDatabase());
+
+            if (catalogWatermark.isUnchanged(resource, clusterConnection, passwordVersion, watermark)) {
+                return UpdateControl.noUpdate();
+            }
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection)) {
             // Run everything in a single transaction
             updateControl = dsl.transactionResult(
                     cfg -> reconcileInTransaction(
                             cfg.dsl(),
                             resource,
                             status,
-                            password
+                            password,
+                            clusterConnection
                     )
             );
         } catch (Exception e) {
@@ -129,6 +184,11 @@ public class RoleReconciler
             );
         }
 
+        if (status.getPhase() == CRPhase.READY) {
+            catalogWatermark.record(resource, clusterConnection, passwordVersion, watermark);
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
         return updateControl;
     }
 
@@ -136,6 +196,23 @@ public class RoleReconciler
     public DeleteControl cleanup(
             Role resource,
             Context<Role> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipCleanupNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        catalogWatermark.forget(resource);
+
+        return traced(
+                "cleanup",
+                resource,
+                () -> cleanupResource(resource, context)
+        );
+    }
+
+    private DeleteControl cleanupResource(
+            Role resource,
+            Context<Role> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -151,14 +228,21 @@ public class RoleReconciler
                 status.getPhase()
         );
 
+        var target = cleanupTarget(resource, spec.getClusterRef(), null);
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
         if (status.getPhase() != CRPhase.DELETING) {
             status.setPhase(CRPhase.DELETING)
                     .setMessage("Role deletion in progress");
 
-            context.getClient().resource(resource).patchStatus();
+            var roundTrip = deletingRoundTrip(context, resource);
 
-            return DeleteControl.noFinalizerRemoval()
-                    .rescheduleAfter(100, TimeUnit.MILLISECONDS);
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
         }
 
         var clusterRef = spec.getClusterRef();
@@ -170,12 +254,16 @@ public class RoleReconciler
         );
 
         if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
             status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
                     getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
                     clusterRef.getName()
             ));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -183,11 +271,17 @@ public class RoleReconciler
 
         var clusterConnection = clusterConnectionOptional.get();
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection)) {
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection)) {
             roleService.dropRole(dsl, spec);
 
+            catalogOidCache.invalidateRoles(clusterConnection);
+
             return DeleteControl.defaultDelete();
         } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
             log.error(
                     "Failed to delete Role [resource=%s/%s, spec.name=%s, status.phase=%s]".formatted(
                             namespace,
@@ -200,7 +294,7 @@ public class RoleReconciler
 
             status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -209,33 +303,15 @@ public class RoleReconciler
 
     /**
      * Watches for {@code Secret} changes to trigger reconciliation for dependent {@code Role} resources.
+     * Also reconciles the {@code Role} resources this replica takes over with their ClusterConnection,
+     * and the ones admitted by the fair scheduler.
      */
     @Override
     public List<EventSource<?, Role>> prepareEventSources(EventSourceContext<Role> context) {
-        // 1. Define the Mapper
-        // We define how to find the Primary Resource (Role) when a Secret changes
-        // Filter Roles that reference this specific Secret
-        SecondaryToPrimaryMapper<Secret> secretToRoleMapper = (Secret secret) -> context.getPrimaryCache()
-                .list()
-                .filter(role -> isReferencedBy(role, secret))
-                .map(ResourceID::fromResource)
-                .collect(Collectors.toSet());
-
-        // 2. Build the Event Source Configuration which binds the InformerConfig + Mapper
-        var eventSourceConfig = InformerEventSourceConfiguration.from(Secret.class, Role.class)
-                .withSecondaryToPrimaryMapper(secretToRoleMapper)
-                // or .withWatchAllNamespaces() if we want to have the secret in another namespace than the Role CR instance
-                .withNamespacesInheritedFromController()
-                .build();
-
-        // 3. Create the Event Source
-        // This will watch for Secret changes and run the mapper
-        var secretEventSource = new InformerEventSource<>(
-                eventSourceConfig,
-                context
-        );
+        var eventSources = new ArrayList<>(commonEventSources(context, role -> role.getSpec().getClusterRef()));
+        eventSources.add(secretEventSource(context, this::isReferencedBy));
 
-        return List.of(secretEventSource);
+        return eventSources;
     }
 
     @Override
@@ -247,13 +323,15 @@ public class RoleReconciler
             DSLContext tx,
             Role resource,
             CRStatus status,
-            @Nullable String password
+            @Nullable String password,
+            ClusterConnection clusterConnection
     ) {
         var name = resource.getMetadata().getName();
         var namespace = resource.getMetadata().getNamespace();
 
         var spec = resource.getSpec();
         var expectedFlags = spec.getFlags();
+        var passwordEncryption = clusterConnection.getSpec().getPasswordEncryption();
 
         // Create and return the role if it doesn't exist yet
         if (!roleService.roleExists(tx, spec)) {
@@ -266,9 +344,11 @@ public class RoleReconciler
             roleService.createRole(
                     tx,
                     spec,
-                    password
+                    postgreSQLAuthenticationService.encryptPassword(password, passwordEncryption)
             );
 
+            catalogOidCache.invalidateRoles(clusterConnection);
+
             status.setPhase(CRPhase.READY)
                     .setMessage(null);
 
@@ -316,7 +396,9 @@ public class RoleReconciler
                     tx,
                     spec,
                     changePassword,
-                    password
+                    changePassword
+                            ? postgreSQLAuthenticationService.encryptPassword(password, passwordEncryption)
+                            : password
             );
         }
 
@@ -13,6 +13,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 
 import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTHID;
@@ -190,8 +191,23 @@ public final class RoleService {
             RoleSpec.Flags expectedFlags,
             RoleSpec.Flags currentFlags
     ) {
-        var roleName = spec.getName();
+        var queries = buildRoleMembershipChanges(
+                spec.getName(),
+                expectedFlags,
+                currentFlags
+        );
+
+        if (!queries.isEmpty()) {
+            tx.batch(queries).execute();
+        }
+    }
 
+    /// Builds the `grant` and `revoke` statements that align the memberships (`inRole` and `role`) of the role.
+    public static List<Query> buildRoleMembershipChanges(
+            String roleName,
+            RoleSpec.Flags expectedFlags,
+            RoleSpec.Flags currentFlags
+    ) {
         // ROLE IN
         var expectedInRole = new HashSet<>(expectedFlags.getInRole());
         var currentInRole = new HashSet<>(currentFlags.getInRole());
@@ -232,9 +248,7 @@ public final class RoleService {
             queries.add(buildRevokeRoleFromMember(roleName, member));
         }
 
-        if (!queries.isEmpty()) {
-            tx.batch(queries).execute();
-        }
+        return queries;
     }
 
     public void dropRole(
@@ -242,17 +256,21 @@ public final class RoleService {
             RoleSpec spec
     ) {
         dsl.execute(
-                query("drop role if exists {0}", role(spec.getName()))
+                buildDropRole(spec.getName())
         );
     }
 
+    public static Query buildDropRole(String roleName) {
+        return query("drop role if exists {0}", role(roleName));
+    }
+
     /**
      * Build: CREATE ROLE <name> [ [ WITH ] option [ ... ] ]
      * See <a href="https://www.postgresql.org/docs/current/sql-createrole.html">
      * PostgreSQL: Documentation: CREATE ROLE
      * </a>
      */
-    private static Query buildCreateRole(
+    public static Query buildCreateRole(
             String roleName,
             RoleSpec.Flags flags,
             @Nullable String password
@@ -325,7 +343,7 @@ public final class RoleService {
         );
     }
 
-    private static Query buildAlterRole(
+    public static Query buildAlterRole(
             String roleName,
             RoleSpec.Flags flags,
             boolean changePassword,
@@ -412,7 +430,7 @@ public final class RoleService {
     /**
      * Build: COMMENT ON ROLE <name> IS <comment>
      */
-    private static Query buildCommentOnRole(
+    public static Query buildCommentOnRole(
             String roleName,
             @Nullable String comment
     ) {
@@ -423,7 +441,7 @@ public final class RoleService {
         );
     }
 
-    private static @Nullable String normalizeComment(@Nullable String comment) {
+    public static @Nullable String normalizeComment(@Nullable String comment) {
         if (comment == null || comment.isBlank()) {
             return null;
         }
@@ -0,0 +1,666 @@
+package it.aboutbits.postgresql.crd.roleset;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
+import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.informer.InformerEventSource;
+import io.quarkiverse.operatorsdk.annotations.AdditionalRBACRules;
+import io.quarkiverse.operatorsdk.annotations.RBACRule;
+import it.aboutbits.postgresql.core.BaseReconciler;
+import it.aboutbits.postgresql.core.CRPhase;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
+import it.aboutbits.postgresql.core.Credentials;
+import it.aboutbits.postgresql.core.KubernetesService;
+import it.aboutbits.postgresql.core.PostgreSQLAuthenticationService;
+import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.PruningItemStore;
+import it.aboutbits.postgresql.core.SecretRef;
+import it.aboutbits.postgresql.core.SpecHashGate;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.role.RoleService;
+import it.aboutbits.postgresql.crd.role.RoleSpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/// Reconciles many roles declared by one RoleSet with a single snapshot of `pg_authid` and `pg_auth_members`,
+/// batched statements and an aggregated status, instead of one reconciliation, connection and status patch per Role.
+///
+/// The roles are created and altered first, their memberships are aligned once all of them exist,
+/// and the roles that were removed from the spec are dropped last.
+/// The roles are marked with the RoleSet in PostgreSQL, so the removed ones are found without listing all roles in the status.
+/// The password Secrets are watched like for a Role and read from the informer cache.
+@NullMarked
+@Slf4j
+@AdditionalRBACRules({
+        @RBACRule(
+                apiGroups = {""},
+                resources = {"secrets"},
+                verbs = {"get", "list", "watch"}
+        )
+})
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class)
+)
+@RequiredArgsConstructor
+public class RoleSetReconciler
+        extends BaseReconciler<RoleSet, RoleSetStatus>
+        implements Reconciler<RoleSet>, Cleaner<RoleSet> {
+    /// The failed roles listed in the status, the remaining ones are only counted.
+    private static final int MAX_LISTED_FAILURES = 100;
+
+    private final RoleSetService roleSetService;
+    private final KubernetesService kubernetesService;
+    private final PostgreSQLAuthenticationService postgreSQLAuthenticationService;
+
+    private final KubernetesClient kubernetesClient;
+    private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
+
+    /// The password that last matched a role's verifier, per ClusterConnection uid and role name.
+    /// The same Secret version and verifier always match again, which skips the PBKDF2 derivation of unchanged passwords.
+    private final Map<String, MatchedPassword> matchedPasswords = new ConcurrentHashMap<>();
+
+    @Override
+    public UpdateControl<RoleSet> reconcile(
+            RoleSet resource,
+            Context<RoleSet> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        return traced(
+                "reconcile",
+                resource,
+                () -> reconcileFairly(
+                        resource,
+                        () -> reconcileResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<RoleSet> reconcileResource(
+            RoleSet resource,
+            Context<RoleSet> context
+    ) {
+        var spec = resource.getSpec();
+        var status = initializeStatus(resource);
+
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        log.info(
+                "Reconciling RoleSet [resource={}/{}, roles={}, status.phase={}]",
+                namespace,
+                name,
+                spec.getRoles().size(),
+                status.getPhase()
+        );
+
+        var duplicateNames = spec.getRoles()
+                .stream()
+                .collect(Collectors.groupingBy(RoleSetSpec.Entry::getName, TreeMap::new, Collectors.counting()))
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() > 1)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        if (!duplicateNames.isEmpty()) {
+            status.setPhase(CRPhase.ERROR)
+                    .setMessage("The RoleSet declares roles more than once [roles=%s]".formatted(
+                            String.join(", ", duplicateNames)
+                    ));
+
+            return UpdateControl.patchStatus(resource);
+        }
+
+        var clusterRef = spec.getClusterRef();
+
+        var clusterConnectionOptional = getReferencedClusterConnection(
+                kubernetesClient,
+                resource,
+                clusterRef
+        );
+
+        if (clusterConnectionOptional.isEmpty()) {
+            status.setPhase(CRPhase.PENDING)
+                    .setMessage("The specified ClusterConnection does not exist or is not ready yet [resource=%s/%s]".formatted(
+                            getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                            clusterRef.getName()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        var clusterConnection = clusterConnectionOptional.get();
+
+        var expectedRoles = new LinkedHashMap<String, RoleSpec>();
+        for (var entry : spec.getRoles()) {
+            var roleSpec = RoleSetService.toRoleSpec(spec, entry);
+
+            // We need to case-insensitive sort the roles, as PostgreSQL will lowercase anything without quotes
+            roleSpec.getFlags().getRole().sort(String.CASE_INSENSITIVE_ORDER);
+            roleSpec.getFlags().getInRole().sort(String.CASE_INSENSITIVE_ORDER);
+
+            expectedRoles.put(entry.getName(), roleSpec);
+        }
+
+        var secrets = new TreeMap<String, Secret>();
+        var passwordVersions = new TreeMap<String, String>();
+        var failures = new TreeMap<String, String>();
+
+        for (var roleSpec : expectedRoles.values()) {
+            var passwordSecretRef = roleSpec.getPasswordSecretRef();
+
+            if (passwordSecretRef == null) {
+                continue;
+            }
+
+            try {
+                var secret = getPasswordSecret(resource, context, passwordSecretRef);
+
+                secrets.put(roleSpec.getName(), secret);
+                passwordVersions.put(roleSpec.getName(), KubernetesService.version(secret));
+            } catch (RuntimeException e) {
+                failures.put(roleSpec.getName(), Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+            }
+        }
+
+        // The gates only see the versions of the Secrets, the passwords are decoded once both gates are passed
+        var passwordsInput = passwordVersions.isEmpty() ? null : passwordVersions.toString();
+        var specHash = specHashGate.hash(resource, clusterConnection, passwordsInput);
+
+        if (failures.isEmpty() && specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection)) {
+            watermark = catalogWatermark.probe(dsl, clusterConnection, clusterConnection.getSpec().getDatabase());
+
+            if (failures.isEmpty() && catalogWatermark.isUnchanged(resource, clusterConnection, passwordsInput, watermark)) {
+                return UpdateControl.noUpdate();
+            }
+
+            var credentials = new TreeMap<String, Credentials>();
+
+            for (var secret : secrets.entrySet()) {
+                try {
+                    credentials.put(secret.getKey(), KubernetesService.toCredentials(secret.getValue()));
+                } catch (RuntimeException e) {
+                    failures.put(secret.getKey(), Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+                }
+            }
+
+            // Run everything in a single transaction, each batch in its own savepoint
+            dsl.transaction(cfg -> reconcileInTransaction(
+                    cfg.dsl(),
+                    resource,
+                    expectedRoles,
+                    credentials,
+                    failures,
+                    clusterConnection
+            ));
+        } catch (Exception e) {
+            return handleError(
+                    resource,
+                    status,
+                    e
+            );
+        }
+
+        var failedDeclaredRoles = (int) failures.keySet()
+                .stream()
+                .filter(expectedRoles::containsKey)
+                .count();
+
+        status.setRoles(expectedRoles.size())
+                .setReadyRoles(expectedRoles.size() - failedDeclaredRoles)
+                .setFailedRoles(failures.size())
+                .setFailures(failures.entrySet()
+                        .stream()
+                        .limit(MAX_LISTED_FAILURES)
+                        .map(failure -> new RoleSetStatus.RoleFailure()
+                                .setName(failure.getKey())
+                                .setMessage(failure.getValue())
+                        )
+                        .toList()
+                );
+
+        if (!failures.isEmpty()) {
+            status.setPhase(CRPhase.ERROR)
+                    .setMessage("%d of %d roles failed, see status.failures".formatted(
+                            failures.size(),
+                            expectedRoles.size()
+                    ));
+
+            return UpdateControl.patchStatus(resource)
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        status.setPhase(CRPhase.READY)
+                .setMessage(null);
+
+        catalogWatermark.record(resource, clusterConnection, passwordsInput, watermark);
+        specHashGate.verified(status, specHash);
+
+        return UpdateControl.patchStatus(resource);
+    }
+
+    @Override
+    public DeleteControl cleanup(
+            RoleSet resource,
+            Context<RoleSet> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipCleanupNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        catalogWatermark.forget(resource);
+
+        return traced(
+                "cleanup",
+                resource,
+                () -> cleanupResource(resource, context)
+        );
+    }
+
+    private DeleteControl cleanupResource(
+            RoleSet resource,
+            Context<RoleSet> context
+    ) {
+        var spec = resource.getSpec();
+        var status = initializeStatus(resource);
+
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        log.info(
+                "Deleting RoleSet [resource={}/{}, roles={}, status.phase={}]",
+                namespace,
+                name,
+                spec.getRoles().size(),
+                status.getPhase()
+        );
+
+        var target = cleanupTarget(resource, spec.getClusterRef(), null);
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
+        if (status.getPhase() != CRPhase.DELETING) {
+            status.setPhase(CRPhase.DELETING)
+                    .setMessage("RoleSet deletion in progress");
+
+            var roundTrip = deletingRoundTrip(context, resource);
+
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
+        }
+
+        var clusterRef = spec.getClusterRef();
+
+        var clusterConnectionOptional = getReferencedClusterConnection(
+                kubernetesClient,
+                resource,
+                clusterRef
+        );
+
+        if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
+                    getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
+                    clusterRef.getName()
+            ));
+
+            patchStatus(context, resource);
+
+            return DeleteControl.noFinalizerRemoval()
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+
+        var clusterConnection = clusterConnectionOptional.get();
+
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection)) {
+            var failures = dsl.transactionResult(cfg -> {
+                var roleNames = new TreeSet<>(roleSetService.fetchMarkedRoles(cfg.dsl(), RoleSetService.marker(resource)));
+                for (var entry : spec.getRoles()) {
+                    roleNames.add(entry.getName());
+                }
+
+                forgetMatchedPasswords(clusterConnection, roleNames);
+
+                return roleSetService.execute(
+                        cfg.dsl(),
+                        dropStatements(roleNames)
+                );
+            });
+
+            catalogOidCache.invalidateRoles(clusterConnection);
+
+            if (!failures.isEmpty()) {
+                // The roles that could not be dropped keep their marker and are retried
+                status.setMessage("Deletion failed for %d roles: %s".formatted(
+                                failures.size(),
+                                failures.entrySet().iterator().next()
+                        ));
+
+                patchStatus(context, resource);
+
+                return DeleteControl.noFinalizerRemoval()
+                        .rescheduleAfter(60, TimeUnit.SECONDS);
+            }
+
+            return DeleteControl.defaultDelete();
+        } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
+            log.error(
+                    "Failed to delete RoleSet [resource=%s/%s, status.phase=%s]".formatted(
+                            namespace,
+                            name,
+                            status.getPhase()
+                    ),
+                    e
+            );
+
+            status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
+
+            patchStatus(context, resource);
+
+            return DeleteControl.noFinalizerRemoval()
+                    .rescheduleAfter(60, TimeUnit.SECONDS);
+        }
+    }
+
+    /// Reconciles the RoleSets whose password Secrets change, the ones this replica takes over with their ClusterConnection,
+    /// and the ones admitted by the fair scheduler.
+    @Override
+    public List<EventSource<?, RoleSet>> prepareEventSources(EventSourceContext<RoleSet> context) {
+        var eventSources = new ArrayList<>(commonEventSources(context, resource -> resource.getSpec().getClusterRef()));
+        eventSources.add(secretEventSource(context, this::isReferencedBy));
+
+        return eventSources;
+    }
+
+    @Override
+    protected RoleSetStatus newStatus() {
+        return new RoleSetStatus();
+    }
+
+    private void reconcileInTransaction(
+            DSLContext tx,
+            RoleSet resource,
+            Map<String, RoleSpec> expectedRoles,
+            Map<String, Credentials> credentials,
+            Map<String, String> failures,
+            ClusterConnection clusterConnection
+    ) {
+        var name = resource.getMetadata().getName();
+        var namespace = resource.getMetadata().getNamespace();
+
+        var passwordEncryption = clusterConnection.getSpec().getPasswordEncryption();
+        var marker = RoleSetService.marker(resource);
+
+        var markedRoles = roleSetService.fetchMarkedRoles(tx, marker);
+
+        var removedRoles = new TreeSet<>(markedRoles);
+        removedRoles.removeAll(expectedRoles.keySet());
+
+        var currentRoles = roleSetService.fetchCurrentRoles(tx, expectedRoles.keySet());
+
+        var roleChanges = new LinkedHashMap<String, List<Query>>();
+        var membershipChanges = new LinkedHashMap<String, List<Query>>();
+
+        for (var roleSpec : expectedRoles.values()) {
+            var roleName = roleSpec.getName();
+
+            // The Secret of the role could not be read, it is left as is
+            if (failures.containsKey(roleName)) {
+                continue;
+            }
+
+            var expectedFlags = roleSpec.getFlags();
+            var expectedComment = RoleService.normalizeComment(roleSpec.getComment());
+            var roleCredentials = credentials.get(roleName);
+            var password = roleCredentials != null ? roleCredentials.password() : null;
+            var currentRole = currentRoles.get(roleName);
+            var queries = new ArrayList<Query>();
+
+            if (currentRole == null) {
+                queries.add(RoleService.buildCreateRole(
+                        roleName,
+                        RoleSetService.withoutMemberships(expectedFlags),
+                        postgreSQLAuthenticationService.encryptPassword(password, passwordEncryption)
+                ));
+
+                if (expectedComment != null) {
+                    queries.add(RoleService.buildCommentOnRole(roleName, expectedComment));
+                }
+
+                queries.add(RoleSetService.buildMarkRole(roleName, marker));
+
+                roleChanges.put(roleName, queries);
+                membershipChanges.put(roleName, RoleService.buildRoleMembershipChanges(
+                        roleName,
+                        expectedFlags,
+                        new RoleSpec.Flags()
+                ));
+
+                continue;
+            }
+
+            // When there is NOLOGIN, we set no password
+            var loginExpected = roleSpec.getPasswordSecretRef() != null;
+            var passwordMatches = !loginExpected
+                    || roleCredentials == null
+                    || passwordMatches(clusterConnection, currentRole, roleCredentials);
+            var changePassword = loginExpected && !passwordMatches;
+
+            if (loginExpected != currentRole.canLogin()
+                    || !passwordMatches
+                    || !RoleSetService.attributesMatch(expectedFlags, currentRole.flags())
+            ) {
+                queries.add(RoleService.buildAlterRole(
+                        roleName,
+                        expectedFlags,
+                        changePassword,
+                        changePassword
+                                ? postgreSQLAuthenticationService.encryptPassword(password, passwordEncryption)
+                                : password
+                ));
+            }
+
+            if (!Objects.equals(RoleService.normalizeComment(currentRole.comment()), expectedComment)) {
+                queries.add(RoleService.buildCommentOnRole(roleName, expectedComment));
+            }
+
+            // Adopts the roles created before they were marked, e.g. by a Role or another RoleSet
+            if (!markedRoles.contains(roleName)) {
+                queries.add(RoleSetService.buildMarkRole(roleName, marker));
+            }
+
+            roleChanges.put(roleName, queries);
+            membershipChanges.put(roleName, RoleService.buildRoleMembershipChanges(
+                    roleName,
+                    expectedFlags,
+                    currentRole.flags()
+            ));
+        }
+
+        failures.putAll(roleSetService.execute(tx, roleChanges));
+
+        // Memberships are aligned once all roles exist, except for the roles that could not be created or altered
+        membershipChanges.keySet().removeAll(failures.keySet());
+        failures.putAll(roleSetService.execute(tx, membershipChanges));
+
+        // The roles that could not be dropped keep their marker and are retried with the next reconciliation
+        var dropFailures = roleSetService.execute(
+                tx,
+                dropStatements(removedRoles)
+        );
+        failures.putAll(dropFailures);
+
+        forgetMatchedPasswords(clusterConnection, removedRoles);
+
+        var changedRoles = roleChanges.values().stream().filter(queries -> !queries.isEmpty()).count()
+                + removedRoles.size();
+
+        if (changedRoles > 0) {
+            catalogOidCache.invalidateRoles(clusterConnection);
+        }
+
+        log.info(
+                "Reconciled RoleSet [resource={}/{}, roles={}, changedRoles={}, droppedRoles={}, failedRoles={}]",
+                namespace,
+                name,
+                expectedRoles.size(),
+                changedRoles - removedRoles.size(),
+                removedRoles.size() - dropFailures.size(),
+                failures.size()
+        );
+    }
+
+    /// Reads the password Secret from the informer cache, or from the API server if it is not cached,
+    /// e.g. because it lives outside the watched namespaces or does not match the label selector.
+    private Secret getPasswordSecret(
+            RoleSet resource,
+            Context<RoleSet> context,
+            SecretRef secretRef
+    ) {
+        var secretEventSource = (InformerEventSource<Secret, RoleSet>) context.eventSourceRetriever()
+                .getEventSourceFor(Secret.class);
+
+        var secretId = new ResourceID(
+                secretRef.getName(),
+                getResourceNamespaceOrOwn(resource, secretRef.getNamespace())
+        );
+
+        return secretEventSource.get(secretId)
+                .orElseGet(() -> kubernetesService.getSecret(
+                        kubernetesClient,
+                        secretRef,
+                        resource.getMetadata().getNamespace()
+                ));
+    }
+
+    private boolean passwordMatches(
+            ClusterConnection clusterConnection,
+            RoleSetService.CurrentRole currentRole,
+            Credentials credentials
+    ) {
+        var key = clusterConnection.getMetadata().getUid() + "/" + currentRole.name();
+        var passwordVerifier = currentRole.passwordVerifier();
+
+        if (passwordVerifier == null) {
+            matchedPasswords.remove(key);
+
+            return false;
+        }
+
+        var matchedPassword = new MatchedPassword(credentials.version(), passwordVerifier);
+
+        if (matchedPassword.equals(matchedPasswords.get(key))) {
+            return true;
+        }
+
+        if (!postgreSQLAuthenticationService.passwordMatches(currentRole.name(), passwordVerifier, credentials.password())) {
+            matchedPasswords.remove(key);
+
+            return false;
+        }
+
+        matchedPasswords.put(key, matchedPassword);
+
+        return true;
+    }
+
+    private void forgetMatchedPasswords(
+            ClusterConnection clusterConnection,
+            Iterable<String> roleNames
+    ) {
+        for (var roleName : roleNames) {
+            matchedPasswords.remove(clusterConnection.getMetadata().getUid() + "/" + roleName);
+        }
+    }
+
+    /// Whether any role of the RoleSet takes its password from the Secret.
+    private boolean isReferencedBy(
+            RoleSet resource,
+            Secret secret
+    ) {
+        for (var entry : resource.getSpec().getRoles()) {
+            var ref = entry.getPasswordSecretRef();
+
+            if (ref != null
+                    && ref.getName().equals(secret.getMetadata().getName())
+                    && getResourceNamespaceOrOwn(resource, ref.getNamespace()).equals(secret.getMetadata().getNamespace())
+            ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Map<String, List<Query>> dropStatements(Iterable<String> roleNames) {
+        var statements = new LinkedHashMap<String, List<Query>>();
+
+        for (var roleName : roleNames) {
+            statements.put(roleName, List.of(RoleService.buildDropRole(roleName)));
+        }
+
+        return statements;
+    }
+
+    private record MatchedPassword(
+            String passwordVersion,
+            String passwordVerifier
+    ) {
+    }
+}
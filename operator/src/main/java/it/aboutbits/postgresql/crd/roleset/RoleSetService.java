@@ -0,0 +1,306 @@
+package it.aboutbits.postgresql.crd.roleset;
+
+import it.aboutbits.postgresql.core.infrastructure.persistence.Routines;
+import it.aboutbits.postgresql.crd.role.RoleSpec;
+import jakarta.inject.Singleton;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.exception.DataAccessException;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTHID;
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTH_MEMBERS;
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_DB_ROLE_SETTING;
+import static org.jooq.impl.DSL.any;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.inline;
+import static org.jooq.impl.DSL.query;
+import static org.jooq.impl.DSL.role;
+import static org.jooq.impl.DSL.unquotedName;
+import static org.jooq.impl.DSL.val;
+
+@NullMarked
+@Singleton
+public final class RoleSetService {
+    /// The statements sent per JDBC batch, each batch runs in its own savepoint.
+    static final int BATCH_SIZE = 500;
+
+    /// The role setting that marks the roles of a RoleSet with its `<namespace>/<name>`,
+    /// so the roles removed from the spec are found in the database instead of being listed in the status.
+    /// PostgreSQL accepts it as a placeholder setting, it has no effect on the sessions of the role.
+    static final String ROLE_SET_SETTING = "postgresql_operator.role_set";
+
+    /// The value of the marker setting of the roles of the RoleSet.
+    public static String marker(RoleSet resource) {
+        return resource.getMetadata().getNamespace() + "/" + resource.getMetadata().getName();
+    }
+
+    /// Build: ALTER ROLE <name> SET postgresql_operator.role_set = <marker>
+    public static Query buildMarkRole(
+            String roleName,
+            String marker
+    ) {
+        return query(
+                "alter role {0} set {1} = {2}",
+                role(roleName),
+                unquotedName(ROLE_SET_SETTING),
+                inline(marker)
+        );
+    }
+
+    /// The names of the roles marked as roles of the RoleSet, read from the cluster-wide settings in `pg_db_role_setting`.
+    public Set<String> fetchMarkedRoles(
+            DSLContext tx,
+            String marker
+    ) {
+        return tx.select(PG_AUTHID.ROLNAME)
+                .from(PG_DB_ROLE_SETTING)
+                .join(PG_AUTHID).on(PG_AUTHID.OID.eq(PG_DB_ROLE_SETTING.SETROLE))
+                .where(PG_DB_ROLE_SETTING.SETDATABASE.eq(0L))
+                .and(val(ROLE_SET_SETTING + "=" + marker).eq(any(PG_DB_ROLE_SETTING.SETCONFIG)))
+                .fetchSet(PG_AUTHID.ROLNAME);
+    }
+
+    /// The effective spec of a role of the set, with the defaults applied where the entry does not override them.
+    public static RoleSpec toRoleSpec(
+            RoleSetSpec spec,
+            RoleSetSpec.Entry entry
+    ) {
+        var defaults = Objects.requireNonNullElseGet(spec.getDefaults(), RoleSetSpec.Defaults::new);
+        var defaultFlags = Objects.requireNonNullElseGet(defaults.getFlags(), RoleSpec.Flags::new);
+        var overrides = Objects.requireNonNullElseGet(entry.getFlags(), RoleSetSpec.FlagOverrides::new);
+
+        var flags = new RoleSpec.Flags();
+        flags.setSuperuser(Objects.requireNonNullElse(overrides.getSuperuser(), defaultFlags.isSuperuser()));
+        flags.setCreatedb(Objects.requireNonNullElse(overrides.getCreatedb(), defaultFlags.isCreatedb()));
+        flags.setCreaterole(Objects.requireNonNullElse(overrides.getCreaterole(), defaultFlags.isCreaterole()));
+        flags.setInherit(Objects.requireNonNullElse(overrides.getInherit(), defaultFlags.isInherit()));
+        flags.setReplication(Objects.requireNonNullElse(overrides.getReplication(), defaultFlags.isReplication()));
+        flags.setBypassrls(Objects.requireNonNullElse(overrides.getBypassrls(), defaultFlags.isBypassrls()));
+        flags.setConnectionLimit(Objects.requireNonNullElse(overrides.getConnectionLimit(), defaultFlags.getConnectionLimit()));
+        flags.setValidUntil(overrides.getValidUntil() != null ? overrides.getValidUntil() : defaultFlags.getValidUntil());
+        flags.setInRole(new ArrayList<>(Objects.requireNonNullElse(overrides.getInRole(), defaultFlags.getInRole())));
+        flags.setRole(new ArrayList<>(Objects.requireNonNullElse(overrides.getRole(), defaultFlags.getRole())));
+
+        var roleSpec = new RoleSpec();
+        roleSpec.setClusterRef(spec.getClusterRef());
+        roleSpec.setName(entry.getName());
+        roleSpec.setComment(entry.getComment() != null ? entry.getComment() : defaults.getComment());
+        roleSpec.setPasswordSecretRef(entry.getPasswordSecretRef());
+        roleSpec.setFlags(flags);
+
+        return roleSpec;
+    }
+
+    /// Reads the current state of the roles with one query on `pg_authid` and one on `pg_auth_members`,
+    /// roles that do not exist are missing in the result.
+    public Map<String, CurrentRole> fetchCurrentRoles(
+            DSLContext tx,
+            Collection<String> roleNames
+    ) {
+        var names = roleNames.toArray(String[]::new);
+        var validUntil = field(
+                "nullif({0}, 'infinity')",
+                PG_AUTHID.ROLVALIDUNTIL.getDataType(),
+                PG_AUTHID.ROLVALIDUNTIL
+        );
+        var comment = Routines.shobjDescription(
+                PG_AUTHID.OID,
+                val(PG_AUTHID.getUnqualifiedName().last())
+        );
+
+        var currentRoles = new HashMap<String, CurrentRole>();
+
+        tx.select(
+                        PG_AUTHID.ROLNAME,
+                        PG_AUTHID.ROLSUPER,
+                        PG_AUTHID.ROLCREATEDB,
+                        PG_AUTHID.ROLCREATEROLE,
+                        PG_AUTHID.ROLINHERIT,
+                        PG_AUTHID.ROLREPLICATION,
+                        PG_AUTHID.ROLBYPASSRLS,
+                        PG_AUTHID.ROLCONNLIMIT,
+                        validUntil,
+                        PG_AUTHID.ROLCANLOGIN,
+                        PG_AUTHID.ROLPASSWORD,
+                        comment
+                )
+                .from(PG_AUTHID)
+                .where(PG_AUTHID.ROLNAME.eq(any(names)))
+                .forEach(row -> {
+                    var flags = new RoleSpec.Flags();
+                    flags.setSuperuser(row.get(PG_AUTHID.ROLSUPER));
+                    flags.setCreatedb(row.get(PG_AUTHID.ROLCREATEDB));
+                    flags.setCreaterole(row.get(PG_AUTHID.ROLCREATEROLE));
+                    flags.setInherit(row.get(PG_AUTHID.ROLINHERIT));
+                    flags.setReplication(row.get(PG_AUTHID.ROLREPLICATION));
+                    flags.setBypassrls(row.get(PG_AUTHID.ROLBYPASSRLS));
+                    flags.setConnectionLimit(row.get(PG_AUTHID.ROLCONNLIMIT));
+                    flags.setValidUntil(row.get(validUntil));
+
+                    var name = row.get(PG_AUTHID.ROLNAME);
+
+                    currentRoles.put(name, new CurrentRole(
+                            name,
+                            flags,
+                            row.get(PG_AUTHID.ROLCANLOGIN),
+                            row.get(PG_AUTHID.ROLPASSWORD),
+                            row.get(comment)
+                    ));
+                });
+
+        var member = PG_AUTHID.as("member");
+        var parent = PG_AUTHID.as("parent");
+
+        // Since PostgreSQL 16, a membership granted by several grantors has several rows
+        tx.selectDistinct(parent.ROLNAME, member.ROLNAME)
+                .from(PG_AUTH_MEMBERS)
+                .join(member).on(member.OID.eq(PG_AUTH_MEMBERS.MEMBER))
+                .join(parent).on(parent.OID.eq(PG_AUTH_MEMBERS.ROLEID))
+                .where(member.ROLNAME.eq(any(names)))
+                .or(parent.ROLNAME.eq(any(names)))
+                .orderBy(parent.ROLNAME, member.ROLNAME)
+                .forEach(row -> {
+                    var parentRole = currentRoles.get(row.value1());
+                    var memberRole = currentRoles.get(row.value2());
+
+                    if (memberRole != null) {
+                        memberRole.flags().getInRole().add(row.value1());
+                    }
+                    if (parentRole != null) {
+                        parentRole.flags().getRole().add(row.value2());
+                    }
+                });
+
+        return currentRoles;
+    }
+
+    /// Whether the attributes of the role match, ignoring the memberships (`inRole` and `role`).
+    public static boolean attributesMatch(
+            RoleSpec.Flags expectedFlags,
+            RoleSpec.Flags currentFlags
+    ) {
+        return expectedFlags.isSuperuser() == currentFlags.isSuperuser()
+                && expectedFlags.isCreatedb() == currentFlags.isCreatedb()
+                && expectedFlags.isCreaterole() == currentFlags.isCreaterole()
+                && expectedFlags.isInherit() == currentFlags.isInherit()
+                && expectedFlags.isReplication() == currentFlags.isReplication()
+                && expectedFlags.isBypassrls() == currentFlags.isBypassrls()
+                && expectedFlags.getConnectionLimit() == currentFlags.getConnectionLimit()
+                && isSameInstant(expectedFlags.getValidUntil(), currentFlags.getValidUntil());
+    }
+
+    /// The flags without memberships, for a `create role` that is sent before the roles it references may exist.
+    public static RoleSpec.Flags withoutMemberships(RoleSpec.Flags flags) {
+        var attributes = new RoleSpec.Flags();
+        attributes.setSuperuser(flags.isSuperuser());
+        attributes.setCreatedb(flags.isCreatedb());
+        attributes.setCreaterole(flags.isCreaterole());
+        attributes.setInherit(flags.isInherit());
+        attributes.setReplication(flags.isReplication());
+        attributes.setBypassrls(flags.isBypassrls());
+        attributes.setConnectionLimit(flags.getConnectionLimit());
+        attributes.setValidUntil(flags.getValidUntil());
+
+        return attributes;
+    }
+
+    /// Executes the statements of the roles in JDBC batches of about `BATCH_SIZE` statements, each in a savepoint.
+    /// A failing batch is rolled back and retried role by role, each in its own savepoint, to find the failing roles,
+    /// so a single broken role does not hold back the others.
+    ///
+    /// @return the error per failed role
+    public Map<String, String> execute(
+            DSLContext tx,
+            Map<String, List<Query>> statementsByRole
+    ) {
+        var failures = new LinkedHashMap<String, String>();
+        var batch = new ArrayList<Map.Entry<String, List<Query>>>();
+        var statements = 0;
+
+        for (var entry : statementsByRole.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            batch.add(entry);
+            statements += entry.getValue().size();
+
+            if (statements >= BATCH_SIZE) {
+                executeBatch(tx, batch, failures);
+
+                batch.clear();
+                statements = 0;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            executeBatch(tx, batch, failures);
+        }
+
+        return failures;
+    }
+
+    private static void executeBatch(
+            DSLContext tx,
+            List<Map.Entry<String, List<Query>>> batch,
+            Map<String, String> failures
+    ) {
+        try {
+            tx.transaction(nested -> nested.dsl()
+                    .batch(batch.stream()
+                            .flatMap(entry -> entry.getValue().stream())
+                            .toList()
+                    )
+                    .execute()
+            );
+
+            return;
+        } catch (DataAccessException _) {
+            // Retried role by role below to find the failing roles
+        }
+
+        for (var entry : batch) {
+            try {
+                tx.transaction(nested -> nested.dsl()
+                        .batch(entry.getValue())
+                        .execute()
+                );
+            } catch (DataAccessException e) {
+                failures.put(entry.getKey(), Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+            }
+        }
+    }
+
+    private static boolean isSameInstant(
+            @Nullable OffsetDateTime expected,
+            @Nullable OffsetDateTime current
+    ) {
+        if (expected == null || current == null) {
+            return expected == current;
+        }
+
+        return expected.isEqual(current);
+    }
+
+    /// The current state of a role, `flags` includes its memberships.
+    public record CurrentRole(
+            String name,
+            RoleSpec.Flags flags,
+            boolean canLogin,
+            @Nullable String passwordVerifier,
+            @Nullable String comment
+    ) {
+    }
+}
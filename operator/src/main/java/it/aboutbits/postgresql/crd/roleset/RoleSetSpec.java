@@ -0,0 +1,110 @@
+package it.aboutbits.postgresql.crd.roleset;
+
+import io.fabric8.generator.annotation.Required;
+import io.fabric8.generator.annotation.ValidationRule;
+import it.aboutbits.postgresql.core.ClusterReference;
+import it.aboutbits.postgresql.core.SecretRef;
+import it.aboutbits.postgresql.crd.role.RoleSpec;
+import lombok.Getter;
+import lombok.Setter;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@NullMarked
+@Getter
+@Setter
+public class RoleSetSpec {
+    @Required
+    private ClusterReference clusterRef = new ClusterReference();
+
+    /// The comment and flags of the roles that do not override them.
+    @Nullable
+    @io.fabric8.generator.annotation.Nullable
+    private Defaults defaults = new Defaults();
+
+    @Required
+    private List<Entry> roles = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Defaults {
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private String comment;
+
+        @io.fabric8.generator.annotation.Nullable
+        private RoleSpec.@Nullable Flags flags = new RoleSpec.Flags();
+    }
+
+    @Getter
+    @Setter
+    public static class Entry {
+        @Required
+        @ValidationRule(
+                value = "self.trim().size() > 0",
+                message = "The Role name must not be empty."
+        )
+        private String name = "";
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private String comment;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private SecretRef passwordSecretRef;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private FlagOverrides flags;
+    }
+
+    /// The flags of a single role that differ from the defaults, unset flags are taken from the defaults.
+    @Getter
+    @Setter
+    public static class FlagOverrides {
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean superuser;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean createdb;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean createrole;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean inherit;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean replication;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Boolean bypassrls;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private Integer connectionLimit;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private OffsetDateTime validUntil;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private List<String> inRole;
+
+        @Nullable
+        @io.fabric8.generator.annotation.Nullable
+        private List<String> role;
+    }
+}
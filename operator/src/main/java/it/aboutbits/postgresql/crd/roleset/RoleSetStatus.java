@@ -0,0 +1,56 @@
+package it.aboutbits.postgresql.crd.roleset;
+
+import it.aboutbits.postgresql.core.CRStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status Object for the RoleSet.
+ * <p>
+ * Extends the common status with the aggregated outcome of the roles instead of a status per role.
+ */
+@NullMarked
+@Getter
+@Setter
+@Accessors(chain = true)
+public class RoleSetStatus extends CRStatus {
+    /**
+     * The number of roles declared in the spec.
+     */
+    private int roles = 0;
+
+    /**
+     * The number of roles that are up-to-date.
+     */
+    private int readyRoles = 0;
+
+    /**
+     * The number of roles that failed to be created, altered or dropped in the last reconciliation.
+     */
+    private int failedRoles = 0;
+
+    /**
+     * The failed roles of the last reconciliation (at most 100), retried with the next reconciliation.
+     */
+    private List<RoleFailure> failures = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class RoleFailure {
+        /**
+         * The name of the role.
+         */
+        private String name = "";
+
+        /**
+         * The error of the failed statement.
+         */
+        private String message = "";
+    }
+}
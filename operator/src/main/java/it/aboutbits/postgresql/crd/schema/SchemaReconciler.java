@@ -1,39 +1,91 @@
 package it.aboutbits.postgresql.crd.schema;
 
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Cleaner;
+import io.javaoperatorsdk.operator.api.config.informer.Informer;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.javaoperatorsdk.operator.api.reconciler.DeleteControl;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import it.aboutbits.postgresql.core.BaseReconciler;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.CatalogWatermark;
+import it.aboutbits.postgresql.core.CleanupCascade;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.PruningItemStore;
 import it.aboutbits.postgresql.core.ReclaimPolicy;
+import it.aboutbits.postgresql.core.SpecHashGate;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 @NullMarked
 @Slf4j
+@ControllerConfiguration(
+        informer = @Informer(itemStore = PruningItemStore.class),
+        triggerReconcilerOnAllEvents = true
+)
 @RequiredArgsConstructor
 public class SchemaReconciler
         extends BaseReconciler<Schema, CRStatus>
-        implements Reconciler<Schema>, Cleaner<Schema> {
+        implements Reconciler<Schema> {
     private final SchemaService schemaService;
 
     private final KubernetesClient kubernetesClient;
     private final PostgreSQLContextFactory contextFactory;
+    private final CatalogOidCache catalogOidCache;
+    private final CatalogWatermark catalogWatermark;
+    private final SpecHashGate specHashGate;
+    private final CleanupCascade cleanupCascade;
 
     @Override
     public UpdateControl<Schema> reconcile(
             Schema resource,
             Context<Schema> context
+    ) {
+        if (!isOwnedByThisReplica(resource, resource.getSpec().getClusterRef())) {
+            return skipNotOwned(resource, resource.getSpec().getClusterRef());
+        }
+
+        if (context.isPrimaryResourceDeleted() || resource.isMarkedForDeletion()) {
+            catalogWatermark.forget(resource);
+        }
+
+        // Only schemas that are dropped on deletion need a finalizer, RETAIN ones are deleted right away
+        return reconcileWithConditionalFinalizer(
+                context,
+                resource,
+                resource.getSpec().getReclaimPolicy() == ReclaimPolicy.DELETE,
+                () -> traced(
+                        "reconcile",
+                        resource,
+                        () -> reconcileFairly(
+                                resource,
+                                () -> reconcileResource(resource, context)
+                        )
+                ),
+                () -> traced(
+                        "cleanup",
+                        resource,
+                        () -> cleanupResource(resource, context)
+                )
+        );
+    }
+
+    private UpdateControl<Schema> reconcileResource(
+            Schema resource,
+            Context<Schema> context
     ) {
         var spec = resource.getSpec();
         var status = initializeStatus(resource);
@@ -70,13 +122,33 @@ public class SchemaReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+        if (specHashGate.isVerified(resource, status, specHash)) {
+            return UpdateControl.noUpdate();
+        }
+
+        var permit = concurrencyLimiter().tryAcquire(clusterConnection);
+
+        if (permit.isEmpty()) {
+            return deferClusterAtLimit(resource, clusterConnection);
+        }
+
         UpdateControl<Schema> updateControl;
+        @Nullable String watermark;
+
+        try (var _ = permit.get(); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+            watermark = catalogWatermark.probe(dsl, clusterConnection, database);
+
+            if (catalogWatermark.isUnchanged(resource, clusterConnection, null, watermark)) {
+                return UpdateControl.noUpdate();
+            }
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
             // Run everything in a single transaction
             updateControl = dsl.transactionResult(
                     cfg -> reconcileInTransaction(
                             cfg.dsl(),
+                            clusterConnection,
                             resource,
                             status
                     )
@@ -89,11 +161,15 @@ public class SchemaReconciler
             );
         }
 
+        if (status.getPhase() == CRPhase.READY) {
+            catalogWatermark.record(resource, clusterConnection, null, watermark);
+            updateControl = specHashGate.verified(resource, status, specHash, updateControl);
+        }
+
         return updateControl;
     }
 
-    @Override
-    public DeleteControl cleanup(
+    private DeleteControl cleanupResource(
             Schema resource,
             Context<Schema> context
     ) {
@@ -112,6 +188,12 @@ public class SchemaReconciler
                 status.getPhase()
         );
 
+        var target = cleanupTarget(resource, spec.getClusterRef(), spec.getDatabase());
+
+        if (cleanupCascade.isResolved(resource, target)) {
+            return DeleteControl.defaultDelete();
+        }
+
         if (status.getPhase() != CRPhase.DELETING) {
             status.setPhase(CRPhase.DELETING);
 
@@ -119,10 +201,11 @@ public class SchemaReconciler
                 status.setMessage("Schema deletion in progress");
             }
 
-            context.getClient().resource(resource).patchStatus();
+            var roundTrip = deletingRoundTrip(context, resource);
 
-            return DeleteControl.noFinalizerRemoval()
-                    .rescheduleAfter(100, TimeUnit.MILLISECONDS);
+            if (roundTrip.isPresent()) {
+                return roundTrip.get();
+            }
         }
 
         // We do not actually delete the schema if the reclaimPolicy is set to RETAIN, we only delete the CR instance
@@ -139,12 +222,16 @@ public class SchemaReconciler
         );
 
         if (clusterConnectionOptional.isEmpty()) {
+            if (cleanupCascade.isClusterConnectionGone(resource, target)) {
+                return DeleteControl.defaultDelete();
+            }
+
             status.setMessage("The specified ClusterConnection no longer exists or is not ready yet [resource=%s/%s]".formatted(
                     getResourceNamespaceOrOwn(resource, clusterRef.getNamespace()),
                     clusterRef.getName()
             ));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
@@ -153,11 +240,17 @@ public class SchemaReconciler
         var database = spec.getDatabase();
         var clusterConnection = clusterConnectionOptional.get();
 
-        try (var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
+        try (var _ = reportSlowCleanup(context, resource); var dsl = contextFactory.getDSLContext(clusterConnection, database)) {
             schemaService.dropSchema(dsl, spec);
 
+            catalogOidCache.invalidateNamespaces(clusterConnection, spec.getDatabase());
+
             return DeleteControl.defaultDelete();
         } catch (Exception e) {
+            if (cleanupCascade.isDatabaseGone(resource, target, e)) {
+                return DeleteControl.defaultDelete();
+            }
+
             log.error(
                     "Failed to delete Schema [resource=%s/%s, spec.name=%s, status.phase=%s]".formatted(
                             namespace,
@@ -170,13 +263,19 @@ public class SchemaReconciler
 
             status.setMessage("Deletion failed: %s".formatted(e.getMessage()));
 
-            context.getClient().resource(resource).patchStatus();
+            patchStatus(context, resource);
 
             return DeleteControl.noFinalizerRemoval()
                     .rescheduleAfter(60, TimeUnit.SECONDS);
         }
     }
 
+    /// Reconciles the Schemas this replica takes over with their ClusterConnection, and the ones admitted by the fair scheduler.
+    @Override
+    public List<EventSource<?, Schema>> prepareEventSources(EventSourceContext<Schema> context) {
+        return commonEventSources(context, resource -> resource.getSpec().getClusterRef());
+    }
+
     @Override
     protected CRStatus newStatus() {
         return new CRStatus();
@@ -184,6 +283,7 @@ public class SchemaReconciler
 
     private UpdateControl<Schema> reconcileInTransaction(
             DSLContext tx,
+            ClusterConnection clusterConnection,
             Schema resource,
             CRStatus status
     ) {
@@ -205,6 +305,8 @@ public class SchemaReconciler
                     spec
             );
 
+            catalogOidCache.invalidateNamespaces(clusterConnection, spec.getDatabase());
+
             status.setPhase(CRPhase.READY)
                     .setMessage(null);
 
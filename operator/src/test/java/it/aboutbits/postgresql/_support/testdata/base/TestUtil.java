@@ -6,7 +6,9 @@ import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import it.aboutbits.postgresql.crd.database.Database;
 import it.aboutbits.postgresql.crd.defaultprivilege.DefaultPrivilege;
 import it.aboutbits.postgresql.crd.grant.Grant;
+import it.aboutbits.postgresql.crd.grantmatrix.GrantMatrix;
 import it.aboutbits.postgresql.crd.role.Role;
+import it.aboutbits.postgresql.crd.roleset.RoleSet;
 import it.aboutbits.postgresql.crd.schema.Schema;
 import org.jspecify.annotations.NullMarked;
 
@@ -19,8 +21,10 @@ public final class TestUtil {
     public static void resetEnvironment(KubernetesClient kubernetesClient) {
         // Reverse Dependency Deletion
         deleteResource(kubernetesClient, DefaultPrivilege.class);
+        deleteResource(kubernetesClient, GrantMatrix.class);
         deleteResource(kubernetesClient, Grant.class);
         deleteResource(kubernetesClient, Schema.class);
+        deleteResource(kubernetesClient, RoleSet.class);
         deleteResource(kubernetesClient, Role.class);
         deleteResource(kubernetesClient, Database.class);
         deleteResource(kubernetesClient, ClusterConnection.class);
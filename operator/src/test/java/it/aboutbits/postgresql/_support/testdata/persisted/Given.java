@@ -5,7 +5,9 @@ import it.aboutbits.postgresql._support.testdata.persisted.creator.ClusterConnec
 import it.aboutbits.postgresql._support.testdata.persisted.creator.DatabaseCreate;
 import it.aboutbits.postgresql._support.testdata.persisted.creator.DefaultPrivilegeCreate;
 import it.aboutbits.postgresql._support.testdata.persisted.creator.GrantCreate;
+import it.aboutbits.postgresql._support.testdata.persisted.creator.GrantMatrixCreate;
 import it.aboutbits.postgresql._support.testdata.persisted.creator.RoleCreate;
+import it.aboutbits.postgresql._support.testdata.persisted.creator.RoleSetCreate;
 import it.aboutbits.postgresql._support.testdata.persisted.creator.SchemaCreate;
 import it.aboutbits.postgresql._support.testdata.persisted.creator.SecretRefCreate;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -96,6 +98,14 @@ public class Given {
             );
         }
 
+        public RoleSetCreate roleSet() {
+            return new RoleSetCreate(
+                    numberOfItems,
+                    given,
+                    kubernetesClient
+            );
+        }
+
         public DatabaseCreate database() {
             return new DatabaseCreate(
                     numberOfItems,
@@ -120,6 +130,14 @@ public class Given {
             );
         }
 
+        public GrantMatrixCreate grantMatrix() {
+            return new GrantMatrixCreate(
+                    numberOfItems,
+                    given,
+                    kubernetesClient
+            );
+        }
+
         public DefaultPrivilegeCreate defaultPrivilege() {
             return new DefaultPrivilegeCreate(
                     numberOfItems,
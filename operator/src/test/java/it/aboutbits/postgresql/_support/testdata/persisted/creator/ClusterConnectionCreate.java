@@ -7,6 +7,7 @@ import it.aboutbits.postgresql._support.testdata.persisted.Given;
 import it.aboutbits.postgresql.core.SecretRef;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnectionSpec;
+import it.aboutbits.postgresql.crd.clusterconnection.PasswordEncryption;
 import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -49,6 +50,9 @@ public class ClusterConnectionCreate extends TestDataCreator<ClusterConnection>
     @Nullable
     private String withApplicationName;
 
+    @Nullable
+    private PasswordEncryption withPasswordEncryption;
+
     public ClusterConnectionCreate(
             int numberOfItems,
             Given given,
@@ -88,6 +92,7 @@ public class ClusterConnectionCreate extends TestDataCreator<ClusterConnection>
         spec.setDatabase(getDatabase());
         spec.setAdminSecretRef(getAdminSecretRef());
         spec.setParameters(getParameters());
+        spec.setPasswordEncryption(getPasswordEncryption());
 
         item.setSpec(spec);
 
@@ -173,6 +178,15 @@ public class ClusterConnectionCreate extends TestDataCreator<ClusterConnection>
                 .returnFirst();
     }
 
+    private PasswordEncryption getPasswordEncryption() {
+        withPasswordEncryption = Objects.requireNonNullElse(
+                withPasswordEncryption,
+                PasswordEncryption.SERVER
+        );
+
+        return withPasswordEncryption;
+    }
+
     private Map<String, String> getParameters() {
         if (withApplicationName != null) {
             return Map.of("ApplicationName", withApplicationName);
@@ -58,6 +58,11 @@ public class GrantCreate extends TestDataCreator<Grant> {
     @Setter(AccessLevel.NONE)
     private List<String> withObjects = null;
 
+    @Nullable
+    private GrantSpec.ObjectSelectors withObjectSelectors = null;
+
+    private boolean withPartitionAware = false;
+
     @Setter(AccessLevel.NONE)
     private List<Privilege> withPrivileges = new ArrayList<>();
 
@@ -138,6 +143,9 @@ public class GrantCreate extends TestDataCreator<Grant> {
             spec.setObjects(withObjects);
         }
 
+        spec.setObjectSelectors(withObjectSelectors);
+        spec.setPartitionAware(withPartitionAware);
+
         spec.setPrivileges(withPrivileges);
 
         item.setSpec(spec);
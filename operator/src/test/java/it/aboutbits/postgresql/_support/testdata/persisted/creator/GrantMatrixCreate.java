@@ -0,0 +1,178 @@
+package it.aboutbits.postgresql._support.testdata.persisted.creator;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import it.aboutbits.postgresql._support.testdata.base.TestDataCreator;
+import it.aboutbits.postgresql._support.testdata.persisted.Given;
+import it.aboutbits.postgresql.core.ClusterReference;
+import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.crd.grant.GrantObjectType;
+import it.aboutbits.postgresql.crd.grantmatrix.GrantMatrix;
+import it.aboutbits.postgresql.crd.grantmatrix.GrantMatrixSpec;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@NullMarked
+@Setter
+@Accessors(fluent = true, chain = true)
+public class GrantMatrixCreate extends TestDataCreator<GrantMatrix> {
+    private final Given given;
+
+    private final KubernetesClient kubernetesClient;
+
+    @Nullable
+    private String withNamespace;
+    @Setter(AccessLevel.NONE)
+    private boolean withoutNamespace = false;
+
+    @Nullable
+    private String withName;
+
+    @Nullable
+    private String withClusterConnectionName;
+
+    @Nullable
+    private String withClusterConnectionNamespace;
+
+    private String withDatabase = "";
+
+    @Setter(AccessLevel.NONE)
+    private List<String> withRoles = new ArrayList<>();
+
+    @Setter(AccessLevel.NONE)
+    private List<String> withSchemas = new ArrayList<>();
+
+    @Setter(AccessLevel.NONE)
+    private List<GrantMatrixSpec.ObjectTypePrivileges> withPrivileges = new ArrayList<>();
+
+    public GrantMatrixCreate(
+            int numberOfItems,
+            Given given,
+            KubernetesClient kubernetesClient
+    ) {
+        super(numberOfItems);
+        this.given = given;
+        this.kubernetesClient = kubernetesClient;
+    }
+
+    @SuppressWarnings("unused")
+    public GrantMatrixCreate withRoles(String... roles) {
+        this.withRoles = List.of(roles);
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public GrantMatrixCreate withSchemas(String... schemas) {
+        this.withSchemas = List.of(schemas);
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public GrantMatrixCreate withPrivileges(
+            GrantObjectType objectType,
+            Privilege... privileges
+    ) {
+        var entry = new GrantMatrixSpec.ObjectTypePrivileges();
+        entry.setObjectType(objectType);
+        entry.setPrivileges(List.of(privileges));
+
+        this.withPrivileges.add(entry);
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public GrantMatrixCreate withoutNamespace() {
+        withoutNamespace = true;
+        return this;
+    }
+
+    @Override
+    protected GrantMatrix create(int index) {
+        var namespace = getNamespace();
+        var name = getName();
+
+        var item = new GrantMatrix();
+
+        item.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .build()
+        );
+
+        var clusterRef = new ClusterReference();
+        clusterRef.setName(getClusterConnectionName());
+        clusterRef.setNamespace(withClusterConnectionNamespace);
+
+        var spec = new GrantMatrixSpec();
+
+        spec.setClusterRef(clusterRef);
+        spec.setDatabase(withDatabase);
+        spec.setRoles(withRoles);
+        spec.setSchemas(withSchemas);
+        spec.setPrivileges(withPrivileges);
+
+        item.setSpec(spec);
+
+        kubernetesClient.resources(GrantMatrix.class)
+                .inNamespace(namespace)
+                .resource(item)
+                .serverSideApply();
+
+        //noinspection ConstantConditions
+        return kubernetesClient.resources(GrantMatrix.class)
+                .inNamespace(namespace)
+                .withName(name)
+                .waitUntilCondition(
+                        grantMatrix -> grantMatrix != null && grantMatrix.getStatus() != null,
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    @Nullable
+    private String getNamespace() {
+        if (withoutNamespace) {
+            return null;
+        }
+
+        if (withNamespace != null) {
+            return withNamespace;
+        }
+
+        withNamespace = kubernetesClient.getNamespace();
+
+        return withNamespace;
+    }
+
+    private String getName() {
+        if (withName != null) {
+            return withName;
+        }
+
+        withName = randomKubernetesNameSuffix("test-grant-matrix");
+
+        return withName;
+    }
+
+    private String getClusterConnectionName() {
+        if (withClusterConnectionName != null) {
+            return withClusterConnectionName;
+        }
+
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("%s-conn".formatted(getName()))
+                .returnFirst();
+
+        withClusterConnectionNamespace = clusterConnection.getMetadata().getNamespace();
+
+        return clusterConnection.getMetadata().getName();
+    }
+}
@@ -0,0 +1,155 @@
+package it.aboutbits.postgresql._support.testdata.persisted.creator;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import it.aboutbits.postgresql._support.testdata.base.TestDataCreator;
+import it.aboutbits.postgresql._support.testdata.persisted.Given;
+import it.aboutbits.postgresql.core.ClusterReference;
+import it.aboutbits.postgresql.crd.roleset.RoleSet;
+import it.aboutbits.postgresql.crd.roleset.RoleSetSpec;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@NullMarked
+@Setter
+@Accessors(fluent = true, chain = true)
+public class RoleSetCreate extends TestDataCreator<RoleSet> {
+    private final Given given;
+
+    private final KubernetesClient kubernetesClient;
+
+    @Nullable
+    private String withNamespace;
+    @Setter(AccessLevel.NONE)
+    private boolean withoutNamespace = false;
+
+    @Nullable
+    private String withName;
+
+    @Nullable
+    private String withClusterConnectionName;
+
+    @Nullable
+    private String withClusterConnectionNamespace;
+
+    private RoleSetSpec.@Nullable Defaults withDefaults;
+
+    private List<RoleSetSpec.Entry> withRoles = new ArrayList<>();
+
+    public RoleSetCreate(
+            int numberOfItems,
+            Given given,
+            KubernetesClient kubernetesClient
+    ) {
+        super(numberOfItems);
+        this.given = given;
+        this.kubernetesClient = kubernetesClient;
+    }
+
+    @SuppressWarnings("unused")
+    public RoleSetCreate withRole(String roleName) {
+        var entry = new RoleSetSpec.Entry();
+        entry.setName(roleName);
+
+        withRoles.add(entry);
+
+        return this;
+    }
+
+    @SuppressWarnings("unused")
+    public RoleSetCreate withoutNamespace() {
+        withoutNamespace = true;
+        return this;
+    }
+
+    @Override
+    protected RoleSet create(int index) {
+        var namespace = getNamespace();
+        var name = getName();
+
+        var item = new RoleSet();
+
+        item.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .build()
+        );
+
+        var clusterRef = new ClusterReference();
+        clusterRef.setName(getClusterConnectionName());
+        clusterRef.setNamespace(withClusterConnectionNamespace);
+
+        var spec = new RoleSetSpec();
+
+        spec.setClusterRef(clusterRef);
+        spec.setRoles(withRoles);
+
+        if (withDefaults != null) {
+            spec.setDefaults(withDefaults);
+        }
+
+        item.setSpec(spec);
+
+        kubernetesClient.resources(RoleSet.class)
+                .inNamespace(namespace)
+                .resource(item)
+                .serverSideApply();
+
+        //noinspection ConstantConditions
+        return kubernetesClient.resources(RoleSet.class)
+                .inNamespace(namespace)
+                .withName(name)
+                .waitUntilCondition(
+                        roleSet -> roleSet != null && roleSet.getStatus() != null,
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    @Nullable
+    private String getNamespace() {
+        if (withoutNamespace) {
+            return null;
+        }
+
+        if (withNamespace != null) {
+            return withNamespace;
+        }
+
+        withNamespace = kubernetesClient.getNamespace();
+
+        return withNamespace;
+    }
+
+    private String getName() {
+        if (withName != null) {
+            return withName;
+        }
+
+        withName = randomKubernetesNameSuffix("test-role-set");
+
+        return withName;
+    }
+
+    private String getClusterConnectionName() {
+        if (withClusterConnectionName != null) {
+            return withClusterConnectionName;
+        }
+
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("%s-conn".formatted(getName()))
+                .returnFirst();
+
+        withClusterConnectionNamespace = clusterConnection.getMetadata().getNamespace();
+
+        return clusterConnection.getMetadata().getName();
+    }
+}
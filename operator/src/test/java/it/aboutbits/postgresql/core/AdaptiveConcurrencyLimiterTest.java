@@ -0,0 +1,263 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteType;
+import org.jooq.exception.DataAccessException;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class AdaptiveConcurrencyLimiterTest {
+    private static final String CLUSTER = "default/test-connection";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClusterConnection clusterConnection = new ClusterConnection();
+
+    private final OperatorConfig.ClusterConcurrency clusterConcurrency = mock(OperatorConfig.ClusterConcurrency.class);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        var operatorConfig = mock(OperatorConfig.class);
+
+        when(operatorConfig.clusterConcurrency()).thenReturn(clusterConcurrency);
+        when(clusterConcurrency.enabled()).thenReturn(true);
+        when(clusterConcurrency.initialLimit()).thenReturn(2);
+        when(clusterConcurrency.minLimit()).thenReturn(1);
+        when(clusterConcurrency.maxLimit()).thenReturn(3);
+        when(clusterConcurrency.latencyTolerance()).thenReturn(2.0);
+        when(clusterConcurrency.backoffRatio()).thenReturn(0.5);
+        when(clusterConcurrency.statusRefreshInterval()).thenReturn(Duration.ofMinutes(1));
+
+        clusterConnection.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-connection")
+                .build()
+        );
+
+        limiter = new AdaptiveConcurrencyLimiter(operatorConfig, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("when the cluster is at its limit, should defer until a permit is released")
+    void tryAcquire_whenAtLimit_shouldDefer() {
+        // given
+        var first = limiter.tryAcquire(clusterConnection).orElseThrow();
+        limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        var deferred = limiter.tryAcquire(clusterConnection);
+        first.close();
+        var admitted = limiter.tryAcquire(clusterConnection);
+
+        // then
+        assertThat(deferred).isEmpty();
+        assertThat(admitted).isPresent();
+    }
+
+    @Test
+    @DisplayName("when the latency is stable, should increase the limit additively up to the maximum")
+    void release_whenLatencyStable_shouldIncreaseLimit() {
+        // given
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // when
+        for (var i = 0; i < 10; i++) {
+            limiter.tryAcquire(clusterConnection).orElseThrow().close();
+            limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(3);
+        assertThat(meterRegistry.get("postgresql.operator.cluster.concurrency.limit")
+                .tag("cluster", CLUSTER)
+                .gauge()
+                .value()
+        ).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("when the latency increases sharply, should halve the limit")
+    void release_whenLatencyIncreases_shouldBackOff() {
+        // given
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(500));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("when a slow catalog read is observed, should back off")
+    void listener_whenSlowRead_shouldBackOff() {
+        // given
+        var listener = limiter.listener(clusterConnection);
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        listener.executeEnd(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(5)));
+        listener.executeEnd(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(500)));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("when the rows of a catalog read are fetched slowly, should only sample the time to the first row")
+    void listener_whenSlowFetch_shouldSampleExecuteOnly() {
+        // given
+        var listener = limiter.listener(clusterConnection);
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        listener.executeEnd(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(5)));
+        listener.executeEnd(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(5)));
+        // The cursor stays open while the caller runs the DDL for its rows
+        listener.end(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(500)));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("when a slow DDL statement is observed, should not sample it")
+    void listener_whenSlowDdl_shouldNotBackOff() {
+        // given
+        var listener = limiter.listener(clusterConnection);
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        listener.executeEnd(executeContext(ExecuteType.READ, TimeUnit.MILLISECONDS.toNanos(5)));
+        listener.executeEnd(executeContext(ExecuteType.DDL, TimeUnit.MILLISECONDS.toNanos(500)));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("when the JDBC connects slow down, should back off independently of the catalog reads")
+    void release_whenConnectLatencyIncreases_shouldBackOff() {
+        // given
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+        limiter.onConnectLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(2));
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+
+        // when
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+        limiter.onConnectLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(200));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("when the limit changes, should notify the subscribers of the ClusterConnection")
+    void release_whenLimitChanges_shouldNotify() {
+        // given
+        when(clusterConcurrency.statusRefreshInterval()).thenReturn(Duration.ZERO);
+        var notified = new ArrayList<ResourceID>();
+        limiter.subscribe(notified::add);
+        limiter.currentLimit(clusterConnection);
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // when
+        var unchanged = limiter.tryAcquire(clusterConnection).orElseThrow();
+        unchanged.close();
+        var changed = limiter.tryAcquire(clusterConnection).orElseThrow();
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(500));
+        changed.close();
+
+        // then
+        assertThat(notified).containsExactly(new ResourceID("test-connection", "default"));
+    }
+
+    @Test
+    @DisplayName("when the limit changes within the status refresh interval, should not notify the subscribers")
+    void release_whenLimitChangesWithinRefreshInterval_shouldNotNotify() {
+        // given
+        var notified = new ArrayList<ResourceID>();
+        limiter.subscribe(notified::add);
+        limiter.currentLimit(clusterConnection);
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // when
+        var permit = limiter.tryAcquire(clusterConnection).orElseThrow();
+        limiter.onLatency(CLUSTER, TimeUnit.MILLISECONDS.toNanos(500));
+        permit.close();
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(1);
+        assertThat(notified).isEmpty();
+    }
+
+    @Test
+    @DisplayName("when PostgreSQL reports too many connections, should back off right away")
+    void onFailure_whenTooManyConnections_shouldBackOff() {
+        // given
+        var exception = new DataAccessException(
+                "Connection failed",
+                new SQLException("sorry, too many clients already", "53300")
+        );
+
+        // when
+        limiter.onFailure(CLUSTER, exception);
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("when a statement fails for another reason, should keep the limit")
+    void onFailure_whenNotOverload_shouldKeepLimit() {
+        // given
+        var exception = new DataAccessException(
+                "Statement failed",
+                new SQLException("relation does not exist", "42P01")
+        );
+
+        // when
+        limiter.onFailure(CLUSTER, exception);
+
+        // then
+        assertThat(limiter.currentLimit(clusterConnection)).isEqualTo(2);
+    }
+
+    /// A statement of the given type, which started `durationNanos` ago.
+    private static ExecuteContext executeContext(
+            ExecuteType type,
+            long durationNanos
+    ) {
+        var ctx = mock(ExecuteContext.class);
+
+        when(ctx.type()).thenReturn(type);
+        when(ctx.data(AdaptiveConcurrencyLimiter.START_NANOS_KEY))
+                .thenReturn(System.nanoTime() - durationNanos);
+
+        return ctx;
+    }
+}
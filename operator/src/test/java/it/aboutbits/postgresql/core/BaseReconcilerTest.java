@@ -0,0 +1,155 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NamespaceableResource;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.opentelemetry.api.trace.TracerProvider;
+import it.aboutbits.postgresql.crd.schema.Schema;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class BaseReconcilerTest {
+    private final KubernetesSerialization serialization = new KubernetesSerialization();
+
+    private final OperatorConfig operatorConfig = mock(OperatorConfig.class, RETURNS_DEEP_STUBS);
+
+    private final KubernetesClient kubernetesClient = mock(KubernetesClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final Context<Schema> context = mock(Context.class);
+
+    /// The snapshots patched, as serialized when the patch was sent.
+    private final List<Schema> patched = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch patchReleased = new CountDownLatch(1);
+
+    private final Schema resource = new Schema();
+
+    private BaseReconciler<Schema, CRStatus> reconciler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(operatorConfig.cleanup().singlePass()).thenReturn(true);
+        when(context.getClient()).thenReturn(kubernetesClient);
+        when(kubernetesClient.getKubernetesSerialization()).thenReturn(serialization);
+        when(kubernetesClient.resource(any(Schema.class))).thenAnswer(invocation -> {
+            Schema snapshot = invocation.getArgument(0);
+            var resourceOperation = mock(NamespaceableResource.class);
+
+            when(resourceOperation.patchStatus()).thenAnswer(_ -> {
+                patched.add(serialization.clone(snapshot));
+                patchReleased.await();
+
+                var result = serialization.clone(snapshot);
+                result.getMetadata().setResourceVersion("2");
+
+                return result;
+            });
+
+            return resourceOperation;
+        });
+
+        resource.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-schema")
+                .withResourceVersion("1")
+                .build()
+        );
+        resource.setStatus(new CRStatus().setPhase(CRPhase.DELETING).setMessage("Schema deletion in progress"));
+
+        reconciler = new BaseReconciler<>() {
+            @Override
+            protected CRStatus newStatus() {
+                return new CRStatus();
+            }
+        };
+        reconciler.operatorConfig = operatorConfig;
+        reconciler.tracing = new Tracing(TracerProvider.noop().get("test"));
+    }
+
+    @Nested
+    class ReportSlowCleanup {
+        @Test
+        @DisplayName("when the cleanup finishes within the progress delay, should not patch the status")
+        void whenFast_shouldNotPatch() throws InterruptedException {
+            // given
+            when(operatorConfig.cleanup().progressDelay()).thenReturn(Duration.ofMillis(200));
+
+            // when
+            reconciler.reportSlowCleanup(context, resource).close();
+
+            // then
+            Thread.sleep(400);
+
+            assertThat(patched).isEmpty();
+            assertThat(resource.getMetadata().getResourceVersion()).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("when the cleanup is slow, should patch the status as it was when the cleanup started")
+        void whenSlow_shouldPatchSnapshot() {
+            // given
+            when(operatorConfig.cleanup().progressDelay()).thenReturn(Duration.ofMillis(100));
+            patchReleased.countDown();
+
+            // when
+            var progress = reconciler.reportSlowCleanup(context, resource);
+
+            resource.getStatus().setMessage("Deletion failed: connection reset");
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> !patched.isEmpty());
+            progress.close();
+
+            // then
+            assertThat(patched).singleElement()
+                    .satisfies(snapshot -> assertThat(snapshot.getStatus().getMessage())
+                            .isEqualTo("Schema deletion in progress")
+                    );
+            assertThat(resource.getStatus().getMessage()).isEqualTo("Deletion failed: connection reset");
+            assertThat(resource.getMetadata().getResourceVersion()).isEqualTo("2");
+        }
+
+        @Test
+        @DisplayName("when closed while the report patches, should wait for the patch to finish")
+        void whenClosedDuringPatch_shouldWait() {
+            // given
+            when(operatorConfig.cleanup().progressDelay()).thenReturn(Duration.ofMillis(10));
+
+            var progress = reconciler.reportSlowCleanup(context, resource);
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> !patched.isEmpty());
+
+            // when
+            var closed = CompletableFuture.runAsync(progress::close);
+
+            // then
+            assertThat(closed).failsWithin(200, TimeUnit.MILLISECONDS);
+
+            patchReleased.countDown();
+
+            assertThat(closed).succeedsWithin(5, TimeUnit.SECONDS);
+            assertThat(resource.getMetadata().getResourceVersion()).isEqualTo("2");
+        }
+    }
+}
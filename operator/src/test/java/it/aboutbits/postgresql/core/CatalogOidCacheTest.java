@@ -0,0 +1,232 @@
+package it.aboutbits.postgresql.core;
+
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnectionSpec;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTHID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@NullMarked
+class CatalogOidCacheTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private final ClusterConnection clusterConnection = clusterConnection("db-a");
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private CatalogOidCache catalogOidCache;
+
+    @BeforeEach
+    void setUp() {
+        catalogOidCache = new CatalogOidCache(clock, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("When a role is looked up twice, the snapshot should be loaded once")
+    void lookupTwice_loadsOnce() {
+        // given
+        var tx = mockCatalog(Map.of("alice", 16384L), queries, null);
+
+        // when
+        var first = catalogOidCache.forDatabase(tx, clusterConnection, "postgres").role("alice");
+        var second = catalogOidCache.forDatabase(tx, clusterConnection, "postgres").role("alice");
+
+        // then
+        assertThat(first).isEqualTo(16384L);
+        assertThat(second).isEqualTo(16384L);
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("When a role is missing in the snapshot, the snapshot should be reloaded once")
+    void missingRole_reloads() {
+        // given
+        var tx = mockCatalog(Map.of("alice", 16384L), queries, null);
+
+        // when
+        var oid = catalogOidCache.forDatabase(tx, clusterConnection, "postgres").findRole("bob");
+
+        // then
+        assertThat(oid).isNull();
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("When the snapshot is older than the maximum age, it should be reloaded")
+    void expiredSnapshot_reloads() {
+        // given
+        var tx = mockCatalog(Map.of("alice", 16384L), queries, null);
+        var oids = catalogOidCache.forDatabase(tx, clusterConnection, "postgres");
+
+        oids.role("alice");
+
+        // when
+        clock.advance(Duration.ofMinutes(4));
+        oids.role("alice");
+
+        var queriesBeforeExpiry = queries.get();
+
+        clock.advance(Duration.ofMinutes(2));
+        oids.role("alice");
+
+        // then
+        assertThat(queriesBeforeExpiry).isEqualTo(1);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("When the roles are invalidated, the next lookup should reload the snapshot")
+    void invalidateRoles_reloads() {
+        // given
+        var tx = mockCatalog(Map.of("alice", 16384L), queries, null);
+
+        catalogOidCache.forDatabase(tx, clusterConnection, "postgres").role("alice");
+
+        // when
+        catalogOidCache.invalidateRoles(clusterConnection);
+        catalogOidCache.forDatabase(tx, clusterConnection, "postgres").role("alice");
+
+        // then
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("When the catalog query fails, the failure should not be cached")
+    void failedLoad_isNotCached() {
+        // given
+        var failing = DSL.using(
+                new MockConnection(_ -> {
+                    throw new SQLException("connection reset");
+                }),
+                SQLDialect.POSTGRES
+        );
+        var tx = mockCatalog(Map.of("alice", 16384L), queries, null);
+
+        // when
+        assertThatExceptionOfType(DataAccessException.class).isThrownBy(() ->
+                catalogOidCache.forDatabase(failing, clusterConnection, "postgres").role("alice")
+        );
+
+        // then
+        assertThat(catalogOidCache.forDatabase(tx, clusterConnection, "postgres").role("alice")).isEqualTo(16384L);
+    }
+
+    @Test
+    @DisplayName("When the catalog of one cluster loads slowly, the lookups of other clusters should not wait for it")
+    void slowLoad_doesNotBlockOtherClusters() {
+        // given
+        var release = new CountDownLatch(1);
+        var slowTx = mockCatalog(Map.of("alice", 16384L), new AtomicInteger(), release);
+        var otherTx = mockCatalog(Map.of("bob", 16385L), queries, null);
+
+        var slowLookup = CompletableFuture.supplyAsync(() ->
+                catalogOidCache.forDatabase(slowTx, clusterConnection, "postgres").role("alice")
+        );
+
+        // when
+        var otherLookup = CompletableFuture.supplyAsync(() ->
+                catalogOidCache.forDatabase(otherTx, clusterConnection("db-b"), "postgres").role("bob")
+        );
+
+        // then
+        assertThat(otherLookup).succeedsWithin(5, TimeUnit.SECONDS).isEqualTo(16385L);
+        assertThat(slowLookup).isNotDone();
+
+        release.countDown();
+
+        assertThat(slowLookup).succeedsWithin(5, TimeUnit.SECONDS).isEqualTo(16384L);
+    }
+
+    private static ClusterConnection clusterConnection(String host) {
+        var spec = new ClusterConnectionSpec();
+        spec.setHost(host);
+        spec.setPort(5432);
+
+        var clusterConnection = new ClusterConnection();
+        clusterConnection.setSpec(spec);
+
+        return clusterConnection;
+    }
+
+    /// A DSLContext answering every query with the given roles, waiting for `release` first if set.
+    private static DSLContext mockCatalog(
+            Map<String, Long> roles,
+            AtomicInteger queries,
+            @Nullable CountDownLatch release
+    ) {
+        return DSL.using(
+                new MockConnection(_ -> {
+                    queries.incrementAndGet();
+
+                    if (release != null) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    var dsl = DSL.using(SQLDialect.POSTGRES);
+                    var result = dsl.newResult(PG_AUTHID.ROLNAME, PG_AUTHID.OID);
+
+                    roles.forEach((name, oid) -> result.add(
+                            dsl.newRecord(PG_AUTHID.ROLNAME, PG_AUTHID.OID).values(name, oid)
+                    ));
+
+                    return new MockResult[]{new MockResult(result.size(), result)};
+                }),
+                SQLDialect.POSTGRES
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
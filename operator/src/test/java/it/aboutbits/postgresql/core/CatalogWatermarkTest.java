@@ -0,0 +1,237 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.schema.Schema;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class CatalogWatermarkTest {
+    private static final String DATABASE = "postgres";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClusterConnection clusterConnection = new ClusterConnection();
+
+    private final Schema resource = new Schema();
+
+    private final OperatorConfig operatorConfig = mock(OperatorConfig.class, RETURNS_DEEP_STUBS);
+
+    private CatalogWatermark catalogWatermark;
+
+    @BeforeEach
+    void setUp() {
+        clusterConnection.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-connection")
+                .withGeneration(1L)
+                .build()
+        );
+
+        resource.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-schema")
+                .withUid("3f1c6c4e-2f0a-4c1e-9a57-6f5d3c2b1a00")
+                .withGeneration(1L)
+                .build()
+        );
+
+        when(operatorConfig.driftCheck().watermark()).thenReturn(true);
+        when(operatorConfig.driftCheck().watermarkTtl()).thenReturn(Duration.ZERO);
+
+        catalogWatermark = new CatalogWatermark(operatorConfig, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("when the watermark and the inputs did not change since the last apply, should skip the drift check")
+    void isUnchanged_whenNothingChanged_shouldSkip() {
+        // given
+        catalogWatermark.record(resource, clusterConnection, "secret", "1.100:2.100");
+
+        // when
+        var isUnchanged = catalogWatermark.isUnchanged(resource, clusterConnection, "secret", "1.100:2.100");
+
+        // then
+        assertThat(isUnchanged).isTrue();
+        assertThat(meterRegistry.get("postgresql.operator.drift.checks").tag("outcome", "skipped").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("when the watermark moved, should do a full drift check")
+    void isUnchanged_whenWatermarkMoved_shouldCheck() {
+        // given
+        catalogWatermark.record(resource, clusterConnection, null, "1.100:2.100");
+
+        // when
+        var isUnchanged = catalogWatermark.isUnchanged(resource, clusterConnection, null, "1.101:2.100");
+
+        // then
+        assertThat(isUnchanged).isFalse();
+    }
+
+    @Test
+    @DisplayName("when the spec or an input changed, should do a full drift check")
+    void isUnchanged_whenInputsChanged_shouldCheck() {
+        // given
+        catalogWatermark.record(resource, clusterConnection, "secret", "1.100:2.100");
+
+        // when
+        var isUnchangedWithOtherInput = catalogWatermark.isUnchanged(resource, clusterConnection, "rotated", "1.100:2.100");
+
+        resource.getMetadata().setGeneration(2L);
+        var isUnchangedWithOtherGeneration = catalogWatermark.isUnchanged(resource, clusterConnection, "secret", "1.100:2.100");
+
+        // then
+        assertThat(isUnchangedWithOtherInput).isFalse();
+        assertThat(isUnchangedWithOtherGeneration).isFalse();
+    }
+
+    @Test
+    @DisplayName("when the watermark is not available or the resource was forgotten, should do a full drift check")
+    void isUnchanged_whenUnavailableOrForgotten_shouldCheck() {
+        // given
+        catalogWatermark.record(resource, clusterConnection, null, "1.100:2.100");
+
+        // when
+        var isUnchangedWithoutWatermark = catalogWatermark.isUnchanged(resource, clusterConnection, null, null);
+
+        catalogWatermark.forget(resource);
+        var isUnchangedAfterForget = catalogWatermark.isUnchanged(resource, clusterConnection, null, "1.100:2.100");
+
+        // then
+        assertThat(isUnchangedWithoutWatermark).isFalse();
+        assertThat(isUnchangedAfterForget).isFalse();
+    }
+
+    @Nested
+    class Probe {
+        private static final long WRAPAROUND = 4_294_967_296L;
+
+        @Test
+        @DisplayName("should take the newest xmin as 64-bit transaction id")
+        void probe_shouldTakeNewestXminAs64Bit() {
+            // given
+            var dsl = mockProbe(WRAPAROUND + 1_000, 10, 100);
+
+            // when
+            var watermark = catalogWatermark.probe(dsl, clusterConnection, DATABASE);
+
+            // then
+            assertThat(watermark).isEqualTo(String.join(
+                    ":",
+                    Collections.nCopies(CatalogWatermark.CATALOGS.size(), "10." + (WRAPAROUND + 900))
+            ));
+        }
+
+        @Test
+        @DisplayName("when probed again within the TTL, should reuse the watermark without querying the catalogs")
+        void probe_whenWithinTtl_shouldReuseWatermark() {
+            // given
+            when(operatorConfig.driftCheck().watermarkTtl()).thenReturn(Duration.ofMinutes(1));
+            var before = catalogWatermark.probe(mockProbe(1_000, 10, 100), clusterConnection, DATABASE);
+
+            // when
+            var withinTtl = catalogWatermark.probe(mockProbe(1_000, 11, 0), clusterConnection, DATABASE);
+            var otherDatabase = catalogWatermark.probe(mockProbe(1_000, 11, 0), clusterConnection, "other");
+
+            // then
+            assertThat(withinTtl).isEqualTo(before);
+            assertThat(otherDatabase).isNotEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("when probed again after the TTL, should query the catalogs again")
+        void probe_whenTtlExpired_shouldProbeAgain() {
+            // given
+            var before = catalogWatermark.probe(mockProbe(1_000, 10, 100), clusterConnection, DATABASE);
+
+            // when
+            var after = catalogWatermark.probe(mockProbe(1_000, 11, 0), clusterConnection, DATABASE);
+
+            // then
+            assertThat(after).isNotEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("when only the transaction id moved across a wraparound, should keep the watermark")
+        void probe_whenOnlyTransactionIdWrappedAround_shouldKeepWatermark() {
+            // given
+            var before = catalogWatermark.probe(mockProbe(WRAPAROUND - 100, 10, 50), clusterConnection, DATABASE);
+
+            // when
+            var after = catalogWatermark.probe(mockProbe(WRAPAROUND + 100, 10, 250), clusterConnection, DATABASE);
+
+            // then
+            assertThat(after).isEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("when a row version was written after a wraparound, should move the watermark")
+        void probe_whenWrittenAfterWraparound_shouldMoveWatermark() {
+            // given
+            var before = catalogWatermark.probe(mockProbe(WRAPAROUND - 100, 10, 50), clusterConnection, DATABASE);
+
+            // when
+            // The 32-bit xmin of the new row version (3) is lower than the one of the former newest (4294967146)
+            var after = catalogWatermark.probe(mockProbe(WRAPAROUND + 100, 10, 97), clusterConnection, DATABASE);
+
+            // then
+            assertThat(after).isNotEqualTo(before);
+        }
+
+        /// A DSLContext answering the probe with the same row count and youngest `xmin` age for every catalog.
+        private static DSLContext mockProbe(
+                long xmax,
+                long count,
+                long youngestAge
+        ) {
+            return DSL.using(
+                    new MockConnection(_ -> {
+                        var dsl = DSL.using(SQLDialect.POSTGRES);
+                        var fields = new ArrayList<Field<Long>>();
+                        var values = new ArrayList<Long>();
+
+                        fields.add(DSL.field("xmax", Long.class));
+                        values.add(xmax);
+
+                        for (var catalog : CatalogWatermark.CATALOGS) {
+                            fields.add(DSL.field(catalog + "_count", Long.class));
+                            values.add(count);
+                            fields.add(DSL.field(catalog + "_youngest_age", Long.class));
+                            values.add(youngestAge);
+                        }
+
+                        var result = dsl.newResult(fields);
+                        var record = dsl.newRecord(fields);
+
+                        record.fromArray(values.toArray());
+                        result.add(record);
+
+                        return new MockResult[]{new MockResult(1, result)};
+                    }),
+                    SQLDialect.POSTGRES
+            );
+        }
+    }
+}
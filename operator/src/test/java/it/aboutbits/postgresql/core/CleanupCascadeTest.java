@@ -0,0 +1,165 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.grant.Grant;
+import org.jooq.exception.DataAccessException;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class CleanupCascadeTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClusterConnection clusterConnection = new ClusterConnection();
+
+    private final CleanupCascade.Target target = new CleanupCascade.Target("default", "test-connection", "test_db");
+
+    private final OperatorConfig.Cleanup cleanup = mock(OperatorConfig.Cleanup.class);
+
+    private CleanupCascade cleanupCascade;
+
+    @BeforeEach
+    void setUp() {
+        var operatorConfig = mock(OperatorConfig.class);
+
+        when(operatorConfig.cleanup()).thenReturn(cleanup);
+        when(cleanup.cascade()).thenReturn(true);
+
+        clusterConnection.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-connection")
+                .build()
+        );
+
+        cleanupCascade = new CleanupCascade(
+                mock(KubernetesClient.class),
+                mock(Tracing.class),
+                operatorConfig,
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("when a Grant was revoked in bulk, should resolve its cleanup once")
+    void isResolved_whenRevokedInBulk_shouldResolveOnce() {
+        // given
+        var grant = grant("grant-a");
+        cleanupCascade.resolved(List.of(grant));
+
+        // when
+        var isResolved = cleanupCascade.isResolved(grant, target);
+        var isResolvedAgain = cleanupCascade.isResolved(grant, target);
+
+        // then
+        assertThat(isResolved).isTrue();
+        assertThat(isResolvedAgain).isFalse();
+        assertThat(meterRegistry.get("postgresql.operator.cleanup.cascaded").tag("reason", "bulk").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("when the database was dropped, should resolve the cleanups of its dependents until it is created again")
+    void isResolved_whenDatabaseDropped_shouldResolve() {
+        // given
+        var grant = grant("grant-a");
+        var otherDatabase = new CleanupCascade.Target("default", "test-connection", "other_db");
+        cleanupCascade.databaseDropped(clusterConnection, "test_db");
+
+        // when
+        var isResolved = cleanupCascade.isResolved(grant, target);
+        var isResolvedInOtherDatabase = cleanupCascade.isResolved(grant, otherDatabase);
+
+        cleanupCascade.databaseCreated(clusterConnection, "test_db");
+        var isResolvedAfterCreate = cleanupCascade.isResolved(grant, target);
+
+        // then
+        assertThat(isResolved).isTrue();
+        assertThat(isResolvedInOtherDatabase).isFalse();
+        assertThat(isResolvedAfterCreate).isFalse();
+    }
+
+    @Test
+    @DisplayName("when the connection failed because the database does not exist, should resolve the cleanup")
+    void isDatabaseGone_whenInvalidCatalogName_shouldResolve() {
+        // given
+        var grant = grant("grant-a");
+        var otherGrant = grant("grant-b");
+        var failure = new DataAccessException(
+                "Connection failed",
+                new SQLException("database \"test_db\" does not exist", "3D000")
+        );
+
+        // when
+        var isGone = cleanupCascade.isDatabaseGone(grant, target, failure);
+        var isGoneOnOtherFailure = cleanupCascade.isDatabaseGone(
+                grant,
+                target,
+                new DataAccessException("Permission denied", new SQLException("permission denied", "42501"))
+        );
+
+        // then
+        assertThat(isGone).isTrue();
+        assertThat(isGoneOnOtherFailure).isFalse();
+        assertThat(cleanupCascade.isResolved(otherGrant, target)).isTrue();
+    }
+
+    @Test
+    @DisplayName("when the ClusterConnection was deleted, should only abandon the cleanup if enabled")
+    void isClusterConnectionGone_shouldOnlyAbandonIfEnabled() {
+        // given
+        var grant = grant("grant-a");
+
+        // when
+        var isGoneByDefault = cleanupCascade.isClusterConnectionGone(grant, target);
+
+        when(cleanup.abandonWithoutClusterConnection()).thenReturn(true);
+        var isGoneIfEnabled = cleanupCascade.isClusterConnectionGone(grant, target);
+
+        // then
+        assertThat(isGoneByDefault).isFalse();
+        assertThat(isGoneIfEnabled).isTrue();
+        assertThat(meterRegistry.get("postgresql.operator.cleanup.cascaded")
+                .tag("reason", "cluster-connection-deleted")
+                .counter()
+                .count()
+        ).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should index the targets by ClusterConnection and database")
+    void indexKey_shouldIdentifyTarget() {
+        // when
+        var indexKey = target.indexKey();
+        var roleIndexKey = new CleanupCascade.Target("default", "test-connection", null).indexKey();
+
+        // then
+        assertThat(indexKey).isEqualTo("default/test-connection/test_db");
+        assertThat(roleIndexKey).isEqualTo("default/test-connection/");
+        assertThat(CleanupCascade.Target.of(clusterConnection, "test_db")).isEqualTo(target);
+    }
+
+    private static Grant grant(String name) {
+        var grant = new Grant();
+
+        grant.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName(name)
+                .withUid("uid-" + name)
+                .build()
+        );
+
+        return grant;
+    }
+}
@@ -0,0 +1,68 @@
+package it.aboutbits.postgresql.core;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NullMarked
+class ConsistentHashRingTest {
+    private static final List<String> KEYS = IntStream.range(0, 1000)
+            .mapToObj("namespace/cluster-%d"::formatted)
+            .toList();
+
+    @Test
+    @DisplayName("when empty, should have no owner")
+    void whenEmpty_shouldHaveNoOwner() {
+        assertThat(ConsistentHashRing.EMPTY.ownerOf("namespace/cluster")).isNull();
+    }
+
+    @Test
+    @DisplayName("should assign every key to a member, deterministically")
+    void shouldAssignEveryKeyDeterministically() {
+        // given
+        var members = List.of("replica-a", "replica-b", "replica-c");
+
+        var ring = ConsistentHashRing.of(members, 64);
+        var sameRing = ConsistentHashRing.of(members.reversed(), 64);
+
+        // when / then
+        var owners = new HashMap<String, Integer>();
+
+        for (var key : KEYS) {
+            var owner = ring.ownerOf(key);
+
+            assertThat(owner).isIn(members);
+            assertThat(sameRing.ownerOf(key)).isEqualTo(owner);
+
+            owners.merge(owner, 1, Integer::sum);
+        }
+
+        // Every member gets a reasonable share of the keys
+        assertThat(owners.values()).allSatisfy(count ->
+                assertThat(count).isBetween(200, 470)
+        );
+    }
+
+    @Test
+    @DisplayName("when a member joins, should only move keys to the new member")
+    void whenMemberJoins_shouldOnlyMoveKeysToNewMember() {
+        // given
+        var before = ConsistentHashRing.of(List.of("replica-a", "replica-b"), 64);
+        var after = ConsistentHashRing.of(List.of("replica-a", "replica-b", "replica-c"), 64);
+
+        // when / then
+        for (var key : KEYS) {
+            var newOwner = after.ownerOf(key);
+
+            if (!"replica-c".equals(newOwner)) {
+                assertThat(newOwner).isEqualTo(before.ownerOf(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package it.aboutbits.postgresql.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class FairReconcileSchedulerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<String> wokenUp = Collections.synchronizedList(new ArrayList<>());
+
+    private OperatorConfig.Scheduling scheduling;
+
+    private FairReconcileScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        var operatorConfig = mock(OperatorConfig.class);
+        scheduling = mock(OperatorConfig.Scheduling.class);
+
+        when(operatorConfig.scheduling()).thenReturn(scheduling);
+        when(scheduling.fairQueuing()).thenReturn(true);
+        when(scheduling.maxConcurrentReconciliations()).thenReturn(1);
+        when(scheduling.admissionTimeout()).thenReturn(Duration.ofSeconds(30));
+        when(scheduling.deferDelay()).thenReturn(Duration.ofSeconds(5));
+        when(scheduling.namespaceWeights()).thenReturn(Map.of());
+        when(scheduling.prioritizeUnready()).thenReturn(true);
+
+        scheduler = new FairReconcileScheduler(operatorConfig, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("when fair queuing is disabled, should admit right away")
+    void tryAcquire_whenDisabled_shouldAdmit() {
+        // given
+        when(scheduling.fairQueuing()).thenReturn(false);
+
+        // when
+        var first = scheduler.tryAcquire("tenant-a", "a-1", false, wakeUp("a-1"));
+        var second = scheduler.tryAcquire("tenant-a", "a-2", false, wakeUp("a-2"));
+
+        // then
+        assertThat(first).isPresent();
+        assertThat(second).isPresent();
+    }
+
+    @Test
+    @DisplayName("when saturated, should queue without blocking and wake up the admitted resource")
+    void tryAcquire_whenSaturated_shouldQueue() {
+        // given
+        var running = scheduler.tryAcquire("tenant-a", "a-0", false, wakeUp("a-0")).orElseThrow();
+
+        // when
+        var queued = scheduler.tryAcquire("tenant-a", "a-1", false, wakeUp("a-1"));
+        var queuedAgain = scheduler.tryAcquire("tenant-a", "a-1", false, wakeUp("a-1"));
+
+        // then
+        assertThat(queued).isEmpty();
+        assertThat(queuedAgain).isEmpty();
+        assertThat(queueDepth("tenant-a")).isEqualTo(1);
+        assertThat(wokenUp).isEmpty();
+
+        running.close();
+
+        assertThat(wokenUp).containsExactly("a-1");
+        assertThat(scheduler.tryAcquire("tenant-a", "a-1", false, wakeUp("a-1"))).isPresent();
+    }
+
+    @Test
+    @DisplayName("should admit queued reconciliations round-robin across namespaces")
+    void tryAcquire_whenSaturated_shouldAdmitRoundRobin() {
+        // given
+        var running = scheduler.tryAcquire("tenant-a", "a-0", false, wakeUp("a-0")).orElseThrow();
+
+        for (var resourceKey : List.of("a-1", "a-2", "a-3")) {
+            scheduler.tryAcquire("tenant-a", resourceKey, false, wakeUp(resourceKey));
+        }
+        scheduler.tryAcquire("tenant-b", "b-1", false, wakeUp("b-1"));
+
+        // when
+        running.close();
+
+        // Every admitted resource is reconciled once it is woken up
+        for (var i = 0; i < 4; i++) {
+            var resourceKey = wokenUp.getLast();
+            var namespace = resourceKey.startsWith("a-") ? "tenant-a" : "tenant-b";
+
+            scheduler.tryAcquire(namespace, resourceKey, false, wakeUp(resourceKey))
+                    .orElseThrow()
+                    .close();
+        }
+
+        // then
+        assertThat(wokenUp).containsExactly("a-1", "b-1", "a-2", "a-3");
+    }
+
+    @Test
+    @DisplayName("when an admitted resource is not reconciled in time, should free its slot")
+    void tryAcquire_whenAdmittedResourceNotReconciled_shouldFreeSlot() {
+        // given
+        when(scheduling.admissionTimeout()).thenReturn(Duration.ofMillis(100));
+
+        var running = scheduler.tryAcquire("tenant-a", "a-0", false, wakeUp("a-0")).orElseThrow();
+
+        scheduler.tryAcquire("tenant-a", "a-1", false, wakeUp("a-1"));
+        scheduler.tryAcquire("tenant-a", "a-2", false, wakeUp("a-2"));
+
+        // when
+        running.close();
+
+        // then
+        assertThat(wokenUp).containsExactly("a-1");
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(wokenUp).containsExactly("a-1", "a-2"));
+    }
+
+    private Runnable wakeUp(String resourceKey) {
+        return () -> wokenUp.add(resourceKey);
+    }
+
+    private double queueDepth(String namespace) {
+        var gauge = meterRegistry.find("postgresql.operator.reconcile.queue.depth")
+                .tag("namespace", namespace)
+                .gauge();
+
+        return gauge == null ? 0 : gauge.value();
+    }
+}
@@ -0,0 +1,90 @@
+package it.aboutbits.postgresql.core;
+
+import it.aboutbits.postgresql.crd.clusterconnection.PasswordEncryption;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NullMarked
+class PostgreSQLAuthenticationServiceTest {
+    private final PostgreSQLAuthenticationService postgreSQLAuthenticationService = new PostgreSQLAuthenticationService();
+
+    @Nested
+    class GenerateScramSha256Verifier {
+        @Test
+        @DisplayName("when salt and iterations are given, should build the same verifier as PostgreSQL")
+        void whenSaltAndIterationsGiven_shouldBuildPostgresVerifier() {
+            // given
+            var salt = new byte[16];
+            for (var i = 0; i < salt.length; i++) {
+                salt[i] = (byte) i;
+            }
+
+            // when
+            var result = PostgreSQLAuthenticationService.buildScramSha256Verifier(
+                    "password",
+                    salt,
+                    4096
+            );
+
+            // then
+            assertThat(result).isEqualTo(
+                    "SCRAM-SHA-256$4096:AAECAwQFBgcICQoLDA0ODw==$4PSH04DiBM59z6mw0gs6x1r6+duXYQ+R0KwGZr+W5/o=:IgPInY95tTazYxnARISZb/eTxuX/JRwWgrM9ByaOUIk="
+            );
+        }
+
+        @Test
+        @DisplayName("when called twice, should use a random salt")
+        void whenCalledTwice_shouldUseRandomSalt() {
+            // given / when
+            var first = postgreSQLAuthenticationService.generateScramSha256Verifier("password");
+            var second = postgreSQLAuthenticationService.generateScramSha256Verifier("password");
+
+            // then
+            assertThat(first).startsWith("SCRAM-SHA-256$4096:");
+            assertThat(second).startsWith("SCRAM-SHA-256$4096:");
+            assertThat(first).isNotEqualTo(second);
+
+            var saltB64 = first.substring("SCRAM-SHA-256$4096:".length(), first.lastIndexOf('$'));
+            assertThat(Base64.getDecoder().decode(saltB64)).hasSize(16);
+        }
+    }
+
+    @Nested
+    class EncryptPassword {
+        @Test
+        @DisplayName("when the password encryption is ScramSha256, should return a SCRAM-SHA-256 verifier")
+        void whenScramSha256_shouldReturnVerifier() {
+            // given / when
+            var result = postgreSQLAuthenticationService.encryptPassword("password", PasswordEncryption.SCRAM_SHA_256);
+
+            // then
+            assertThat(result).startsWith("SCRAM-SHA-256$4096:");
+        }
+
+        @Test
+        @DisplayName("when the password encryption is Server, should return the cleartext password")
+        void whenServer_shouldReturnCleartextPassword() {
+            // given / when
+            var result = postgreSQLAuthenticationService.encryptPassword("password", PasswordEncryption.SERVER);
+
+            // then
+            assertThat(result).isEqualTo("password");
+        }
+
+        @Test
+        @DisplayName("when the password encryption is null, should let the server decide and return the cleartext password")
+        void whenNull_shouldReturnCleartextPassword() {
+            // given / when
+            var result = postgreSQLAuthenticationService.encryptPassword("password", null);
+
+            // then
+            assertThat(result).isEqualTo("password");
+        }
+    }
+}
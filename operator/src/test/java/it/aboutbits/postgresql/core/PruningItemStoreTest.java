@@ -0,0 +1,107 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NullMarked
+class PruningItemStoreTest {
+    private final PruningItemStore<ConfigMap> store = new PruningItemStore<>();
+
+    @Test
+    @DisplayName("should strip the managed fields and the last applied configuration")
+    void shouldPrune() {
+        // given
+        var configMap = configMap(uniqueNamespace(), "pruned");
+        configMap.getMetadata().setManagedFields(List.of(new ManagedFieldsEntry()));
+        configMap.getMetadata().setAnnotations(new HashMap<>(Map.of(
+                PruningItemStore.LAST_APPLIED_CONFIGURATION_ANNOTATION, "{}",
+                "kept", "true"
+        )));
+
+        // when
+        store.put(Cache.metaNamespaceKeyFunc(configMap), configMap);
+
+        // then
+        var stored = store.get(Cache.metaNamespaceKeyFunc(configMap));
+
+        assertThat(stored).isNotNull();
+        assertThat(stored.getMetadata().getManagedFields()).isNull();
+        assertThat(stored.getMetadata().getAnnotations()).containsOnlyKeys("kept");
+    }
+
+    @Test
+    @DisplayName("should count the items per namespace, across stores")
+    void shouldCountItemsPerNamespace() {
+        // given
+        var namespace = uniqueNamespace();
+        var otherNamespace = uniqueNamespace();
+        var otherStore = new PruningItemStore<ConfigMap>();
+
+        var first = configMap(namespace, "first");
+        var second = configMap(namespace, "second");
+        var other = configMap(otherNamespace, "other");
+
+        // when
+        store.put(Cache.metaNamespaceKeyFunc(first), first);
+        store.put(Cache.metaNamespaceKeyFunc(first), configMap(namespace, "first"));
+        store.put(Cache.metaNamespaceKeyFunc(second), second);
+        otherStore.put(Cache.metaNamespaceKeyFunc(other), other);
+
+        store.remove(Cache.metaNamespaceKeyFunc(second));
+        store.remove("unknown/key");
+
+        // then
+        assertThat(PruningItemStore.footprint(first).items).hasValue(1);
+        assertThat(PruningItemStore.footprint(other).items).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should estimate the footprint from the sampled items")
+    void shouldEstimateFootprintFromSample() {
+        // given
+        var namespace = uniqueNamespace();
+
+        // when
+        for (var i = 0; i < PruningItemStore.SAMPLE_INTERVAL * 2; i++) {
+            var configMap = configMap(namespace, "config-" + i);
+
+            store.put(Cache.metaNamespaceKeyFunc(configMap), configMap);
+        }
+
+        // then
+        var footprint = PruningItemStore.footprint(configMap(namespace, "config-0"));
+
+        assertThat(footprint.items).hasValue(PruningItemStore.SAMPLE_INTERVAL * 2L);
+        assertThat(footprint.estimatedBytes())
+                .isGreaterThan(PruningItemStore.SAMPLE_INTERVAL * 2L * 50);
+    }
+
+    private static ConfigMap configMap(
+            String namespace,
+            String name
+    ) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                .withNamespace(namespace)
+                .withName(name)
+                .endMetadata()
+                .addToData("key", "value")
+                .build();
+    }
+
+    private static String uniqueNamespace() {
+        return "namespace-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,66 @@
+package it.aboutbits.postgresql.core;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NullMarked
+class ResyncSchedulerTest {
+    private static final long INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final long NOW_MILLIS = 1_760_000_000_000L;
+
+    @Test
+    @DisplayName("should keep the slot of a resource across reconciliations")
+    void delayMillis_shouldKeepSlot() {
+        // given
+        var uid = UUID.randomUUID().toString();
+
+        // when
+        var firstSlot = NOW_MILLIS + ResyncScheduler.delayMillis(uid, INTERVAL_MILLIS, NOW_MILLIS);
+        var laterNowMillis = NOW_MILLIS + TimeUnit.MINUTES.toMillis(17);
+        var laterSlot = laterNowMillis + ResyncScheduler.delayMillis(uid, INTERVAL_MILLIS, laterNowMillis);
+
+        // then
+        assertThat(Math.floorMod(laterSlot - firstSlot, INTERVAL_MILLIS)).isZero();
+    }
+
+    @Test
+    @DisplayName("should not schedule a resync shortly after a reconciliation")
+    void delayMillis_shouldRespectMinimumDelay() {
+        for (var i = 0; i < 1_000; i++) {
+            // when
+            var delayMillis = ResyncScheduler.delayMillis(UUID.randomUUID().toString(), INTERVAL_MILLIS, NOW_MILLIS);
+
+            // then
+            assertThat(delayMillis)
+                    .isGreaterThanOrEqualTo(INTERVAL_MILLIS / 10)
+                    .isLessThan(INTERVAL_MILLIS + INTERVAL_MILLIS / 10);
+        }
+    }
+
+    @Test
+    @DisplayName("should spread resources created together evenly across the interval")
+    void delayMillis_shouldSpreadEvenly() {
+        // given
+        var buckets = new int[10];
+        var resources = 10_000;
+
+        // when
+        for (var i = 0; i < resources; i++) {
+            var slot = NOW_MILLIS + ResyncScheduler.delayMillis(UUID.randomUUID().toString(), INTERVAL_MILLIS, NOW_MILLIS);
+
+            buckets[(int) (Math.floorMod(slot, INTERVAL_MILLIS) * buckets.length / INTERVAL_MILLIS)]++;
+        }
+
+        // then
+        for (var bucket : buckets) {
+            assertThat(bucket).isBetween(resources / buckets.length * 8 / 10, resources / buckets.length * 12 / 10);
+        }
+    }
+}
@@ -2,12 +2,14 @@ package it.aboutbits.postgresql.core;
 
 import org.jooq.QueryPart;
 import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.sql.SQLException;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -93,6 +95,71 @@ class SQLUtilTest {
         }
     }
 
+    @Nested
+    class IsLockTimeout {
+        @Test
+        @DisplayName("when caused by lock_not_available, should return true")
+        void whenLockNotAvailable_shouldReturnTrue() {
+            // given
+            var exception = new DataAccessException(
+                    "Statement failed",
+                    new SQLException("canceling statement due to lock timeout", "55P03")
+            );
+
+            // when / then
+            assertThat(SQLUtil.isLockTimeout(exception)).isTrue();
+        }
+
+        @Test
+        @DisplayName("when caused by another SQLState, should return false")
+        void whenOtherSqlState_shouldReturnFalse() {
+            // given
+            var exception = new DataAccessException(
+                    "Statement failed",
+                    new SQLException("canceling statement due to statement timeout", "57014")
+            );
+
+            // when / then
+            assertThat(SQLUtil.isLockTimeout(exception)).isFalse();
+        }
+
+        @Test
+        @DisplayName("when not caused by a SQLException, should return false")
+        void whenNoSqlException_shouldReturnFalse() {
+            // given / when / then
+            assertThat(SQLUtil.isLockTimeout(new IllegalStateException("failed"))).isFalse();
+        }
+    }
+
+    @Nested
+    class IsStatementTimeout {
+        @Test
+        @DisplayName("when caused by query_canceled, should return true")
+        void whenQueryCanceled_shouldReturnTrue() {
+            // given
+            var exception = new DataAccessException(
+                    "Statement failed",
+                    new SQLException("canceling statement due to statement timeout", "57014")
+            );
+
+            // when / then
+            assertThat(SQLUtil.isStatementTimeout(exception)).isTrue();
+        }
+
+        @Test
+        @DisplayName("when caused by lock_not_available, should return false")
+        void whenLockNotAvailable_shouldReturnFalse() {
+            // given
+            var exception = new DataAccessException(
+                    "Statement failed",
+                    new SQLException("canceling statement due to lock timeout", "55P03")
+            );
+
+            // when / then
+            assertThat(SQLUtil.isStatementTimeout(exception)).isFalse();
+        }
+    }
+
     private String render(QueryPart queryPart) {
         return DSL.using(SQLDialect.POSTGRES).render(queryPart);
     }
@@ -0,0 +1,98 @@
+package it.aboutbits.postgresql.core;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@NullMarked
+class ShardCoordinatorTest {
+    private static final List<String> KEYS = IntStream.range(0, 100)
+            .mapToObj("cluster-%d"::formatted)
+            .toList();
+
+    private static final long DELAY = 10_000;
+
+    @Nested
+    class Rebalance {
+        @Test
+        @DisplayName("when a member leaves, should take over its keys after the handover delay")
+        void whenMemberLeaves_shouldTakeOverAfterDelay() {
+            // given
+            var before = ConsistentHashRing.of(List.of("replica-a", "replica-b"), 64);
+            var after = ConsistentHashRing.of(List.of("replica-a"), 64);
+
+            var current = ShardCoordinator.Handover.NONE
+                    .next(before, "replica-a", 0, DELAY)
+                    .next(after, "replica-a", 2 * DELAY, DELAY);
+
+            // when / then
+            for (var key : KEYS) {
+                var wasOwned = "replica-a".equals(before.ownerOf("namespace/" + key));
+
+                assertThat(current.isTakenOver("namespace", key)).isEqualTo(!wasOwned);
+                assertThat(current.remainingNanos("namespace/" + key, 2 * DELAY + 1))
+                        .isEqualTo(wasOwned ? 0 : DELAY - 1);
+                assertThat(current.remainingNanos("namespace/" + key, 3 * DELAY)).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("when a member joins, should not take over any key")
+        void whenMemberJoins_shouldNotTakeOverAnyKey() {
+            // given
+            var before = ConsistentHashRing.of(List.of("replica-a"), 64);
+            var after = ConsistentHashRing.of(List.of("replica-a", "replica-b"), 64);
+
+            var current = ShardCoordinator.Handover.NONE
+                    .next(before, "replica-a", 0, DELAY)
+                    .next(after, "replica-a", 2 * DELAY, DELAY);
+
+            // when / then
+            assertThat(KEYS).noneMatch(key -> current.isTakenOver("namespace", key));
+        }
+
+        @Test
+        @DisplayName("when the ring changes again during a handover, should keep waiting for the earlier owner")
+        void whenRingChangesDuringHandover_shouldKeepWaiting() {
+            // given
+            var initial = ConsistentHashRing.of(List.of("replica-a", "replica-b", "replica-c"), 64);
+            var withoutB = ConsistentHashRing.of(List.of("replica-a", "replica-c"), 64);
+            var withoutBC = ConsistentHashRing.of(List.of("replica-a"), 64);
+
+            // when
+            var current = ShardCoordinator.Handover.NONE
+                    .next(initial, "replica-a", 0, DELAY)
+                    .next(withoutB, "replica-a", 2 * DELAY, DELAY)
+                    .next(withoutBC, "replica-a", 2 * DELAY + 1, DELAY);
+
+            // then
+            for (var key : KEYS) {
+                var wasOwned = "replica-a".equals(initial.ownerOf("namespace/" + key));
+
+                assertThat(current.isTakenOver("namespace", key)).isEqualTo(!wasOwned);
+            }
+        }
+
+        @Test
+        @DisplayName("when this replica left the ring, should not own any key")
+        void whenLeft_shouldNotOwnAnyKey() {
+            // given
+            var before = ConsistentHashRing.of(List.of("replica-a"), 64);
+
+            // when
+            var current = ShardCoordinator.Handover.NONE
+                    .next(before, "replica-a", 0, DELAY)
+                    .next(ConsistentHashRing.EMPTY, "replica-a", 2 * DELAY, DELAY);
+
+            // then
+            assertThat(KEYS).noneMatch(key -> current.isOwned("namespace/" + key));
+            assertThat(KEYS).noneMatch(key -> current.isTakenOver("namespace", key));
+        }
+    }
+}
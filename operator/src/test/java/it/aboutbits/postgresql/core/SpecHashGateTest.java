@@ -0,0 +1,187 @@
+package it.aboutbits.postgresql.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.schema.Schema;
+import it.aboutbits.postgresql.crd.schema.SchemaSpec;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class SpecHashGateTest {
+    private final ClusterConnection clusterConnection = new ClusterConnection();
+
+    private final Schema resource = new Schema();
+
+    private final CRStatus status = new CRStatus();
+
+    private final OperatorConfig.DriftCheck driftCheck = mock(OperatorConfig.DriftCheck.class);
+
+    private SpecHashGate specHashGate;
+
+    @BeforeEach
+    void setUp() {
+        var operatorConfig = mock(OperatorConfig.class);
+
+        when(operatorConfig.driftCheck()).thenReturn(driftCheck);
+        when(driftCheck.interval()).thenReturn(Map.of("schema", Duration.ofMinutes(10)));
+
+        clusterConnection.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-connection")
+                .withUid("0b6f3c1e-6a47-4d8e-9a0c-2f4e5d6c7b8a")
+                .withGeneration(1L)
+                .build()
+        );
+
+        var spec = new SchemaSpec();
+        spec.setName("test_schema");
+
+        resource.setMetadata(new ObjectMetaBuilder()
+                .withNamespace("default")
+                .withName("test-schema")
+                .build()
+        );
+        resource.setSpec(spec);
+
+        status.setPhase(CRPhase.READY);
+
+        specHashGate = new SpecHashGate(operatorConfig, new SimpleMeterRegistry(), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("when verified within the interval with the same spec, should short-circuit")
+    void isVerified_whenWithinInterval_shouldShortCircuit() {
+        // given
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+        specHashGate.verified(status, specHash);
+
+        // when
+        var isVerified = specHashGate.isVerified(resource, status, specHashGate.hash(resource, clusterConnection, null));
+
+        // then
+        assertThat(isVerified).isTrue();
+    }
+
+    @Test
+    @DisplayName("when the spec or a resolved input changed, should verify again")
+    void isVerified_whenSpecChanged_shouldVerify() {
+        // given
+        specHashGate.verified(status, specHashGate.hash(resource, clusterConnection, "secret"));
+
+        // when
+        var isVerifiedWithOtherInput = specHashGate.isVerified(
+                resource,
+                status,
+                specHashGate.hash(resource, clusterConnection, "rotated")
+        );
+
+        resource.getSpec().setName("other_schema");
+        var isVerifiedWithOtherSpec = specHashGate.isVerified(
+                resource,
+                status,
+                specHashGate.hash(resource, clusterConnection, "secret")
+        );
+
+        // then
+        assertThat(isVerifiedWithOtherInput).isFalse();
+        assertThat(isVerifiedWithOtherSpec).isFalse();
+    }
+
+    @Test
+    @DisplayName("when the interval elapsed, the resource is not READY or the kind has no interval, should verify again")
+    void isVerified_whenExpiredOrNotReadyOrNotConfigured_shouldVerify() {
+        // given
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+        specHashGate.verified(status, specHash);
+
+        // when
+        status.setLastVerifiedTime(OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(11));
+        var isVerifiedWhenExpired = specHashGate.isVerified(resource, status, specHash);
+
+        specHashGate.verified(status, specHash);
+        status.setPhase(CRPhase.ERROR);
+        var isVerifiedWhenNotReady = specHashGate.isVerified(resource, status, specHash);
+
+        status.setPhase(CRPhase.READY);
+        when(driftCheck.interval()).thenReturn(Map.of());
+        var isVerifiedWhenNotConfigured = specHashGate.isVerified(resource, status, specHash);
+
+        // then
+        assertThat(isVerifiedWhenExpired).isFalse();
+        assertThat(isVerifiedWhenNotReady).isFalse();
+        assertThat(isVerifiedWhenNotConfigured).isFalse();
+    }
+
+    @Test
+    @DisplayName("when a verification found nothing to change, should patch the status so the next reconciliation is short-circuited")
+    void verified_whenUpToDate_shouldPatchStatus() {
+        // given
+        var persisted = new CRStatus().setPhase(CRPhase.READY);
+        var diffs = 0;
+
+        // when
+        for (var i = 0; i < 2; i++) {
+            // Every reconciliation starts from the status as it is stored in Kubernetes
+            var reconciled = new CRStatus()
+                    .setPhase(persisted.getPhase())
+                    .setSpecHash(persisted.getSpecHash())
+                    .setLastVerifiedTime(persisted.getLastVerifiedTime());
+
+            var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+            if (specHashGate.isVerified(resource, reconciled, specHash)) {
+                continue;
+            }
+
+            diffs++;
+
+            // The diff found the resource up-to-date
+            var updateControl = specHashGate.verified(resource, reconciled, specHash, UpdateControl.<Schema>noUpdate());
+
+            if (updateControl.isPatchStatus()) {
+                persisted = reconciled;
+            }
+        }
+
+        // then
+        assertThat(diffs).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("when verified, should keep the patch and the reschedule of the reconciliation")
+    void verified_shouldKeepPatchAndReschedule() {
+        // given
+        var specHash = specHashGate.hash(resource, clusterConnection, null);
+
+        // when
+        var rescheduled = specHashGate.verified(
+                resource,
+                status,
+                specHash,
+                UpdateControl.<Schema>noUpdate().rescheduleAfter(Duration.ofMinutes(1))
+        );
+        var patchedResource = specHashGate.verified(resource, status, specHash, UpdateControl.patchResource(resource));
+
+        // then
+        assertThat(rescheduled.isPatchStatus()).isTrue();
+        assertThat(rescheduled.getScheduleDelay()).contains(Duration.ofMinutes(1).toMillis());
+        assertThat(patchedResource.isPatchResource()).isTrue();
+        assertThat(patchedResource.isPatchStatus()).isTrue();
+        assertThat(status.getSpecHash()).isEqualTo(specHash);
+    }
+}
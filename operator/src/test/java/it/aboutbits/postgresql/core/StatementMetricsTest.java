@@ -0,0 +1,143 @@
+package it.aboutbits.postgresql.core;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@NullMarked
+class StatementMetricsTest {
+    @Nested
+    class Listener {
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        @Test
+        @DisplayName("when the rows of a lazily fetched query are processed slowly, should only record the execution")
+        void whenLazyFetch_shouldRecordUpToExecuteEnd() throws InterruptedException {
+            // given
+            var dsl = dslContext();
+
+            // when
+            try (var cursor = dsl.fetchLazy("select oid from pg_catalog.pg_class")) {
+                // The caller runs its DDL for the rows while the cursor is open
+                Thread.sleep(200);
+                cursor.fetch();
+            }
+
+            // then
+            var timer = meterRegistry.get(StatementMetrics.METRIC_NAME)
+                    .tag("category", StatementCategory.CATALOG_READ.toValue())
+                    .tag("outcome", "success")
+                    .timer();
+
+            assertThat(timer.count()).isEqualTo(1);
+            assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isLessThan(200);
+        }
+
+        private DSLContext dslContext() {
+            var operatorConfig = mock(OperatorConfig.class, RETURNS_DEEP_STUBS);
+            when(operatorConfig.statements().slowThreshold()).thenReturn(Duration.ofSeconds(1));
+            when(operatorConfig.statements().slowLogSampleRate()).thenReturn(1.0);
+
+            var clusterConnection = new ClusterConnection();
+            clusterConnection.setMetadata(new ObjectMetaBuilder()
+                    .withNamespace("default")
+                    .withName("test-connection")
+                    .build()
+            );
+
+            var dsl = DSL.using(
+                    new MockConnection(_ -> {
+                        var mock = DSL.using(SQLDialect.POSTGRES);
+                        var oid = DSL.field("oid", Long.class);
+                        var result = mock.newResult(oid);
+
+                        result.add(mock.newRecord(oid).values(1L));
+
+                        return new MockResult[]{new MockResult(1, result)};
+                    }),
+                    SQLDialect.POSTGRES
+            );
+
+            dsl.configuration().set(
+                    new StatementMetrics(meterRegistry, operatorConfig).listener(clusterConnection)
+            );
+
+            return dsl;
+        }
+    }
+
+    @Nested
+    class Category {
+        @Test
+        @DisplayName("should categorize catalog reads")
+        void whenSelect_shouldReturnCatalogRead() {
+            assertThat(StatementMetrics.category("select rolname from pg_catalog.pg_authid"))
+                    .isEqualTo(StatementCategory.CATALOG_READ);
+            assertThat(StatementMetrics.category("  WITH x as (select 1) select * from x"))
+                    .isEqualTo(StatementCategory.CATALOG_READ);
+        }
+
+        @Test
+        @DisplayName("should categorize DDL statements")
+        void whenDdl_shouldReturnMatchingCategory() {
+            assertThat(StatementMetrics.category("grant select on table \"a\" to \"b\""))
+                    .isEqualTo(StatementCategory.GRANT);
+            assertThat(StatementMetrics.category("REVOKE select on table \"a\" from \"b\""))
+                    .isEqualTo(StatementCategory.REVOKE);
+            assertThat(StatementMetrics.category("alter role \"a\" with login"))
+                    .isEqualTo(StatementCategory.ALTER_ROLE);
+            assertThat(StatementMetrics.category("create database \"a\""))
+                    .isEqualTo(StatementCategory.CREATE_DATABASE);
+        }
+
+        @Test
+        @DisplayName("should fall back to other")
+        void whenUnknown_shouldReturnOther() {
+            assertThat(StatementMetrics.category("drop role \"a\""))
+                    .isEqualTo(StatementCategory.OTHER);
+        }
+    }
+
+    @Nested
+    class Redact {
+        @Test
+        @DisplayName("should redact password literals")
+        void whenPasswordLiteral_shouldRedact() {
+            // given
+            var sql = "alter role \"a\" with login password 'se''cret' connection limit 1";
+
+            // when
+            var result = StatementMetrics.redact(sql);
+
+            // then
+            assertThat(result).isEqualTo("alter role \"a\" with login password '***' connection limit 1");
+        }
+
+        @Test
+        @DisplayName("should keep statements without password")
+        void whenNoPassword_shouldKeepSql() {
+            // given
+            var sql = "select 1 where 'password' = ?";
+
+            // when / then
+            assertThat(StatementMetrics.redact(sql)).isEqualTo(sql);
+        }
+    }
+}
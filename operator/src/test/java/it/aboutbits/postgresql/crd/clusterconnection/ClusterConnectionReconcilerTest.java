@@ -5,20 +5,23 @@ import io.quarkus.test.junit.QuarkusTest;
 import it.aboutbits.postgresql._support.testdata.base.TestUtil;
 import it.aboutbits.postgresql._support.testdata.persisted.Given;
 import it.aboutbits.postgresql.core.CRPhase;
-import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.OperatorConfig;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import lombok.RequiredArgsConstructor;
 import org.jooq.DSLContext;
+import org.jooq.ExecuteListenerProvider;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +36,8 @@ class ClusterConnectionReconcilerTest {
 
     private final PostgreSQLContextFactory postgreSQLContextFactory;
 
+    private final OperatorConfig operatorConfig;
+
     private final KubernetesClient kubernetesClient;
 
     @BeforeEach
@@ -69,11 +74,63 @@ class ClusterConnectionReconcilerTest {
         );
     }
 
-    private static void assertThatClusterConnectionHasExpectedStatus(
+    @Test
+    @DisplayName("When connecting twice, the Configuration should be shared until the spec of the ClusterConnection changes")
+    void getDSLContext_shouldShareConfigurationUntilSpecChanges() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection")
+                .returnFirst();
+
+        // when
+        var first = executeListenerProvider(clusterConnection);
+        var second = executeListenerProvider(clusterConnection);
+
+        clusterConnection.getMetadata().setGeneration(clusterConnection.getMetadata().getGeneration() + 1);
+
+        var afterSpecChange = executeListenerProvider(clusterConnection);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(afterSpecChange).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("When connecting, the catalog reads should use server-side prepared statements from the first execution on")
+    void getDSLContext_shouldPrepareFromFirstExecution() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection")
+                .returnFirst();
+
+        // when
+        var prepareThreshold = new AtomicInteger();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection)) {
+            dsl.connection(connection -> prepareThreshold.set(
+                    connection.unwrap(PGConnection.class).getPrepareThreshold()
+            ));
+        }
+
+        // then
+        assertThat(prepareThreshold).hasValue(1);
+    }
+
+    private ExecuteListenerProvider executeListenerProvider(ClusterConnection clusterConnection) {
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection)) {
+            return dsl.configuration().executeListenerProviders()[0];
+        }
+    }
+
+    private void assertThatClusterConnectionHasExpectedStatus(
             ClusterConnection clusterConnection,
-            CRStatus expectedStatus,
+            ClusterConnectionStatus expectedStatus,
             OffsetDateTime now
     ) {
+        var clusterConcurrency = operatorConfig.clusterConcurrency();
+
         assertThat(clusterConnection)
                 .isNotNull()
                 .extracting(ClusterConnection::getStatus)
@@ -86,16 +143,24 @@ class ClusterConnectionReconcilerTest {
                             now,
                             within(5, ChronoUnit.SECONDS)
                     );
+                    // The limit adapts to the reconciliations of the other tests against the same cluster
+                    assertThat(status.getConcurrencyLimit()).isBetween(
+                            clusterConcurrency.minLimit(),
+                            clusterConcurrency.maxLimit()
+                    );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime", "concurrencyLimit")
                 .isEqualTo(expectedStatus);
     }
 
-    private static CRStatus getInitialClusterConnectionStatus(ClusterConnection clusterConnection) {
-        return new CRStatus()
-                .setName(clusterConnection.getName())
+    private static ClusterConnectionStatus getInitialClusterConnectionStatus(ClusterConnection clusterConnection) {
+        var status = new ClusterConnectionStatus();
+
+        status.setName(clusterConnection.getName())
                 .setPhase(CRPhase.READY)
                 .setObservedGeneration(1L);
+
+        return status;
     }
 }
@@ -1,5 +1,6 @@
 package it.aboutbits.postgresql.crd.database;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.quarkus.test.junit.QuarkusTest;
 import it.aboutbits.postgresql._support.testdata.base.TestUtil;
@@ -15,14 +16,21 @@ import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static it.aboutbits.postgresql.core.ReclaimPolicy.DELETE;
+import static it.aboutbits.postgresql.core.ReclaimPolicy.RETAIN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 @NullMarked
 @QuarkusTest
 @RequiredArgsConstructor
 class DatabaseReconcilerTest {
+    private static final String FINALIZER = HasMetadata.getFullResourceName(Database.class) + "/finalizer";
+
     private final Given given;
 
     private final DatabaseService databaseService;
@@ -72,6 +80,130 @@ class DatabaseReconcilerTest {
         assertThat(databaseService.databaseExists(dsl, database.getSpec())).isTrue();
     }
 
+    @Test
+    @DisplayName("When a RETAIN Database is deleted, it should be removed right away and the database retained")
+    void deleteDatabaseWithRetainPolicy_withoutReconcile() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = waitForDatabase(
+                given.one()
+                        .database()
+                        .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                        .withReclaimPolicy(RETAIN)
+                        .returnFirst(),
+                d -> d.getStatus().getPhase() == CRPhase.READY
+        );
+
+        assertThat(database.hasFinalizer(FINALIZER)).isFalse();
+
+        // when
+        kubernetesClient.resource(database).delete();
+
+        // then
+        assertThat(kubernetesClient.resources(Database.class)
+                .inNamespace(database.getMetadata().getNamespace())
+                .withName(database.getMetadata().getName())
+                .get()
+        ).isNull();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection)) {
+            assertThat(databaseService.databaseExists(dsl, database.getSpec())).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("When the reclaimPolicy of a Database changes, the finalizer should be added or removed")
+    void changeDatabaseReclaimPolicy_addsOrRemovesFinalizer() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = waitForDatabase(
+                given.one()
+                        .database()
+                        .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                        .withReclaimPolicy(RETAIN)
+                        .returnFirst(),
+                d -> d.getStatus().getPhase() == CRPhase.READY
+        );
+
+        // when
+        editDatabase(database, d -> d.getSpec().setReclaimPolicy(DELETE));
+        var withDelete = waitForDatabase(database, d -> d.hasFinalizer(FINALIZER));
+
+        editDatabase(database, d -> d.getSpec().setReclaimPolicy(RETAIN));
+        var withRetain = waitForDatabase(database, d -> !d.hasFinalizer(FINALIZER));
+
+        // then
+        assertThat(withDelete.getSpec().getReclaimPolicy()).isEqualTo(DELETE);
+        assertThat(withRetain.getSpec().getReclaimPolicy()).isEqualTo(RETAIN);
+    }
+
+    @Test
+    @DisplayName("When a DELETE Database is deleted, the database should be dropped")
+    void deleteDatabaseWithDeletePolicy_dropsDatabase() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = waitForDatabase(
+                given.one()
+                        .database()
+                        .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                        .withReclaimPolicy(DELETE)
+                        .returnFirst(),
+                d -> d.getStatus().getPhase() == CRPhase.READY
+        );
+
+        assertThat(database.hasFinalizer(FINALIZER)).isTrue();
+
+        // when
+        kubernetesClient.resource(database).delete();
+
+        // then
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection)) {
+            await().atMost(5, TimeUnit.SECONDS)
+                    .pollInterval(100, TimeUnit.MILLISECONDS)
+                    .until(() -> !databaseService.databaseExists(dsl, database.getSpec()));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> kubernetesClient.resource(database).get() == null);
+    }
+
+    private Database waitForDatabase(
+            Database database,
+            Predicate<Database> condition
+    ) {
+        return kubernetesClient.resources(Database.class)
+                .inNamespace(database.getMetadata().getNamespace())
+                .withName(database.getMetadata().getName())
+                .waitUntilCondition(
+                        d -> d != null && d.getStatus() != null && condition.test(d),
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    private void editDatabase(
+            Database database,
+            Consumer<Database> edit
+    ) {
+        kubernetesClient.resources(Database.class)
+                .inNamespace(database.getMetadata().getNamespace())
+                .withName(database.getMetadata().getName())
+                .edit(current -> {
+                    edit.accept(current);
+
+                    return current;
+                });
+    }
+
     private void assertThatDatabaseHasExpectedStatus(
             Database database,
             CRStatus expectedStatus,
@@ -89,7 +221,7 @@ class DatabaseReconcilerTest {
                     );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime", "specHash", "lastVerifiedTime")
                 .isEqualTo(expectedStatus);
     }
 }
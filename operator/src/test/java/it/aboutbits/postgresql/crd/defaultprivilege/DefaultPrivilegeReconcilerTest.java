@@ -8,6 +8,7 @@ import it.aboutbits.postgresql._support.testdata.persisted.Given;
 import it.aboutbits.postgresql._support.valuesource.BlankSource;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import it.aboutbits.postgresql.core.Privilege;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
@@ -49,6 +50,7 @@ class DefaultPrivilegeReconcilerTest {
 
     private final DefaultPrivilegeService defaultPrivilegeService;
     private final PostgreSQLContextFactory postgreSQLContextFactory;
+    private final CatalogOidCache catalogOidCache;
 
     private final KubernetesClient kubernetesClient;
 
@@ -754,7 +756,7 @@ class DefaultPrivilegeReconcilerTest {
                     );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("message", "lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("message", "lastProbeTime", "lastPhaseTransitionTime", "specHash", "lastVerifiedTime")
                 .isEqualTo(expectedStatus);
     }
 
@@ -766,7 +768,11 @@ class DefaultPrivilegeReconcilerTest {
         var databaseName = defaultPrivilege.getSpec().getDatabase();
 
         try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
-            var privileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(dsl, defaultPrivilege.getSpec());
+            var privileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(
+                    dsl,
+                    catalogOidCache.forDatabase(dsl, clusterConnection, databaseName),
+                    defaultPrivilege.getSpec()
+            );
 
             assertThat(privileges).containsAll(expectedPrivileges);
         }
@@ -779,7 +785,11 @@ class DefaultPrivilegeReconcilerTest {
         var databaseName = defaultPrivilege.getSpec().getDatabase();
 
         try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
-            var privileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(dsl, defaultPrivilege.getSpec());
+            var privileges = defaultPrivilegeService.determineCurrentDefaultPrivileges(
+                    dsl,
+                    catalogOidCache.forDatabase(dsl, clusterConnection, databaseName),
+                    defaultPrivilege.getSpec()
+            );
 
             assertThat(privileges).isEmpty();
         }
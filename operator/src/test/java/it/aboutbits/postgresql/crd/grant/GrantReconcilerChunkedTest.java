@@ -0,0 +1,200 @@
+package it.aboutbits.postgresql.crd.grant;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import it.aboutbits.postgresql._support.testdata.base.TestUtil;
+import it.aboutbits.postgresql._support.testdata.persisted.Given;
+import it.aboutbits.postgresql.core.CRPhase;
+import it.aboutbits.postgresql.core.CatalogOidCache;
+import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.core.Privilege;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import lombok.RequiredArgsConstructor;
+import org.jooq.impl.SQLDataType;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static it.aboutbits.postgresql.core.Privilege.INSERT;
+import static it.aboutbits.postgresql.core.Privilege.SELECT;
+import static it.aboutbits.postgresql.core.ReclaimPolicy.DELETE;
+import static it.aboutbits.postgresql.crd.grant.GrantObjectType.TABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jooq.impl.DSL.quotedName;
+
+@NullMarked
+@QuarkusTest
+@TestProfile(GrantReconcilerChunkedTest.ChunkedProfile.class)
+@RequiredArgsConstructor
+class GrantReconcilerChunkedTest {
+    private static final List<String> TABLES = IntStream.rangeClosed(1, 5)
+            .mapToObj("table_%d"::formatted)
+            .toList();
+
+    private final Given given;
+
+    private final GrantService grantService;
+    private final PostgreSQLContextFactory postgreSQLContextFactory;
+    private final CatalogOidCache catalogOidCache;
+
+    private final KubernetesClient kubernetesClient;
+
+    @BeforeEach
+    void resetEnvironment() {
+        TestUtil.resetEnvironment(kubernetesClient);
+    }
+
+    @Test
+    @DisplayName("When a READY Grant is applied again in chunks, all chunks should be applied before it is verified")
+    void reapplyReadyGrantInChunks() {
+        // given
+        var clusterConnectionMain = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = given.one()
+                .database()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .withReclaimPolicy(DELETE)
+                .returnFirst();
+
+        var clusterConnectionDb = given.one()
+                .clusterConnection()
+                .withDatabase(database.getSpec().getName())
+                .returnFirst();
+
+        var schema = given.one()
+                .schema()
+                .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                .withDatabase(database.getSpec().getName())
+                .withReclaimPolicy(DELETE)
+                .returnFirst();
+
+        var role = given.one()
+                .role()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .returnFirst();
+
+        for (var tableName : TABLES) {
+            createTable(
+                    clusterConnectionDb,
+                    database.getSpec().getName(),
+                    schema.getSpec().getName(),
+                    tableName
+            );
+        }
+
+        var grant = waitUntilApplied(
+                given.one()
+                        .grant()
+                        .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                        .withDatabase(database.getSpec().getName())
+                        .withSchema(schema.getSpec().getName())
+                        .withRole(role.getSpec().getName())
+                        .withObjectType(TABLE)
+                        .withPrivileges(SELECT)
+                        .returnFirst(),
+                _ -> true
+        );
+
+        var initialGeneration = grant.getStatus().getObservedGeneration();
+
+        // when
+        grant.getSpec().setPrivileges(List.of(SELECT, INSERT));
+
+        grant.getMetadata().setManagedFields(null);
+        grant.getMetadata().setResourceVersion(null);
+
+        kubernetesClient.resources(Grant.class)
+                .inNamespace(kubernetesClient.getNamespace())
+                .resource(grant)
+                .serverSideApply();
+
+        grant = waitUntilApplied(
+                grant,
+                g -> g.getStatus().getObservedGeneration() >= initialGeneration + 1
+        );
+
+        // then
+        assertThat(grant.getStatus().getSpecHash()).isNotNull();
+
+        for (var tableName : TABLES) {
+            assertThatPrivileges(clusterConnectionDb, grant, tableName, Set.of(SELECT, INSERT));
+        }
+    }
+
+    /// Waits until the Grant is READY without a pending chunk.
+    private Grant waitUntilApplied(
+            Grant grant,
+            Predicate<Grant> condition
+    ) {
+        return kubernetesClient.resources(Grant.class)
+                .inNamespace(kubernetesClient.getNamespace())
+                .withName(grant.getMetadata().getName())
+                .waitUntilCondition(
+                        g -> g != null
+                                && g.getStatus() != null
+                                && g.getStatus().getPhase() == CRPhase.READY
+                                && g.getStatus().getProgress() == null
+                                && condition.test(g),
+                        10,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    private void createTable(
+            ClusterConnection clusterConnection,
+            String databaseName,
+            String schemaName,
+            String tableName
+    ) {
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
+            dsl.createTable(quotedName(schemaName, tableName))
+                    .column("id", SQLDataType.INTEGER)
+                    .execute();
+        }
+    }
+
+    private void assertThatPrivileges(
+            ClusterConnection clusterConnection,
+            Grant grant,
+            String objectName,
+            Set<Privilege> expectedPrivileges
+    ) {
+        var databaseName = grant.getSpec().getDatabase();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
+            var privileges = grantService.determineCurrentObjectPrivileges(
+                    dsl,
+                    catalogOidCache.forDatabase(dsl, clusterConnection, databaseName),
+                    grant.getSpec()
+            );
+
+            assertThat(privileges).containsEntry(
+                    objectName,
+                    expectedPrivileges
+            );
+        }
+    }
+
+    /// Applies the Grants in chunks of two tables and trusts a verified Grant for 10 minutes.
+    public static class ChunkedProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "postgresql-operator.grants.chunk-size", "2",
+                    "postgresql-operator.drift-check.interval.grant", "10m"
+            );
+        }
+    }
+}
@@ -8,6 +8,7 @@ import it.aboutbits.postgresql._support.testdata.persisted.Given;
 import it.aboutbits.postgresql._support.valuesource.BlankSource;
 import it.aboutbits.postgresql.core.CRPhase;
 import it.aboutbits.postgresql.core.CRStatus;
+import it.aboutbits.postgresql.core.CatalogOidCache;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import it.aboutbits.postgresql.core.Privilege;
 import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
@@ -44,7 +45,9 @@ import static it.aboutbits.postgresql.crd.grant.GrantObjectType.SEQUENCE;
 import static it.aboutbits.postgresql.crd.grant.GrantObjectType.TABLE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.jooq.impl.DSL.field;
 import static org.jooq.impl.DSL.quotedName;
+import static org.jooq.impl.DSL.val;
 
 @NullMarked
 @QuarkusTest
@@ -54,6 +57,7 @@ class GrantReconcilerTest {
 
     private final GrantService grantService;
     private final PostgreSQLContextFactory postgreSQLContextFactory;
+    private final CatalogOidCache catalogOidCache;
 
     private final KubernetesClient kubernetesClient;
 
@@ -273,6 +277,22 @@ class GrantReconcilerTest {
                 ).withMessageContaining("The Grant objects must be not set if objectType is 'database' or 'schema', for all other objectType's a list is required.");
             }
 
+            @Test
+            @DisplayName("Should fail when both objects and objectSelectors are set (CEL rule)")
+            void failWhenObjectsAndObjectSelectors() {
+                // then
+                assertThatExceptionOfType(KubernetesClientException.class).isThrownBy(() ->
+                        // given / when
+                        given.one()
+                                .grant()
+                                .withObjectType(TABLE)
+                                .withObjects("some_object")
+                                .withObjectSelectors(objectSelectors(List.of("some_%"), List.of()))
+                                .withPrivileges(SELECT)
+                                .returnFirst()
+                ).withMessageContaining("The Grant objects and objectSelectors are mutually exclusive.");
+            }
+
             @Test
             @DisplayName("Should reconcile to ERROR when privileges are invalid for objectType")
             void errorWhenInvalidPrivileges() {
@@ -909,6 +929,172 @@ class GrantReconcilerTest {
             );
         }
 
+        @Test
+        @DisplayName("When a Grant has objectSelectors, only the matching tables should be granted and the others revoked")
+        void grantOnSelectedTables() {
+            // given
+            var clusterConnectionMain = given.one()
+                    .clusterConnection()
+                    .returnFirst();
+
+            var database = given.one()
+                    .database()
+                    .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                    .withReclaimPolicy(DELETE)
+                    .returnFirst();
+
+            var clusterConnectionDb = given.one()
+                    .clusterConnection()
+                    .withDatabase(database.getSpec().getName())
+                    .returnFirst();
+
+            var schema = given.one()
+                    .schema()
+                    .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                    .withDatabase(database.getSpec().getName())
+                    .withReclaimPolicy(DELETE)
+                    .returnFirst();
+
+            var role = given.one()
+                    .role()
+                    .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                    .returnFirst();
+
+            var selectedTable1 = "events_2024";
+            var selectedTable2 = "events_2025";
+            var excludedTable = "events_archive";
+            var otherTable = "users";
+
+            for (var tableName : List.of(selectedTable1, selectedTable2, excludedTable, otherTable)) {
+                createTable(
+                        clusterConnectionDb,
+                        database.getSpec().getName(),
+                        schema.getSpec().getName(),
+                        tableName
+                );
+            }
+
+            // when
+            var grant = given.one()
+                    .grant()
+                    .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                    .withDatabase(database.getSpec().getName())
+                    .withSchema(schema.getSpec().getName())
+                    .withRole(role.getSpec().getName())
+                    .withObjectType(TABLE)
+                    .withObjectSelectors(objectSelectors(List.of("events\\_%"), List.of("_archive$")))
+                    .withPrivileges(SELECT)
+                    .returnFirst();
+
+            // then
+            assertThat(grant.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+
+            assertThatPrivileges(clusterConnectionDb, grant, selectedTable1, Set.of(SELECT));
+            assertThatPrivileges(clusterConnectionDb, grant, selectedTable2, Set.of(SELECT));
+            assertThatNoPrivileges(clusterConnectionDb, grant, excludedTable);
+            assertThatNoPrivileges(clusterConnectionDb, grant, otherTable);
+
+            // given: a narrower selection
+            var initialGeneration = grant.getStatus().getObservedGeneration();
+
+            grant.getSpec().setObjectSelectors(objectSelectors(List.of("events_2024"), List.of()));
+
+            // when
+            applyGrant(
+                    grant,
+                    g -> g.getStatus().getObservedGeneration() >= initialGeneration + 1
+            );
+
+            // then
+            assertThatPrivileges(clusterConnectionDb, grant, selectedTable1, Set.of(SELECT));
+            assertThatNoPrivileges(clusterConnectionDb, grant, selectedTable2);
+        }
+
+        @Test
+        @DisplayName("When a partitioned table is removed from a partition aware Grant, its partitions should be revoked as well")
+        void grantOnPartitionedTables_whenParentRemoved_shouldRevokePartitions() {
+            // given
+            var clusterConnectionMain = given.one()
+                    .clusterConnection()
+                    .returnFirst();
+
+            var database = given.one()
+                    .database()
+                    .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                    .withReclaimPolicy(DELETE)
+                    .returnFirst();
+
+            var clusterConnectionDb = given.one()
+                    .clusterConnection()
+                    .withDatabase(database.getSpec().getName())
+                    .returnFirst();
+
+            var schema = given.one()
+                    .schema()
+                    .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                    .withDatabase(database.getSpec().getName())
+                    .withReclaimPolicy(DELETE)
+                    .returnFirst();
+
+            var role = given.one()
+                    .role()
+                    .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                    .returnFirst();
+
+            var removedTable = "orders";
+            var removedPartition = "orders_2025";
+            var keptTable = "invoices";
+            var keptPartition = "invoices_2025";
+
+            createPartitionedTable(
+                    clusterConnectionDb,
+                    database.getSpec().getName(),
+                    schema.getSpec().getName(),
+                    removedTable,
+                    removedPartition
+            );
+            createPartitionedTable(
+                    clusterConnectionDb,
+                    database.getSpec().getName(),
+                    schema.getSpec().getName(),
+                    keptTable,
+                    keptPartition
+            );
+
+            var grant = given.one()
+                    .grant()
+                    .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                    .withDatabase(database.getSpec().getName())
+                    .withSchema(schema.getSpec().getName())
+                    .withRole(role.getSpec().getName())
+                    .withObjectType(TABLE)
+                    .withObjects(removedTable, keptTable)
+                    .withPartitionAware(true)
+                    .withPrivileges(SELECT)
+                    .returnFirst();
+
+            assertThat(grant.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+            assertThat(hasSelectOnPartition(clusterConnectionDb, grant, removedPartition)).isTrue();
+            assertThat(hasSelectOnPartition(clusterConnectionDb, grant, keptPartition)).isTrue();
+
+            // given: the partitioned table is removed from the spec
+            var initialGeneration = grant.getStatus().getObservedGeneration();
+
+            grant.getSpec().setObjects(List.of(keptTable));
+
+            // when
+            applyGrant(
+                    grant,
+                    g -> g.getStatus().getObservedGeneration() >= initialGeneration + 1
+            );
+
+            // then
+            assertThatNoPrivileges(clusterConnectionDb, grant, removedTable);
+            assertThat(hasSelectOnPartition(clusterConnectionDb, grant, removedPartition)).isFalse();
+            assertThatPrivileges(clusterConnectionDb, grant, keptTable, Set.of(SELECT));
+            assertThat(hasSelectOnPartition(clusterConnectionDb, grant, keptPartition)).isTrue();
+        }
+
         static Stream<List<Privilege>> provideAllSupportedPrivileges() {
             var profile = System.getProperty("quarkus.test.profile", "");
             var matcher = Pattern.compile("test-pg(\\d+)").matcher(profile);
@@ -1271,10 +1457,37 @@ class GrantReconcilerTest {
                     );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("message", "lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("message", "lastProbeTime", "lastPhaseTransitionTime", "specHash", "lastVerifiedTime", "progress", "busyObjects", "busyRetries")
                 .isEqualTo(expectedStatus);
     }
 
+    /// Selectors with `like` include and `regex` exclude patterns.
+    private static GrantSpec.ObjectSelectors objectSelectors(
+            List<String> includeLike,
+            List<String> excludeRegex
+    ) {
+        var objectSelectors = new GrantSpec.ObjectSelectors();
+
+        objectSelectors.setInclude(includeLike.stream()
+                .map(like -> {
+                    var pattern = new GrantSpec.ObjectPattern();
+                    pattern.setLike(like);
+                    return pattern;
+                })
+                .toList()
+        );
+        objectSelectors.setExclude(excludeRegex.stream()
+                .map(regex -> {
+                    var pattern = new GrantSpec.ObjectPattern();
+                    pattern.setRegex(regex);
+                    return pattern;
+                })
+                .toList()
+        );
+
+        return objectSelectors;
+    }
+
     private void createTable(
             ClusterConnection clusterConnection,
             String databaseName,
@@ -1288,6 +1501,26 @@ class GrantReconcilerTest {
         }
     }
 
+    private void createPartitionedTable(
+            ClusterConnection clusterConnection,
+            String databaseName,
+            String schemaName,
+            String tableName,
+            String partitionName
+    ) {
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
+            dsl.execute(
+                    "create table {0} (id integer) partition by range (id)",
+                    quotedName(schemaName, tableName)
+            );
+            dsl.execute(
+                    "create table {0} partition of {1} for values from (0) to (100)",
+                    quotedName(schemaName, partitionName),
+                    quotedName(schemaName, tableName)
+            );
+        }
+    }
+
     private void createTableWithSerial(
             ClusterConnection clusterConnection,
             String databaseName,
@@ -1321,7 +1554,11 @@ class GrantReconcilerTest {
         var databaseName = grant.getSpec().getDatabase();
 
         try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
-            var privileges = grantService.determineCurrentObjectPrivileges(dsl, grant.getSpec());
+            var privileges = grantService.determineCurrentObjectPrivileges(
+                    dsl,
+                    catalogOidCache.forDatabase(dsl, clusterConnection, databaseName),
+                    grant.getSpec()
+            );
 
             assertThat(privileges).containsEntry(
                     objectName,
@@ -1330,6 +1567,24 @@ class GrantReconcilerTest {
         }
     }
 
+    /// Partitions are left out of the privileges of a partition aware Grant, so they are checked directly.
+    private boolean hasSelectOnPartition(
+            ClusterConnection clusterConnection,
+            Grant grant,
+            String partitionName
+    ) {
+        var spec = grant.getSpec();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, spec.getDatabase())) {
+            return Boolean.TRUE.equals(dsl.fetchValue(field(
+                    "pg_catalog.has_table_privilege({0}, {1}, 'SELECT')",
+                    Boolean.class,
+                    val(spec.getRole()),
+                    val(dsl.render(quotedName(Objects.requireNonNull(spec.getSchema()), partitionName)))
+            )));
+        }
+    }
+
     private void assertThatNoPrivileges(
             ClusterConnection clusterConnection,
             Grant grant,
@@ -1338,7 +1593,11 @@ class GrantReconcilerTest {
         var databaseName = grant.getSpec().getDatabase();
 
         try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection, databaseName)) {
-            var privileges = grantService.determineCurrentObjectPrivileges(dsl, grant.getSpec());
+            var privileges = grantService.determineCurrentObjectPrivileges(
+                    dsl,
+                    catalogOidCache.forDatabase(dsl, clusterConnection, databaseName),
+                    grant.getSpec()
+            );
 
             assertThat(privileges).doesNotContainKey(objectName);
         }
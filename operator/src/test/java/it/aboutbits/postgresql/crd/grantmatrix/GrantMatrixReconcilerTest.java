@@ -0,0 +1,291 @@
+package it.aboutbits.postgresql.crd.grantmatrix;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.test.junit.QuarkusTest;
+import it.aboutbits.postgresql._support.testdata.base.TestUtil;
+import it.aboutbits.postgresql._support.testdata.persisted.Given;
+import it.aboutbits.postgresql.core.CRPhase;
+import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.crd.clusterconnection.ClusterConnection;
+import it.aboutbits.postgresql.crd.database.Database;
+import lombok.RequiredArgsConstructor;
+import org.jooq.impl.SQLDataType;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static it.aboutbits.postgresql.core.Privilege.SELECT;
+import static it.aboutbits.postgresql.core.Privilege.USAGE;
+import static it.aboutbits.postgresql.core.ReclaimPolicy.DELETE;
+import static it.aboutbits.postgresql.crd.grant.GrantObjectType.SCHEMA;
+import static it.aboutbits.postgresql.crd.grant.GrantObjectType.TABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.quotedName;
+import static org.jooq.impl.DSL.val;
+
+@NullMarked
+@QuarkusTest
+@RequiredArgsConstructor
+class GrantMatrixReconcilerTest {
+    private static final String TABLE_NAME = "test_table";
+
+    private final Given given;
+
+    private final PostgreSQLContextFactory postgreSQLContextFactory;
+
+    private final KubernetesClient kubernetesClient;
+
+    @BeforeEach
+    void resetEnvironment() {
+        TestUtil.resetEnvironment(kubernetesClient);
+    }
+
+    @Test
+    @DisplayName("When a GrantMatrix is created, every role should get the privileges on every schema and its tables")
+    void createGrantMatrix_grantsAllTuples() {
+        // given
+        var setup = setup();
+
+        // when
+        var grantMatrix = given.one()
+                .grantMatrix()
+                .withClusterConnectionName(setup.clusterConnection().getMetadata().getName())
+                .withDatabase(setup.database().getSpec().getName())
+                .withRoles(setup.roles().toArray(String[]::new))
+                .withSchemas(setup.schemas().toArray(String[]::new))
+                .withPrivileges(SCHEMA, USAGE)
+                .withPrivileges(TABLE, SELECT)
+                .returnFirst();
+
+        // then
+        assertThat(grantMatrix.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+        assertThat(grantMatrix.getStatus().getTuples()).isEqualTo(8);
+        assertThat(grantMatrix.getStatus().getManagedRoles()).containsExactlyElementsOf(setup.roles());
+        assertThat(grantMatrix.getStatus().getManagedSchemas()).containsExactlyElementsOf(setup.schemas());
+
+        for (var role : setup.roles()) {
+            for (var schema : setup.schemas()) {
+                assertThat(hasSchemaPrivilege(setup, role, schema)).isTrue();
+                assertThat(hasTablePrivilege(setup, role, schema)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("When a role and a schema are removed from a GrantMatrix, their privileges should be revoked")
+    void removeRoleAndSchema_revokesPrivileges() {
+        // given
+        var setup = setup();
+
+        var grantMatrix = given.one()
+                .grantMatrix()
+                .withClusterConnectionName(setup.clusterConnection().getMetadata().getName())
+                .withDatabase(setup.database().getSpec().getName())
+                .withRoles(setup.roles().toArray(String[]::new))
+                .withSchemas(setup.schemas().toArray(String[]::new))
+                .withPrivileges(SCHEMA, USAGE)
+                .withPrivileges(TABLE, SELECT)
+                .returnFirst();
+
+        var keptRole = setup.roles().getFirst();
+        var removedRole = setup.roles().getLast();
+        var keptSchema = setup.schemas().getFirst();
+        var removedSchema = setup.schemas().getLast();
+
+        // when
+        grantMatrix.getSpec().setRoles(List.of(keptRole));
+        grantMatrix.getSpec().setSchemas(List.of(keptSchema));
+
+        var reconciled = applyGrantMatrix(grantMatrix, g -> g.getStatus().getObservedGeneration() == 2);
+
+        // then
+        assertThat(reconciled.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+        assertThat(reconciled.getStatus().getTuples()).isEqualTo(2);
+        assertThat(reconciled.getStatus().getManagedRoles()).containsExactly(keptRole);
+        assertThat(reconciled.getStatus().getManagedSchemas()).containsExactly(keptSchema);
+
+        assertThat(hasSchemaPrivilege(setup, keptRole, keptSchema)).isTrue();
+        assertThat(hasTablePrivilege(setup, keptRole, keptSchema)).isTrue();
+
+        assertThat(hasSchemaPrivilege(setup, keptRole, removedSchema)).isFalse();
+        assertThat(hasTablePrivilege(setup, keptRole, removedSchema)).isFalse();
+        assertThat(hasSchemaPrivilege(setup, removedRole, keptSchema)).isFalse();
+        assertThat(hasTablePrivilege(setup, removedRole, keptSchema)).isFalse();
+    }
+
+    @Test
+    @DisplayName("When a GrantMatrix lists a role that does not exist, status should be ERROR")
+    void createGrantMatrix_withMissingRole_setsError() {
+        // given
+        var setup = setup();
+
+        // when
+        var grantMatrix = given.one()
+                .grantMatrix()
+                .withClusterConnectionName(setup.clusterConnection().getMetadata().getName())
+                .withDatabase(setup.database().getSpec().getName())
+                .withRoles("test_grant_matrix_missing_role")
+                .withSchemas(setup.schemas().toArray(String[]::new))
+                .withPrivileges(SCHEMA, USAGE)
+                .returnFirst();
+
+        // then
+        assertThat(grantMatrix.getStatus().getPhase()).isEqualTo(CRPhase.ERROR);
+        assertThat(grantMatrix.getStatus().getMessage()).startsWith(
+                "Did not grant or revoke any privileges as the listed roles or schemas do not exist"
+        );
+    }
+
+    @Test
+    @DisplayName("When a GrantMatrix is deleted, all its privileges should be revoked")
+    void deleteGrantMatrix_revokesAllPrivileges() {
+        // given
+        var setup = setup();
+
+        var grantMatrix = given.one()
+                .grantMatrix()
+                .withClusterConnectionName(setup.clusterConnection().getMetadata().getName())
+                .withDatabase(setup.database().getSpec().getName())
+                .withRoles(setup.roles().toArray(String[]::new))
+                .withSchemas(setup.schemas().toArray(String[]::new))
+                .withPrivileges(SCHEMA, USAGE)
+                .withPrivileges(TABLE, SELECT)
+                .returnFirst();
+
+        assertThat(grantMatrix.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+
+        // when
+        kubernetesClient.resources(GrantMatrix.class)
+                .inNamespace(grantMatrix.getMetadata().getNamespace())
+                .withName(grantMatrix.getMetadata().getName())
+                .withTimeout(5, TimeUnit.SECONDS)
+                .delete();
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS)
+                .pollInterval(100, TimeUnit.MILLISECONDS)
+                .until(() -> setup.roles().stream().allMatch(role -> setup.schemas().stream().noneMatch(schema ->
+                        hasSchemaPrivilege(setup, role, schema) || hasTablePrivilege(setup, role, schema)
+                )));
+    }
+
+    /// Two roles and two schemas with one table each in a fresh database.
+    private Setup setup() {
+        var clusterConnectionMain = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = given.one()
+                .database()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .withReclaimPolicy(DELETE)
+                .returnFirst();
+
+        var clusterConnectionDb = given.one()
+                .clusterConnection()
+                .withDatabase(database.getSpec().getName())
+                .returnFirst();
+
+        var schemas = Stream.generate(() -> given.one()
+                        .schema()
+                        .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                        .withDatabase(database.getSpec().getName())
+                        .withReclaimPolicy(DELETE)
+                        .returnFirst()
+                )
+                .limit(2)
+                .map(schema -> schema.getSpec().getName())
+                .sorted()
+                .toList();
+
+        var roles = Stream.generate(() -> given.one()
+                        .role()
+                        .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                        .returnFirst()
+                )
+                .limit(2)
+                .map(role -> role.getSpec().getName())
+                .sorted()
+                .toList();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnectionDb, database.getSpec().getName())) {
+            for (var schema : schemas) {
+                dsl.createTable(quotedName(schema, TABLE_NAME))
+                        .column("id", SQLDataType.INTEGER)
+                        .execute();
+            }
+        }
+
+        return new Setup(clusterConnectionDb, database, roles, schemas);
+    }
+
+    private boolean hasSchemaPrivilege(
+            Setup setup,
+            String role,
+            String schema
+    ) {
+        try (var dsl = postgreSQLContextFactory.getDSLContext(setup.clusterConnection(), setup.database().getSpec().getName())) {
+            return Boolean.TRUE.equals(dsl.fetchValue(field(
+                    "has_schema_privilege({0}, {1}, 'USAGE')",
+                    Boolean.class,
+                    val(role),
+                    val(schema)
+            )));
+        }
+    }
+
+    private boolean hasTablePrivilege(
+            Setup setup,
+            String role,
+            String schema
+    ) {
+        try (var dsl = postgreSQLContextFactory.getDSLContext(setup.clusterConnection(), setup.database().getSpec().getName())) {
+            return Boolean.TRUE.equals(dsl.fetchValue(field(
+                    "has_table_privilege({0}, {1}, 'SELECT')",
+                    Boolean.class,
+                    val(role),
+                    val(quotedName(schema, TABLE_NAME).toString())
+            )));
+        }
+    }
+
+    private GrantMatrix applyGrantMatrix(
+            GrantMatrix grantMatrix,
+            Predicate<GrantMatrix> condition
+    ) {
+        var namespace = kubernetesClient.getNamespace();
+
+        grantMatrix.getMetadata().setManagedFields(null);
+        grantMatrix.getMetadata().setResourceVersion(null);
+
+        var applied = kubernetesClient.resources(GrantMatrix.class)
+                .inNamespace(namespace)
+                .resource(grantMatrix)
+                .serverSideApply();
+
+        return kubernetesClient.resources(GrantMatrix.class)
+                .inNamespace(namespace)
+                .withName(applied.getMetadata().getName())
+                .waitUntilCondition(
+                        condition,
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    private record Setup(
+            ClusterConnection clusterConnection,
+            Database database,
+            List<String> roles,
+            List<String> schemas
+    ) {
+    }
+}
@@ -10,6 +10,7 @@ import it.aboutbits.postgresql.core.CRStatus;
 import it.aboutbits.postgresql.core.PostgreSQLAuthenticationService;
 import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
 import it.aboutbits.postgresql.core.SecretRef;
+import it.aboutbits.postgresql.crd.clusterconnection.PasswordEncryption;
 import lombok.RequiredArgsConstructor;
 import org.jooq.DSLContext;
 import org.jooq.Field;
@@ -235,6 +236,53 @@ class RoleReconcilerTest {
         kubernetesClient.resource(role).patch();
     }
 
+    @Test
+    @DisplayName(
+            "When the ClusterConnection uses the ScramSha256 password encryption, the Operator computed verifier should be stored"
+    )
+    void createRole_withClientSideScramVerifier_passwordMatches() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-scram")
+                .withPasswordEncryption(PasswordEncryption.SCRAM_SHA_256)
+                .returnFirst();
+
+        var roleName = "test-role-scram";
+        var password = "scram-password";
+
+        var secretRef = given.one()
+                .secretRef()
+                .withPassword(password)
+                .returnFirst();
+
+        // when
+        var role = given.one()
+                .role()
+                .withName(roleName)
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withPasswordSecretRef(secretRef)
+                .returnFirst();
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS)
+                .pollInterval(100, TimeUnit.MILLISECONDS)
+                .until(() -> postgreSQLAuthenticationService.passwordMatches(
+                        dsl,
+                        role.getSpec(),
+                        password
+                ));
+
+        assertThat(
+                dsl.select(PG_AUTHID.ROLPASSWORD)
+                        .from(PG_AUTHID)
+                        .where(PG_AUTHID.ROLNAME.eq(roleName))
+                        .fetchSingle(PG_AUTHID.ROLPASSWORD)
+        ).startsWith("SCRAM-SHA-256$4096:");
+    }
+
     @Test
     @DisplayName(
             "When a Role (LOGIN) references a secret and that secret changes, it should trigger a re-reconciliation"
@@ -955,7 +1003,7 @@ class RoleReconcilerTest {
                     );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime", "specHash", "lastVerifiedTime")
                 .isEqualTo(expectedStatus);
     }
 }
@@ -0,0 +1,271 @@
+package it.aboutbits.postgresql.crd.roleset;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.test.junit.QuarkusTest;
+import it.aboutbits.postgresql._support.testdata.base.TestUtil;
+import it.aboutbits.postgresql._support.testdata.persisted.Given;
+import it.aboutbits.postgresql.core.CRPhase;
+import it.aboutbits.postgresql.core.PostgreSQLContextFactory;
+import it.aboutbits.postgresql.crd.role.RoleSpec;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static it.aboutbits.postgresql.core.infrastructure.persistence.Tables.PG_AUTHID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@NullMarked
+@QuarkusTest
+@RequiredArgsConstructor
+class RoleSetReconcilerTest {
+    private final Given given;
+
+    private final RoleSetService roleSetService;
+    private final PostgreSQLContextFactory postgreSQLContextFactory;
+
+    private final KubernetesClient kubernetesClient;
+
+    @BeforeEach
+    void resetEnvironment() {
+        TestUtil.resetEnvironment(kubernetesClient);
+    }
+
+    @Test
+    @DisplayName("When a RoleSet is created, all its roles should be created with the defaults and their overrides")
+    void createRoleSet_createsAllRoles() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-set-create")
+                .returnFirst();
+
+        var defaultFlags = new RoleSpec.Flags();
+        defaultFlags.setConnectionLimit(5);
+
+        var defaults = new RoleSetSpec.Defaults();
+        defaults.setComment("managed by a RoleSet");
+        defaults.setFlags(defaultFlags);
+
+        var overrides = new RoleSetSpec.FlagOverrides();
+        overrides.setCreatedb(true);
+        overrides.setInRole(List.of("test_role_set_group"));
+
+        // when
+        var roleSet = given.one()
+                .roleSet()
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withDefaults(defaults)
+                .withRole("test_role_set_group")
+                .withRole("test_role_set_member")
+                .returnFirst();
+
+        roleSet.getSpec().getRoles().get(1).setFlags(overrides);
+
+        var reconciled = applyRoleSet(roleSet, r -> r.getStatus().getPhase() == CRPhase.READY
+                && r.getStatus().getObservedGeneration() == 2
+        );
+
+        // then
+        assertThat(reconciled.getStatus().getRoles()).isEqualTo(2);
+        assertThat(reconciled.getStatus().getReadyRoles()).isEqualTo(2);
+        assertThat(reconciled.getStatus().getFailedRoles()).isZero();
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+
+        assertThat(roleSetService.fetchMarkedRoles(dsl, RoleSetService.marker(reconciled))).containsExactlyInAnyOrder(
+                "test_role_set_group",
+                "test_role_set_member"
+        );
+
+        var currentRoles = roleSetService.fetchCurrentRoles(dsl, List.of("test_role_set_group", "test_role_set_member"));
+
+        assertThat(currentRoles).containsOnlyKeys("test_role_set_group", "test_role_set_member");
+
+        var group = currentRoles.get("test_role_set_group");
+        var member = currentRoles.get("test_role_set_member");
+
+        assertThat(group.comment()).isEqualTo("managed by a RoleSet");
+        assertThat(group.canLogin()).isFalse();
+        assertThat(group.flags().isCreatedb()).isFalse();
+        assertThat(group.flags().getConnectionLimit()).isEqualTo(5);
+        assertThat(group.flags().getRole()).containsExactly("test_role_set_member");
+
+        assertThat(member.flags().isCreatedb()).isTrue();
+        assertThat(member.flags().getConnectionLimit()).isEqualTo(5);
+        assertThat(member.flags().getInRole()).containsExactly("test_role_set_group");
+    }
+
+    @Test
+    @DisplayName("When a role is removed from a RoleSet, it should be dropped from the database")
+    void removeRole_dropsRole() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-set-remove")
+                .returnFirst();
+
+        var roleSet = given.one()
+                .roleSet()
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withRole("test_role_set_kept")
+                .withRole("test_role_set_removed")
+                .returnFirst();
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+
+        assertThat(roleExists(dsl, "test_role_set_removed")).isTrue();
+
+        // when
+        roleSet.getSpec().setRoles(List.of(roleSet.getSpec().getRoles().getFirst()));
+
+        var reconciled = applyRoleSet(roleSet, r -> r.getStatus().getObservedGeneration() == 2);
+
+        // then
+        assertThat(reconciled.getStatus().getPhase()).isEqualTo(CRPhase.READY);
+        assertThat(roleSetService.fetchMarkedRoles(dsl, RoleSetService.marker(reconciled))).containsExactly("test_role_set_kept");
+
+        assertThat(roleExists(dsl, "test_role_set_kept")).isTrue();
+        assertThat(roleExists(dsl, "test_role_set_removed")).isFalse();
+    }
+
+    @Test
+    @DisplayName("When a RoleSet has no defaults, its roles should be created with the default flags")
+    void createRoleSet_withoutDefaults_createsRoles() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-set-no-defaults")
+                .returnFirst();
+
+        var roleSet = given.one()
+                .roleSet()
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withRole("test_role_set_no_defaults")
+                .returnFirst();
+
+        // when
+        roleSet.getSpec().setDefaults(null);
+        roleSet.getSpec().getRoles().getFirst().setComment("without defaults");
+
+        var reconciled = applyRoleSet(roleSet, r -> r.getStatus().getPhase() == CRPhase.READY
+                && r.getStatus().getObservedGeneration() == 2
+        );
+
+        // then
+        assertThat(reconciled.getStatus().getReadyRoles()).isEqualTo(1);
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+        var currentRoles = roleSetService.fetchCurrentRoles(dsl, List.of("test_role_set_no_defaults"));
+
+        assertThat(currentRoles).containsOnlyKeys("test_role_set_no_defaults");
+
+        var role = currentRoles.get("test_role_set_no_defaults");
+
+        assertThat(role.comment()).isEqualTo("without defaults");
+        assertThat(role.flags().isSuperuser()).isFalse();
+        assertThat(role.flags().getConnectionLimit()).isEqualTo(new RoleSpec.Flags().getConnectionLimit());
+    }
+
+    @Test
+    @DisplayName("When a RoleSet declares a role more than once, status should be ERROR and no role should be created")
+    void createRoleSet_withDuplicateRoles_setsError() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-set-duplicate")
+                .returnFirst();
+
+        // when
+        var roleSet = given.one()
+                .roleSet()
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withRole("test_role_set_duplicate")
+                .withRole("test_role_set_duplicate")
+                .returnFirst();
+
+        // then
+        assertThat(roleSet.getStatus().getPhase()).isEqualTo(CRPhase.ERROR);
+        assertThat(roleSet.getStatus().getMessage()).isEqualTo(
+                "The RoleSet declares roles more than once [roles=test_role_set_duplicate]"
+        );
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+
+        assertThat(roleExists(dsl, "test_role_set_duplicate")).isFalse();
+    }
+
+    @Test
+    @DisplayName("When a RoleSet is deleted, all its roles should be dropped from the database")
+    void deleteRoleSet_dropsAllRoles() {
+        // given
+        var clusterConnection = given.one()
+                .clusterConnection()
+                .withName("test-connection-role-set-delete")
+                .returnFirst();
+
+        var roleSet = given.one()
+                .roleSet()
+                .withClusterConnectionName(clusterConnection.getMetadata().getName())
+                .withRole("test_role_set_delete_1")
+                .withRole("test_role_set_delete_2")
+                .returnFirst();
+
+        var dsl = postgreSQLContextFactory.getDSLContext(clusterConnection);
+
+        assertThat(roleExists(dsl, "test_role_set_delete_1")).isTrue();
+        assertThat(roleExists(dsl, "test_role_set_delete_2")).isTrue();
+
+        // when
+        kubernetesClient.resources(RoleSet.class)
+                .inNamespace(roleSet.getMetadata().getNamespace())
+                .withName(roleSet.getMetadata().getName())
+                .withTimeout(5, TimeUnit.SECONDS)
+                .delete();
+
+        // then
+        await().atMost(5, TimeUnit.SECONDS)
+                .pollInterval(100, TimeUnit.MILLISECONDS)
+                .until(() -> !roleExists(dsl, "test_role_set_delete_1")
+                        && !roleExists(dsl, "test_role_set_delete_2")
+                );
+    }
+
+    private static boolean roleExists(
+            DSLContext dsl,
+            String roleName
+    ) {
+        return dsl.fetchExists(PG_AUTHID, PG_AUTHID.ROLNAME.eq(roleName));
+    }
+
+    private RoleSet applyRoleSet(
+            RoleSet roleSet,
+            Predicate<RoleSet> condition
+    ) {
+        var namespace = kubernetesClient.getNamespace();
+
+        roleSet.getMetadata().setManagedFields(null);
+        roleSet.getMetadata().setResourceVersion(null);
+
+        var applied = kubernetesClient.resources(RoleSet.class)
+                .inNamespace(namespace)
+                .resource(roleSet)
+                .serverSideApply();
+
+        return kubernetesClient.resources(RoleSet.class)
+                .inNamespace(namespace)
+                .withName(applied.getMetadata().getName())
+                .waitUntilCondition(
+                        condition,
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+}
@@ -1,5 +1,6 @@
 package it.aboutbits.postgresql.crd.schema;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.quarkus.test.junit.QuarkusTest;
 import it.aboutbits.postgresql._support.testdata.base.TestUtil;
@@ -15,14 +16,21 @@ import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static it.aboutbits.postgresql.core.ReclaimPolicy.DELETE;
+import static it.aboutbits.postgresql.core.ReclaimPolicy.RETAIN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 @NullMarked
 @QuarkusTest
 @RequiredArgsConstructor
 class SchemaReconcilerTest {
+    private static final String FINALIZER = HasMetadata.getFullResourceName(Schema.class) + "/finalizer";
+
     private final Given given;
 
     private final SchemaService schemaService;
@@ -85,6 +93,163 @@ class SchemaReconcilerTest {
         assertThat(schemaService.schemaExists(dsl, schema.getSpec())).isTrue();
     }
 
+    @Test
+    @DisplayName("When a RETAIN Schema is deleted, it should be removed right away and the schema retained")
+    void deleteSchemaWithRetainPolicy_withoutReconcile() {
+        // given
+        var clusterConnectionMain = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = given.one()
+                .database()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .returnFirst();
+
+        var clusterConnectionDb = given.one()
+                .clusterConnection()
+                .withDatabase(database.getSpec().getName())
+                .returnFirst();
+
+        var schema = waitForSchema(
+                given.one()
+                        .schema()
+                        .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                        .withDatabase(database.getSpec().getName())
+                        .withReclaimPolicy(RETAIN)
+                        .returnFirst(),
+                s -> s.getStatus().getPhase() == CRPhase.READY
+        );
+
+        assertThat(schema.hasFinalizer(FINALIZER)).isFalse();
+
+        // when
+        kubernetesClient.resource(schema).delete();
+
+        // then
+        assertThat(kubernetesClient.resources(Schema.class)
+                .inNamespace(schema.getMetadata().getNamespace())
+                .withName(schema.getMetadata().getName())
+                .get()
+        ).isNull();
+
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnectionDb)) {
+            assertThat(schemaService.schemaExists(dsl, schema.getSpec())).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("When the reclaimPolicy of a Schema changes, the finalizer should be added or removed")
+    void changeSchemaReclaimPolicy_addsOrRemovesFinalizer() {
+        // given
+        var clusterConnectionMain = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = given.one()
+                .database()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .returnFirst();
+
+        var clusterConnectionDb = given.one()
+                .clusterConnection()
+                .withDatabase(database.getSpec().getName())
+                .returnFirst();
+
+        var schema = waitForSchema(
+                given.one()
+                        .schema()
+                        .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                        .withDatabase(database.getSpec().getName())
+                        .withReclaimPolicy(RETAIN)
+                        .returnFirst(),
+                s -> s.getStatus().getPhase() == CRPhase.READY
+        );
+
+        // when
+        editSchema(schema, s -> s.getSpec().setReclaimPolicy(DELETE));
+        var withDelete = waitForSchema(schema, s -> s.hasFinalizer(FINALIZER));
+
+        editSchema(schema, s -> s.getSpec().setReclaimPolicy(RETAIN));
+        var withRetain = waitForSchema(schema, s -> !s.hasFinalizer(FINALIZER));
+
+        // then
+        assertThat(withDelete.getSpec().getReclaimPolicy()).isEqualTo(DELETE);
+        assertThat(withRetain.getSpec().getReclaimPolicy()).isEqualTo(RETAIN);
+    }
+
+    @Test
+    @DisplayName("When a DELETE Schema is deleted, the schema should be dropped")
+    void deleteSchemaWithDeletePolicy_dropsSchema() {
+        // given
+        var clusterConnectionMain = given.one()
+                .clusterConnection()
+                .returnFirst();
+
+        var database = given.one()
+                .database()
+                .withClusterConnectionName(clusterConnectionMain.getMetadata().getName())
+                .returnFirst();
+
+        var clusterConnectionDb = given.one()
+                .clusterConnection()
+                .withDatabase(database.getSpec().getName())
+                .returnFirst();
+
+        var schema = waitForSchema(
+                given.one()
+                        .schema()
+                        .withClusterConnectionName(clusterConnectionDb.getMetadata().getName())
+                        .withDatabase(database.getSpec().getName())
+                        .withReclaimPolicy(DELETE)
+                        .returnFirst(),
+                s -> s.getStatus().getPhase() == CRPhase.READY
+        );
+
+        assertThat(schema.hasFinalizer(FINALIZER)).isTrue();
+
+        // when
+        kubernetesClient.resource(schema).delete();
+
+        // then
+        try (var dsl = postgreSQLContextFactory.getDSLContext(clusterConnectionDb)) {
+            await().atMost(5, TimeUnit.SECONDS)
+                    .pollInterval(100, TimeUnit.MILLISECONDS)
+                    .until(() -> !schemaService.schemaExists(dsl, schema.getSpec()));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> kubernetesClient.resource(schema).get() == null);
+    }
+
+    private Schema waitForSchema(
+            Schema schema,
+            Predicate<Schema> condition
+    ) {
+        return kubernetesClient.resources(Schema.class)
+                .inNamespace(schema.getMetadata().getNamespace())
+                .withName(schema.getMetadata().getName())
+                .waitUntilCondition(
+                        s -> s != null && s.getStatus() != null && condition.test(s),
+                        5,
+                        TimeUnit.SECONDS
+                );
+    }
+
+    private void editSchema(
+            Schema schema,
+            Consumer<Schema> edit
+    ) {
+        kubernetesClient.resources(Schema.class)
+                .inNamespace(schema.getMetadata().getNamespace())
+                .withName(schema.getMetadata().getName())
+                .edit(current -> {
+                    edit.accept(current);
+
+                    return current;
+                });
+    }
+
     private void assertThatSchemaHasExpectedStatus(
             Schema schema,
             CRStatus expectedStatus,
@@ -102,7 +267,7 @@ class SchemaReconcilerTest {
                     );
                 })
                 .usingRecursiveComparison()
-                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime")
+                .ignoringFields("lastProbeTime", "lastPhaseTransitionTime", "specHash", "lastVerifiedTime")
                 .isEqualTo(expectedStatus);
     }
 }